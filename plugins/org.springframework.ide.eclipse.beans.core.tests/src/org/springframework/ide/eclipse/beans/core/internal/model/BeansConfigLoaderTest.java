@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+
+/**
+ * Makes sure that configs loaded as a batch contain the same beans as configs loaded on demand.
+ * @since 3.8.4
+ */
+public class BeansConfigLoaderTest extends BeansCoreTestCase {
+
+	@Test
+	public void testBatchLoadingLoadsAllConfigs() throws Exception {
+		IProject project = createPredefinedProject("validation");
+		BeansProject beansProject = (BeansProject) BeansCorePlugin.getModel().getProject(project);
+		Map<String, TreeSet<String>> expectedBeans = getBeanNames(beansProject);
+		assertFalse(expectedBeans.isEmpty());
+
+		beansProject.reset();
+		for (IBeansConfig config : beansProject.getConfigs()) {
+			assertFalse(((BeansConfig) config).isInitialized());
+		}
+
+		beansProject.loadConfigs(new NullProgressMonitor());
+		for (IBeansConfig config : beansProject.getConfigs()) {
+			assertTrue(config.getElementName(), ((BeansConfig) config).isInitialized());
+		}
+		assertEquals(expectedBeans, getBeanNames(beansProject));
+	}
+
+	@Test
+	public void testSingleThreadedLoading() throws Exception {
+		IProject project = createPredefinedProject("imports");
+		BeansProject beansProject = (BeansProject) BeansCorePlugin.getModel().getProject(project);
+		Map<String, TreeSet<String>> expectedBeans = getBeanNames(beansProject);
+
+		beansProject.reset();
+		System.setProperty(BeansConfigLoader.THREADS_PROPERTY, "1");
+		try {
+			beansProject.loadConfigs(new NullProgressMonitor());
+		}
+		finally {
+			System.clearProperty(BeansConfigLoader.THREADS_PROPERTY);
+		}
+		assertEquals(expectedBeans, getBeanNames(beansProject));
+	}
+
+	private static Map<String, TreeSet<String>> getBeanNames(BeansProject beansProject) {
+		Map<String, TreeSet<String>> result = new TreeMap<String, TreeSet<String>>();
+		for (IBeansConfig config : beansProject.getConfigs()) {
+			TreeSet<String> beanNames = new TreeSet<String>();
+			for (IBean bean : BeansModelUtils.getBeans(config)) {
+				beanNames.add(bean.getElementName());
+			}
+			result.put(config.getElementName(), beanNames);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the reverse lookup of the {@link TypeDependencyIndex} against a synthetic type hierarchy
+ * and compares it with the scan over all bean classes of all projects it replaces.
+ * @since 3.8.4
+ */
+public class TypeDependencyIndexTest {
+
+	private static final int PROJECTS = 50;
+
+	private static final int CONFIGS_PER_PROJECT = 20;
+
+	private static final int BEANS_PER_CONFIG = 50;
+
+	private static final int TYPES = 2000;
+
+	private MapResolver resolver;
+
+	private TypeDependencyIndex<String> index;
+
+	@Before
+	public void setUp() {
+		resolver = new MapResolver();
+		index = new TypeDependencyIndex<String>();
+	}
+
+	@Test
+	public void testSubtypes() {
+		resolver.add("a.Base", "java.lang.Object");
+		resolver.add("a.Service", null);
+		resolver.add("a.Impl", "a.Base", "a.Service");
+		resolver.add("a.SubImpl", "a.Impl");
+		resolver.add("a.Other", "java.lang.Object");
+
+		index.put("config1", set("a.Impl"), resolver);
+		index.put("config2", set("a.SubImpl", "a.Other"), resolver);
+		index.put("config3", set("a.Other"), resolver);
+
+		assertEquals(set("config1", "config2"), index.getDependents(set("a.Base"), resolver));
+		assertEquals(set("config1", "config2"), index.getDependents(set("a.Service"), resolver));
+		assertEquals(set("config2"), index.getDependents(set("a.SubImpl"), resolver));
+		assertEquals(set("config2", "config3"), index.getDependents(set("a.Other"), resolver));
+		assertEquals(set(), index.getDependents(set("a.Unknown"), resolver));
+	}
+
+	@Test
+	public void testChangedHierarchy() {
+		resolver.add("a.Base", null);
+		resolver.add("a.Impl", "a.Base");
+		resolver.add("a.Other", null);
+		index.put("config", set("a.Impl"), resolver);
+		assertEquals(set(), index.getDependents(set("a.Other"), resolver));
+
+		// a.Impl now extends a.Other
+		resolver.add("a.Impl", "a.Other");
+		assertEquals(set("config"), index.getDependents(set("a.Impl"), resolver));
+		assertEquals(set("config"), index.getDependents(set("a.Other"), resolver));
+		assertEquals(set(), index.getDependents(set("a.Base"), resolver));
+	}
+
+	@Test
+	public void testReplaceAndRemove() {
+		resolver.add("a.Base", null);
+		resolver.add("a.Impl", "a.Base");
+		resolver.add("a.Other", null);
+
+		index.put("config", set("a.Impl"), resolver);
+		index.put("config", set("a.Other"), resolver);
+		assertEquals(set(), index.getDependents(set("a.Base"), resolver));
+		assertEquals(set("config"), index.getDependents(set("a.Other"), resolver));
+		assertEquals(1, index.getTypeCount());
+
+		index.remove("config");
+		assertEquals(set(), index.getDependents(set("a.Other"), resolver));
+		assertEquals(0, index.getTypeCount());
+	}
+
+	@Test
+	public void testCyclicHierarchy() {
+		resolver.add("a.A", "a.B");
+		resolver.add("a.B", "a.A");
+		index.put("config", set("a.A"), resolver);
+		assertEquals(set("config"), index.getDependents(set("a.B"), resolver));
+	}
+
+	@Test
+	public void testIndexMatchesScanOnSyntheticModel() {
+		List<Map<String, Set<String>>> projects = createSyntheticModel();
+		List<TypeDependencyIndex<String>> indexes = new ArrayList<TypeDependencyIndex<String>>();
+		for (Map<String, Set<String>> configs : projects) {
+			TypeDependencyIndex<String> projectIndex = new TypeDependencyIndex<String>();
+			for (Map.Entry<String, Set<String>> config : configs.entrySet()) {
+				projectIndex.put(config.getKey(), config.getValue(), resolver);
+			}
+			indexes.add(projectIndex);
+		}
+
+		List<Set<String>> changes = new ArrayList<Set<String>>();
+		for (int i = 0; i < 100; i++) {
+			changes.add(Collections.singleton(typeName((i * 37) % TYPES)));
+		}
+
+		List<Set<String>> scanResults = new ArrayList<Set<String>>();
+		for (Set<String> change : changes) {
+			scanResults.add(scan(projects, change));
+		}
+
+		List<Set<String>> indexResults = new ArrayList<Set<String>>();
+		for (Set<String> change : changes) {
+			Set<String> result = new HashSet<String>();
+			for (TypeDependencyIndex<String> projectIndex : indexes) {
+				result.addAll(projectIndex.getDependents(change, resolver));
+			}
+			indexResults.add(result);
+		}
+
+		assertEquals(scanResults, indexResults);
+		assertTrue(!scanResults.get(0).isEmpty());
+	}
+
+	/**
+	 * Creates types with a superclass and an interface each and projects whose configs use
+	 * randomly picked types as bean classes.
+	 */
+	private List<Map<String, Set<String>>> createSyntheticModel() {
+		for (int i = 0; i < TYPES; i++) {
+			String superclass = i < 10 ? "java.lang.Object" : typeName(i / 10);
+			String[] interfaces = i % 7 == 0 && i > 0 ? new String[] { typeName(i - 1) } : new String[0];
+			resolver.add(typeName(i), superclass, interfaces);
+		}
+
+		List<Map<String, Set<String>>> projects = new ArrayList<Map<String, Set<String>>>();
+		long seed = 42;
+		for (int p = 0; p < PROJECTS; p++) {
+			Map<String, Set<String>> configs = new HashMap<String, Set<String>>();
+			for (int c = 0; c < CONFIGS_PER_PROJECT; c++) {
+				Set<String> beanClasses = new HashSet<String>();
+				for (int b = 0; b < BEANS_PER_CONFIG; b++) {
+					seed = (seed * 6364136223846793005L + 1442695040888963407L);
+					beanClasses.add(typeName((int) ((seed >>> 33) % TYPES)));
+				}
+				configs.put("project" + p + "/config" + c, beanClasses);
+			}
+			projects.add(configs);
+		}
+		return projects;
+	}
+
+	/**
+	 * Emulates the previous lookup that checked every bean class of every config for being a
+	 * subtype of a changed type.
+	 */
+	private Set<String> scan(List<Map<String, Set<String>>> projects, Set<String> changedTypes) {
+		Set<String> result = new HashSet<String>();
+		for (Map<String, Set<String>> configs : projects) {
+			for (Map.Entry<String, Set<String>> config : configs.entrySet()) {
+				for (String beanClass : config.getValue()) {
+					if (isSubtype(beanClass, changedTypes, new HashSet<String>())) {
+						result.add(config.getKey());
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean isSubtype(String typeName, Set<String> changedTypes, Set<String> visited) {
+		if (typeName == null || !visited.add(typeName)) {
+			return false;
+		}
+		if (changedTypes.contains(typeName)) {
+			return true;
+		}
+		if (isSubtype(resolver.getSuperclass(typeName), changedTypes, visited)) {
+			return true;
+		}
+		String[] interfaces = resolver.getInterfaces(typeName);
+		if (interfaces != null) {
+			for (String interfaceName : interfaces) {
+				if (isSubtype(interfaceName, changedTypes, visited)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String typeName(int i) {
+		return "org.test.Type" + i;
+	}
+
+	private static Set<String> set(String... values) {
+		return new LinkedHashSet<String>(Arrays.asList(values));
+	}
+
+	private static class MapResolver implements TypeDependencyIndex.SupertypeResolver {
+
+		private final Map<String, String> superclasses = new HashMap<String, String>();
+
+		private final Map<String, String[]> interfaces = new HashMap<String, String[]>();
+
+		public void add(String typeName, String superclass, String... interfaceNames) {
+			superclasses.put(typeName, superclass);
+			interfaces.put(typeName, interfaceNames);
+		}
+
+		public String getSuperclass(String typeName) {
+			return superclasses.get(typeName);
+		}
+
+		public String[] getInterfaces(String typeName) {
+			return interfaces.get(typeName);
+		}
+
+	}
+
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Makes sure that the parallel validation mode creates exactly the same markers as the serial one.
+ * @since 3.8.4
+ */
+public class ParallelValidationTest extends BeansCoreTestCase {
+
+	private IProject project;
+
+	@BeforeClass
+	public static void setUpAll() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		project = createPredefinedProject("validation");
+	}
+
+	@After
+	public void resetParallelism() throws Exception {
+		InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).remove(SpringCore.VALIDATION_PARALLELISM);
+	}
+
+	@Test
+	public void testSameMarkersAsSerialValidation() throws Exception {
+		List<String> serialMarkers = validate(1);
+		assertFalse(serialMarkers.isEmpty());
+
+		assertEquals(serialMarkers, validate(4));
+		assertEquals(serialMarkers, validate(2));
+		assertEquals(serialMarkers, validate(1));
+	}
+
+	private List<String> validate(int parallelism) throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID);
+		prefs.putInt(SpringCore.VALIDATION_PARALLELISM, parallelism);
+
+		project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+		waitForManualBuild();
+
+		List<String> result = new ArrayList<String>();
+		for (IMarker marker : project.findMarkers(SpringCore.MARKER_ID, true, IResource.DEPTH_INFINITE)) {
+			result.add(marker.getResource().getFullPath() + ":" + marker.getAttribute(IMarker.LINE_NUMBER, -1) + ":"
+					+ marker.getAttribute(IMarker.SEVERITY, -1) + ":" + marker.getAttribute(IMarker.MESSAGE, ""));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+}
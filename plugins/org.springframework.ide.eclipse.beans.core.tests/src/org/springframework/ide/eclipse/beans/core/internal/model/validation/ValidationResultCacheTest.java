@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationResultCache;
+
+/**
+ * Makes sure that incremental builds that replay cached validation results create the same markers
+ * as a complete validation, and that changed beans and types are validated again.
+ * @since 3.8.4
+ */
+public class ValidationResultCacheTest extends BeansCoreTestCase {
+
+	private static final String CONFIG = "src/bean-class-rule-tests.xml";
+
+	private IProject project;
+
+	@BeforeClass
+	public static void setUpAll() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		System.setProperty(ValidationResultCache.ENABLE_PROPERTY, "true");
+		ValidationResultCache.clear();
+		project = createPredefinedProject("validation");
+	}
+
+	@After
+	public void disableCache() throws Exception {
+		System.clearProperty(ValidationResultCache.ENABLE_PROPERTY);
+		ValidationResultCache.clear();
+	}
+
+	@Test
+	public void testReplayedResultsCreateSameMarkers() throws Exception {
+		List<String> markers = build(IncrementalProjectBuilder.FULL_BUILD);
+		assertFalse(markers.isEmpty());
+		assertEquals(0, ValidationResultCache.getHitCount());
+
+		project.findMember(CONFIG).touch(null);
+		assertEquals(markers, build(IncrementalProjectBuilder.INCREMENTAL_BUILD));
+		assertTrue(ValidationResultCache.getHitCount() > 0);
+	}
+
+	@Test
+	public void testChangedBeanIsValidatedAgain() throws Exception {
+		List<String> markers = build(IncrementalProjectBuilder.FULL_BUILD);
+		assertFalse(containsMessage(markers, "Class 'org.springframework.DoesNotExist' not found"));
+
+		IFile config = (IFile) project.findMember(CONFIG);
+		setContents(config, getContents(config).replace("id=\"fine\" class=\"org.springframework.SimpleClass\"",
+				"id=\"fine\" class=\"org.springframework.DoesNotExist\""));
+
+		markers = build(IncrementalProjectBuilder.INCREMENTAL_BUILD);
+		assertTrue(containsMessage(markers, "Class 'org.springframework.DoesNotExist' not found"));
+		assertTrue(containsMessage(markers, "Class 'org.springframework.FooInterface' is an interface"));
+		assertTrue(ValidationResultCache.getHitCount() > 0);
+	}
+
+	@Test
+	public void testChangedTypeIsValidatedAgain() throws Exception {
+		List<String> markers = build(IncrementalProjectBuilder.FULL_BUILD);
+		assertTrue(containsMessage(markers, "Class 'org.springframework.FooInterface' is an interface"));
+
+		IFile type = (IFile) project.findMember("src/org/springframework/FooInterface.java");
+		setContents(type, getContents(type).replace("public interface FooInterface {\n\t String getFoo();",
+				"public class FooInterface {\n\t public String getFoo() { return null; }"));
+
+		project.findMember(CONFIG).touch(null);
+		markers = build(IncrementalProjectBuilder.INCREMENTAL_BUILD);
+		assertFalse(containsMessage(markers, "Class 'org.springframework.FooInterface' is an interface"));
+		assertTrue(containsMessage(markers, "Class 'org.springframework.AbstractClass' is abstract"));
+	}
+
+	@Test
+	public void testResultsOfRemovedResourcesAreDropped() throws Exception {
+		build(IncrementalProjectBuilder.FULL_BUILD);
+		IResource config = project.findMember(CONFIG);
+		assertTrue(ValidationResultCache.hasResults(config));
+
+		config.delete(true, null);
+		assertFalse(ValidationResultCache.hasResults(config));
+	}
+
+	@Test
+	public void testResultsOfClosedProjectsAreDropped() throws Exception {
+		build(IncrementalProjectBuilder.FULL_BUILD);
+		IResource config = project.findMember(CONFIG);
+		assertTrue(ValidationResultCache.hasResults(config));
+
+		project.close(null);
+		assertFalse(ValidationResultCache.hasResults(config));
+		project.open(null);
+	}
+
+	private List<String> build(int kind) throws Exception {
+		project.build(kind, null);
+		waitForManualBuild();
+
+		List<String> result = new ArrayList<String>();
+		for (IMarker marker : project.findMarkers(SpringCore.MARKER_ID, true, IResource.DEPTH_INFINITE)) {
+			result.add(marker.getResource().getFullPath() + ":" + marker.getAttribute(IMarker.LINE_NUMBER, -1) + ":"
+					+ marker.getAttribute(IMarker.SEVERITY, -1) + ":" + marker.getAttribute(IMarker.MESSAGE, ""));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private static boolean containsMessage(List<String> markers, String message) {
+		for (String marker : markers) {
+			if (marker.endsWith(":" + message)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getContents(IFile file) throws Exception {
+		Scanner scanner = new Scanner(file.getContents(), file.getCharset()).useDelimiter("\\A");
+		try {
+			return scanner.hasNext() ? scanner.next().replace("\r\n", "\n") : "";
+		}
+		finally {
+			scanner.close();
+		}
+	}
+
+	private static void setContents(IFile file, String contents) throws Exception {
+		file.setContents(new ByteArrayInputStream(contents.getBytes(file.getCharset())), true, false, null);
+	}
+
+}
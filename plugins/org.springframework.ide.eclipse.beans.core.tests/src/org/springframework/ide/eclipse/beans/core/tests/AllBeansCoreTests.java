@@ -18,7 +18,11 @@ import org.springframework.ide.core.classreading.tests.JdtBasedAnnotationMetadat
 import org.springframework.ide.core.classreading.tests.JdtClassMetadataTest;
 import org.springframework.ide.eclipse.beans.core.autowire.AutowireDependencyProviderTest;
 import org.springframework.ide.eclipse.beans.core.autowire.CommonAnnotationInjectionMetadataProviderTests;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoaderTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.TypeDependencyIndexTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.resources.tests.ResourceChangeEventHandlerTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.validation.ParallelValidationTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.validation.ValidationResultCacheTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanClassRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRulesAutowireTest;
@@ -38,9 +42,14 @@ import org.springframework.ide.eclipse.beans.core.model.tests.BeansJavaConfigTes
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelUtilsTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectTest;
 import org.springframework.ide.eclipse.beans.ui.refactoring.tests.BeansJavaConfigRenameTypeRefactoringParticipantTest;
+import org.springframework.ide.eclipse.core.java.ClasspathElementMappedJarTest;
 import org.springframework.ide.eclipse.core.java.IntrospectorTest;
 import org.springframework.ide.eclipse.core.java.JdtUtilsTest;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCacheTest;
+import org.springframework.ide.eclipse.core.java.SharedJarTypeHierarchyTest;
 import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
+import org.springframework.ide.eclipse.core.java.TypeHierarchyIndexTest;
+import org.springframework.ide.eclipse.core.java.TypeNamePoolTest;
 
 /**
  * Test suite for <code>beans.core</code> plugin.
@@ -64,6 +73,10 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	BeanReferenceRuleWithConfigSetTest.class,
 	BeanReferenceRuleWithConfigSetAndProfileTest.class,
 	NamespaceElementsRuleTest.class,
+	ParallelValidationTest.class,
+	ValidationResultCacheTest.class,
+	TypeDependencyIndexTest.class,
+	BeansConfigLoaderTest.class,
 	IntrospectorTest.class,
 	JdtUtilsTest.class,
 	AutowireDependencyProviderTest.class,
@@ -80,6 +93,11 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	BeansJavaConfigRenameTypeRefactoringParticipantTest.class,
 	ResourceChangeEventHandlerTest.class,
 	TypeHierarchyEngineTest.class,
+	TypeHierarchyIndexTest.class,
+	TypeNamePoolTest.class,
+	SharedJarTypeHierarchyTest.class,
+	ProjectClassLoaderCacheTest.class,
+	ClasspathElementMappedJarTest.class,
 	BeansModelUtilsTest.class
 })
 public class AllBeansCoreTests {
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElementJar;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElementMappedJar;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.8.4
+ */
+public class ClasspathElementMappedJarTest {
+
+	private IProject project;
+	private String[] jars;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("type-hierarchy-engine-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+		jars = new String[] {
+				jarPath("lib/org.springframework.beans_3.1.1.RELEASE.jar"),
+				jarPath("lib/org.springframework.context_3.1.1.RELEASE.jar"),
+				jarPath("lib/org.springframework.core_3.1.1.RELEASE.jar") };
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testPackagesAndMissingEntries() throws Exception {
+		ClasspathElementMappedJar jar = new ClasspathElementMappedJar(jars[0]);
+		assertTrue(jar.containsPackage("org/springframework/beans/factory"));
+		assertTrue(jar.containsPackage("org/springframework"));
+		assertTrue(jar.containsPackage(""));
+		assertFalse(jar.containsPackage("org/springframework/context"));
+
+		assertNull(jar.getStream("org/springframework/beans/factory/DoesNotExist.class", "org/springframework/beans/factory", "DoesNotExist.class"));
+		assertNull(jar.getStream("org/SimpleClass.class", "org", "SimpleClass.class"));
+		jar.cleanup();
+
+		assertNotNull(jar.getStream("org/springframework/beans/factory/FactoryBean.class", "org/springframework/beans/factory", "FactoryBean.class"));
+		jar.cleanup();
+
+		ClasspathElementMappedJar missing = new ClasspathElementMappedJar(jars[0] + ".doesnotexist");
+		assertFalse(missing.containsPackage("org"));
+		assertNull(missing.getStream("org/Foo.class", "org", "Foo.class"));
+	}
+
+	/**
+	 * Reads the type hierarchy of all classes of the Spring jars through both classpath element
+	 * implementations and compares the results.
+	 */
+	@Test
+	public void testSameHierarchyAsJarFile() throws Exception {
+		BytecodeTypeHierarchyClassReader reader = new BytecodeTypeHierarchyClassReader(null);
+		for (String jar : jars) {
+			List<String> classFileNames = getClassFileNames(jar);
+			List<TypeHierarchyElement> expected = readAll(new ClasspathElementJar(jar), classFileNames, reader);
+			List<TypeHierarchyElement> actual = readAll(new ClasspathElementMappedJar(jar), classFileNames, reader);
+
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertTrue(Arrays.equals(expected.get(i).className, actual.get(i).className));
+				assertTrue(Arrays.equals(expected.get(i).superclassName, actual.get(i).superclassName));
+				assertTrue(Arrays.deepEquals(expected.get(i).interfaces, actual.get(i).interfaces));
+			}
+		}
+	}
+
+	/**
+	 * Reads stored and deflated entries to the end, which needs the extra input byte that the
+	 * inflater expects after the compressed data.
+	 */
+	@Test
+	public void testSameContentsAsJarFile() throws Exception {
+		File jar = File.createTempFile("mapped", ".jar");
+		try {
+			byte[] stored = "stored class contents".getBytes("UTF-8");
+			byte[] deflated = new byte[64 * 1024];
+			for (int i = 0; i < deflated.length; i++) {
+				deflated[i] = (byte) (i % 251);
+			}
+			JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+			try {
+				ZipEntry entry = new ZipEntry("org/Stored.class");
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(stored.length);
+				CRC32 crc = new CRC32();
+				crc.update(stored);
+				entry.setCrc(crc.getValue());
+				out.putNextEntry(entry);
+				out.write(stored);
+				out.closeEntry();
+				out.putNextEntry(new ZipEntry("org/Deflated.class"));
+				out.write(deflated);
+				out.closeEntry();
+			}
+			finally {
+				out.close();
+			}
+
+			ClasspathElementMappedJar mapped = new ClasspathElementMappedJar(jar.getAbsolutePath());
+			try {
+				for (int i = 0; i < 2; i++) {
+					assertArrayEquals(stored, readFully(mapped.getStream("org/Stored.class", "org", "Stored.class")));
+					assertArrayEquals(deflated, readFully(mapped.getStream("org/Deflated.class", "org", "Deflated.class")));
+				}
+			}
+			finally {
+				mapped.cleanup();
+			}
+
+			for (String jarName : jars) {
+				mapped = new ClasspathElementMappedJar(jarName);
+				JarFile jarFile = new JarFile(jarName);
+				try {
+					for (String classFileName : getClassFileNames(jarName)) {
+						int lastSlash = classFileName.lastIndexOf('/');
+						InputStream stream = mapped.getStream(classFileName, classFileName.substring(0, lastSlash), classFileName.substring(lastSlash + 1));
+						assertArrayEquals(classFileName, readFully(jarFile.getInputStream(jarFile.getEntry(classFileName))), readFully(stream));
+					}
+				}
+				finally {
+					jarFile.close();
+					mapped.cleanup();
+				}
+			}
+		}
+		finally {
+			jar.delete();
+		}
+	}
+
+	private static byte[] readFully(InputStream stream) throws Exception {
+		assertNotNull(stream);
+		try {
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1000];
+			int read;
+			while ((read = stream.read(buffer)) >= 0) {
+				result.write(buffer, 0, read);
+			}
+			return result.toByteArray();
+		}
+		finally {
+			stream.close();
+		}
+	}
+
+	private List<TypeHierarchyElement> readAll(ClasspathElement element, List<String> classFileNames,
+			BytecodeTypeHierarchyClassReader reader) throws Exception {
+		List<TypeHierarchyElement> result = new ArrayList<TypeHierarchyElement>();
+		try {
+			for (String classFileName : classFileNames) {
+				int lastSlash = classFileName.lastIndexOf('/');
+				InputStream stream = element.getStream(classFileName, classFileName.substring(0, lastSlash), classFileName.substring(lastSlash + 1));
+				assertNotNull(classFileName, stream);
+				try {
+					result.add(reader.readTypeHierarchy(stream));
+				}
+				finally {
+					stream.close();
+				}
+			}
+		}
+		finally {
+			element.cleanup();
+		}
+		return result;
+	}
+
+	private static List<String> getClassFileNames(String jar) throws Exception {
+		List<String> result = new ArrayList<String>();
+		JarFile jarFile = new JarFile(jar);
+		try {
+			for (Enumeration<? extends ZipEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+				String name = entries.nextElement().getName();
+				if (name.endsWith(".class") && name.indexOf('/') > 0) {
+					result.add(name);
+				}
+			}
+		}
+		finally {
+			jarFile.close();
+		}
+		return result;
+	}
+
+	private String jarPath(String path) {
+		return project.getFile(path).getLocation().toFile().getAbsolutePath();
+	}
+
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.8.4
+ */
+public class ProjectClassLoaderCacheTest {
+
+	private static final int THREAD_COUNT = 8;
+
+	private IProject first;
+	private IProject second;
+
+	@Before
+	public void createProjects() throws Exception {
+		first = StsTestUtil.createPredefinedProject("find-type-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+		second = StsTestUtil.createPredefinedProject("type-hierarchy-engine-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+	}
+
+	@After
+	public void deleteProjects() throws Exception {
+		System.clearProperty(ProjectClassLoaderCache.MAX_WEIGHT_PROPERTY);
+		System.clearProperty(ProjectClassLoaderCache.WEIGHER_PROPERTY);
+		first.delete(true, null);
+		second.delete(true, null);
+	}
+
+	@Test
+	public void testEvictionByUrlCount() throws Exception {
+		System.setProperty(ProjectClassLoaderCache.WEIGHER_PROPERTY, "urls");
+		assertLeastRecentlyUsedEvicted();
+		assertEquals(Math.max(1, ProjectClassLoaderCache.getClassPathUrls(second, null).size()),
+				ProjectClassLoaderCache.getTotalWeight());
+	}
+
+	@Test
+	public void testEvictionByBytes() throws Exception {
+		System.setProperty(ProjectClassLoaderCache.WEIGHER_PROPERTY, "bytes");
+		assertLeastRecentlyUsedEvicted();
+		long bytes = 0;
+		for (URL url : ProjectClassLoaderCache.getClassPathUrls(second, null)) {
+			if ("file".equalsIgnoreCase(url.getProtocol())) {
+				bytes += new File(url.getPath()).length();
+			}
+		}
+		assertTrue(bytes > 0);
+		assertEquals(bytes, ProjectClassLoaderCache.getTotalWeight());
+	}
+
+	/**
+	 * With a maximum weight of 1 every entry exceeds the maximum on its own, so only the classloader
+	 * that has been built last is kept.
+	 */
+	private void assertLeastRecentlyUsedEvicted() throws Exception {
+		System.setProperty(ProjectClassLoaderCache.MAX_WEIGHT_PROPERTY, "1");
+
+		long misses = ProjectClassLoaderCache.getMissCount();
+		long hits = ProjectClassLoaderCache.getHitCount();
+		JdtUtils.getClassLoader(first, null);
+		JdtUtils.getClassLoader(first, null);
+		assertEquals(misses + 1, ProjectClassLoaderCache.getMissCount());
+		assertEquals(hits + 1, ProjectClassLoaderCache.getHitCount());
+
+		long evictions = ProjectClassLoaderCache.getEvictionCount();
+		JdtUtils.getClassLoader(second, null);
+		assertEquals(misses + 2, ProjectClassLoaderCache.getMissCount());
+		assertTrue(ProjectClassLoaderCache.getEvictionCount() > evictions);
+
+		JdtUtils.getClassLoader(second, null);
+		assertEquals(misses + 2, ProjectClassLoaderCache.getMissCount());
+		assertEquals(hits + 2, ProjectClassLoaderCache.getHitCount());
+	}
+
+	@Test
+	public void testNoEvictionBelowMaximumWeight() throws Exception {
+		System.setProperty(ProjectClassLoaderCache.MAX_WEIGHT_PROPERTY, String.valueOf(Long.MAX_VALUE));
+		JdtUtils.getClassLoader(first, null);
+		JdtUtils.getClassLoader(second, null);
+
+		long misses = ProjectClassLoaderCache.getMissCount();
+		long evictions = ProjectClassLoaderCache.getEvictionCount();
+		JdtUtils.getClassLoader(first, null);
+		JdtUtils.getClassLoader(second, null);
+		assertEquals(misses, ProjectClassLoaderCache.getMissCount());
+		assertEquals(evictions, ProjectClassLoaderCache.getEvictionCount());
+	}
+
+	@Test
+	public void testConcurrentInitialization() throws Exception {
+		JdtUtils.removeClassLoaderEntryFromCache(first);
+		long misses = ProjectClassLoaderCache.getMissCount();
+		long hits = ProjectClassLoaderCache.getHitCount();
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final ClassLoader[] classLoaders = new ClassLoader[THREAD_COUNT];
+		final Throwable[] errors = new Throwable[THREAD_COUNT];
+		Thread[] threads = new Thread[THREAD_COUNT];
+		for (int i = 0; i < THREAD_COUNT; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						classLoaders[index] = JdtUtils.getClassLoader(first, null);
+					}
+					catch (Throwable e) {
+						errors[index] = e;
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(60000);
+		}
+
+		// the classloader is built only once, all threads share its jar classloader
+		assertEquals(misses + 1, ProjectClassLoaderCache.getMissCount());
+		assertEquals(hits + THREAD_COUNT - 1, ProjectClassLoaderCache.getHitCount());
+		for (int i = 0; i < THREAD_COUNT; i++) {
+			assertNull(errors[i]);
+			assertNotNull(classLoaders[i]);
+			assertSame(classLoaders[0].getParent(), classLoaders[i].getParent());
+		}
+	}
+
+	@Test
+	public void testClosedProjectRemoved() throws Exception {
+		System.setProperty(ProjectClassLoaderCache.MAX_WEIGHT_PROPERTY, String.valueOf(Long.MAX_VALUE));
+		JdtUtils.getClassLoader(first, null);
+		long weight = ProjectClassLoaderCache.getTotalWeight();
+
+		// removed right away, not only when the cache is looked up or has to evict entries
+		first.close(null);
+		assertTrue(ProjectClassLoaderCache.getTotalWeight() < weight);
+
+		first.open(null);
+		long misses = ProjectClassLoaderCache.getMissCount();
+		JdtUtils.getClassLoader(first, null);
+		assertEquals(misses + 1, ProjectClassLoaderCache.getMissCount());
+	}
+
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.DisposableTypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedJarTypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedJarTypeHierarchyStore;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedJarTypeHierarchyStore.JarLayer;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedTypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.8.4
+ */
+public class SharedJarTypeHierarchyTest {
+
+	private IProject project;
+	private IJavaProject javaProject;
+	private String beansJar;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("type-hierarchy-engine-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+		javaProject = JdtUtils.getJavaProject(project);
+		beansJar = project.getFile("lib/org.springframework.beans_3.1.1.RELEASE.jar").getLocation().toFile().getAbsolutePath();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testLayersAreReferenceCounted() throws Exception {
+		SharedJarTypeHierarchyStore store = new SharedJarTypeHierarchyStore(null);
+		JarLayer first = store.acquire(beansJar);
+		JarLayer second = store.acquire(beansJar);
+		assertSame(first, second);
+		assertEquals(1, store.size());
+
+		store.release(first);
+		assertEquals(1, store.size());
+		store.release(second);
+		assertEquals(0, store.size());
+
+		assertTrue(first != store.acquire(beansJar));
+	}
+
+	@Test
+	public void testLayerReadsJarClasses() throws Exception {
+		SharedJarTypeHierarchyStore store = new SharedJarTypeHierarchyStore(null);
+		JarLayer layer = store.acquire(beansJar);
+
+		TypeHierarchyElement element = layer.get("org/springframework/beans/factory/config/AbstractFactoryBean",
+				"org/springframework/beans/factory/config", "AbstractFactoryBean.class");
+		assertNotNull(element);
+		assertTrue(element instanceof SharedTypeHierarchyElement);
+		assertSame(layer, ((SharedTypeHierarchyElement) element).getLayer());
+		assertEquals("java/lang/Object", new String(element.superclassName));
+
+		layer.cleanup();
+		assertSame(element, layer.get("org/springframework/beans/factory/config/AbstractFactoryBean",
+				"org/springframework/beans/factory/config", "AbstractFactoryBean.class"));
+
+		assertNull(layer.get("org/SimpleClass", "org", "SimpleClass.class"));
+		assertNull(layer.get("org/springframework/beans/factory/config/DoesNotExist",
+				"org/springframework/beans/factory/config", "DoesNotExist.class"));
+		store.release(layer);
+	}
+
+	@Test
+	public void testReadersOfDifferentProjectsShareElements() throws Exception {
+		SharedJarTypeHierarchyStore store = new SharedJarTypeHierarchyStore(null);
+		SharedJarTypeHierarchyClassReaderFactory factory = new SharedJarTypeHierarchyClassReaderFactory(store);
+
+		TypeHierarchyClassReader first = factory.createClassReader(project);
+		TypeHierarchyClassReader second = factory.createClassReader(project);
+		int jars = store.size();
+		assertTrue(jars >= 3);
+
+		char[] factoryBean = "org/springframework/beans/factory/FactoryBean".toCharArray();
+		TypeHierarchyElement element = first.readTypeHierarchyInformation(factoryBean, project);
+		assertNotNull(element);
+		first.cleanup();
+		assertSame(element, second.readTypeHierarchyInformation(factoryBean, project));
+
+		// classes of the output folder are read per project
+		TypeHierarchyElement projectElement = first.readTypeHierarchyInformation("org/SimpleClass".toCharArray(), project);
+		assertNotNull(projectElement);
+		assertFalse(projectElement instanceof SharedTypeHierarchyElement);
+
+		first.cleanup();
+		((DisposableTypeHierarchyClassReader) first).dispose();
+		assertEquals(jars, store.size());
+		((DisposableTypeHierarchyClassReader) second).dispose();
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testEngineWithSharedJarClassReader() throws Exception {
+		SharedJarTypeHierarchyStore store = new SharedJarTypeHierarchyStore(null);
+		TypeHierarchyEngine engine = new TypeHierarchyEngine(true);
+		engine.setClassReaderFactory(new SharedJarTypeHierarchyClassReaderFactory(store));
+		engine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
+
+		IType type = javaProject.findType("org.ImplementingInterfaceThroughExtendingTypeFromLibrary");
+		assertFalse(engine.doesExtend(type, "org.SimpleClass"));
+		assertTrue(engine.doesExtend(type, "org.springframework.beans.factory.config.AbstractFactoryBean"));
+		assertTrue(engine.doesExtend(type, "java.lang.Object"));
+		assertTrue(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+
+		type = javaProject.findType("org.sub.ClassABCD");
+		assertTrue(engine.doesExtend(type, "org.ClassA"));
+		assertTrue(engine.doesImplement(type, "org.InterfaceD"));
+		assertFalse(engine.doesImplement(type, "org.SimpleInterface"));
+
+		assertTrue(store.size() > 0);
+		engine.clearCache();
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testClearElementCacheKeepsUnchangedJars() throws Exception {
+		SharedJarTypeHierarchyStore store = new SharedJarTypeHierarchyStore(null);
+		TypeHierarchyEngine engine = new TypeHierarchyEngine(true);
+		engine.setClassReaderFactory(new SharedJarTypeHierarchyClassReaderFactory(store));
+		engine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
+
+		IType type = javaProject.findType("org.ImplementingInterfaceThroughExtendingTypeFromLibrary");
+		assertTrue(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+		int jars = store.size();
+		assertTrue(jars > 0);
+
+		engine.clearElementCache(project);
+		assertEquals(jars, store.size());
+		assertTrue(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+
+		// a changed jar releases the layers of the project
+		File jarFile = new File(beansJar);
+		assertTrue(jarFile.setLastModified(jarFile.lastModified() + 10000));
+		engine.clearElementCache(project);
+		assertEquals(0, store.size());
+		assertTrue(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+		assertEquals(jars, store.size());
+
+		engine.clearCache();
+		assertEquals(0, store.size());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,9 +15,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
@@ -237,6 +240,98 @@ public class TypeHierarchyEngineTest {
 		assertEquals("java.lang.Object", engine.getSupertype(type));
 	}
 	
+	@Test
+	public void testClosureModeComplexInterfaceStructure() throws Exception {
+		engine.setClosureMode(true);
+		IType type = javaProject.findType("org.sub.ClassABCD");
+		
+		assertTrue(engine.doesExtend(type, "org.sub.ClassABCD"));
+		assertTrue(engine.doesExtend(type, "org.sub.ClassB"));
+		assertTrue(engine.doesExtend(type, "org.ClassA"));
+		assertTrue(engine.doesExtend(type, "java.lang.Object"));
+
+		assertFalse(engine.doesExtend(type, "org.SimpleClass"));
+		assertFalse(engine.doesExtend(type, "org.InterfaceA"));
+
+		assertTrue(engine.doesImplement(type, "org.InterfaceA"));
+		assertTrue(engine.doesImplement(type, "org.InterfaceB"));
+		assertTrue(engine.doesImplement(type, "org.InterfaceC"));
+		assertTrue(engine.doesImplement(type, "org.InterfaceD"));
+		assertTrue(engine.doesImplement(type, "org.sub.InterfaceAB"));
+		assertTrue(engine.doesImplement(type, "org.sub.InterfaceCD"));
+
+		assertFalse(engine.doesImplement(type, "org.sub.ClassABCD"));
+		assertFalse(engine.doesImplement(type, "org.SimpleInterface"));
+		assertFalse(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+	}
+	
+	@Test
+	public void testClosureModeTypesFromLibrary() throws Exception {
+		engine.setClosureMode(true);
+		IType type = javaProject.findType("org.ImplementingInterfaceThroughExtendingTypeFromLibrary");
+		assertFalse(engine.doesExtend(type, "org.SimpleClass"));
+		assertTrue(engine.doesExtend(type, "org.springframework.beans.factory.config.AbstractFactoryBean"));
+		assertTrue(engine.doesExtend(type, "java.lang.Object"));
+		assertTrue(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+
+		type = javaProject.findType("java.lang.Object");
+		assertFalse(engine.doesImplement(type, "java.io.Serializable"));
+		assertTrue(engine.doesExtend(type, "java.lang.Object"));
+	}
+	
+	@Test
+	public void testClosureModeCyclicHierarchy() throws Exception {
+		// broken bytecode: cycle/A extends cycle/B, which extends cycle/A again
+		final Map<String, TypeHierarchyElement> elements = new HashMap<String, TypeHierarchyElement>();
+		elements.put("cycle/A", new TypeHierarchyElement("cycle/A".toCharArray(), "cycle/B".toCharArray(), null));
+		elements.put("cycle/B", new TypeHierarchyElement("cycle/B".toCharArray(), "cycle/A".toCharArray(), null));
+		engine.setClassReaderFactory(new TypeHierarchyClassReaderFactory() {
+			public TypeHierarchyClassReader createClassReader(IProject project) {
+				return new TypeHierarchyClassReader() {
+					public TypeHierarchyElement readTypeHierarchyInformation(char[] fullyQualifiedClassName, IProject project) {
+						return elements.get(new String(fullyQualifiedClassName));
+					}
+					public void cleanup() {
+					}
+				};
+			}
+		});
+		engine.setClosureMode(true);
+
+		assertTrue(engine.doesExtend("cycle.A", "cycle.B", project));
+		// the closure of cycle/B computed while cycle/A was still in progress is incomplete and must not be reused
+		assertTrue(engine.doesExtend("cycle.B", "cycle.A", project));
+		assertTrue(engine.doesExtend("cycle.A", "cycle.A", project));
+		assertFalse(engine.doesExtend("cycle.A", "java.lang.Object", project));
+	}
+	
+	@Test
+	public void testFindSubtypesAmong() throws Exception {
+		Set<String> candidates = new LinkedHashSet<String>();
+		candidates.add("org.sub.ClassABCD");
+		candidates.add("org.sub.ClassB");
+		candidates.add("org.Subclass");
+		candidates.add("org.CombinedSubclass");
+		candidates.add("org.SimpleClass");
+		candidates.add("org.DoesNotExist");
+		
+		for (boolean closureMode : new boolean[] {false, true}) {
+			engine.setClosureMode(closureMode);
+
+			assertEquals(new LinkedHashSet<String>(Arrays.asList("org.sub.ClassABCD", "org.sub.ClassB")),
+					engine.findSubtypesAmong(candidates, "org.ClassA", false, project));
+			assertEquals(new LinkedHashSet<String>(Arrays.asList("org.Subclass", "org.CombinedSubclass", "org.SimpleClass")),
+					engine.findSubtypesAmong(candidates, "org.SimpleClass", false, project));
+			assertEquals(new LinkedHashSet<String>(Arrays.asList("org.sub.ClassABCD")),
+					engine.findSubtypesAmong(candidates, "org.InterfaceD", true, project));
+			assertEquals(new LinkedHashSet<String>(Arrays.asList("org.CombinedSubclass")),
+					engine.findSubtypesAmong(candidates, "org.SimpleInterface", true, project));
+			assertTrue(engine.findSubtypesAmong(candidates, "org.springframework.beans.factory.FactoryBean", true, project).isEmpty());
+			
+			engine.clearCache();
+		}
+	}
+	
 	@Test
 	public void testUseCachedElementsFirst() throws Exception {
 		AccessLoggingClassReaderFactory readerFactory = new AccessLoggingClassReaderFactory(classReaderFactory);
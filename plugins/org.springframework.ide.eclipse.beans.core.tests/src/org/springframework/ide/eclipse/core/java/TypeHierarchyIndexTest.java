@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.jar.JarFile;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElementDirectory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.IndexedTypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.IndexedTypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndex;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndexStore;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.8.4
+ */
+public class TypeHierarchyIndexTest {
+
+	private IProject project;
+	private IJavaProject javaProject;
+	private File indexLocation;
+	private String beansJar;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("type-hierarchy-engine-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+		javaProject = JdtUtils.getJavaProject(project);
+		beansJar = project.getFile("lib/org.springframework.beans_3.1.1.RELEASE.jar").getLocation().toFile().getAbsolutePath();
+
+		indexLocation = File.createTempFile("typehierarchy", "index");
+		indexLocation.delete();
+		indexLocation.mkdirs();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+		deleteRecursively(indexLocation);
+	}
+
+	@Test
+	public void testIndexContainsJarClasses() throws Exception {
+		TypeHierarchyIndexStore store = new TypeHierarchyIndexStore(indexLocation);
+		TypeHierarchyIndex index = store.getIndex(beansJar);
+		assertNotNull(index);
+		assertTrue(index.size() > 0);
+		assertEquals(beansJar, index.getJarFileName());
+
+		TypeHierarchyElement element = index.get("org/springframework/beans/factory/config/AbstractFactoryBean".toCharArray());
+		assertNotNull(element);
+		assertEquals("org/springframework/beans/factory/config/AbstractFactoryBean", new String(element.className));
+		assertEquals("java/lang/Object", new String(element.superclassName));
+
+		boolean factoryBeanFound = false;
+		for (char[] interfaceName : element.interfaces) {
+			factoryBeanFound |= "org/springframework/beans/factory/FactoryBean".equals(new String(interfaceName));
+		}
+		assertTrue(factoryBeanFound);
+
+		assertNull(index.get("org/SimpleClass".toCharArray()));
+		assertFalse(index.contains("java/lang/Object".toCharArray()));
+	}
+
+	@Test
+	public void testIndexIsPersistedAndReused() throws Exception {
+		TypeHierarchyIndexStore store = new TypeHierarchyIndexStore(indexLocation);
+		TypeHierarchyIndex index = store.getIndex(beansJar);
+		assertNotNull(index);
+		assertSame(index, store.getIndex(beansJar));
+		assertEquals(1, indexLocation.listFiles().length);
+
+		TypeHierarchyIndexStore newSessionStore = new TypeHierarchyIndexStore(indexLocation);
+		TypeHierarchyIndex reloadedIndex = newSessionStore.getIndex(beansJar);
+		assertNotNull(reloadedIndex);
+		assertEquals(index.size(), reloadedIndex.size());
+		assertTrue(reloadedIndex.contains("org/springframework/beans/factory/FactoryBean".toCharArray()));
+		assertEquals(1, indexLocation.listFiles().length);
+	}
+
+	@Test
+	public void testMissingJar() throws Exception {
+		TypeHierarchyIndexStore store = new TypeHierarchyIndexStore(indexLocation);
+		assertNull(store.getIndex(new File(indexLocation, "doesnotexist.jar").getAbsolutePath()));
+	}
+
+	@Test
+	public void testEngineWithIndexedClassReader() throws Exception {
+		TypeHierarchyEngine engine = new TypeHierarchyEngine(true);
+		engine.setClassReaderFactory(new IndexedTypeHierarchyClassReaderFactory(new TypeHierarchyIndexStore(indexLocation)));
+		engine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
+
+		IType type = javaProject.findType("org.ImplementingInterfaceThroughExtendingTypeFromLibrary");
+		assertFalse(engine.doesExtend(type, "org.SimpleClass"));
+		assertTrue(engine.doesExtend(type, "org.springframework.beans.factory.config.AbstractFactoryBean"));
+		assertTrue(engine.doesExtend(type, "java.lang.Object"));
+		assertTrue(engine.doesImplement(type, "org.springframework.beans.factory.FactoryBean"));
+
+		type = javaProject.findType("org.sub.ClassABCD");
+		assertTrue(engine.doesExtend(type, "org.ClassA"));
+		assertTrue(engine.doesImplement(type, "org.InterfaceD"));
+		assertFalse(engine.doesImplement(type, "org.SimpleInterface"));
+
+		engine.clearCache();
+	}
+
+	@Test
+	public void testClasspathOrder() throws Exception {
+		// a class file in a directory that shadows a class from the jar, with the contents of another class
+		// of the same jar, to be able to tell which one is found
+		File outputFolder = new File(indexLocation, "bin");
+		File shadowingClass = new File(outputFolder, "org/springframework/beans/factory/config/AbstractFactoryBean.class");
+		shadowingClass.getParentFile().mkdirs();
+		JarFile jar = new JarFile(beansJar);
+		try {
+			InputStream in = jar.getInputStream(jar.getEntry("org/springframework/beans/factory/FactoryBean.class"));
+			try {
+				Files.copy(in, shadowingClass.toPath());
+			}
+			finally {
+				in.close();
+			}
+		}
+		finally {
+			jar.close();
+		}
+
+		TypeHierarchyClassReader noFallback = new TypeHierarchyClassReader() {
+			public TypeHierarchyElement readTypeHierarchyInformation(char[] fullyQualifiedClassName, IProject project) {
+				return null;
+			}
+			public void cleanup() {
+			}
+		};
+		TypeHierarchyIndexStore store = new TypeHierarchyIndexStore(indexLocation);
+		char[] className = "org/springframework/beans/factory/config/AbstractFactoryBean".toCharArray();
+
+		IndexedTypeHierarchyClassReader reader = new IndexedTypeHierarchyClassReader(store,
+				new Object[] { new ClasspathElementDirectory(outputFolder), beansJar }, noFallback);
+		assertEquals("org/springframework/beans/factory/FactoryBean", new String(reader.readTypeHierarchyInformation(className, project).className));
+
+		reader = new IndexedTypeHierarchyClassReader(store,
+				new Object[] { beansJar, new ClasspathElementDirectory(outputFolder) }, noFallback);
+		assertEquals("org/springframework/beans/factory/config/AbstractFactoryBean", new String(reader.readTypeHierarchyInformation(className, project).className));
+	}
+
+	private static void deleteRecursively(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteRecursively(child);
+			}
+		}
+		file.delete();
+	}
+
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElementCache;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.8.4
+ */
+public class TypeNamePoolTest {
+
+	private IProject project;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("type-hierarchy-engine-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testCanonicalCharArrays() throws Exception {
+		char[] first = "org/springframework/beans/factory/FactoryBean".toCharArray();
+		char[] second = "org/springframework/beans/factory/FactoryBean".toCharArray();
+		assertNotSame(first, second);
+
+		char[] pooled = TypeNamePool.intern(first);
+		assertSame(pooled, TypeNamePool.intern(second));
+		assertArrayEquals(second, pooled);
+		assertNotSame(pooled, TypeNamePool.intern("org/springframework/beans/factory/BeanFactory".toCharArray()));
+		assertNull(TypeNamePool.intern((char[]) null));
+	}
+
+	@Test
+	public void testCanonicalNameArrays() throws Exception {
+		char[] name = TypeNamePool.intern("java/io/Serializable".toCharArray());
+		char[][] names = new char[][] { "java/io/Serializable".toCharArray(), "java/lang/Cloneable".toCharArray() };
+		assertSame(names, TypeNamePool.intern(names));
+		assertSame(name, names[0]);
+		assertSame(names[1], TypeNamePool.intern("java/lang/Cloneable".toCharArray()));
+	}
+
+	@Test
+	public void testCanonicalStrings() throws Exception {
+		String first = new String("org.springframework.core.Ordered");
+		String second = new String("org.springframework.core.Ordered");
+		assertSame(TypeNamePool.intern(first), TypeNamePool.intern(second));
+		assertNull(TypeNamePool.intern((String) null));
+	}
+
+	@Test
+	public void testElementsShareNames() throws Exception {
+		TypeHierarchyElement first = new TypeHierarchyElement("org/Foo".toCharArray(), "java/lang/Object".toCharArray(), null);
+		TypeHierarchyElement second = new TypeHierarchyElement("org/Bar".toCharArray(), "java/lang/Object".toCharArray(),
+				new char[][] { "org/Foo".toCharArray() });
+		assertSame(first.superclassName, second.superclassName);
+		assertSame(first.className, second.interfaces[0]);
+	}
+
+	/**
+	 * Reads the hierarchy of all classes of the Spring jars of the test project twice, as two projects
+	 * depending on the same jars would, and checks that both share the same name instances.
+	 */
+	@Test
+	public void testProjectsShareNames() throws Exception {
+		List<TypeHierarchyElement> first = readTypeHierarchies();
+		List<TypeHierarchyElement> second = readTypeHierarchies();
+		assertEquals(first.size(), second.size());
+		assertTrue(first.size() > 0);
+
+		for (int i = 0; i < first.size(); i++) {
+			TypeHierarchyElement a = first.get(i);
+			TypeHierarchyElement b = second.get(i);
+			assertNotSame(a, b);
+			assertSame(a.className, b.className);
+			assertSame(a.superclassName, b.superclassName);
+			if (a.interfaces == null) {
+				assertNull(b.interfaces);
+			}
+			else {
+				assertEquals(a.interfaces.length, b.interfaces.length);
+				for (int j = 0; j < a.interfaces.length; j++) {
+					assertSame(a.interfaces[j], b.interfaces[j]);
+				}
+			}
+		}
+	}
+
+	private List<TypeHierarchyElement> readTypeHierarchies() throws Exception {
+		String[] jars = new String[] {
+				"lib/org.springframework.beans_3.1.1.RELEASE.jar",
+				"lib/org.springframework.context_3.1.1.RELEASE.jar",
+				"lib/org.springframework.core_3.1.1.RELEASE.jar" };
+
+		BytecodeTypeHierarchyClassReader reader = new BytecodeTypeHierarchyClassReader(null);
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		List<TypeHierarchyElement> result = new ArrayList<TypeHierarchyElement>();
+
+		for (String jar : jars) {
+			JarFile jarFile = new JarFile(project.getFile(jar).getLocation().toFile());
+			try {
+				for (Enumeration<? extends ZipEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+					ZipEntry entry = entries.nextElement();
+					if (entry.getName().endsWith(".class")) {
+						InputStream stream = jarFile.getInputStream(entry);
+						try {
+							TypeHierarchyElement element = reader.readTypeHierarchy(stream);
+							cache.put(element.className, element);
+							result.add(element);
+						}
+						finally {
+							stream.close();
+						}
+					}
+				}
+			}
+			finally {
+				jarFile.close();
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.core.io.ZipEntryStorage;
+
+/**
+ * Loads a batch of {@link AbstractBeansConfig}s concurrently instead of one after another. At most
+ * a given number of configs are read at the same time and configs that are imported by other
+ * configs of the batch (via <code>&lt;import resource="..."/&gt;</code> with a location relative
+ * to the importing file) are read before the configs importing them. Cyclic imports are loaded in
+ * no particular order.
+ * <p>
+ * The number of configs loaded in parallel per project defaults to the number of available
+ * processors and can be configured with the system property {@link #THREADS_PROPERTY}. Batch
+ * loading is disabled by default and can be enabled by setting the system property
+ * {@link #ENABLE_PROPERTY} to <code>true</code>.
+ *
+ * @since 3.8.4
+ */
+public class BeansConfigLoader {
+
+	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.beans.core.enableBatchConfigLoading";
+
+	public static final String THREADS_PROPERTY = "org.springframework.ide.eclipse.beans.core.configLoadingThreads";
+
+	private static final Pattern IMPORT_PATTERN = Pattern.compile("<(?:\\w+:)?import\\s[^>]*resource\\s*=\\s*[\"']([^\"']+)[\"']");
+
+	private static final Pattern COMMENT_PATTERN = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+
+	private final ExecutorService executorService;
+
+	private final int maxConcurrency;
+
+	public BeansConfigLoader(ExecutorService executorService, int maxConcurrency) {
+		this.executorService = executorService;
+		this.maxConcurrency = Math.max(1, maxConcurrency);
+	}
+
+	public static boolean isEnabled() {
+		return System.getProperty(ENABLE_PROPERTY, "false").equals("true");
+	}
+
+	/**
+	 * Returns the number of configs per project that are loaded in parallel.
+	 */
+	public static int getMaxConcurrency() {
+		String threads = System.getProperty(THREADS_PROPERTY);
+		if (threads != null) {
+			try {
+				return Math.max(1, Integer.parseInt(threads));
+			}
+			catch (NumberFormatException e) {
+			}
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Reads all given configs and returns as soon as all started reads are finished. No further
+	 * reads are started after the given monitor has been canceled.
+	 */
+	public void load(Collection<? extends AbstractBeansConfig> configs, IProgressMonitor monitor)
+			throws InterruptedException {
+		SubMonitor progress = SubMonitor.convert(monitor, configs.size());
+
+		Map<AbstractBeansConfig, Set<AbstractBeansConfig>> dependencies = getDependencies(configs);
+		Map<AbstractBeansConfig, Set<AbstractBeansConfig>> dependents = new HashMap<AbstractBeansConfig, Set<AbstractBeansConfig>>();
+		List<AbstractBeansConfig> ready = new ArrayList<AbstractBeansConfig>();
+		for (Map.Entry<AbstractBeansConfig, Set<AbstractBeansConfig>> entry : dependencies.entrySet()) {
+			if (entry.getValue().isEmpty()) {
+				ready.add(entry.getKey());
+			}
+			for (AbstractBeansConfig dependency : entry.getValue()) {
+				Set<AbstractBeansConfig> configDependents = dependents.get(dependency);
+				if (configDependents == null) {
+					configDependents = new HashSet<AbstractBeansConfig>();
+					dependents.put(dependency, configDependents);
+				}
+				configDependents.add(entry.getKey());
+			}
+		}
+
+		CompletionService<AbstractBeansConfig> completionService = new ExecutorCompletionService<AbstractBeansConfig>(
+				executorService);
+		int running = 0;
+		while (!dependencies.isEmpty() || running > 0) {
+			if (ready.isEmpty() && running == 0) {
+				// only configs with cyclic imports are left
+				ready.addAll(dependencies.keySet());
+			}
+			while (!ready.isEmpty() && running < maxConcurrency && !progress.isCanceled()) {
+				AbstractBeansConfig config = ready.remove(0);
+				dependencies.remove(config);
+				completionService.submit(new ReadConfigOperation(config));
+				running++;
+			}
+			if (running == 0) {
+				// canceled
+				break;
+			}
+
+			AbstractBeansConfig loadedConfig = null;
+			try {
+				loadedConfig = completionService.take().get();
+			}
+			catch (ExecutionException e) {
+				BeansCorePlugin.log(new Status(IStatus.ERROR, BeansCorePlugin.PLUGIN_ID, "Error loading beans config",
+						e.getCause()));
+			}
+			running--;
+			progress.worked(1);
+
+			Set<AbstractBeansConfig> configDependents = loadedConfig != null ? dependents.remove(loadedConfig) : null;
+			if (configDependents != null) {
+				for (AbstractBeansConfig dependent : configDependents) {
+					Set<AbstractBeansConfig> remaining = dependencies.get(dependent);
+					if (remaining != null && remaining.remove(loadedConfig) && remaining.isEmpty()) {
+						ready.add(dependent);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the configs of the given batch each config imports.
+	 */
+	private static Map<AbstractBeansConfig, Set<AbstractBeansConfig>> getDependencies(
+			Collection<? extends AbstractBeansConfig> configs) {
+		Map<IResource, AbstractBeansConfig> configsByResource = new HashMap<IResource, AbstractBeansConfig>();
+		for (AbstractBeansConfig config : configs) {
+			if (config.getElementResource() != null) {
+				configsByResource.put(config.getElementResource(), config);
+			}
+		}
+
+		Map<AbstractBeansConfig, Set<AbstractBeansConfig>> dependencies = new LinkedHashMap<AbstractBeansConfig, Set<AbstractBeansConfig>>();
+		for (AbstractBeansConfig config : configs) {
+			Set<AbstractBeansConfig> configDependencies = new LinkedHashSet<AbstractBeansConfig>();
+			IResource resource = config.getElementResource();
+			if (config instanceof BeansConfig && resource instanceof IFile && resource.getParent() != null
+					&& config.getElementName().indexOf(ZipEntryStorage.DELIMITER) == -1) {
+				for (String location : getImportLocations((IFile) resource)) {
+					IResource importedResource = resource.getParent().findMember(new Path(location));
+					AbstractBeansConfig importedConfig = configsByResource.get(importedResource);
+					if (importedConfig != null && importedConfig != config) {
+						configDependencies.add(importedConfig);
+					}
+				}
+			}
+			dependencies.put(config, configDependencies);
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Returns the relative locations of the imports of the given file.
+	 */
+	private static Set<String> getImportLocations(IFile file) {
+		Set<String> locations = new LinkedHashSet<String>();
+		if (!file.isAccessible()) {
+			return locations;
+		}
+		try {
+			Reader reader = new InputStreamReader(file.getContents(), file.getCharset());
+			try {
+				StringBuilder content = new StringBuilder();
+				char[] buffer = new char[8192];
+				int read;
+				while ((read = reader.read(buffer)) != -1) {
+					content.append(buffer, 0, read);
+				}
+				Matcher matcher = IMPORT_PATTERN.matcher(COMMENT_PATTERN.matcher(content).replaceAll(""));
+				while (matcher.find()) {
+					String location = matcher.group(1);
+					// skip prefixed locations, placeholders and patterns as they can't be resolved up front
+					if (location.indexOf(':') == -1 && location.indexOf('$') == -1 && location.indexOf('*') == -1) {
+						locations.add(location);
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (CoreException e) {
+			// the config will report the problem while reading
+		}
+		catch (IOException e) {
+			// the config will report the problem while reading
+		}
+		return locations;
+	}
+
+	private static class ReadConfigOperation implements Callable<AbstractBeansConfig> {
+
+		private final AbstractBeansConfig config;
+
+		public ReadConfigOperation(AbstractBeansConfig config) {
+			this.config = config;
+		}
+
+		public AbstractBeansConfig call() {
+			try {
+				config.readConfig();
+			}
+			catch (RuntimeException e) {
+				BeansCorePlugin.log(new Status(IStatus.ERROR, BeansCorePlugin.PLUGIN_ID, String.format(
+						"Error loading beans config '%s'", config.getElementName()), e));
+			}
+			return config;
+		}
+	}
+
+}
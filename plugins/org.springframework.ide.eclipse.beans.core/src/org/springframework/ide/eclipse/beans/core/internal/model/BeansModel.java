@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 Spring IDE Developers
+ * Copyright (c) 2004, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.wst.common.project.facet.core.FacetedProjectFramework;
@@ -173,6 +175,43 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		FacetedProjectFramework.addListener(facetedProjectListener, IFacetedProjectEvent.Type.POST_INSTALL,
 				IFacetedProjectEvent.Type.POST_UNINSTALL);
 
+		if (BeansConfigLoader.isEnabled()) {
+			Job loadJob = new Job("Loading Spring bean configs") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					try {
+						loadConfigs(monitor);
+					}
+					catch (InterruptedException e) {
+						return Status.CANCEL_STATUS;
+					}
+					return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+				}
+			};
+			loadJob.setPriority(Job.DECORATE);
+			loadJob.schedule();
+		}
+	}
+
+	/**
+	 * Reads all configs of all projects that haven't been read yet, loading the configs of each
+	 * project in parallel. Listeners are notified about each project once all of its configs have
+	 * been read.
+	 * @since 3.8.4
+	 * @see BeansConfigLoader
+	 */
+	public void loadConfigs(IProgressMonitor monitor) throws InterruptedException {
+		Set<IBeansProject> beansProjects = getProjects();
+		SubMonitor progress = SubMonitor.convert(monitor, beansProjects.size());
+		for (IBeansProject project : beansProjects) {
+			if (progress.isCanceled()) {
+				return;
+			}
+			if (project instanceof BeansProject) {
+				((BeansProject) project).loadConfigs(progress.newChild(1));
+				notifyListeners(project, Type.CHANGED);
+			}
+		}
 	}
 
 	public void addProject(IBeansProject project) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 Spring IDE Developers
+ * Copyright (c) 2005, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,9 +12,12 @@ package org.springframework.ide.eclipse.beans.core.internal.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
@@ -1317,25 +1320,35 @@ public abstract class BeansModelUtils {
 								if (JdtUtils.isJavaProject(project.getProject()) && !JdtUtils.getJavaProject(project.getProject()).isOnClasspath(element)) {
 									continue;
 								}
+
+								if (BeansTypeDependencyIndex.isEnabled() && project instanceof BeansProject) {
+									files.addAll(((BeansProject) project).getTypeDependencyIndex().getConfigs(
+											Arrays.asList(changedTypeNames), typeEngine));
+									continue;
+								}
 								
 								Set<IBeansConfig> configs = project.getConfigs();
+								Map<IBeansConfig, Set<String>> beanClassesByConfig = new HashMap<IBeansConfig, Set<String>>();
+								Set<String> allBeanClasses = new HashSet<String>();
 								for (IBeansConfig config : configs) {
-									boolean configAdded = false;
-									Set<String> allBeanClasses = config.getBeanClasses();
-									for (int i = 0; i < changedTypeNames.length; i++) {
-										for (String className : allBeanClasses) {
-											if (changedTypeIsInterface[i] && typeEngine.doesImplement(className, changedTypeNames[i], project.getProject())) {
-												files.add(config);
-												configAdded = true;
-												break;
-											}
-											else if (!changedTypeIsInterface[i] && typeEngine.doesExtend(className, changedTypeNames[i], project.getProject())) {
-												files.add(config);
-												configAdded = true;
-												break;
-											}
+									Set<String> beanClasses = config.getBeanClasses();
+									beanClassesByConfig.put(config, beanClasses);
+									allBeanClasses.addAll(beanClasses);
+								}
+
+								// check all bean classes of the project at once for each changed type
+								Set<String> matchingBeanClasses = new HashSet<String>();
+								for (int i = 0; i < changedTypeNames.length && !allBeanClasses.isEmpty(); i++) {
+									Set<String> subtypes = typeEngine.findSubtypesAmong(allBeanClasses, changedTypeNames[i], changedTypeIsInterface[i], project.getProject());
+									matchingBeanClasses.addAll(subtypes);
+									allBeanClasses.removeAll(subtypes);
+								}
+
+								if (!matchingBeanClasses.isEmpty()) {
+									for (IBeansConfig config : configs) {
+										if (CollectionUtils.containsAny(beanClassesByConfig.get(config), matchingBeanClasses)) {
+											files.add(config);
 										}
-										if (configAdded) break;
 									}
 								}
 								
@@ -1457,37 +1470,52 @@ public abstract class BeansModelUtils {
 								if (JdtUtils.isJavaProject(project.getProject()) && !JdtUtils.getJavaProject(project.getProject()).isOnClasspath(element)) {
 									continue;
 								}
+
+								if (BeansTypeDependencyIndex.isEnabled() && project instanceof BeansProject) {
+									boolean includeUnresolved = JdtUtils.isJavaProject(project.getProject())
+											&& JdtUtils.getJavaProject(project.getProject()).isOnClasspath(resource);
+									files.addAll(((BeansProject) project).getTypeDependencyIndex().getBeans(
+											Arrays.asList(changedTypeNames), typeEngine, includeUnresolved));
+									continue;
+								}
 								
 								Set<IBeansConfig> configs = project.getConfigs();
+								Map<IBean, String> beanClassNames = new LinkedHashMap<IBean, String>();
 								for (IBeansConfig config : configs) {
-									Set<IBean> allBeans = getBeans(config);
+									for (IBean bean : getBeans(config)) {
+										beanClassNames.put(bean, resolveBeanTypeAsString(bean));
+									}
+								}
 
-									for (IBean bean : allBeans) {
-										String className = resolveBeanTypeAsString(bean);
-										
-										if (className != null) {
-											for (int i = 0; i < changedTypeNames.length; i++) {
-												if (changedTypeIsInterface[i] && typeEngine.doesImplement(className, changedTypeNames[i], project.getProject())) {
-													files.add(bean);
-													break;
-												}
-												else if (!changedTypeIsInterface[i] && typeEngine.doesExtend(className, changedTypeNames[i], project.getProject())) {
-													files.add(bean);
-													break;
-												}
-											}
+								// check all bean classes of the project at once for each changed type
+								Set<String> allBeanClasses = new HashSet<String>(beanClassNames.values());
+								allBeanClasses.remove(null);
+								Set<String> matchingBeanClasses = new HashSet<String>();
+								for (int i = 0; i < changedTypeNames.length && !allBeanClasses.isEmpty(); i++) {
+									Set<String> subtypes = typeEngine.findSubtypesAmong(allBeanClasses, changedTypeNames[i], changedTypeIsInterface[i], project.getProject());
+									matchingBeanClasses.addAll(subtypes);
+									allBeanClasses.removeAll(subtypes);
+								}
+
+								for (Map.Entry<IBean, String> beanClassName : beanClassNames.entrySet()) {
+									IBean bean = beanClassName.getKey();
+									String className = beanClassName.getValue();
+									
+									if (className != null) {
+										if (matchingBeanClasses.contains(className)) {
+											files.add(bean);
 										}
-										else {
-											// We can't determine the beans type so don't be cleverer as we can and let
-											// it be processed again
-											// One last check before adding too much that is not even on the resource's
-											// classpath
-											if (project != null
-													&& JdtUtils.isJavaProject(project.getProject())
-													&& JdtUtils.getJavaProject(project.getProject()).isOnClasspath(
-															resource)) {
-												files.add(bean);
-											}
+									}
+									else {
+										// We can't determine the beans type so don't be cleverer as we can and let
+										// it be processed again
+										// One last check before adding too much that is not even on the resource's
+										// classpath
+										if (project != null
+												&& JdtUtils.isJavaProject(project.getProject())
+												&& JdtUtils.getJavaProject(project.getProject()).isOnClasspath(
+														resource)) {
+											files.add(bean);
 										}
 									}
 								}
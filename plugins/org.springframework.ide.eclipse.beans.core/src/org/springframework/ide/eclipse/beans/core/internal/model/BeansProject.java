@@ -124,6 +124,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	private boolean isAutoConfigStatePersisted = false;
 
+	private final BeansTypeDependencyIndex typeDependencyIndex = new BeansTypeDependencyIndex(this);
+
 	public BeansProject(IBeansModel model, IProject project) {
 		super(model, project.getName());
 		this.project = project;
@@ -717,6 +719,24 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		}
 	}
 
+	/**
+	 * Reads all configs of this project that haven't been read yet at once, using up to
+	 * {@link BeansConfigLoader#getMaxConcurrency()} threads of the shared executor.
+	 * @since 3.8.4
+	 */
+	public void loadConfigs(IProgressMonitor monitor) throws InterruptedException {
+		List<AbstractBeansConfig> configsToLoad = new ArrayList<AbstractBeansConfig>();
+		for (IBeansConfig config : getConfigs()) {
+			if (config instanceof AbstractBeansConfig && !((AbstractBeansConfig) config).isModelPopulated) {
+				configsToLoad.add((AbstractBeansConfig) config);
+			}
+		}
+		if (!configsToLoad.isEmpty()) {
+			new BeansConfigLoader(BeansCorePlugin.getExecutorService(), BeansConfigLoader.getMaxConcurrency()).load(
+					configsToLoad, monitor);
+		}
+	}
+
 	/**
 	 * Updates the {@link BeansConfigSet}s defined within this project.
 	 * <p>
@@ -883,6 +903,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 * description file.
 	 */
 	public void reset() {
+		// cleared outside of the write lock as the index reads the configs while holding its own lock
+		typeDependencyIndex.clear();
 		try {
 			w.lock();
 			this.modelPopulated = false;
@@ -900,6 +922,14 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		}
 	}
 
+	/**
+	 * Returns the index of the types used as bean classes by the configs of this project.
+	 * @since 3.8.4
+	 */
+	public BeansTypeDependencyIndex getTypeDependencyIndex() {
+		return typeDependencyIndex;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+
+/**
+ * Reverse dependency index of a {@link IBeansProject} that answers which configs and beans use a
+ * changed type (or one of its subtypes) as bean class. Configs are re-indexed lazily as soon as
+ * their bean classes change, so incremental builds no longer need to check all bean classes of
+ * all configs against every changed type.
+ * <p>
+ * The index is disabled by default and can be enabled by setting the system property
+ * {@link #ENABLE_PROPERTY} to <code>true</code>.
+ *
+ * @since 3.8.4
+ * @see BeansModelUtils#getConfigsByContainingTypes(org.eclipse.core.resources.IResource, TypeHierarchyEngine,
+ * org.eclipse.core.runtime.IProgressMonitor)
+ */
+public class BeansTypeDependencyIndex {
+
+	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.beans.core.enableTypeDependencyIndex";
+
+	private final IBeansProject project;
+
+	private final TypeDependencyIndex<IBeansConfig> configIndex = new TypeDependencyIndex<IBeansConfig>();
+
+	private final TypeDependencyIndex<IBean> beanIndex = new TypeDependencyIndex<IBean>();
+
+	/** state of the bean classes of the configs at the time they have been added to the index */
+	private final Map<IBeansConfig, Object> configStates = new HashMap<IBeansConfig, Object>();
+
+	private final Map<IBeansConfig, Object> beanConfigStates = new HashMap<IBeansConfig, Object>();
+
+	private final Map<IBeansConfig, Set<IBean>> beansByConfig = new HashMap<IBeansConfig, Set<IBean>>();
+
+	/** beans whose type can't be resolved; these are always considered to be affected by a change */
+	private final Set<IBean> unresolvedBeans = new HashSet<IBean>();
+
+	public BeansTypeDependencyIndex(IBeansProject project) {
+		this.project = project;
+	}
+
+	public static boolean isEnabled() {
+		return System.getProperty(ENABLE_PROPERTY, "false").equals("true");
+	}
+
+	/**
+	 * Returns all configs of the project that contain a bean class which is one of the given types
+	 * or a subtype of one of them, in the order of {@link IBeansProject#getConfigs()}.
+	 */
+	public synchronized Set<IBeansConfig> getConfigs(Collection<String> changedTypeNames, TypeHierarchyEngine typeEngine) {
+		SupertypeResolver resolver = new SupertypeResolver(typeEngine, project.getProject());
+		Set<IBeansConfig> configs = project.getConfigs();
+
+		for (IBeansConfig config : configs) {
+			Object state = getState(config);
+			if (!state.equals(configStates.get(config))) {
+				configIndex.put(config, config.getBeanClasses(), resolver);
+				configStates.put(config, state);
+			}
+		}
+		for (IBeansConfig config : new HashSet<IBeansConfig>(configStates.keySet())) {
+			if (!configs.contains(config)) {
+				configIndex.remove(config);
+				configStates.remove(config);
+			}
+		}
+
+		Set<IBeansConfig> matchingConfigs = configIndex.getDependents(changedTypeNames, resolver);
+		Set<IBeansConfig> result = new LinkedHashSet<IBeansConfig>();
+		for (IBeansConfig config : configs) {
+			if (matchingConfigs.contains(config)) {
+				result.add(config);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns all beans of the project whose type is one of the given types or a subtype of one of
+	 * them. Beans whose type can't be resolved are only returned if <code>includeUnresolved</code>
+	 * is <code>true</code>.
+	 */
+	public synchronized Set<IBean> getBeans(Collection<String> changedTypeNames, TypeHierarchyEngine typeEngine,
+			boolean includeUnresolved) {
+		SupertypeResolver resolver = new SupertypeResolver(typeEngine, project.getProject());
+		Set<IBeansConfig> configs = project.getConfigs();
+
+		for (IBeansConfig config : configs) {
+			Object state = getState(config);
+			if (!state.equals(beanConfigStates.get(config))) {
+				removeBeans(config);
+				Set<IBean> beans = BeansModelUtils.getBeans(config);
+				for (IBean bean : beans) {
+					putBean(bean, resolver);
+				}
+				beansByConfig.put(config, beans);
+				beanConfigStates.put(config, state);
+			}
+		}
+		for (IBeansConfig config : new HashSet<IBeansConfig>(beanConfigStates.keySet())) {
+			if (!configs.contains(config)) {
+				removeBeans(config);
+				beanConfigStates.remove(config);
+			}
+		}
+
+		Set<IBean> result = new LinkedHashSet<IBean>(beanIndex.getDependents(changedTypeNames, resolver));
+		if (includeUnresolved) {
+			result.addAll(unresolvedBeans);
+		}
+
+		// the type of the affected beans might have changed as well (e.g. the return type of a factory method)
+		for (IBean bean : result) {
+			putBean(bean, resolver);
+		}
+		return result;
+	}
+
+	public synchronized void clear() {
+		configIndex.clear();
+		beanIndex.clear();
+		configStates.clear();
+		beanConfigStates.clear();
+		beansByConfig.clear();
+		unresolvedBeans.clear();
+	}
+
+	private void putBean(IBean bean, SupertypeResolver resolver) {
+		String typeName = BeansModelUtils.resolveBeanTypeAsString(bean);
+		if (typeName == null) {
+			beanIndex.remove(bean);
+			unresolvedBeans.add(bean);
+			return;
+		}
+		unresolvedBeans.remove(bean);
+
+		Set<String> typeNames = new HashSet<String>();
+		typeNames.add(typeName);
+		BeanDefinition mergedBd = BeansModelUtils.getMergedBeanDefinition(bean, null);
+		if (mergedBd != null && mergedBd.getBeanClassName() != null) {
+			// factory classes determine the type of a bean as well
+			typeNames.add(mergedBd.getBeanClassName());
+		}
+		beanIndex.put(bean, typeNames, resolver);
+	}
+
+	private void removeBeans(IBeansConfig config) {
+		Set<IBean> beans = beansByConfig.remove(config);
+		if (beans != null) {
+			for (IBean bean : beans) {
+				beanIndex.remove(bean);
+				unresolvedBeans.remove(bean);
+			}
+		}
+	}
+
+	/**
+	 * Returns an object that changes as soon as the bean classes of the given config change.
+	 */
+	private static Object getState(IBeansConfig config) {
+		if (config instanceof AbstractBeansConfig) {
+			// the bean classes map is re-created on every reload of the config
+			return new IdentityState(((AbstractBeansConfig) config).getBeanClassesMap());
+		}
+		return config.getBeanClasses();
+	}
+
+	private static class IdentityState {
+
+		private final Object object;
+
+		public IdentityState(Object object) {
+			this.object = object;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof IdentityState && ((IdentityState) other).object == object;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(object);
+		}
+
+	}
+
+	private static class SupertypeResolver implements TypeDependencyIndex.SupertypeResolver {
+
+		private final TypeHierarchyEngine typeEngine;
+
+		private final IProject project;
+
+		public SupertypeResolver(TypeHierarchyEngine typeEngine, IProject project) {
+			this.typeEngine = typeEngine;
+			this.project = project;
+		}
+
+		public String getSuperclass(String typeName) {
+			return typeEngine.getSupertype(project, typeName);
+		}
+
+		public String[] getInterfaces(String typeName) {
+			return typeEngine.getInterfaces(project, typeName);
+		}
+
+	}
+
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse dependency index that maps type names to the dependents (like configs or beans) that use
+ * the type or one of its subtypes. For every type a dependent uses, the index keeps the closure of
+ * all supertypes, so looking up the dependents of a changed type is a hash probe instead of a
+ * subtype check of every used type.
+ * <p>
+ * The supertype closure of a type can only change if the type itself or one of its supertypes
+ * changes, so {@link #getDependents(Collection, SupertypeResolver)} recalculates the closures of
+ * all types it found to be affected.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @since 3.8.4
+ */
+public class TypeDependencyIndex<T> {
+
+	/**
+	 * Strategy to look up the direct supertypes of a type.
+	 */
+	public interface SupertypeResolver {
+
+		/**
+		 * Returns the superclass of the given type or <code>null</code> if unknown.
+		 */
+		String getSuperclass(String typeName);
+
+		/**
+		 * Returns the directly implemented interfaces of the given type, may be <code>null</code>.
+		 */
+		String[] getInterfaces(String typeName);
+
+	}
+
+	private final Map<T, Set<String>> typesByDependent = new HashMap<T, Set<String>>();
+
+	private final Map<String, Set<T>> dependentsByType = new HashMap<String, Set<T>>();
+
+	/** supertype closure of all used types, including the type itself */
+	private final Map<String, Set<String>> supertypesByType = new HashMap<String, Set<String>>();
+
+	private final Map<String, Set<String>> typesBySupertype = new HashMap<String, Set<String>>();
+
+	/**
+	 * Replaces the types the given dependent uses.
+	 */
+	public void put(T dependent, Set<String> typeNames, SupertypeResolver resolver) {
+		Set<String> newTypes = new HashSet<String>(typeNames);
+		newTypes.remove(null);
+		Set<String> oldTypes = typesByDependent.put(dependent, newTypes);
+		if (oldTypes == null) {
+			oldTypes = Collections.emptySet();
+		}
+
+		for (String typeName : oldTypes) {
+			if (!newTypes.contains(typeName)) {
+				removeDependent(typeName, dependent);
+			}
+		}
+		for (String typeName : newTypes) {
+			if (!oldTypes.contains(typeName)) {
+				addDependent(typeName, dependent, resolver);
+			}
+		}
+	}
+
+	public void remove(T dependent) {
+		Set<String> types = typesByDependent.remove(dependent);
+		if (types != null) {
+			for (String typeName : types) {
+				removeDependent(typeName, dependent);
+			}
+		}
+	}
+
+	public boolean contains(T dependent) {
+		return typesByDependent.containsKey(dependent);
+	}
+
+	public Set<T> getDependents() {
+		return Collections.unmodifiableSet(typesByDependent.keySet());
+	}
+
+	public void clear() {
+		typesByDependent.clear();
+		dependentsByType.clear();
+		supertypesByType.clear();
+		typesBySupertype.clear();
+	}
+
+	/**
+	 * Returns all dependents that use one of the given types or one of their subtypes. The
+	 * supertype closures of the affected types are recalculated afterwards using the given
+	 * resolver, which therefore needs to reflect the current state of the changed types.
+	 */
+	public Set<T> getDependents(Collection<String> changedTypeNames, SupertypeResolver resolver) {
+		Set<String> affectedTypes = new HashSet<String>();
+		for (String changedTypeName : changedTypeNames) {
+			Set<String> subtypes = typesBySupertype.get(changedTypeName);
+			if (subtypes != null) {
+				affectedTypes.addAll(subtypes);
+			}
+		}
+
+		Set<T> result = new LinkedHashSet<T>();
+		for (String typeName : affectedTypes) {
+			result.addAll(dependentsByType.get(typeName));
+		}
+
+		for (String typeName : affectedTypes) {
+			removeSupertypes(typeName);
+			addSupertypes(typeName, resolver);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of types with a supertype closure in this index.
+	 */
+	public int getTypeCount() {
+		return supertypesByType.size();
+	}
+
+	private void addDependent(String typeName, T dependent, SupertypeResolver resolver) {
+		Set<T> dependents = dependentsByType.get(typeName);
+		if (dependents == null) {
+			dependents = new LinkedHashSet<T>();
+			dependentsByType.put(typeName, dependents);
+			addSupertypes(typeName, resolver);
+		}
+		dependents.add(dependent);
+	}
+
+	private void removeDependent(String typeName, T dependent) {
+		Set<T> dependents = dependentsByType.get(typeName);
+		if (dependents != null) {
+			dependents.remove(dependent);
+			if (dependents.isEmpty()) {
+				dependentsByType.remove(typeName);
+				removeSupertypes(typeName);
+			}
+		}
+	}
+
+	private void addSupertypes(String typeName, SupertypeResolver resolver) {
+		Set<String> supertypes = new HashSet<String>();
+		ArrayDeque<String> queue = new ArrayDeque<String>();
+		queue.add(typeName);
+		while (!queue.isEmpty()) {
+			String current = queue.poll();
+			if (!supertypes.add(current) || current.startsWith("java.")) {
+				// types of the JDK don't change during a build
+				continue;
+			}
+			String superclass = resolver.getSuperclass(current);
+			if (superclass != null) {
+				queue.add(superclass);
+			}
+			String[] interfaces = resolver.getInterfaces(current);
+			if (interfaces != null) {
+				Collections.addAll(queue, interfaces);
+			}
+		}
+
+		supertypesByType.put(typeName, supertypes);
+		for (String supertype : supertypes) {
+			Set<String> subtypes = typesBySupertype.get(supertype);
+			if (subtypes == null) {
+				subtypes = new HashSet<String>();
+				typesBySupertype.put(supertype, subtypes);
+			}
+			subtypes.add(typeName);
+		}
+	}
+
+	private void removeSupertypes(String typeName) {
+		Set<String> supertypes = supertypesByType.remove(typeName);
+		if (supertypes != null) {
+			for (String supertype : supertypes) {
+				Set<String> subtypes = typesBySupertype.get(supertype);
+				if (subtypes != null) {
+					subtypes.remove(typeName);
+					if (subtypes.isEmpty()) {
+						typesBySupertype.remove(supertype);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,9 @@ package org.springframework.ide.eclipse.beans.core.internal.model.validation.rul
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.Flags;
@@ -27,6 +29,7 @@ import org.springframework.ide.eclipse.beans.core.model.validation.IBeansValidat
 import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springframework.ide.eclipse.core.model.IModelSourceLocation;
 import org.springframework.ide.eclipse.core.model.java.JavaModelSourceLocation;
+import org.springframework.ide.eclipse.core.model.validation.ICacheableValidationRule;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
 import org.springframework.util.StringUtils;
 import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
@@ -40,7 +43,8 @@ import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
  * @author Terry Denney
  * @since 2.0
  */
-public class BeanClassRule extends AbstractBeanValidationRule {
+public class BeanClassRule extends AbstractBeanValidationRule implements
+		ICacheableValidationRule<IBean, IBeansValidationContext> {
 
 	/**
 	 * Internal list of full-qualified class names that should be ignored by this validation rule.
@@ -53,6 +57,40 @@ public class BeanClassRule extends AbstractBeanValidationRule {
 		}
 	}
 
+	public Object getFingerprint(IBean bean, IBeansValidationContext context) {
+		String className = ((Bean) bean).getBeanDefinition().getBeanClassName();
+		return Arrays.asList(className, bean.getElementName(), bean.isAbstract(), bean.isFactory(),
+				bean.getElementSourceLocation() instanceof JavaModelSourceLocation, ignorableClasses,
+				getTypeStamp(bean, className));
+	}
+
+	/**
+	 * Returns how the bean class resolves in the Java model, as this rule doesn't only see compiled
+	 * types. The structure of binary types is covered by the type dependencies, source types are
+	 * represented by the modification stamp of their compilation unit.
+	 */
+	private Object getTypeStamp(IBean bean, String className) {
+		if (className == null || SpringCoreUtils.hasPlaceHolder(className)) {
+			return null;
+		}
+		IType type = JdtUtils.getJavaType(BeansModelUtils.getProject(bean).getProject(), className);
+		if (type == null) {
+			return "missing";
+		}
+		if (type.isBinary() || type.getResource() == null) {
+			return "binary";
+		}
+		return type.getResource().getModificationStamp();
+	}
+
+	public Set<String> getTypeDependencies(IBean bean, IBeansValidationContext context) {
+		String className = ((Bean) bean).getBeanDefinition().getBeanClassName();
+		if (className == null || SpringCoreUtils.hasPlaceHolder(className)) {
+			return Collections.emptySet();
+		}
+		return Collections.singleton(className);
+	}
+
 	@Override
 	public void validate(IBean bean, IBeansValidationContext context, IProgressMonitor monitor) {
 		BeanDefinition beanDefinition = ((Bean) bean).getBeanDefinition();
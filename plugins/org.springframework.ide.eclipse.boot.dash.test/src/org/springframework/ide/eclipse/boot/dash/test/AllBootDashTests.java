@@ -26,6 +26,10 @@ import org.springframework.ide.eclipse.boot.dash.test.yaml.Yaml2DeploymentProper
 
 	//New: (move down the chain later based on runtime)
 	PropertyFileStoreTest.class,
+	RequestSchedulerTest.class,
+	LogRingBufferTest.class,
+	ResourceFingerprintsTest.class,
+	ReadyStateMonitorTest.class,
 
 	// Manifest YAML/Deployment Properties tests (less than 2 seconds per suite)
 	DeploymentProperties2Yaml.class,
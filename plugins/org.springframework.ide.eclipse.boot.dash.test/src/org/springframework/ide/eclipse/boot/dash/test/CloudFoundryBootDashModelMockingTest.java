@@ -44,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -68,6 +69,7 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.springframework.ide.eclipse.boot.core.SpringBootCore;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.AppChangeTracker;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.CloudAppDashElement;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.CloudFoundryBootDashModel;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.CloudFoundryRunTargetType;
@@ -574,6 +576,68 @@ public class CloudFoundryBootDashModelMockingTest {
 		};
 	}
 
+	@Test
+	public void testIncrementalRefreshOnlyFetchesChangedApps() throws Exception {
+		CFClientParams targetParams = CfTestTargetParams.fromEnv();
+		MockCFSpace space = clientFactory.defSpace(targetParams.getOrgName(), targetParams.getSpaceName());
+		int numApps = 300;
+		String[] names = new String[numApps];
+		List<MockCFApplication> apps = new ArrayList<>();
+		for (int i = 0; i < numApps; i++) {
+			names[i] = "app-"+i;
+			apps.add(space.defApp(names[i]));
+		}
+
+		String oldValue = System.getProperty(AppChangeTracker.ENABLED_PROPERTY);
+		try {
+			//Full refresh: fetches the details of every app
+			System.setProperty(AppChangeTracker.ENABLED_PROPERTY, "false");
+			final CloudFoundryBootDashModel target = harness.createCfTarget(targetParams);
+			waitForApps(target, names);
+			waitForJobsToComplete();
+			clientFactory.resetAppDetailsRequested();
+			target.refresh(ui);
+			waitForJobsToComplete();
+			assertEquals(numApps, clientFactory.getAppDetailsRequested());
+
+			System.setProperty(AppChangeTracker.ENABLED_PROPERTY, "true");
+			//First incremental refresh: tracker doesn't know anything yet
+			target.refresh(ui);
+			waitForJobsToComplete();
+
+			//Nothing changed
+			clientFactory.resetAppDetailsRequested();
+			target.refresh(ui);
+			waitForJobsToComplete();
+			assertEquals(0, clientFactory.getAppDetailsRequested());
+
+			//A few apps changed
+			apps.get(0).setMemory(2048);
+			apps.get(100).setMemory(2048);
+			apps.get(200).scaleInstances(3);
+			target.refresh(ui);
+			waitForJobsToComplete();
+			assertEquals(3, clientFactory.getAppDetailsRequested());
+			assertEquals(2048, (int) target.getApplication("app-0").getMemory());
+			assertEquals(2048, (int) target.getApplication("app-100").getMemory());
+			assertEquals(3, target.getApplication("app-200").getDesiredInstances());
+
+			//Details of all apps are fetched again once the last full refresh is long enough ago
+			System.setProperty(AppChangeTracker.FULL_REFRESH_INTERVAL_PROPERTY, "0");
+			clientFactory.resetAppDetailsRequested();
+			target.refresh(ui);
+			waitForJobsToComplete();
+			assertEquals(numApps, clientFactory.getAppDetailsRequested());
+		} finally {
+			System.clearProperty(AppChangeTracker.FULL_REFRESH_INTERVAL_PROPERTY);
+			if (oldValue==null) {
+				System.clearProperty(AppChangeTracker.ENABLED_PROPERTY);
+			} else {
+				System.setProperty(AppChangeTracker.ENABLED_PROPERTY, oldValue);
+			}
+		}
+	}
+
 	@Test
 	public void testRefreshServices() throws Exception {
 		CFClientParams targetParams = CfTestTargetParams.fromEnv();
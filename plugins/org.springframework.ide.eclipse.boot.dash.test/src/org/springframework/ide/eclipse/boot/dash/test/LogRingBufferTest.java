@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.console.LogRingBuffer;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.console.LogRingBuffer.Batch;
+
+public class LogRingBufferTest {
+
+	@Test
+	public void drainInBatches() throws Exception {
+		LogRingBuffer<String> buffer = new LogRingBuffer<>(10);
+		for (int i = 0; i < 5; i++) {
+			buffer.add("line"+i);
+		}
+		Batch<String> batch = buffer.drain(3);
+		assertEquals(Arrays.asList("line0", "line1", "line2"), batch.lines);
+		assertEquals(0, batch.dropped);
+		buffer.add("line5");
+		batch = buffer.drain(100);
+		assertEquals(Arrays.asList("line3", "line4", "line5"), batch.lines);
+		assertTrue(buffer.drain(100).isEmpty());
+		assertEquals(6, buffer.getAddedCount());
+	}
+
+	@Test
+	public void dropOldestWhenFull() throws Exception {
+		LogRingBuffer<String> buffer = new LogRingBuffer<>(3);
+		for (int i = 0; i < 10; i++) {
+			buffer.add("line"+i);
+		}
+		assertEquals(3, buffer.size());
+		Batch<String> batch = buffer.drain(100);
+		assertEquals(Arrays.asList("line7", "line8", "line9"), batch.lines);
+		assertEquals(7, batch.dropped);
+
+		buffer.add("line10");
+		batch = buffer.drain(100);
+		assertEquals(Arrays.asList("line10"), batch.lines);
+		//Dropped lines are only reported once
+		assertEquals(0, batch.dropped);
+
+		assertEquals(7, buffer.getDroppedCount());
+		assertEquals(11, buffer.getAddedCount());
+	}
+
+	@Test
+	public void concurrentProducerAndConsumer() throws Exception {
+		LogRingBuffer<Integer> buffer = new LogRingBuffer<>(100);
+		int count = 100000;
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < count; i++) {
+				buffer.add(i);
+			}
+		});
+		producer.start();
+		List<Integer> received = new ArrayList<>();
+		long dropped = 0;
+		while (producer.isAlive() || !buffer.isEmpty()) {
+			Batch<Integer> batch = buffer.drain(50);
+			received.addAll(batch.lines);
+			dropped += batch.dropped;
+		}
+		producer.join();
+		dropped += buffer.drain(50).dropped;
+		assertEquals(count, received.size() + dropped);
+		assertEquals(dropped, buffer.getDroppedCount());
+		for (int i = 1; i < received.size(); i++) {
+			assertTrue(received.get(i-1) < received.get(i));
+		}
+	}
+
+}
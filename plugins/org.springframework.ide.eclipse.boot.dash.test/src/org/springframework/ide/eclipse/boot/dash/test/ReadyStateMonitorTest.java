@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.AttributeChangeNotification;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.dash.util.ReadyStateMonitoringService;
+import org.springframework.ide.eclipse.boot.dash.util.SpringApplicationReadyStateMonitor;
+import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifeCycleClientManager;
+import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
+import org.springsource.ide.eclipse.commons.frameworks.test.util.ACondition;
+
+public class ReadyStateMonitorTest {
+
+	private static final String OBJECT_NAME = "org.springframework.boot:type=Admin,name=SpringApplication";
+
+	public interface TestAdminMXBean {
+		boolean isReady();
+	}
+
+	public static class TestAdmin extends NotificationBroadcasterSupport implements TestAdminMXBean {
+		private volatile boolean ready = false;
+		private long sequence = 0;
+
+		@Override
+		public boolean isReady() {
+			return ready;
+		}
+
+		public void setReady(boolean ready) {
+			boolean old = this.ready;
+			this.ready = ready;
+			sendNotification(new AttributeChangeNotification(this, ++sequence, System.currentTimeMillis(),
+					"Ready changed", "Ready", "boolean", old, ready));
+		}
+	}
+
+	/**
+	 * Connects to an in-process mbean server, instead of a JMX port.
+	 */
+	private static class TestClientManager extends SpringApplicationLifeCycleClientManager {
+		private final MBeanServerConnection connection;
+		private SpringApplicationLifecycleClient client;
+		private int disposed = 0;
+
+		TestClientManager(int port, MBeanServerConnection connection) {
+			super(port);
+			this.connection = connection;
+		}
+
+		@Override
+		public synchronized SpringApplicationLifecycleClient getLifeCycleClient() {
+			if (client==null) {
+				client = new SpringApplicationLifecycleClient(connection, OBJECT_NAME);
+			}
+			return client;
+		}
+
+		@Override
+		public synchronized void disposeClient() {
+			client = null;
+			disposed++;
+		}
+
+		synchronized int getDisposedCount() {
+			return disposed;
+		}
+	}
+
+	private static class TestMonitoringService extends ReadyStateMonitoringService {
+		private final MBeanServerConnection connection;
+
+		TestMonitoringService(MBeanServerConnection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		protected SpringApplicationLifeCycleClientManager createClientManager(int port) {
+			return new TestClientManager(port, connection);
+		}
+	}
+
+	private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+	private final TestMonitoringService service = new TestMonitoringService(server);
+	private SpringApplicationReadyStateMonitor monitor;
+
+	@After
+	public void tearDown() throws Exception {
+		if (monitor!=null) {
+			monitor.dispose();
+		}
+	}
+
+	@Test
+	public void clientsArePooledPerPort() throws Exception {
+		SpringApplicationLifeCycleClientManager manager = service.acquire(1111);
+		assertSame(manager, service.acquire(1111));
+		SpringApplicationLifeCycleClientManager other = service.acquire(2222);
+		assertNotSame(manager, other);
+		assertEquals(2, service.getPoolSize());
+
+		service.release(1111);
+		assertEquals(2, service.getPoolSize());
+		assertEquals(0, ((TestClientManager)manager).getDisposedCount());
+
+		service.release(1111);
+		assertEquals(1, service.getPoolSize());
+		assertEquals(1, ((TestClientManager)manager).getDisposedCount());
+
+		service.release(2222);
+		assertEquals(0, service.getPoolSize());
+		assertEquals(1, ((TestClientManager)other).getDisposedCount());
+	}
+
+	@Test
+	public void pollingBacksOff() throws Exception {
+		AtomicInteger checks = new AtomicInteger();
+		monitor = new SpringApplicationReadyStateMonitor(service, () -> {
+			checks.incrementAndGet();
+			return null; //Port not known yet
+		});
+		Thread.sleep(3700);
+		//Checks at 0, 500, 1500 and 3500 ms. Polling at a fixed interval would have done 8.
+		int count = checks.get();
+		assertTrue("checks = "+count, count>=3 && count<=5);
+		assertFalse(monitor.getReady().getValue());
+	}
+
+	@Test
+	public void disposeReleasesClient() throws Exception {
+		monitor = new SpringApplicationReadyStateMonitor(service, () -> 1234);
+		ACondition.waitFor("client acquired", 2000, () -> {
+			assertEquals(1, service.getPoolSize());
+		});
+		monitor.dispose();
+		monitor = null;
+		ACondition.waitFor("client released", 2000, () -> {
+			assertEquals(0, service.getPoolSize());
+		});
+	}
+
+	@Test
+	public void readyStateNotifications() throws Exception {
+		monitor = new SpringApplicationReadyStateMonitor(service, () -> 1234);
+		Thread.sleep(1600);
+		assertFalse(monitor.getReady().getValue());
+
+		//Registration of the bean is noticed right away rather than at the next poll (at 3500 ms),
+		// and a listener is added to the bean itself.
+		TestAdmin admin = new TestAdmin();
+		long registered = System.currentTimeMillis();
+		server.registerMBean(admin, new ObjectName(OBJECT_NAME));
+
+		//After registration the checks are at 0, 500, 1500 and 3500 ms. Change the state in between
+		// those polls, and expect it to be noticed well before the next one.
+		Thread.sleep(Math.max(0, registered + 2000 - System.currentTimeMillis()));
+		assertFalse(monitor.getReady().getValue());
+		admin.setReady(true);
+		ACondition.waitFor("ready", 800, () -> {
+			assertTrue(monitor.getReady().getValue());
+		});
+		ACondition.waitFor("client released", 1000, () -> {
+			assertEquals(0, service.getPoolSize());
+		});
+	}
+
+}
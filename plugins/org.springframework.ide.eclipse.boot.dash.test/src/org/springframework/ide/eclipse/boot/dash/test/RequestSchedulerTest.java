@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.v2.RequestScheduler;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class RequestSchedulerTest {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final AtomicInteger sent = new AtomicInteger();
+
+	private Mono<Integer> request(int value, Duration latency) {
+		return Mono.defer(() -> {
+			sent.incrementAndGet();
+			int current = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(current, Math::max);
+			return Mono.delay(latency)
+				.map((x) -> value)
+				.doOnTerminate((v, e) -> inFlight.decrementAndGet());
+		});
+	}
+
+	@Test
+	public void limitsRequestsInFlight() throws Exception {
+		RequestScheduler scheduler = new RequestScheduler(3, 1000);
+		List<Mono<Integer>> requests = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			requests.add(scheduler.schedule(request(i, Duration.ofMillis(50))));
+		}
+		List<Integer> results = Flux.merge(requests).collectList().block(Duration.ofSeconds(10));
+		assertEquals(20, results.size());
+		assertTrue("maxInFlight = "+maxInFlight.get(), maxInFlight.get()<=3);
+
+		RequestScheduler.Stats stats = scheduler.getStats();
+		assertEquals(0, stats.inFlight);
+		assertEquals(0, stats.queued);
+		assertEquals(20, stats.completed);
+		assertTrue(stats.maxQueued>=17);
+	}
+
+	@Test
+	public void rateLimitsRequests() throws Exception {
+		RequestScheduler scheduler = new RequestScheduler(100, 10);
+		List<Mono<Integer>> requests = new ArrayList<>();
+		for (int i = 0; i < 15; i++) {
+			requests.add(scheduler.schedule(request(i, Duration.ofMillis(1))));
+		}
+		long start = System.currentTimeMillis();
+		Flux.merge(requests).then().block(Duration.ofSeconds(10));
+		long duration = System.currentTimeMillis() - start;
+		//A burst of 5 requests, the other 10 at 10 per second.
+		assertTrue("duration = "+duration, duration>=900);
+		assertEquals(15, sent.get());
+	}
+
+	@Test
+	public void coalescesIdenticalQueries() throws Exception {
+		RequestScheduler scheduler = new RequestScheduler(10, 1000);
+		List<Mono<Integer>> requests = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			requests.add(scheduler.schedule("get(foo)", request(i, Duration.ofMillis(200))));
+		}
+		requests.add(scheduler.schedule("get(bar)", request(100, Duration.ofMillis(200))));
+		requests.add(scheduler.schedule(null, request(200, Duration.ofMillis(200))));
+		List<Integer> results = Flux.merge(requests).collectList().block(Duration.ofSeconds(10));
+		assertEquals(7, results.size());
+		assertEquals(3, sent.get());
+		assertEquals(4, scheduler.getStats().coalesced);
+
+		//Not coalesced with queries that are no longer in flight
+		assertEquals(42, (int) scheduler.schedule("get(foo)", request(42, Duration.ofMillis(1))).block(Duration.ofSeconds(10)));
+		assertEquals(4, sent.get());
+	}
+
+	@Test
+	public void canceledRequestsReleaseTheirSlot() throws Exception {
+		RequestScheduler scheduler = new RequestScheduler(1, 1000);
+		scheduler.schedule(Mono.never()).subscribe().dispose();
+		assertEquals(1, (int) scheduler.schedule(request(1, Duration.ofMillis(1))).block(Duration.ofSeconds(10)));
+		assertEquals(0, scheduler.getStats().inFlight);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.json.JSONArray;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging.FileDigests;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging.ResourceFingerprints;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging.ResourceFingerprints.Fingerprint;
+
+public class ResourceFingerprintsTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private void createZip(File file, String... namesAndContents) throws Exception {
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+			zip.putNextEntry(new ZipEntry("META-INF/"));
+			zip.closeEntry();
+			for (int i = 0; i < namesAndContents.length; i+=2) {
+				zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+				zip.write(namesAndContents[i+1].getBytes("UTF8"));
+				zip.closeEntry();
+			}
+		}
+	}
+
+	private static String sha1(String content) throws Exception {
+		return FileDigests.sha1(new ByteArrayInputStream(content.getBytes("UTF8")));
+	}
+
+	private static Map<String, Fingerprint> byName(ResourceFingerprints fingerprints) {
+		Map<String, Fingerprint> map = new HashMap<>();
+		for (Fingerprint fp : fingerprints.getFingerprints()) {
+			map.put(fp.fn, fp);
+		}
+		return map;
+	}
+
+	@Test
+	public void computeSaveAndLoad() throws Exception {
+		File archive = tmp.newFile("app.jar");
+		createZip(archive,
+				"Foo.class", "foo",
+				"lib/bar.jar", "bar"
+		);
+		ResourceFingerprints fingerprints = ResourceFingerprints.compute(archive, null);
+		assertEquals(0, fingerprints.getReusedCount());
+		Map<String, Fingerprint> map = byName(fingerprints);
+		assertEquals(2, map.size()); //Directories are not fingerprinted
+		assertEquals(sha1("foo"), map.get("Foo.class").sha1);
+		assertEquals(3, map.get("lib/bar.jar").size);
+		assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", sha1(""));
+
+		assertNull(ResourceFingerprints.load(archive));
+		fingerprints.save();
+		ResourceFingerprints loaded = ResourceFingerprints.load(archive);
+		assertNotNull(loaded);
+		assertEquals(map.keySet(), byName(loaded).keySet());
+		assertEquals(sha1("bar"), byName(loaded).get("lib/bar.jar").sha1);
+
+		JSONArray resourceMatch = loaded.toResourceMatchJson();
+		assertEquals(2, resourceMatch.length());
+		assertEquals("Foo.class", resourceMatch.getJSONObject(0).getString("fn"));
+		assertEquals(sha1("foo"), resourceMatch.getJSONObject(0).getString("sha1"));
+		assertEquals(3, resourceMatch.getJSONObject(0).getLong("size"));
+	}
+
+	@Test
+	public void staleFingerprintsAreNotLoaded() throws Exception {
+		File archive = tmp.newFile("app.jar");
+		createZip(archive, "Foo.class", "foo");
+		ResourceFingerprints.compute(archive, null).save();
+		assertNotNull(ResourceFingerprints.load(archive));
+
+		createZip(archive, "Foo.class", "something else");
+		assertNull(ResourceFingerprints.load(archive));
+	}
+
+	@Test
+	public void reuseFingerprintsOfUnchangedEntries() throws Exception {
+		File archive = tmp.newFile("app.jar");
+		createZip(archive,
+				"Foo.class", "foo",
+				"Bar.class", "bar",
+				"lib/big.jar", "big"
+		);
+		ResourceFingerprints previous = ResourceFingerprints.compute(archive, null);
+
+		createZip(archive,
+				"Foo.class", "changed",
+				"Bar.class", "bar",
+				"New.class", "new",
+				"lib/big.jar", "big"
+		);
+		ResourceFingerprints fingerprints = ResourceFingerprints.compute(archive, previous);
+		assertEquals(2, fingerprints.getReusedCount());
+		Map<String, Fingerprint> map = byName(fingerprints);
+		assertEquals(4, map.size());
+		assertEquals(sha1("changed"), map.get("Foo.class").sha1);
+		assertEquals(sha1("bar"), map.get("Bar.class").sha1);
+		assertEquals(sha1("new"), map.get("New.class").sha1);
+		assertEquals(sha1("big"), map.get("lib/big.jar").sha1);
+	}
+
+}
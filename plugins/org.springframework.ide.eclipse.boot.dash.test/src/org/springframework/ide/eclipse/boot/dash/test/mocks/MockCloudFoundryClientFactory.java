@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.RandomStringUtils;
 import org.cloudfoundry.client.CloudFoundryClient;
@@ -72,6 +73,11 @@ public class MockCloudFoundryClientFactory extends CloudFoundryClientFactory {
 	private Exception notImplementedStubCalled = null;
 	private long startDelay = 0;
 
+	/**
+	 * Counts the number of apps whose details were requested from any client.
+	 */
+	private final AtomicInteger appDetailsRequested = new AtomicInteger();
+
 	public MockCloudFoundryClientFactory() {
 		defDomain("cfmockapps.io"); //Lost of functionality may assume there's at least one domain so make sure we have one.
 		defBuildpacks("java-buildpack", "ruby-buildpack", "funky-buildpack", "another-buildpack");
@@ -146,6 +152,14 @@ public class MockCloudFoundryClientFactory extends CloudFoundryClientFactory {
 		return existing;
 	}
 
+	public int getAppDetailsRequested() {
+		return appDetailsRequested.get();
+	}
+
+	public void resetAppDetailsRequested() {
+		appDetailsRequested.set(0);
+	}
+
 	public void assertOnlyImplementedStubsCalled() throws Exception {
 		if (notImplementedStubCalled!=null) {
 			throw notImplementedStubCalled;
@@ -177,6 +191,7 @@ public class MockCloudFoundryClientFactory extends CloudFoundryClientFactory {
 			MockCFSpace space = getSpace();
 			return Flux.fromIterable(appsToLookUp)
 			.flatMap((app) -> {
+				appDetailsRequested.incrementAndGet();
 				return Mono.justOrEmpty(space.getApplication(app.getGuid()).getDetailedInfo());
 			});
 		}
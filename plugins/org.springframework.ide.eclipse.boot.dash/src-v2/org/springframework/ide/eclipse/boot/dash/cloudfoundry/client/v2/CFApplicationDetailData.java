@@ -32,7 +32,8 @@ public class CFApplicationDetailData extends CFApplicationSummaryData implements
 				app.getUris(),
 				app.getState(),
 				app.getDiskQuota(),
-				app.extras
+				app.extras,
+				app.getVersion()
 		);
 		this.instanceDetails = instanceDetails;
 	}
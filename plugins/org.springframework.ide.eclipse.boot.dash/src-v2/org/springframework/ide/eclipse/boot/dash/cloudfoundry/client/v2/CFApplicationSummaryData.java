@@ -28,6 +28,7 @@ public class CFApplicationSummaryData implements CFApplication {
 	private CFAppState state;
 	private int diskQuota;
 	protected ApplicationExtras extras;
+	private String version;
 
 	public CFApplicationSummaryData(
 			String name,
@@ -39,6 +40,21 @@ public class CFApplicationSummaryData implements CFApplication {
 			CFAppState state,
 			int diskQuota,
 			ApplicationExtras extras
+	) {
+		this(name, instances, runningInstances, memory, guid, uris, state, diskQuota, extras, null);
+	}
+
+	public CFApplicationSummaryData(
+			String name,
+			int instances,
+			int runningInstances,
+			int memory,
+			UUID guid,
+			List<String> uris,
+			CFAppState state,
+			int diskQuota,
+			ApplicationExtras extras,
+			String version
 	) {
 		super();
 		this.name = name;
@@ -50,6 +66,7 @@ public class CFApplicationSummaryData implements CFApplication {
 		this.state = state;
 		this.diskQuota = diskQuota;
 		this.extras = extras;
+		this.version = version;
 	}
 
 	@Override
@@ -127,4 +144,9 @@ public class CFApplicationSummaryData implements CFApplication {
 		return extras.getEnv().block();
 	}
 
+	@Override
+	public String getVersion() {
+		return version;
+	}
+
 }
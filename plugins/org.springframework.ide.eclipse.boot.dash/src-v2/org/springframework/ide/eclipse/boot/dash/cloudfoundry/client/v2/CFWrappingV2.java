@@ -165,6 +165,10 @@ public class CFWrappingV2 {
 	}
 
 	public static CFApplication wrap(ApplicationSummary app, ApplicationExtras extras) {
+		return wrap(app, extras, null);
+	}
+
+	public static CFApplication wrap(ApplicationSummary app, ApplicationExtras extras, String version) {
 		CFAppState state;
 		try {
 			state = CFAppState.valueOf(app.getRequestedState());
@@ -182,7 +186,8 @@ public class CFWrappingV2 {
 				app.getUrls(),
 				state,
 				app.getDiskQuota(),
-				extras
+				extras,
+				version
 		);
 	}
 
@@ -26,6 +26,7 @@ import java.util.function.Predicate;
 
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.applications.ApplicationEntity;
+import org.cloudfoundry.client.v2.applications.ApplicationResource;
 import org.cloudfoundry.client.v2.applications.CreateApplicationRequest;
 import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
 import org.cloudfoundry.client.v2.applications.UpdateApplicationRequest;
@@ -38,6 +39,8 @@ import org.cloudfoundry.client.v2.domains.ListDomainsResponse;
 import org.cloudfoundry.client.v2.info.GetInfoRequest;
 import org.cloudfoundry.client.v2.info.GetInfoResponse;
 import org.cloudfoundry.client.v2.serviceinstances.DeleteServiceInstanceRequest;
+import org.cloudfoundry.client.v2.spaces.ListSpaceApplicationsRequest;
+import org.cloudfoundry.client.v2.spaces.ListSpaceApplicationsResponse;
 import org.cloudfoundry.client.v2.stacks.GetStackRequest;
 import org.cloudfoundry.client.v2.stacks.GetStackResponse;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.DeleteUserProvidedServiceInstanceRequest;
@@ -72,6 +75,7 @@ import org.cloudfoundry.uaa.UaaClient;
 import org.cloudfoundry.util.PaginationUtils;
 import org.eclipse.core.runtime.Platform;
 import org.osgi.framework.Version;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.AppChangeTracker;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.ApplicationRunningStateTracker;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.CFApplication;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.CFApplicationDetail;
@@ -171,6 +175,7 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 	private Mono<GetInfoResponse> info;
 	private Mono<String> spaceId;
 	private AbstractUaaTokenProvider _tokenProvider;
+	private final RequestScheduler scheduler = RequestScheduler.fromSystemProperties();
 
 	public DefaultClientRequestsV2(CloudFoundryClientCache clients, CFClientParams params) {
 		this.params = params;
@@ -367,7 +372,9 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 
 	@Override
 	public Cancellation streamLogs(String appName, IApplicationLogConsole logConsole) throws Exception {
-		Flux<LogMessage> stream = log("operations.applications.logs()",
+		//Log streams are long lived, so they don't take up one of the scheduler's in-flight slots.
+		//But they are rate limited, so retrying doesn't flood the target.
+		Flux<LogMessage> stream = scheduler.stream(debugLog("operations.applications.logs()",
 			_operations.applications()
 			.logs(LogsRequest.builder()
 				.name(appName)
@@ -375,7 +382,7 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 				.recent(false)
 				.build()
 			)
-		)
+		))
 		.retryWhen(retryInterval(Duration.ofMillis(500), Duration.ofMinutes(1)))
 		;
 
@@ -471,6 +478,10 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 		);
 	}
 
+	public RequestScheduler.Stats getRequestStats() {
+		return scheduler.getStats();
+	}
+
 	@Override
 	public void logout() {
 		_operations = null;
@@ -1242,6 +1253,29 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 	//// calls to client and operations with 'logging'.
 
 	private <T> Flux<T> log(String msg, Flux<T> flux) {
+		return scheduler.schedule(debugLog(msg, flux));
+	}
+
+	private <T> Mono<T> log(String msg, Mono<T> mono) {
+		return scheduler.schedule(isQuery(msg) ? msg : null, debugLog(msg, mono));
+	}
+
+	/**
+	 * Decides whether a request only reads from the target, so that identical requests in flight at
+	 * the same time can share a single response. Relies on the operation names used in the log
+	 * messages (e.g. 'client.stacks.get(id=...)' or 'operations.routes.list(...)').
+	 */
+	private static boolean isQuery(String msg) {
+		String call = msg.replace("()", "");
+		int end = call.indexOf('(');
+		if (end>=0) {
+			call = call.substring(0, end);
+		}
+		String op = call.substring(call.lastIndexOf('.')+1);
+		return op.startsWith("get") || op.startsWith("list");
+	}
+
+	private <T> Flux<T> debugLog(String msg, Flux<T> flux) {
 		if (DEBUG) {
 			return flux
 			.doOnSubscribe((sub) -> debug(">>> "+msg))
@@ -1259,7 +1293,7 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 		}
 	}
 
-	private <T> Mono<T> log(String msg, Mono<T> mono) {
+	private <T> Mono<T> debugLog(String msg, Mono<T> mono) {
 		if (DEBUG) {
 			return mono
 			.doOnSubscribe((sub) -> debug(">>> "+msg))
@@ -1292,17 +1326,49 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 	}
 
 	private Mono<ImmutableList<CFApplication>> operations_listApps() {
-		return log("operations.applications.list()",
-			_operations.applications()
-			.list()
-			.map((appSummary) ->
-				CFWrappingV2.wrap(appSummary, getApplicationExtras(appSummary.getName()))
+		//The versions are only used to tell which apps changed, when only those are refreshed.
+		Mono<Map<String, String>> appVersions = AppChangeTracker.isEnabled()
+				? getAppVersions()
+				: Mono.just(ImmutableMap.<String, String>of());
+		return appVersions.then((versions) ->
+			log("operations.applications.list()",
+				_operations.applications()
+				.list()
+				.map((appSummary) ->
+					CFWrappingV2.wrap(appSummary, getApplicationExtras(appSummary.getName()), versions.get(appSummary.getId()))
+				)
+				.collectList()
+				.map(ImmutableList::copyOf)
 			)
-			.collectList()
-			.map(ImmutableList::copyOf)
 		);
 	}
 
+	/**
+	 * Fetches the metadata version of all the apps in the space, so that clients can tell which
+	 * apps changed since they last looked at them. This is only a hint, so when it fails an empty
+	 * map is returned rather than failing the list of apps.
+	 *
+	 * @return Map from app guid to version.
+	 */
+	private Mono<Map<String, String>> getAppVersions() {
+		return spaceId.flatMap((spaceId) ->
+			PaginationUtils.requestClientV2Resources((page) ->
+				client_listSpaceApplications(spaceId, page)
+			)
+		)
+		.collectMap(
+				(ApplicationResource app) -> app.getMetadata().getId(),
+				(ApplicationResource app) -> {
+					String version = app.getEntity().getVersion();
+					return version!=null ? version : app.getMetadata().getUpdatedAt();
+				}
+		)
+		.otherwise((error) -> {
+			Log.log(new IOException("Failed to fetch app versions", error));
+			return Mono.just(ImmutableMap.<String, String>of());
+		});
+	}
+
 	private Mono<GetApplicationResponse> client_getApplication(UUID appId) {
 		return log("client.applicationsV2.get(id="+appId+")",
 			_client.applicationsV2()
@@ -1343,6 +1409,17 @@ public class DefaultClientRequestsV2 implements ClientRequests {
 		);
 	}
 
+	private Mono<ListSpaceApplicationsResponse> client_listSpaceApplications(String spaceId, Integer page) {
+		return log("client.spaces.listApplications(spaceId="+spaceId+", page="+page+")",
+			_client.spaces().listApplications(ListSpaceApplicationsRequest.builder()
+				.spaceId(spaceId)
+				.page(page)
+				.resultsPerPage(100)
+				.build()
+			)
+		);
+	}
+
 	private Mono<ListBuildpacksResponse> client_listBuildpacks(Integer page) {
 		return log("client.buildpacks.list(page="+page+")",
 			_client.buildpacks()
@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.v2;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.Assert;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Schedules the requests made by a client to a single target, so that refreshing several
+ * things at once doesn't flood the cloud controller with requests (and get 429 errors back):
+ * <ul>
+ *   <li>At most a given number of requests are in flight at the same time. Others wait in a queue.</li>
+ *   <li>Requests are started at a limited rate (token bucket, allowing short bursts).</li>
+ *   <li>Identical queries that are in flight at the same time are only sent once, and share their result.</li>
+ * </ul>
+ * Requests are cold publishers, and are only scheduled when they are subscribed to.
+ */
+public class RequestScheduler {
+
+	public static final String MAX_IN_FLIGHT_PROPERTY = "sts.boot.dash.cf.maxRequestsInFlight";
+	public static final String REQUESTS_PER_SECOND_PROPERTY = "sts.boot.dash.cf.requestsPerSecond";
+
+	private static final int DEFAULT_MAX_IN_FLIGHT = 8;
+	private static final int DEFAULT_REQUESTS_PER_SECOND = 20;
+
+	/**
+	 * Snapshot of the metrics of a scheduler.
+	 */
+	public static class Stats {
+		public final int inFlight;
+		public final int queued;
+		public final int maxQueued;
+		public final long completed;
+		public final long coalesced;
+		public final Duration averageWait;
+		public final Duration averageLatency;
+		public final Duration maxLatency;
+
+		Stats(int inFlight, int queued, int maxQueued, long completed, long coalesced, long totalWaitNanos, long totalLatencyNanos, long maxLatencyNanos) {
+			this.inFlight = inFlight;
+			this.queued = queued;
+			this.maxQueued = maxQueued;
+			this.completed = completed;
+			this.coalesced = coalesced;
+			this.averageWait = Duration.ofNanos(completed==0 ? 0 : totalWaitNanos / completed);
+			this.averageLatency = Duration.ofNanos(completed==0 ? 0 : totalLatencyNanos / completed);
+			this.maxLatency = Duration.ofNanos(maxLatencyNanos);
+		}
+
+		@Override
+		public String toString() {
+			return "RequestScheduler.Stats [inFlight=" + inFlight + ", queued=" + queued + ", maxQueued=" + maxQueued
+					+ ", completed=" + completed + ", coalesced=" + coalesced + ", averageWait=" + averageWait.toMillis()
+					+ "ms, averageLatency=" + averageLatency.toMillis() + "ms, maxLatency=" + maxLatency.toMillis() + "ms]";
+		}
+	}
+
+	/**
+	 * Token bucket. Holds at most 'burst' tokens and is refilled at a constant rate.
+	 */
+	private static class TokenBucket {
+		private final long nanosPerToken;
+		private final long burst;
+		private long tokens;
+		private long lastRefill = System.nanoTime();
+
+		TokenBucket(int tokensPerSecond, int burst) {
+			this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / tokensPerSecond;
+			this.burst = burst;
+			this.tokens = burst;
+		}
+
+		/**
+		 * Takes a token if one is available.
+		 *
+		 * @return 0 if a token was taken, otherwise the time in nanos until one is available.
+		 */
+		long tryTake() {
+			long now = System.nanoTime();
+			long refill = (now - lastRefill) / nanosPerToken;
+			if (refill>0) {
+				tokens = Math.min(burst, tokens + refill);
+				lastRefill = tokens==burst ? now : lastRefill + refill * nanosPerToken;
+			}
+			if (tokens>0) {
+				tokens--;
+				return 0;
+			}
+			return lastRefill + nanosPerToken - now;
+		}
+	}
+
+	/**
+	 * A request waiting for a permit (if it needs one) and a token.
+	 */
+	private class Ticket {
+		final boolean needsPermit;
+		final long createdAt = System.nanoTime();
+		final AtomicBoolean released = new AtomicBoolean();
+		MonoSink<Void> sink;
+		long startedAt = 0; //guarded by the scheduler
+
+		Ticket(boolean needsPermit) {
+			this.needsPermit = needsPermit;
+		}
+
+		Mono<Void> acquire() {
+			return Mono.create((sink) -> {
+				this.sink = sink;
+				sink.setCancellation(() -> cancel(this));
+				enqueue(this);
+			});
+		}
+
+		void release() {
+			if (released.compareAndSet(false, true)) {
+				completed(this);
+			}
+		}
+	}
+
+	private final int maxInFlight;
+	private final TokenBucket bucket;
+
+	//All of the below are guarded by 'this'
+	private final Queue<Ticket> queue = new ArrayDeque<>();
+	private int inFlight = 0;
+	private int maxQueued = 0;
+	private boolean drainScheduled = false;
+	private long completed = 0;
+	private long totalWaitNanos = 0;
+	private long totalLatencyNanos = 0;
+	private long maxLatencyNanos = 0;
+
+	private final AtomicLong coalesced = new AtomicLong();
+	private final Map<String, Mono<?>> queries = new ConcurrentHashMap<>();
+
+	public RequestScheduler(int maxInFlight, int requestsPerSecond) {
+		Assert.isLegal(maxInFlight>0 && requestsPerSecond>0);
+		this.maxInFlight = maxInFlight;
+		this.bucket = new TokenBucket(requestsPerSecond, Math.max(1, requestsPerSecond / 2));
+	}
+
+	/**
+	 * Creates a scheduler configured by system properties (see {@link #MAX_IN_FLIGHT_PROPERTY}
+	 * and {@link #REQUESTS_PER_SECOND_PROPERTY}).
+	 */
+	public static RequestScheduler fromSystemProperties() {
+		return new RequestScheduler(
+				Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, DEFAULT_MAX_IN_FLIGHT),
+				Integer.getInteger(REQUESTS_PER_SECOND_PROPERTY, DEFAULT_REQUESTS_PER_SECOND)
+		);
+	}
+
+	/**
+	 * Schedule a request.
+	 *
+	 * @param queryKey Identifies a request that doesn't change anything on the target. Requests with
+	 *             the same key that are in flight at the same time are only sent once. Use null for
+	 *             requests that should never be coalesced.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Mono<T> schedule(String queryKey, Mono<T> request) {
+		if (queryKey==null) {
+			return schedule(request);
+		}
+		return Mono.defer(() -> {
+			AtomicReference<Mono<T>> created = new AtomicReference<>();
+			Mono<T> shared = (Mono<T>) queries.computeIfAbsent(queryKey, (k) -> {
+				Mono<T> it = schedule(request)
+						.doOnTerminate((v, e) -> queries.remove(queryKey, created.get()))
+						.cache();
+				created.set(it);
+				return it;
+			});
+			if (shared!=created.get()) {
+				coalesced.incrementAndGet();
+			}
+			return shared;
+		});
+	}
+
+	public <T> Mono<T> schedule(Mono<T> request) {
+		return Mono.defer(() -> {
+			Ticket ticket = new Ticket(true);
+			return ticket.acquire()
+					.then(request)
+					.doOnTerminate((v, e) -> ticket.release())
+					.doOnCancel(ticket::release);
+		});
+	}
+
+	public <T> Flux<T> schedule(Flux<T> request) {
+		return Flux.defer(() -> {
+			Ticket ticket = new Ticket(true);
+			return ticket.acquire()
+					.thenMany(request)
+					.doOnTerminate(ticket::release)
+					.doOnCancel(ticket::release);
+		});
+	}
+
+	/**
+	 * Schedule a long-lived request (e.g. streaming logs). It doesn't count against the maximum
+	 * number of requests in flight, but its (re)subscriptions are rate limited.
+	 */
+	public <T> Flux<T> stream(Flux<T> request) {
+		return Flux.defer(() -> {
+			Ticket ticket = new Ticket(false);
+			return ticket.acquire().thenMany(request);
+		});
+	}
+
+	public synchronized Stats getStats() {
+		return new Stats(inFlight, queue.size(), maxQueued, completed, coalesced.get(), totalWaitNanos, totalLatencyNanos, maxLatencyNanos);
+	}
+
+	private void enqueue(Ticket ticket) {
+		synchronized (this) {
+			queue.add(ticket);
+			maxQueued = Math.max(maxQueued, queue.size());
+		}
+		drain();
+	}
+
+	private synchronized void cancel(Ticket ticket) {
+		queue.remove(ticket);
+	}
+
+	private void completed(Ticket ticket) {
+		synchronized (this) {
+			if (ticket.startedAt==0) {
+				//Canceled before it was started.
+				return;
+			}
+			inFlight--;
+			long latency = System.nanoTime() - ticket.createdAt;
+			completed++;
+			totalWaitNanos += ticket.startedAt - ticket.createdAt;
+			totalLatencyNanos += latency;
+			maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+		}
+		drain();
+	}
+
+	/**
+	 * Start as many of the queued requests as permits and tokens allow. Requests are started
+	 * outside of the lock, as they may run (and complete) synchronously.
+	 */
+	private void drain() {
+		Ticket next;
+		while ((next = nextToStart())!=null) {
+			next.sink.success();
+		}
+	}
+
+	private synchronized Ticket nextToStart() {
+		Ticket next = queue.peek();
+		if (next==null) {
+			return null;
+		}
+		if (next.needsPermit && inFlight>=maxInFlight) {
+			//Wait for a request to complete.
+			return null;
+		}
+		long wait = bucket.tryTake();
+		if (wait>0) {
+			if (!drainScheduled) {
+				drainScheduled = true;
+				Mono.delay(Duration.ofNanos(wait)).subscribe((x) -> delayedDrain());
+			}
+			return null;
+		}
+		queue.remove();
+		if (next.needsPermit) {
+			inFlight++;
+			next.startedAt = System.nanoTime();
+		}
+		return next;
+	}
+
+	private void delayedDrain() {
+		synchronized (this) {
+			drainScheduled = false;
+		}
+		drain();
+	}
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.cloudfoundry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.CFApplication;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Remembers a 'change token' for the apps whose details were last fetched, so that a refresh
+ * only needs to fetch the details of the apps that changed since then, rather than those of
+ * all the apps in the space.
+ * <p>
+ * The token is computed from the basic info returned by the (cheap) list of apps. It includes
+ * the app's version on the cloud controller when known. Changes not reflected in the basic info
+ * may go unnoticed until the next full refresh, so this is only used when enabled (see
+ * {@link #ENABLED_PROPERTY}), and the details of all apps are still fetched periodically (see
+ * {@link #FULL_REFRESH_INTERVAL_PROPERTY}).
+ */
+public class AppChangeTracker {
+
+	public static final String ENABLED_PROPERTY = "sts.boot.dash.cf.incrementalRefresh";
+
+	/**
+	 * Milliseconds after which a refresh fetches the details of all apps again, changed or not.
+	 */
+	public static final String FULL_REFRESH_INTERVAL_PROPERTY = "sts.boot.dash.cf.fullRefreshInterval";
+	private static final long DEFAULT_FULL_REFRESH_INTERVAL = 10 * 60 * 1000;
+
+	public static boolean isEnabled() {
+		return System.getProperty(ENABLED_PROPERTY, "false").equals("true");
+	}
+
+	private static long getFullRefreshInterval() {
+		try {
+			return Long.parseLong(System.getProperty(FULL_REFRESH_INTERVAL_PROPERTY, ""+DEFAULT_FULL_REFRESH_INTERVAL));
+		} catch (NumberFormatException e) {
+			return DEFAULT_FULL_REFRESH_INTERVAL;
+		}
+	}
+
+	private final Map<UUID, String> tokens = new HashMap<>();
+	private long lastFullRefresh = 0;
+
+	public static String changeToken(CFApplication app) {
+		return app.getName()
+				+ "|" + app.getVersion()
+				+ "|" + app.getState()
+				+ "|" + app.getInstances()
+				+ "|" + app.getRunningInstances()
+				+ "|" + app.getMemory()
+				+ "|" + app.getDiskQuota()
+				+ "|" + app.getUris();
+	}
+
+	/**
+	 * Determines which apps need their details fetched. Apps that are no longer in the list are
+	 * forgotten.
+	 *
+	 * @param apps The basic info of all the apps in the space.
+	 * @param hasDetails Tells whether the details of an app are still present in the model.
+	 * @return The apps that are new, that changed since their details were fetched, or whose
+	 * details are missing. Or all the apps, if the last full refresh was too long ago.
+	 */
+	public synchronized List<CFApplication> getChanged(List<CFApplication> apps, Predicate<CFApplication> hasDetails) {
+		long now = System.currentTimeMillis();
+		if (now - lastFullRefresh >= getFullRefreshInterval()) {
+			lastFullRefresh = now;
+			tokens.clear();
+			return apps;
+		}
+		Set<UUID> present = new HashSet<>();
+		ImmutableList.Builder<CFApplication> changed = ImmutableList.builder();
+		for (CFApplication app : apps) {
+			present.add(app.getGuid());
+			if (!changeToken(app).equals(tokens.get(app.getGuid())) || !hasDetails.test(app)) {
+				changed.add(app);
+			}
+		}
+		tokens.keySet().retainAll(present);
+		return changed.build();
+	}
+
+	/**
+	 * Called when the details of an app have been fetched.
+	 *
+	 * @param app The basic info of the app, as it was when the details were requested.
+	 */
+	public synchronized void refreshed(CFApplication app) {
+		tokens.put(app.getGuid(), changeToken(app));
+	}
+
+	public synchronized void clear() {
+		tokens.clear();
+		lastFullRefresh = 0;
+	}
+
+}
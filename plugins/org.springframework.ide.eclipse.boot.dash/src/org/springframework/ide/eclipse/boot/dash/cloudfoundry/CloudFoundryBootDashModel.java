@@ -149,6 +149,7 @@ public class CloudFoundryBootDashModel extends AbstractBootDashModel implements
 
 	private final LiveSetVariable<CloudServiceInstanceDashElement> services = new LiveSetVariable<>(AsyncMode.SYNC);
 	private final CloudDashApplications applications = new CloudDashApplications(this);
+	private final AppChangeTracker appChangeTracker = new AppChangeTracker();
 	private final ObservableSet<BootDashElement> allElements = LiveSets.union(applications.getApplications(), services);
 
 	private BootDashModelConsoleManager consoleManager;
@@ -537,6 +538,10 @@ public class CloudFoundryBootDashModel extends AbstractBootDashModel implements
 	}
 
 
+	public AppChangeTracker getAppChangeTracker() {
+		return appChangeTracker;
+	}
+
 	public OperationsExecution getOperationsExecution() {
 		return new OperationsExecution(this);
 	}
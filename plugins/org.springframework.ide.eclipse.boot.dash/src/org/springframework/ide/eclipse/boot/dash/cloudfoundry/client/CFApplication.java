@@ -32,4 +32,12 @@ public interface CFApplication extends CFEntity {
 
 	Map<String,String> getEnvAsMap();
 	String getHealthCheckType();
+
+	/**
+	 * Version of the application's metadata on the cloud controller. It changes whenever the
+	 * application is updated (e.g. scaled, restaged or its env changed).
+	 *
+	 * @return The version, or null if it is not known.
+	 */
+	String getVersion();
 }
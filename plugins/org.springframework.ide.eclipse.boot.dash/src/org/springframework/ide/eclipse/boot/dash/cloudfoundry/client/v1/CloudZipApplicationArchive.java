@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,22 +10,93 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.v1;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.cloudfoundry.client.lib.archive.ZipApplicationArchive;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging.FileDigests;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging.ResourceFingerprints;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging.ResourceFingerprints.Fingerprint;
 
 public class CloudZipApplicationArchive extends ZipApplicationArchive {
 
 	protected final ZipFile zipFile;
 
+	private List<Entry> entries;
+
 	public CloudZipApplicationArchive(ZipFile zipFile) {
 		super(zipFile);
 		this.zipFile = zipFile;
 	}
 
+	/**
+	 * If fingerprints were saved when the archive was packaged, use those for matching
+	 * resources with the ones already known to the cloud controller, instead of reading
+	 * and digesting every entry again.
+	 */
+	@Override
+	public synchronized Iterable<Entry> getEntries() {
+		if (entries==null) {
+			ResourceFingerprints fingerprints = ResourceFingerprints.load(new File(zipFile.getName()));
+			entries = new ArrayList<>();
+			for (Entry entry : super.getEntries()) {
+				Fingerprint fp = null;
+				if (fingerprints!=null && !entry.isDirectory()) {
+					ZipEntry zipEntry = zipFile.getEntry(entry.getName());
+					if (zipEntry!=null) {
+						fp = fingerprints.get(zipEntry);
+					}
+				}
+				entries.add(fp==null ? entry : new FingerprintedEntry(entry, fp));
+			}
+		}
+		return entries;
+	}
+
 	public void close() throws Exception {
 		if (zipFile != null) {
 			zipFile.close();
 		}
 	}
+
+	private static class FingerprintedEntry implements Entry {
+
+		private final Entry entry;
+		private final Fingerprint fingerprint;
+
+		FingerprintedEntry(Entry entry, Fingerprint fingerprint) {
+			this.entry = entry;
+			this.fingerprint = fingerprint;
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return entry.isDirectory();
+		}
+
+		@Override
+		public String getName() {
+			return entry.getName();
+		}
+
+		@Override
+		public long getSize() {
+			return fingerprint.size;
+		}
+
+		@Override
+		public byte[] getSha1Digest() {
+			return FileDigests.fromHex(fingerprint.sha1);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return entry.getInputStream();
+		}
+	}
 }
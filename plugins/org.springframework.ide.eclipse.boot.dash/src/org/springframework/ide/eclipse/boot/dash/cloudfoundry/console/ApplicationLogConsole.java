@@ -11,8 +11,17 @@
 package org.springframework.ide.eclipse.boot.dash.cloudfoundry.console;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.cloudfoundry.doppler.LogMessage;
 import org.eclipse.debug.ui.IDebugUIConstants;
@@ -30,15 +39,66 @@ import org.springframework.ide.eclipse.boot.util.Log;
 
 import reactor.core.Cancellation;
 
+/**
+ * Console for the logs of a Cloud Foundry app.
+ * <p>
+ * Log lines are not written to the console right away. They are added to a bounded buffer, which
+ * is drained in batches at a fixed rate. This way the thread that delivers the logs never waits
+ * for the console. When lines come in faster than the console can show them, the oldest ones are
+ * dropped and a line saying how many were dropped is written instead. Messages from the IDE itself
+ * (e.g. push progress and errors) are never dropped.
+ */
 @SuppressWarnings("restriction")
 public class ApplicationLogConsole extends MessageConsole implements IPropertyChangeListener, IApplicationLogConsole {
 
+	public static final String MAX_PENDING_LINES_PROPERTY = "sts.boot.dash.cf.console.maxPendingLines";
+	public static final String MAX_RETAINED_CHARS_PROPERTY = "sts.boot.dash.cf.console.maxRetainedChars";
+
+	/**
+	 * Time between two batches written to the console.
+	 */
+	private static final long FRAME_INTERVAL = 50/*ms*/;
+
+	/**
+	 * Maximum number of lines written to the console in a single batch.
+	 */
+	private static final int MAX_BATCH_LINES = 2000;
+
+	private static final ScheduledExecutorService DRAINER = Executors.newSingleThreadScheduledExecutor((r) -> {
+		Thread t = new Thread(r, "Cloud Foundry Log Console Writer");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private static class LogLine {
+		final String message;
+		final LogType type;
+		final long sequence;
+
+		LogLine(String message, LogType type, long sequence) {
+			this.message = message;
+			this.type = type;
+			this.sequence = sequence;
+		}
+	}
+
 	private Map<LogType, IOConsoleOutputStream> activeStreams = new HashMap<>();
 
 	private Cancellation logStreamingToken;
 
+	private final LogRingBuffer<LogLine> pending = new LogRingBuffer<>(Integer.getInteger(MAX_PENDING_LINES_PROPERTY, 10000));
+	private final Queue<LogLine> pendingIdeMessages = new ArrayDeque<>(); //guarded by 'pending'
+	private long lineCount = 0; //guarded by 'pending'
+	private ScheduledFuture<?> scheduledDrain; //guarded by 'pending'
+	private volatile boolean closed = false;
+
 	public ApplicationLogConsole(String name, String type) {
 		super(name, type, BootDashActivator.getImageDescriptor("icons/cloud_obj.png"), true);
+		int maxChars = Integer.getInteger(MAX_RETAINED_CHARS_PROPERTY, 2000000);
+		if (maxChars>0) {
+			//Console trims its contents to the low water mark when they exceed the high one.
+			setWaterMarks(maxChars * 4 / 5, maxChars);
+		}
 	}
 
 	public synchronized void setLogStreamingToken(Cancellation logStreamingToken) {
@@ -52,7 +112,7 @@ public class ApplicationLogConsole extends MessageConsole implements IPropertyCh
 		return this.logStreamingToken;
 	}
 
-	public synchronized void writeLog(LogMessage log) {
+	public void writeLog(LogMessage log) {
 		if (log == null) {
 			return;
 		}
@@ -61,26 +121,97 @@ public class ApplicationLogConsole extends MessageConsole implements IPropertyCh
 	}
 
 	/**
+	 * Queue a message to be written to the console.
 	 *
 	 * @param message
 	 * @param type
-	 * @return true if successfully wrote to stream. False otherwise
+	 * @return true if the message was queued. False if there is no message or the console is closed.
 	 */
-	public synchronized boolean writeApplicationLog(String message, LogType type) {
-		if (message != null) {
-			IOConsoleOutputStream stream = getStream(type);
+	public boolean writeApplicationLog(String message, LogType type) {
+		if (message != null && !closed) {
+			synchronized (pending) {
+				LogLine line = new LogLine(message, type, lineCount++);
+				if (isIdeMessage(type)) {
+					pendingIdeMessages.add(line);
+				} else {
+					pending.add(line);
+				}
+				if (scheduledDrain == null) {
+					scheduledDrain = DRAINER.schedule(this::drain, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isIdeMessage(LogType type) {
+		return type == LogType.LOCALSTDOUT || type == LogType.LOCALSTDERROR;
+	}
+
+	/**
+	 * Write a batch of queued lines. Consecutive lines of the same type are written as a single
+	 * chunk of text.
+	 */
+	private void drain() {
+		LogRingBuffer.Batch<LogLine> batch;
+		List<LogLine> lines;
+		synchronized (pending) {
+			batch = pending.drain(MAX_BATCH_LINES);
+			lines = new ArrayList<>(batch.lines);
+			//IDE messages queued after the app log lines still in the buffer have to wait for those.
+			long last = pending.isEmpty() ? Long.MAX_VALUE : lines.get(lines.size() - 1).sequence;
+			while (!pendingIdeMessages.isEmpty() && pendingIdeMessages.peek().sequence <= last) {
+				lines.add(pendingIdeMessages.remove());
+			}
+			lines.sort(Comparator.comparingLong(line -> line.sequence));
+			scheduledDrain = (pending.isEmpty() && pendingIdeMessages.isEmpty()) || closed
+					? null
+					: DRAINER.schedule(this::drain, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
+		}
+		if (batch.dropped > 0) {
+			write("[" + batch.dropped + " log lines dropped, the console can't keep up]\n", LogType.LOCALSTDERROR);
+		}
+		StringBuilder text = new StringBuilder();
+		LogType textType = null;
+		for (LogLine line : lines) {
+			if (line.type != textType) {
+				write(text.toString(), textType);
+				text.setLength(0);
+				textType = line.type;
+			}
+			text.append(format(line.message));
+		}
+		write(text.toString(), textType);
+	}
 
+	private void write(String text, LogType type) {
+		if (type != null && !text.isEmpty() && !closed) {
+			IOConsoleOutputStream stream = getStream(type);
 			try {
 				if (stream != null && !stream.isClosed()) {
-					message = format(message);
-					stream.write(message);
-					return true;
+					stream.write(text);
 				}
 			} catch (IOException e) {
 				BootDashActivator.log(e);
 			}
 		}
-		return false;
+	}
+
+	/**
+	 * @return The number of log lines that were dropped because the console couldn't keep up.
+	 */
+	public long getDroppedLineCount() {
+		return pending.getDroppedCount();
+	}
+
+	/**
+	 * @return The number of log lines received by this console.
+	 */
+	public long getLineCount() {
+		synchronized (pending) {
+			return lineCount;
+		}
 	}
 
 	protected static String format(String message) {
@@ -92,6 +223,15 @@ public class ApplicationLogConsole extends MessageConsole implements IPropertyCh
 
 	public synchronized void close() {
 		setLogStreamingToken(null);
+		closed = true;
+		synchronized (pending) {
+			if (scheduledDrain != null) {
+				scheduledDrain.cancel(false);
+				scheduledDrain = null;
+			}
+			pending.clear();
+			pendingIdeMessages.clear();
+		}
 
 		for (IOConsoleOutputStream outputStream : activeStreams.values()) {
 			if (!outputStream.isClosed()) {
@@ -107,13 +247,23 @@ public class ApplicationLogConsole extends MessageConsole implements IPropertyCh
 		manager.removeConsoles(new IConsole[] { this });
 	}
 
+	@Override
+	public void clearConsole() {
+		//Lines that weren't written yet are cleared as well.
+		synchronized (pending) {
+			pending.clear();
+			pendingIdeMessages.clear();
+		}
+		super.clearConsole();
+	}
+
 	protected synchronized IOConsoleOutputStream getStream(final LogType logType) {
 
 		IOConsoleOutputStream stream = activeStreams.get(logType);
-		// If the console is no longer managed by the Eclipse console manager,
+		// If the console is closed or no longer managed by the Eclipse console manager,
 		// do NOT
 		// write to the stream to avoid exceptions
-		if (!isStillManaged() || (stream != null && stream.isClosed())) {
+		if (closed || !isStillManaged() || (stream != null && stream.isClosed())) {
 			return null;
 		}
 		if (stream == null) {
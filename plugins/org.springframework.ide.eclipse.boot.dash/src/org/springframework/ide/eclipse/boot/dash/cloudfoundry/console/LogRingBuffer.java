@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.cloudfoundry.console;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Bounded buffer of log lines waiting to be written. Adding never blocks: when the buffer is
+ * full the oldest line is dropped to make room.
+ */
+public class LogRingBuffer<T> {
+
+	/**
+	 * Lines taken from the buffer, and the number of lines dropped since the previous batch.
+	 */
+	public static class Batch<T> {
+		public final List<T> lines;
+		public final long dropped;
+
+		Batch(List<T> lines, long dropped) {
+			this.lines = lines;
+			this.dropped = dropped;
+		}
+
+		public boolean isEmpty() {
+			return lines.isEmpty() && dropped==0;
+		}
+	}
+
+	private final Object[] lines;
+	private int head = 0;
+	private int size = 0;
+
+	private long added = 0;
+	private long dropped = 0;
+	private long droppedSinceDrain = 0;
+
+	public LogRingBuffer(int capacity) {
+		Assert.isLegal(capacity>0);
+		this.lines = new Object[capacity];
+	}
+
+	public synchronized void add(T line) {
+		if (size==lines.length) {
+			//Drop oldest
+			lines[head] = null;
+			head = (head + 1) % lines.length;
+			size--;
+			dropped++;
+			droppedSinceDrain++;
+		}
+		lines[(head + size) % lines.length] = line;
+		size++;
+		added++;
+	}
+
+	/**
+	 * Take up to a given number of the oldest lines from the buffer.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized Batch<T> drain(int max) {
+		int n = Math.min(max, size);
+		List<T> batch = n==0 ? Collections.emptyList() : new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			batch.add((T) lines[head]);
+			lines[head] = null;
+			head = (head + 1) % lines.length;
+		}
+		size -= n;
+		Batch<T> it = new Batch<>(batch, droppedSinceDrain);
+		droppedSinceDrain = 0;
+		return it;
+	}
+
+	public synchronized void clear() {
+		while (size>0) {
+			lines[head] = null;
+			head = (head + 1) % lines.length;
+			size--;
+		}
+		droppedSinceDrain = 0;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized boolean isEmpty() {
+		return size==0;
+	}
+
+	/**
+	 * @return Total number of lines ever added to this buffer.
+	 */
+	public synchronized long getAddedCount() {
+		return added;
+	}
+
+	/**
+	 * @return Total number of lines dropped because the buffer was full.
+	 */
+	public synchronized long getDroppedCount() {
+		return dropped;
+	}
+
+}
@@ -11,10 +11,14 @@
 package org.springframework.ide.eclipse.boot.dash.cloudfoundry.ops;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.AppChangeTracker;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.CloudFoundryBootDashModel;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.CFApplication;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.CFApplicationDetail;
@@ -45,8 +49,19 @@ public class AppInstancesRefreshOperation extends CloudOperation {
 		try {
 			if (!appsToLookUp.isEmpty()) {
 				Duration timeToWait = Duration.ofSeconds(30);
+				Map<UUID, CFApplication> summaries = new HashMap<>();
+				for (CFApplication app : appsToLookUp) {
+					summaries.put(app.getGuid(), app);
+				}
+				AppChangeTracker tracker = model.getAppChangeTracker();
 				model.getRunTarget().getClient().getApplicationDetails(appsToLookUp)
-				.doOnNext(this.model::updateApplication)
+				.doOnNext((detail) -> {
+					this.model.updateApplication(detail);
+					CFApplication summary = summaries.get(detail.getGuid());
+					if (summary!=null) {
+						tracker.refreshed(summary);
+					}
+				})
 				.then()
 				.block(timeToWait);
 			}
@@ -15,6 +15,7 @@ import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.springframework.ide.eclipse.boot.dash.cloudfoundry.AppChangeTracker;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.CloudAppDashElement;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.CloudFoundryBootDashModel;
 import org.springframework.ide.eclipse.boot.dash.cloudfoundry.client.CFApplication;
@@ -65,21 +66,33 @@ public final class TargetApplicationsRefreshOperation extends CloudOperation {
 				this.model.updateAppNames(getNames(apps));
 
 				// 2. Launch the slower app stats/instances refresh operation.
-				this.model.runAsynch(new AppInstancesRefreshOperation(this.model, apps), ui);
+				// When enabled, only for the apps that changed since they were last looked up.
+				List<CFApplication> appsToLookUp = apps;
+				if (AppChangeTracker.isEnabled()) {
+					appsToLookUp = model.getAppChangeTracker().getChanged(apps, this::hasDetails);
+				}
+				this.model.runAsynch(new AppInstancesRefreshOperation(this.model, appsToLookUp), ui);
 				model.setBaseRefreshState(RefreshState.READY);
 			} catch (Exception e) {
 				/*
 				 * Failed to obtain applications list from CF
 				 */
 				model.updateElements(null);
+				model.getAppChangeTracker().clear();
 				model.setBaseRefreshState(RefreshState.error(e));
 				throw e;
 			}
 		} else {
 			model.updateElements(null);
+			model.getAppChangeTracker().clear();
 		}
 	}
 
+	private boolean hasDetails(CFApplication app) {
+		CloudAppDashElement element = model.getApplication(app.getName());
+		return element!=null && element.getSummaryData()!=null;
+	}
+
 	private Collection<String> getNames(List<CFApplication> apps) {
 		Builder<String> builder = ImmutableList.builder();
 		for (CFApplication app : apps) {
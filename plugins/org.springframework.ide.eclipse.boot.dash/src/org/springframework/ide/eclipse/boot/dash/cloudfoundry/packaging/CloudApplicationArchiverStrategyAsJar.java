@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,13 +14,20 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -28,6 +35,7 @@ import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
+import org.json.JSONException;
 import org.springframework.boot.loader.tools.JarWriter;
 import org.springframework.boot.loader.tools.Libraries;
 import org.springframework.boot.loader.tools.Library;
@@ -43,9 +51,38 @@ import org.springframework.ide.eclipse.boot.util.JavaProjectUtil;
 import org.springframework.ide.eclipse.boot.util.Log;
 import org.springsource.ide.eclipse.commons.frameworks.core.maintype.MainTypeFinder;
 
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
 public class CloudApplicationArchiverStrategyAsJar implements CloudApplicationArchiverStrategy {
 
 	private static final String TEMP_FOLDER_NAME = "springidetempFolderForJavaAppJar";
+
+	/**
+	 * Folder where the last archive built for each project is kept, so it can be pushed again
+	 * as is if none of its contents changed. It has a sub folder for each workspace, so that
+	 * projects with the same name in different workspaces don't overwrite each other's archives.
+	 */
+	private static final String CACHE_FOLDER_NAME = "springideJavaAppJarCache";
+
+	/**
+	 * Locks for the cache folders, so that an archive isn't checked while another push of the same
+	 * project is replacing it.
+	 */
+	private static final ConcurrentMap<File, Object> cacheLocks = new ConcurrentHashMap<>();
+
+	/**
+	 * Set to false to package the app from scratch on every push.
+	 */
+	public static final String INCREMENTAL_PROPERTY = "sts.boot.dash.cf.incrementalArchive";
+	private static final boolean INCREMENTAL = Boolean.parseBoolean(System.getProperty(INCREMENTAL_PROPERTY, "true"));
+
+	/**
+	 * Change this when changing how archives are packaged, so that archives packaged by
+	 * older versions aren't reused.
+	 */
+	private static final String ARCHIVE_FORMAT_VERSION = "1";
+
 	private static final boolean DEBUG = false;
 
 	private static void debug(String string) {
@@ -156,13 +193,127 @@ public class CloudApplicationArchiverStrategyAsJar implements CloudApplicationAr
 		@Override
 		public File getApplicationArchive(IProgressMonitor mon) throws Exception {
 			SplitClasspath classpath = getRuntimeClasspath();
-			File tempFolder = getTempFolder();
-			File baseJar = new File(tempFolder, jp.getElementName()+".original.jar");
-			File repackagedJar = new File(tempFolder, jp.getElementName()+".repackaged.jar");
+			if (!INCREMENTAL) {
+				File tempFolder = getTempFolder();
+				File baseJar = new File(tempFolder, jp.getElementName()+".original.jar");
+				File repackagedJar = new File(tempFolder, jp.getElementName()+".repackaged.jar");
+				createBaseJar(classpath.projectContents, baseJar);
+				repackage(baseJar, classpath.dependencies, repackagedJar, tempFolder);
+				return repackagedJar;
+			}
+
+			File cacheFolder = getCacheFolder();
+			synchronized (cacheLocks.computeIfAbsent(cacheFolder, (f) -> new Object())) {
+				File repackagedJar = new File(cacheFolder, jp.getElementName()+".repackaged.jar");
+				File inputsFile = new File(cacheFolder, jp.getElementName()+".inputs");
+				String inputs = digestInputs(classpath);
+				ResourceFingerprints previous = ResourceFingerprints.load(repackagedJar);
+				if (previous!=null && inputsFile.isFile() && inputs.equals(Files.toString(inputsFile, Charsets.UTF_8))) {
+					debug("Reusing unchanged archive: "+repackagedJar);
+					return repackagedJar;
+				}
+
+				inputsFile.delete();
+				//The intermediate jars are built in the cache folder as well, so that they are covered
+				// by its lock and pushes from other workspaces don't overwrite them.
+				File baseJar = new File(cacheFolder, jp.getElementName()+".original.jar");
+				File dependenciesFolder = new File(cacheFolder, "dependencies");
+				dependenciesFolder.mkdirs();
+				//Build the archive under another name, so that a push still reading the previous one
+				// doesn't get to see a half written archive.
+				File newJar = File.createTempFile(jp.getElementName(), ".repackaged.jar.tmp", cacheFolder);
+				try {
+					createBaseJar(classpath.projectContents, baseJar);
+					repackage(baseJar, classpath.dependencies, newJar, dependenciesFolder);
+					move(newJar, repackagedJar);
+				} catch (IOException e) {
+					//E.g. on Windows the previous archive can't be replaced while it is still being uploaded.
+					throw new IOException("Failed to package application for deployment: "+repackagedJar, e);
+				} finally {
+					newJar.delete();
+					baseJar.delete();
+					File[] dependencyJars = dependenciesFolder.listFiles();
+					if (dependencyJars!=null) {
+						for (File dependencyJar : dependencyJars) {
+							dependencyJar.delete();
+						}
+					}
+				}
+				saveFingerprints(repackagedJar, previous);
+				Files.write(inputs, inputsFile, Charsets.UTF_8);
+				return repackagedJar;
+			}
+		}
 
-			createBaseJar(classpath.projectContents, baseJar);
-			repackage(baseJar, classpath.dependencies, repackagedJar);
-			return repackagedJar;
+		private void move(File from, File to) throws IOException {
+			try {
+				java.nio.file.Files.move(from.toPath(), to.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				java.nio.file.Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+
+		private void saveFingerprints(File repackagedJar, ResourceFingerprints previous) throws IOException, JSONException {
+			ResourceFingerprints fingerprints = ResourceFingerprints.compute(repackagedJar, previous);
+			debug("Fingerprints: "+fingerprints.getFingerprints().size()+" entries, "+fingerprints.getReusedCount()+" reused");
+			fingerprints.save();
+		}
+
+		/**
+		 * Computes a digest of everything that goes into the archive. The digests of the individual
+		 * files are cached (see {@link FileDigests}) so only new or changed files are read.
+		 */
+		private String digestInputs(SplitClasspath classpath) throws IOException {
+			MessageDigest digest = FileDigests.newDigest();
+			update(digest, "format:"+ARCHIVE_FORMAT_VERSION);
+			update(digest, "main:"+mainType.getFullyQualifiedName());
+			for (File outputFolder : classpath.projectContents) {
+				update(digest, "contents:"+outputFolder);
+				digestFolder(digest, outputFolder, null);
+			}
+			for (File dep : classpath.dependencies) {
+				update(digest, "dependency:"+dep);
+				if (dep.isFile()) {
+					update(digest, FileDigests.sha1(dep));
+				} else if (dep.isDirectory()) {
+					digestFolder(digest, dep, null);
+				}
+			}
+			return FileDigests.toHex(digest.digest());
+		}
+
+		private void digestFolder(MessageDigest digest, File baseFolder, String relativePath) throws IOException {
+			File folder = relativePath==null ? baseFolder : new File(baseFolder, relativePath);
+			String[] names = folder.list();
+			if (names!=null) {
+				Arrays.sort(names);
+				for (String name : names) {
+					String path = relativePath==null ? name : pathJoin(relativePath, name);
+					File file = new File(baseFolder, path);
+					if (file.isDirectory()) {
+						digestFolder(digest, baseFolder, path);
+					} else if (file.isFile()) {
+						update(digest, path+"="+FileDigests.sha1(file));
+					}
+				}
+			}
+		}
+
+		private void update(MessageDigest digest, String string) {
+			digest.update(string.getBytes(Charsets.UTF_8));
+			digest.update((byte) '\n');
+		}
+
+		private File getCacheFolder() throws IOException {
+			String workspace = ResourcesPlugin.getWorkspace().getRoot().getLocation().toString();
+			String workspaceKey = FileDigests.toHex(FileDigests.newDigest().digest(workspace.getBytes(Charsets.UTF_8))).substring(0, 12);
+			File cacheRoot = new File(System.getProperty("java.io.tmpdir"), CACHE_FOLDER_NAME);
+			File folder = new File(new File(cacheRoot, workspaceKey), jp.getElementName());
+			folder.mkdirs();
+			if (!folder.isDirectory()) {
+				throw new IOException("Failed to create folder for packaging application for deployment: "+folder);
+			}
+			return folder;
 		}
 
 		private File getTempFolder() throws IOException {
@@ -210,13 +361,16 @@ public class CloudApplicationArchiverStrategyAsJar implements CloudApplicationAr
 			return relativePath + "/" +name;
 		}
 
-		private void repackage(File baseJar, List<File> dependencies, File repackagedJar) throws IOException {
+		private void repackage(File baseJar, List<File> dependencies, File repackagedJar, File workFolder) throws IOException {
 			Repackager repackager = new Repackager(baseJar);
 			repackager.setMainClass(mainType.getFullyQualifiedName());
-			repackager.repackage(repackagedJar, asLibraries(dependencies));
+			repackager.repackage(repackagedJar, asLibraries(dependencies, workFolder));
 		}
 
-		private Libraries asLibraries(final List<File> dependencies) {
+		/**
+		 * @param workFolder where dependencies that are folders get packaged as jars
+		 */
+		private Libraries asLibraries(final List<File> dependencies, final File workFolder) {
 			return new Libraries() {
 				public void doWithLibraries(LibraryCallback callback) throws IOException {
 					for (File dep : dependencies) {
@@ -224,7 +378,7 @@ public class CloudApplicationArchiverStrategyAsJar implements CloudApplicationAr
 							callback.library(new Library(jarNames.createName(dep), dep, LibraryScope.COMPILE, false));
 						} else if (dep.isDirectory()) {
 							String jarName = jarNames.createName(dep);
-							File jarFile = new File(getTempFolder(), jarName);
+							File jarFile = new File(workFolder, jarName);
 							JarWriter jarWriter = new JarWriter(jarFile);
 							try {
 								writeFolder(jarWriter, dep);
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Computes SHA-1 digests of files. Digests of recently used files are remembered for as long as
+ * a file's size and timestamp don't change, so that library jars aren't read again on every push.
+ */
+public class FileDigests {
+
+	private static class CachedDigest {
+		final long size;
+		final long timestamp;
+		final String sha1;
+
+		CachedDigest(long size, long timestamp, String sha1) {
+			this.size = size;
+			this.timestamp = timestamp;
+			this.sha1 = sha1;
+		}
+	}
+
+	/**
+	 * Enough for the contents of the output folders and the dependencies of a few large apps.
+	 * The least recently used digests are forgotten first.
+	 */
+	private static final int MAX_CACHED_DIGESTS = 20000;
+
+	private static final Cache<String, CachedDigest> cache = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_DIGESTS)
+			.build();
+
+	public static String sha1(File file) throws IOException {
+		String key = file.getAbsolutePath();
+		long size = file.length();
+		long timestamp = file.lastModified();
+		CachedDigest cached = cache.getIfPresent(key);
+		if (cached!=null && cached.size==size && cached.timestamp==timestamp) {
+			return cached.sha1;
+		}
+		String sha1;
+		try (InputStream in = new FileInputStream(file)) {
+			sha1 = sha1(in);
+		}
+		cache.put(key, new CachedDigest(size, timestamp, sha1));
+		return sha1;
+	}
+
+	/**
+	 * Reads the stream to the end and computes its digest. The stream is not closed.
+	 */
+	public static String sha1(InputStream in) throws IOException {
+		MessageDigest digest = newDigest();
+		byte[] buffer = new byte[16 * 1024];
+		int read;
+		while ((read = in.read(buffer))>=0) {
+			digest.update(buffer, 0, read);
+		}
+		return toHex(digest.digest());
+	}
+
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			//Every Java platform is required to support SHA-1
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static String toHex(byte[] bytes) {
+		return BaseEncoding.base16().lowerCase().encode(bytes);
+	}
+
+	public static byte[] fromHex(String hex) {
+		return BaseEncoding.base16().lowerCase().decode(hex);
+	}
+
+}
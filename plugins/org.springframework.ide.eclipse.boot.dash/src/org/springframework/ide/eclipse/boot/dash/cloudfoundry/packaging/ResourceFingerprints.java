@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.cloudfoundry.packaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.ide.eclipse.boot.util.Log;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * The SHA-1 digests of all the entries of an application archive. This is what the cloud
+ * controller's 'resource_match' request takes, to find out which of the bits it already has,
+ * so that only the others need to be uploaded.
+ * <p>
+ * Fingerprints are saved in a file next to the archive, so they don't have to be computed
+ * again when the same archive is pushed again. When an archive is rebuilt, the digests of
+ * entries that didn't change (same name, size and crc) are taken from the fingerprints of the
+ * previous archive, rather than computed again.
+ */
+public class ResourceFingerprints {
+
+	private static final String FILE_EXTENSION = ".fingerprints";
+
+	public static class Fingerprint {
+		public final String fn;
+		public final long size;
+		public final long crc;
+		public final String sha1;
+
+		Fingerprint(String fn, long size, long crc, String sha1) {
+			this.fn = fn;
+			this.size = size;
+			this.crc = crc;
+			this.sha1 = sha1;
+		}
+
+		boolean matches(ZipEntry entry) {
+			return entry.getSize()==size && entry.getCrc()==crc;
+		}
+
+		@Override
+		public String toString() {
+			return "Fingerprint [fn=" + fn + ", size=" + size + ", sha1=" + sha1 + "]";
+		}
+	}
+
+	private final File archive;
+	private final long archiveSize;
+	private final long archiveTimestamp;
+	private final Map<String, Fingerprint> fingerprints;
+	private int reused = 0;
+
+	private ResourceFingerprints(File archive, long archiveSize, long archiveTimestamp, Map<String, Fingerprint> fingerprints) {
+		this.archive = archive;
+		this.archiveSize = archiveSize;
+		this.archiveTimestamp = archiveTimestamp;
+		this.fingerprints = fingerprints;
+	}
+
+	/**
+	 * Compute the fingerprints of all the file entries of an archive.
+	 *
+	 * @param previous Fingerprints of a previous version of the archive, used to avoid reading
+	 *             entries that didn't change. May be null.
+	 */
+	public static ResourceFingerprints compute(File archive, ResourceFingerprints previous) throws IOException {
+		ResourceFingerprints it = new ResourceFingerprints(archive, archive.length(), archive.lastModified(), new LinkedHashMap<>());
+		try (ZipFile zip = new ZipFile(archive)) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				if (!entry.isDirectory()) {
+					Fingerprint old = previous==null ? null : previous.get(entry);
+					if (old!=null) {
+						it.reused++;
+						it.fingerprints.put(entry.getName(), old);
+					} else {
+						try (InputStream in = zip.getInputStream(entry)) {
+							String sha1 = FileDigests.sha1(in);
+							it.fingerprints.put(entry.getName(), new Fingerprint(entry.getName(), entry.getSize(), entry.getCrc(), sha1));
+						}
+					}
+				}
+			}
+		}
+		return it;
+	}
+
+	/**
+	 * Load the fingerprints saved for an archive.
+	 *
+	 * @return The fingerprints, or null if there are none, or if the archive was changed after
+	 *         they were saved.
+	 */
+	public static ResourceFingerprints load(File archive) {
+		File file = getFile(archive);
+		if (archive.isFile() && file.isFile()) {
+			try {
+				JSONObject json = new JSONObject(Files.toString(file, Charsets.UTF_8));
+				long archiveSize = json.getLong("archiveSize");
+				long archiveTimestamp = json.getLong("archiveTimestamp");
+				if (archiveSize==archive.length() && archiveTimestamp==archive.lastModified()) {
+					Map<String, Fingerprint> fingerprints = new LinkedHashMap<>();
+					JSONArray resources = json.getJSONArray("resources");
+					for (int i = 0; i < resources.length(); i++) {
+						JSONObject r = resources.getJSONObject(i);
+						Fingerprint fp = new Fingerprint(r.getString("fn"), r.getLong("size"), r.getLong("crc"), r.getString("sha1"));
+						fingerprints.put(fp.fn, fp);
+					}
+					return new ResourceFingerprints(archive, archiveSize, archiveTimestamp, fingerprints);
+				}
+			} catch (Exception e) {
+				//Corrupt or from an older version. Not a problem, we can always compute them again.
+				Log.log(e);
+			}
+		}
+		return null;
+	}
+
+	public void save() throws IOException, JSONException {
+		JSONObject json = new JSONObject();
+		json.put("archiveSize", archiveSize);
+		json.put("archiveTimestamp", archiveTimestamp);
+		JSONArray resources = new JSONArray();
+		for (Fingerprint fp : fingerprints.values()) {
+			JSONObject r = toResourceMatchJson(fp);
+			r.put("crc", fp.crc);
+			resources.put(r);
+		}
+		json.put("resources", resources);
+		Files.write(json.toString(), getFile(archive), Charsets.UTF_8);
+	}
+
+	/**
+	 * @return The body of a 'resource_match' request for this archive.
+	 */
+	public JSONArray toResourceMatchJson() throws JSONException {
+		JSONArray resources = new JSONArray();
+		for (Fingerprint fp : fingerprints.values()) {
+			resources.put(toResourceMatchJson(fp));
+		}
+		return resources;
+	}
+
+	private static JSONObject toResourceMatchJson(Fingerprint fp) throws JSONException {
+		JSONObject r = new JSONObject();
+		r.put("fn", fp.fn);
+		r.put("size", fp.size);
+		r.put("sha1", fp.sha1);
+		return r;
+	}
+
+	/**
+	 * @return The fingerprint of a given archive entry, or null if this entry is not known, or
+	 *         its contents are different.
+	 */
+	public Fingerprint get(ZipEntry entry) {
+		Fingerprint fp = fingerprints.get(entry.getName());
+		if (fp!=null && fp.matches(entry)) {
+			return fp;
+		}
+		return null;
+	}
+
+	public Collection<Fingerprint> getFingerprints() {
+		return Collections.unmodifiableCollection(fingerprints.values());
+	}
+
+	/**
+	 * @return The number of fingerprints that were taken from the previous archive
+	 *         rather than computed.
+	 */
+	public int getReusedCount() {
+		return reused;
+	}
+
+	private static File getFile(File archive) {
+		return new File(archive.getPath() + FILE_EXTENSION);
+	}
+
+}
@@ -44,10 +44,10 @@ import org.springframework.ide.eclipse.boot.dash.ngrok.NGROKTunnel;
 import org.springframework.ide.eclipse.boot.dash.util.CollectionUtils;
 import org.springframework.ide.eclipse.boot.dash.util.DebugUtil;
 import org.springframework.ide.eclipse.boot.dash.util.LaunchConfRunStateTracker;
+import org.springframework.ide.eclipse.boot.dash.util.ReadyStateMonitoringService;
 import org.springframework.ide.eclipse.boot.dash.util.RunStateTracker.RunStateListener;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
 import org.springframework.ide.eclipse.boot.launch.util.BootLaunchUtils;
-import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifeCycleClientManager;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
 import org.springframework.ide.eclipse.boot.util.Log;
 import org.springframework.ide.eclipse.boot.util.RetryUtil;
@@ -497,10 +497,9 @@ public abstract class AbstractLaunchConfigurationsDashElement<T> extends Wrappin
 						int jmxPort = BootLaunchConfigurationDelegate.getJMXPortAsInt(l);
 						debug("["+this.getName()+"] getLivePort("+propName+") jmxPort = "+jmxPort);
 						if (jmxPort>0) {
-							SpringApplicationLifeCycleClientManager cm = null;
+							ReadyStateMonitoringService jmxClients = ReadyStateMonitoringService.getDefault();
 							try {
-								cm = new SpringApplicationLifeCycleClientManager(() -> jmxPort);
-								SpringApplicationLifecycleClient c = cm.getLifeCycleClient();
+								SpringApplicationLifecycleClient c = jmxClients.acquire(jmxPort).getLifeCycleClient();
 								debug("["+this.getName()+"] getLivePort("+propName+") lifeCycleClient = "+c);
 								if (c!=null) {
 									//Just because lifecycle bean is ready does not mean that the port property has already been set.
@@ -520,9 +519,7 @@ public abstract class AbstractLaunchConfigurationsDashElement<T> extends Wrappin
 								debug(ExceptionUtil.getMessage(e));
 								//most likely this just means the app isn't running so ignore
 							} finally {
-								if (cm!=null) {
-									cm.disposeClient();
-								}
+								jmxClients.release(jmxPort);
 							}
 						}
 					}
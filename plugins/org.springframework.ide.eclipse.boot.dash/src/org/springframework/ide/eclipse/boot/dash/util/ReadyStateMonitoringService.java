@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifeCycleClientManager;
+
+/**
+ * Shared by all the {@link SpringApplicationReadyStateMonitor}s, so that monitoring many
+ * running apps doesn't require a job and a JMX connection per app and per poll:
+ * <ul>
+ *   <li>All checks run on a small pool of daemon threads.</li>
+ *   <li>JMX connections are pooled per port. A connection is kept open while someone holds
+ *      on to it, and closed when the last one releases it.</li>
+ * </ul>
+ */
+public class ReadyStateMonitoringService {
+
+	private static final int THREADS = 2;
+
+	private static ReadyStateMonitoringService instance;
+
+	public static synchronized ReadyStateMonitoringService getDefault() {
+		if (instance==null) {
+			instance = new ReadyStateMonitoringService();
+		}
+		return instance;
+	}
+
+	private static class PooledClientManager {
+		final SpringApplicationLifeCycleClientManager manager;
+		int refs = 0;
+
+		PooledClientManager(SpringApplicationLifeCycleClientManager manager) {
+			this.manager = manager;
+		}
+	}
+
+	private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(THREADS, (r) -> {
+		Thread t = new Thread(r, "Ready State Monitor");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final Map<Integer, PooledClientManager> pool = new HashMap<>();
+
+	public ScheduledFuture<?> schedule(Runnable check, long delayMillis) {
+		return executor.schedule(check, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Get the shared client manager for a given port. Every call must be paired with a call to
+	 * {@link #release(int)} once the client is no longer needed.
+	 */
+	public synchronized SpringApplicationLifeCycleClientManager acquire(int port) {
+		PooledClientManager pooled = pool.get(port);
+		if (pooled==null) {
+			pool.put(port, pooled = new PooledClientManager(createClientManager(port)));
+		}
+		pooled.refs++;
+		return pooled.manager;
+	}
+
+	public void release(int port) {
+		PooledClientManager disposed = null;
+		synchronized (this) {
+			PooledClientManager pooled = pool.get(port);
+			if (pooled!=null && --pooled.refs<=0) {
+				pool.remove(port);
+				disposed = pooled;
+			}
+		}
+		if (disposed!=null) {
+			//Closing the connection may block, don't hold on to the pool while doing that.
+			disposed.manager.disposeClient();
+		}
+	}
+
+	/**
+	 * Creates the client manager for a port. Connecting only happens when a client is
+	 * requested from the manager.
+	 */
+	protected SpringApplicationLifeCycleClientManager createClientManager(int port) {
+		return new SpringApplicationLifeCycleClientManager(port);
+	}
+
+	/**
+	 * @return The number of ports for which a client manager is currently held.
+	 */
+	public synchronized int getPoolSize() {
+		return pool.size();
+	}
+
+}
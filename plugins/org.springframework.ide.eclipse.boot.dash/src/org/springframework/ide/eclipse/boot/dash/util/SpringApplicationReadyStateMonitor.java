@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 GoPivotal, Inc.
+ * Copyright (c) 2015, 2016 GoPivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,12 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.util;
 
+import java.util.concurrent.ScheduledFuture;
+
 import javax.inject.Provider;
+import javax.management.MBeanServerNotification;
+import javax.management.NotificationListener;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifeCycleClientManager;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
 import org.springsource.ide.eclipse.commons.livexp.core.LiveExpression;
@@ -23,9 +23,14 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
 
 /**
  * An instance of this class starts checking a spring application's lifecyle using
- * a JMX bean protocol. Checks are performed repeatedly with a short delay between
- * polls. This continues until either the  SpringApplicationReadyStateMonitor is disposed,
- * or the application enters the 'ready' state.
+ * a JMX bean protocol. This continues until either the SpringApplicationReadyStateMonitor
+ * is disposed, or the application enters the 'ready' state.
+ * <p>
+ * Checks are run by the shared {@link ReadyStateMonitoringService}, over a pooled JMX connection.
+ * The delay between checks starts at {@link #POLLING_INTERVAL} and doubles each time nothing
+ * changed, up to {@link #MAX_POLLING_INTERVAL}. It is reset, and a check done right away,
+ * when the app makes progress: its JMX connection is established, the lifecycle bean is
+ * registered, or the bean notifies a change of its ready state.
  * <p>
  * When the application reaches ready state then its 'ready' LiveExp will change value from
  * false to true. Clients who wish to respond to this 'event' can attach a listener to
@@ -39,26 +44,16 @@ public class SpringApplicationReadyStateMonitor implements ReadyStateMonitor {
 	// public API
 
 	public static final long POLLING_INTERVAL = 500/*ms*/;
-	private SpringApplicationLifeCycleClientManager clientManager;
+	public static final long MAX_POLLING_INTERVAL = 4000/*ms*/;
 
 	public SpringApplicationReadyStateMonitor(Provider<Integer> jmxPort) {
-		this.clientManager = new SpringApplicationLifeCycleClientManager(jmxPort);
-		this.job = new Job("Ready state poller") {
-			protected IStatus run(IProgressMonitor monitor) {
-				LiveVariable<Boolean> r = ready;
-				if (r!=null) { //null means disposed. Job may be lagging behind
-					r.setValue(checkReady());
-					if (!r.getValue()) {
-						this.schedule(POLLING_INTERVAL);
-					} else {
-						// don't reschedule
-					}
-				}
-				return Status.OK_STATUS;
-			}
-		};
-		job.setSystem(true);
-		job.schedule();
+		this(ReadyStateMonitoringService.getDefault(), jmxPort);
+	}
+
+	public SpringApplicationReadyStateMonitor(ReadyStateMonitoringService service, Provider<Integer> jmxPort) {
+		this.service = service;
+		this.jmxPort = jmxPort;
+		scheduleCheck(0);
 	}
 
 	public LiveExpression<Boolean> getReady() {
@@ -66,33 +61,185 @@ public class SpringApplicationReadyStateMonitor implements ReadyStateMonitor {
 	}
 
 	public void dispose() {
-		clientManager.disposeClient();
-		if (job!=null) {
-			job.cancel();
-			job = null;
+		boolean release;
+		synchronized (this) {
+			if (ready==null) {
+				return;
+			}
+			ready = null;
+			if (next!=null) {
+				next.cancel(false);
+				next = null;
+			}
+			//If a check is running, it releases the client when it is done.
+			release = !checking;
+			checking = true;
+		}
+		if (release) {
+			releaseClient();
 		}
-		ready = null;
 	}
 
 	/////////////////////////////////////////////////////////////////////////
 	// implementation
 
+	private final ReadyStateMonitoringService service;
+	private final Provider<Integer> jmxPort;
+	private final NotificationListener listener = (notification, handback) -> {
+		if (MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(notification.getType())) {
+			progress(true);
+		} else {
+			progress(false);
+		}
+	};
 
-	private Job job;
 	private LiveVariable<Boolean> ready = new LiveVariable<>(false);
 
+	//All of the below are guarded by 'this'. JMX calls (which may block) and firing of
+	// events are never done while holding the lock.
+	private ScheduledFuture<?> next;
+	private long interval = POLLING_INTERVAL;
+	private boolean listenToBean = false;
+	private boolean checking = false;
+	private boolean checkAgain = false;
+
+	//Only accessed by the thread that set 'checking'
+	private int port = 0;
+	private SpringApplicationLifeCycleClientManager clientManager;
+	private SpringApplicationLifecycleClient listeningTo;
+
+	private synchronized void scheduleCheck(long delay) {
+		if (ready!=null) {
+			if (next!=null) {
+				next.cancel(false);
+			}
+			next = service.schedule(this::check, delay);
+		}
+	}
+
+	/**
+	 * @param beanRegistered Whether the lifecycle bean was just registered. When it was, a listener
+	 *            can now be added to the bean itself.
+	 */
+	private synchronized void progress(boolean beanRegistered) {
+		listenToBean |= beanRegistered;
+		interval = POLLING_INTERVAL;
+		if (checking) {
+			checkAgain = true;
+		} else {
+			scheduleCheck(0);
+		}
+	}
+
+	private void check() {
+		LiveVariable<Boolean> r;
+		synchronized (this) {
+			r = ready;
+			if (r==null) {
+				//Disposed. Check may be lagging behind.
+				return;
+			}
+			if (checking) {
+				checkAgain = true;
+				return;
+			}
+			checking = true;
+			checkAgain = false;
+		}
+		boolean isReady = checkReady();
+		boolean disposed;
+		synchronized (this) {
+			disposed = ready==null;
+			if (!disposed && !isReady) {
+				checking = false;
+				if (checkAgain) {
+					scheduleCheck(0);
+				} else {
+					scheduleCheck(interval);
+					interval = Math.min(interval * 2, MAX_POLLING_INTERVAL);
+				}
+			}
+		}
+		if (disposed || isReady) {
+			// don't reschedule
+			releaseClient();
+			synchronized (this) {
+				next = null;
+				checking = false;
+			}
+		}
+		if (!disposed) {
+			r.setValue(isReady);
+		}
+	}
+
 	private boolean checkReady() {
 		try {
-			SpringApplicationLifecycleClient client = clientManager.getLifeCycleClient();
+			SpringApplicationLifecycleClient client = getClient();
 			if (client!=null) {
+				boolean addListener;
+				synchronized (this) {
+					addListener = client!=listeningTo || listenToBean;
+					if (client!=listeningTo) {
+						//Connected (again). App is making progress.
+						interval = POLLING_INTERVAL;
+					}
+					listenToBean = false;
+				}
+				if (addListener) {
+					removeListener();
+					listeningTo = client;
+					try {
+						client.addReadyStateListener(listener);
+					} catch (Exception e) {
+						//Notifications not supported, rely on polling.
+					}
+				}
 				return client.isReady();
 			}
 		} catch (Exception e) {
 			//Something went wrong asking client for ready state.
 			// most likely process died.
-			clientManager.disposeClient();
+			if (clientManager!=null) {
+				clientManager.disposeClient();
+			}
+			listeningTo = null;
 		}
 		return false;
 	}
 
+	private SpringApplicationLifecycleClient getClient() {
+		Integer resolvedPort = jmxPort.get();
+		if (resolvedPort==null || resolvedPort<=0) {
+			//Not known yet.
+			return null;
+		}
+		if (resolvedPort!=port) {
+			releaseClient();
+			port = resolvedPort;
+			clientManager = service.acquire(port);
+		}
+		return clientManager.getLifeCycleClient();
+	}
+
+	private void removeListener() {
+		if (listeningTo!=null) {
+			try {
+				listeningTo.removeReadyStateListener(listener);
+			} catch (Exception e) {
+				//ignore, connection is likely dead
+			}
+			listeningTo = null;
+		}
+	}
+
+	private void releaseClient() {
+		removeListener();
+		if (clientManager!=null) {
+			service.release(port);
+			clientManager = null;
+			port = 0;
+		}
+	}
+
 }
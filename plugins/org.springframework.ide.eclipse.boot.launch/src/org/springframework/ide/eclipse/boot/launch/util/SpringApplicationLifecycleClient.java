@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013-2015 Pivotal Software, Inc.
+ * Copyright (c) 2013-2016 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,13 +12,19 @@ package org.springframework.ide.eclipse.boot.launch.util;
 
 import java.io.IOException;
 
+import javax.management.AttributeChangeNotificationFilter;
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanException;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
 import javax.management.MalformedObjectNameException;
+import javax.management.NotificationBroadcaster;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
+import javax.management.relation.MBeanServerNotificationFilter;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
@@ -87,6 +93,46 @@ public class SpringApplicationLifecycleClient {
 		}
 	}
 
+	/**
+	 * Register a listener for notifications that signal a possible change of the ready state:
+	 * the registration of the lifecycle mbean and, if the mbean emits them, changes of its 'Ready'
+	 * attribute.
+	 *
+	 * @return {@code true} if the listener will be notified when the 'Ready' attribute changes. If
+	 * not, the ready state still has to be polled.
+	 */
+	public boolean addReadyStateListener(NotificationListener listener) throws Exception {
+		MBeanServerNotificationFilter registrations = new MBeanServerNotificationFilter();
+		registrations.disableAllObjectNames();
+		registrations.enableObjectName(this.objectName);
+		this.connection.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, registrations, null);
+		try {
+			if (this.connection.isInstanceOf(this.objectName, NotificationBroadcaster.class.getName())) {
+				AttributeChangeNotificationFilter readyChanges = new AttributeChangeNotificationFilter();
+				readyChanges.enableAttribute("Ready");
+				this.connection.addNotificationListener(this.objectName, listener, readyChanges, null);
+				return true;
+			}
+		}
+		catch (InstanceNotFoundException ex) {
+			// Instance not available yet
+		}
+		return false;
+	}
+
+	/**
+	 * Remove a listener added by {@link #addReadyStateListener(NotificationListener)}.
+	 */
+	public void removeReadyStateListener(NotificationListener listener) throws Exception {
+		this.connection.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener);
+		try {
+			this.connection.removeNotificationListener(this.objectName, listener);
+		}
+		catch (InstanceNotFoundException | ListenerNotFoundException ex) {
+			// Wasn't listening to the mbean itself
+		}
+	}
+
 	public int getProperty(String prop, int defaultValue) throws InstanceNotFoundException, MBeanException, ReflectionException, IOException {
 		Object o = this.connection.invoke(this.objectName,"getProperty",
 				new String[] {prop},
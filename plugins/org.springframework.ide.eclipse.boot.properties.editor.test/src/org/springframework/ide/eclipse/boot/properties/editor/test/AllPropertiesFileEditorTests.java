@@ -29,11 +29,16 @@ import org.junit.runners.Suite.SuiteClasses;
 	TypeUtilTests.class,
 	FuzzyMapTests.class,
 	TypeParserTest.class,
+	JarMetadataCacheTest.class,
+	SpringPropertiesIndexManagerTest.class,
+	LimitedTimeCacheTest.class,
 
 	YamlASTTests.class,
 	DocumentEditsTest.class,
 	YamlStructureParserTest.class,
 	IndexNavigatorTest.class,
+	IncrementalYamlParsingTest.class,
+	IncrementalReconcileTest.class,
 	YamlEditorTests.class,
 })
 public class AllPropertiesFileEditorTests {
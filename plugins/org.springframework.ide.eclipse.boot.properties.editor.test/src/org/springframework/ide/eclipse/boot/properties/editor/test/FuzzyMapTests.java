@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,14 +10,17 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import junit.framework.TestCase;
 
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap.Match;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap.PrefixMatch;
 import org.springframework.ide.eclipse.editor.support.util.FuzzyMatcher;
 
 public class FuzzyMapTests extends TestCase {
@@ -65,6 +68,100 @@ public class FuzzyMapTests extends TestCase {
 		);
 	}
 
+	public void testFindTop() {
+		TestMap map = new TestMap(
+				"asprouting",
+				"spring.shoe",
+				"zspring",
+				"spring.boot",
+				"spring.abracdabra",
+				"server.port"
+		);
+		assertEquals(list("spring.abracdabra", "spring.boot"), datas(map.findTop("spring", 2)));
+		assertEquals(list("spring.abracdabra", "spring.boot", "spring.shoe", "zspring", "asprouting"),
+				datas(map.findTop("spring", 10)));
+		assertEquals(list("asprouting", "server.port"), datas(map.findTop("", 2)));
+		assertTrue(map.findTop("spring", 0).isEmpty());
+		assertTrue(map.findTop("xyz", 3).isEmpty());
+	}
+
+	public void testIndexUpdatedOnAdd() {
+		TestMap map = new TestMap("server.port");
+		assertEquals(1, map.find("port").size());
+		map.add("management.port");
+		assertEquals(2, map.find("port").size());
+		assertEquals(list("management.port"), datas(map.findTop("mport", 5)));
+	}
+
+	public void testIndexedFindEqualsScan() {
+		List<String> keys = generateKeys(2000);
+		TestMap map = new TestMap(keys.toArray(new String[keys.size()]));
+		for (String pattern : new String[] {"s", "port", "spdsurl", "mgmt", "xq", "log.lvl", "\u00fc", "server.port"}) {
+			List<String> expected = new ArrayList<String>();
+			for (String key : map) {
+				if (FuzzyMatcher.matchScore(pattern, key)!=0.0) {
+					expected.add(key);
+				}
+			}
+			assertEquals(pattern, expected, datas(map.find(pattern)));
+		}
+	}
+
+	public void testFindTopEqualsSortedFind() {
+		List<String> keys = generateKeys(2000);
+		TestMap map = new TestMap(keys.toArray(new String[keys.size()]));
+		for (String pattern : new String[] {"", "s", "port", "spdsurl", "mgmt", "xq", "log.lvl", "server.port"}) {
+			List<Match<String>> matches = map.find(pattern);
+			Collections.sort(matches, new Comparator<Match<String>>() {
+				public int compare(Match<String> o1, Match<String> o2) {
+					int scoreCompare = Double.compare(o2.score, o1.score);
+					return scoreCompare!=0 ? scoreCompare : o1.data.compareTo(o2.data);
+				}
+			});
+			List<String> expected = datas(matches);
+			assertEquals(pattern, expected, datas(map.findTop(pattern, expected.size()+1)));
+			assertEquals(pattern, expected.subList(0, Math.min(50, expected.size())), datas(map.findTop(pattern, 50)));
+		}
+	}
+
+	private static List<String> generateKeys(int count) {
+		String[] segments = {
+				"spring", "server", "management", "logging", "datasource", "jpa", "security", "port", "url",
+				"username", "password", "level", "enabled", "timeout", "cache", "redis", "mongodb", "hibernate",
+				"ddl-auto", "context-path", "session", "ssl", "key-store", "max-active", "pool", "jmx", "endpoints",
+				"health", "metrics", "mvc", "view", "prefix", "suffix", "jackson", "serialization", "rabbitmq", "host"
+		};
+		Random random = new Random(4711);
+		List<String> keys = new ArrayList<String>();
+		while (keys.size()<count) {
+			int length = 2 + random.nextInt(4);
+			StringBuilder key = new StringBuilder();
+			for (int i = 0; i < length; i++) {
+				if (i>0) {
+					key.append('.');
+				}
+				key.append(segments[random.nextInt(segments.length)]);
+			}
+			//numbered to keep keys unique
+			keys.add(key.append('.').append(keys.size()).toString());
+		}
+		return keys;
+	}
+
+	private static List<String> datas(List<Match<String>> matches) {
+		List<String> datas = new ArrayList<String>(matches.size());
+		for (Match<String> match : matches) {
+			datas.add(match.data);
+		}
+		return datas;
+	}
+
+	private static List<String> list(String... strings) {
+		List<String> list = new ArrayList<String>();
+		Collections.addAll(list, strings);
+		return list;
+	}
+
 	public class TestMap extends FuzzyMap<String> {
 		public TestMap(String... entries) {
 			for (String e : entries) {
@@ -132,6 +229,55 @@ public class FuzzyMapTests extends TestCase {
 		assertEquals(null, empty.findLongestCommonPrefixEntry(""));
 	}
 
+	public void testLongestRelaxedPrefix() {
+		TestMap map = new TestMap(
+				"server.port",
+				"spring.datasource.hikari.maximum-pool-size",
+				"spring.datasource.url",
+				"logging.level",
+				"foo-bar.name"
+		);
+		assertRelaxedPrefix(map, "server.port", "server.port", "server.port");
+		assertRelaxedPrefix(map, "SERVER.PORT", "SERVER.PORT", "server.port");
+		for (String spelling : new String[] {
+				"spring.datasource.hikari.maximumPoolSize",
+				"spring.datasource.hikari.maximum_pool_size",
+				"spring.datasource.hikari.MAXIMUM_POOL_SIZE",
+				"spring.datasource.hikari.maximumpoolsize"
+		}) {
+			assertRelaxedPrefix(map, spelling, spelling, "spring.datasource.hikari.maximum-pool-size");
+		}
+		//Map properties and navigation
+		assertRelaxedPrefix(map, "logging.level.org.springframework", "logging.level", "logging.level");
+		assertRelaxedPrefix(map, "fooBar.name.length", "fooBar.name", "foo-bar.name");
+		assertRelaxedPrefix(map, "server.port[0]", "server.port", "server.port");
+		assertRelaxedPrefix(map, "server.port.", "server.port", "server.port");
+		//Prefixes must end at a '.'
+		assertNull(map.findLongestRelaxedPrefix("server.portable"));
+		assertNull(map.findLongestRelaxedPrefix("spring.datasource"));
+		assertNull(map.findLongestRelaxedPrefix("serverport"));
+		assertNull(map.findLongestRelaxedPrefix(""));
+
+		//Index is updated when entries are added
+		map.add("spring.datasource");
+		assertRelaxedPrefix(map, "spring.dataSource.bogus", "spring.dataSource", "spring.datasource");
+	}
+
+	public void testLongestRelaxedPrefixAmbiguous() {
+		TestMap map = new TestMap(
+				"foo.bar-zor",
+				"foo.barzor"
+		);
+		assertRelaxedPrefix(map, "foo.barZor", "foo.barZor", "foo.bar-zor");
+		assertRelaxedPrefix(map, "foo.barzor", "foo.barzor", "foo.barzor");
+	}
+
+	private void assertRelaxedPrefix(TestMap map, String name, String expectPrefix, String expectKey) {
+		PrefixMatch<String> match = map.findLongestRelaxedPrefix(name);
+		assertNotNull(name, match);
+		assertEquals(expectPrefix, name.substring(0, match.length));
+		assertEquals(expectKey, match.data);
+	}
 
 	private void assertMatchOrder(String pattern, String... datas) {
 		TestMap map = new TestMap(datas);
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.springframework.ide.eclipse.editor.support.reconcile.IReconcileEngine;
+import org.springframework.ide.eclipse.editor.support.reconcile.ReconcileProblem;
+import org.springframework.ide.eclipse.editor.support.reconcile.ReconcileProblemAnnotation;
+import org.springframework.ide.eclipse.editor.support.reconcile.ReconcileStrategy;
+
+/**
+ * Checks that reconciling only the edited part of a properties file results in the same
+ * annotations as reconciling the whole file.
+ */
+public class IncrementalReconcileTest extends SpringPropertiesEditorTestHarness {
+
+	private static class TestReconcileStrategy extends ReconcileStrategy {
+
+		private final AnnotationModel model = new AnnotationModel();
+
+		TestReconcileStrategy(IReconcileEngine engine) {
+			super(null, engine);
+		}
+
+		@Override
+		protected IAnnotationModel getAnnotationModel() {
+			return model;
+		}
+	}
+
+	private static final String CONTENT =
+			"server.port=8080\n" +
+			"server.port=bad\n" +
+			"bogus.prop=x\n" +
+			"spring.application.name=demo\n" +
+			"# A comment\n" +
+			"liquibase.enabled=maybe\n" +
+			"spring.main.sources=a,\\\n" +
+			"  b\n";
+
+	private static final String[] EDITS = {
+		"\n", " ", "=", "x", "server.port=", "=12", "bogus", "#", "\\\n", ",", "spring.application.name=foo\n"
+	};
+
+	private IDocument document;
+	private NullProgressMonitor monitor;
+	private TestReconcileStrategy strategy;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		defaultTestData();
+		document = newEditor(CONTENT).document;
+		monitor = new NullProgressMonitor();
+		strategy = createStrategy();
+		strategy.initialReconcile();
+	}
+
+	public void testInitialReconcile() throws Exception {
+		String dump = dump(strategy);
+		assertTrue(dump, dump.contains("PROP_DUPLICATE_KEY"));
+		assertTrue(dump, dump.contains("PROP_UNKNOWN_PROPERTY"));
+		assertTrue(dump, dump.contains("PROP_VALUE_TYPE_MISMATCH"));
+		assertEquals(0, strategy.getStats().getIncrementalCount());
+	}
+
+	public void testUnaffectedAnnotationsAreKept() throws Exception {
+		Annotation unknown = findAnnotation(strategy, "bogus.prop");
+		assertNotNull(unknown);
+
+		document.replace(document.getLength(), 0, "spring.application.name=other\n");
+		strategy.reconcile(new Region(0, 0));
+		assertSameAsFullReconcile();
+		assertEquals(1, strategy.getStats().getIncrementalCount());
+
+		//Annotation before the edit is untouched
+		assertSame(unknown, findAnnotation(strategy, "bogus.prop"));
+		//The new duplicate key is reported
+		assertEquals(2, count(strategy, "Duplicate property 'spring.application.name'"));
+	}
+
+	public void testFixedProblemsAreRemoved() throws Exception {
+		int offset = CONTENT.indexOf("bad");
+		document.replace(offset, 3, "8081");
+		strategy.reconcile(new Region(0, 0));
+		assertSameAsFullReconcile();
+		assertEquals(1, strategy.getStats().getIncrementalCount());
+		assertTrue(strategy.getStats().getRemovedAnnotations()>0);
+
+		document.replace(0, 0, "server.port=0\n");
+		strategy.reconcile(new Region(0, 0));
+		assertSameAsFullReconcile();
+	}
+
+	public void testCanceledReconcileIsDiscarded() throws Exception {
+		String before = dump(strategy);
+		document.replace(CONTENT.indexOf("bogus.prop"), "bogus.prop".length(), "bogus.prox");
+		monitor.setCanceled(true);
+		strategy.reconcile(new Region(0, 0));
+		assertEquals(before, dump(strategy));
+		assertEquals(1, strategy.getStats().getCanceledCount());
+
+		//Next reconcile has to check the whole document because the changes handed to the canceled one are lost.
+		monitor.setCanceled(false);
+		strategy.reconcile(new Region(0, 0));
+		assertEquals(0, strategy.getStats().getIncrementalCount());
+		assertSameAsFullReconcile();
+	}
+
+	public void testForcedReconcileChecksWholeDocument() throws Exception {
+		document.replace(document.getLength(), 0, "spring.application.name=other\n");
+		strategy.requestFullReconcile();
+		strategy.reconcile(new Region(0, 0));
+		assertEquals(0, strategy.getStats().getIncrementalCount());
+		assertSameAsFullReconcile();
+
+		//Only the forced reconcile checks the whole document
+		document.replace(document.getLength(), 0, "server.port=8082\n");
+		strategy.reconcile(new Region(0, 0));
+		assertEquals(1, strategy.getStats().getIncrementalCount());
+	}
+
+	public void testRandomEdits() throws Exception {
+		Random rnd = new Random(4711);
+		for (int i = 0; i < 300; i++) {
+			if (rnd.nextInt(50)==0) {
+				document.set(CONTENT);
+			}
+			int offset = rnd.nextInt(document.getLength()+1);
+			if (rnd.nextBoolean() && offset<document.getLength()) {
+				int length = Math.min(document.getLength()-offset, 1+rnd.nextInt(8));
+				document.replace(offset, length, "");
+			} else {
+				document.replace(offset, 0, EDITS[rnd.nextInt(EDITS.length)]);
+			}
+			//Sometimes do several edits before reconciling
+			if (rnd.nextInt(3)>0) {
+				strategy.reconcile(new Region(0, 0));
+				assertSameAsFullReconcile();
+			}
+		}
+		assertTrue(strategy.getStats().getIncrementalCount()>0);
+	}
+
+	///////////////////////////////////////////////////////////////////////
+
+	private TestReconcileStrategy createStrategy() {
+		TestReconcileStrategy strategy = new TestReconcileStrategy(createReconcileEngine());
+		strategy.model.connect(document);
+		strategy.setDocument(document);
+		strategy.setProgressMonitor(monitor);
+		return strategy;
+	}
+
+	private void assertSameAsFullReconcile() {
+		TestReconcileStrategy full = createStrategy();
+		full.initialReconcile();
+		assertEquals(document.get(), dump(full), dump(strategy));
+	}
+
+	private Annotation findAnnotation(TestReconcileStrategy strategy, String coveredText) throws Exception {
+		for (Annotation a : annotations(strategy)) {
+			Position pos = strategy.model.getPosition(a);
+			if (document.get(pos.getOffset(), pos.getLength()).equals(coveredText)) {
+				return a;
+			}
+		}
+		return null;
+	}
+
+	private int count(TestReconcileStrategy strategy, String messagePrefix) {
+		int count = 0;
+		for (Annotation a : annotations(strategy)) {
+			if (a.getText().startsWith(messagePrefix)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private String dump(TestReconcileStrategy strategy) {
+		List<String> lines = new ArrayList<>();
+		for (Annotation a : annotations(strategy)) {
+			Position pos = strategy.model.getPosition(a);
+			ReconcileProblem problem = ((ReconcileProblemAnnotation)a).getSpringPropertyProblem();
+			//The problem must agree with the position of the annotation, quickfixes rely on that.
+			assertEquals(pos.getOffset(), problem.getOffset());
+			assertEquals(pos.getLength(), problem.getLength());
+			lines.add(pos.getOffset()+"-"+pos.getLength()+" "+a.getType()+" "+problem.getType()+": "+a.getText());
+		}
+		Collections.sort(lines);
+		StringBuilder buf = new StringBuilder();
+		for (String line : lines) {
+			buf.append(line+"\n");
+		}
+		return buf.toString();
+	}
+
+	private List<Annotation> annotations(TestReconcileStrategy strategy) {
+		List<Annotation> annotations = new ArrayList<>();
+		Iterator<?> iter = strategy.model.getAnnotationIterator();
+		while (iter.hasNext()) {
+			annotations.add((Annotation) iter.next());
+		}
+		return annotations;
+	}
+
+}
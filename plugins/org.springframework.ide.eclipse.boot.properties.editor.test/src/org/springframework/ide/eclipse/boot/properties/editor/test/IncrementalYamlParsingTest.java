@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.springframework.ide.eclipse.editor.support.yaml.YamlDocument;
+import org.springframework.ide.eclipse.editor.support.yaml.ast.YamlASTProvider;
+import org.springframework.ide.eclipse.editor.support.yaml.ast.YamlFileAST;
+import org.springframework.ide.eclipse.editor.support.yaml.path.KeyAliases;
+import org.springframework.ide.eclipse.editor.support.yaml.structure.YamlStructureParser;
+import org.springframework.ide.eclipse.editor.support.yaml.structure.YamlStructureParser.SChildBearingNode;
+import org.springframework.ide.eclipse.editor.support.yaml.structure.YamlStructureParser.SNode;
+import org.springframework.ide.eclipse.editor.support.yaml.structure.YamlStructureParser.SRootNode;
+import org.springframework.ide.eclipse.editor.support.yaml.structure.YamlStructureProvider;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+/**
+ * Checks that incrementally parsed ASTs and structure trees are identical to
+ * the ones obtained by parsing the whole document from scratch.
+ */
+public class IncrementalYamlParsingTest extends TestCase {
+
+	private static final String CONTENT =
+			"# Shared settings\n" +
+			"server:\n" +
+			"  port: 8080\n" +
+			"  names:\n" +
+			"    - foo\n" +
+			"    - bar: 1\n" +
+			"      zor: 2\n" +
+			"spring:\n" +
+			"  profiles: default\n" +
+			"---\n" +
+			"spring:\n" +
+			"  profiles: dev\n" +
+			"logging:\n" +
+			"  level:\n" +
+			"    org.springframework: DEBUG\n" +
+			"--- # Comment on a separator\n" +
+			"spring:\n" +
+			"  profiles: prod\n" +
+			"message: |\n" +
+			"  Some literal\n" +
+			"  text\n" +
+			"list: [a, b, c]\n" +
+			"---\n" +
+			"...\n" +
+			"---\n" +
+			"anchored: &a\n" +
+			"  x: 1\n" +
+			"ref: *a\n";
+
+	private static final String[] EDITS = {
+		"\n", " ", "  ", "x", ":", ": ", "- ", "#", "---\n", "\n---", "...\n", "[", "'", "&b ", "*a"
+	};
+
+	private IDocument doc;
+	private YamlASTProvider astProvider;
+	private YamlStructureProvider structureProvider;
+
+	private final Set<Node> onPath = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+
+	@Override
+	protected void setUp() throws Exception {
+		doc = new Document(CONTENT);
+		astProvider = new YamlASTProvider(new Yaml());
+		structureProvider = YamlStructureProvider.withAliases(KeyAliases.NONE);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.clearProperty(YamlASTProvider.INCREMENTAL_PROPERTY);
+	}
+
+	public void testEditLastDocumentOnlyReparsesIt() throws Exception {
+		assertSameAsFullParse();
+		int parsed = astProvider.getParsedChars();
+		assertEquals(doc.getLength(), parsed);
+		Node firstNode = astProvider.getAST(doc).get(0);
+		SRootNode oldRoot = structureProvider.getStructure(new YamlDocument(doc, structureProvider));
+		String oldStructure = dump(oldRoot);
+
+		int offset = CONTENT.indexOf("ref: *a");
+		doc.replace(offset, 0, "other: 3\n");
+		assertSameAsFullParse();
+		int reparsed = astProvider.getParsedChars() - parsed;
+		assertTrue(reparsed>0);
+		assertTrue(reparsed<doc.getLength()-offset+40);
+
+		//Nodes of the documents before the edit are reused
+		assertSame(firstNode, astProvider.getAST(doc).get(0));
+
+		//Structure nodes are copied, so the previous tree is left as it was
+		SRootNode newRoot = structureProvider.getStructure(new YamlDocument(doc, structureProvider));
+		assertNotSame(oldRoot, newRoot);
+		assertEquals(oldStructure, dump(oldRoot));
+		for (SNode oldDoc : oldRoot.getChildren()) {
+			assertSame(oldRoot, oldDoc.getParent());
+		}
+	}
+
+	public void testStructureIsCachedPerDocument() throws Exception {
+		IDocument other = new Document(CONTENT);
+		SRootNode structure = structureProvider.getStructure(new YamlDocument(doc, structureProvider));
+		SRootNode otherStructure = structureProvider.getStructure(new YamlDocument(other, structureProvider));
+		assertNotSame(structure, otherStructure);
+
+		//Parsing another document doesn't drop the structure of the first one
+		assertSame(structure, structureProvider.getStructure(new YamlDocument(doc, structureProvider)));
+
+		//Changes are tracked for each document separately
+		other.replace(other.getLength(), 0, "more: stuff\n");
+		assertSame(structure, structureProvider.getStructure(new YamlDocument(doc, structureProvider)));
+		assertNotSame(otherStructure, structureProvider.getStructure(new YamlDocument(other, structureProvider)));
+		assertSameAsFullParse();
+	}
+
+	public void testUnchangedDocumentIsCached() throws Exception {
+		YamlFileAST ast = astProvider.getAST(doc);
+		assertSame(ast, astProvider.getAST(doc));
+		int parsed = astProvider.getParsedChars();
+		assertSame(ast, astProvider.getAST(doc));
+		assertEquals(parsed, astProvider.getParsedChars());
+	}
+
+	public void testEditSeparators() throws Exception {
+		assertSameAsFullParse();
+		int sep = CONTENT.indexOf("--- # Comment");
+		//Break the separator
+		doc.replace(sep+1, 1, "");
+		assertSameAsFullParse();
+		//Restore it
+		doc.replace(sep+1, 0, "-");
+		assertSameAsFullParse();
+		//Remove the line break after it
+		doc.replace(sep+"--- # Comment on a separator".length(), 1, "");
+		assertSameAsFullParse();
+		//Add a new document at the end
+		doc.replace(doc.getLength(), 0, "---\nnew: doc\n");
+		assertSameAsFullParse();
+	}
+
+	public void testSyntaxErrors() throws Exception {
+		assertSameAsFullParse();
+		doc.replace(CONTENT.indexOf("list: [a"), 0, "bad: [\n");
+		assertSameAsFullParse();
+		doc.replace(CONTENT.indexOf("logging:"), 0, "  bad: indent\n");
+		assertSameAsFullParse();
+		doc.set(CONTENT);
+		assertSameAsFullParse();
+	}
+
+	public void testRandomEdits() throws Exception {
+		Random rnd = new Random(4711);
+		for (int i = 0; i < 500; i++) {
+			if (rnd.nextInt(50)==0) {
+				doc.set(CONTENT);
+			}
+			int offset = rnd.nextInt(doc.getLength()+1);
+			if (rnd.nextBoolean() && offset<doc.getLength()) {
+				int length = Math.min(doc.getLength()-offset, 1+rnd.nextInt(5));
+				doc.replace(offset, length, "");
+			} else {
+				doc.replace(offset, 0, EDITS[rnd.nextInt(EDITS.length)]);
+			}
+			//Sometimes do several edits before parsing
+			if (rnd.nextInt(3)>0) {
+				assertSameAsFullParse();
+			}
+		}
+		assertSameAsFullParse();
+	}
+
+	public void testDisabled() throws Exception {
+		System.setProperty(YamlASTProvider.INCREMENTAL_PROPERTY, "false");
+		assertSameAsFullParse();
+		int parsed = astProvider.getParsedChars();
+		doc.replace(doc.getLength(), 0, "more: stuff\n");
+		assertSameAsFullParse();
+		assertEquals(parsed+doc.getLength(), astProvider.getParsedChars());
+	}
+
+	///////////////////////////////////////////////////////////////////////
+
+	private void assertSameAsFullParse() throws Exception {
+		String text = doc.get();
+		assertEquals(text, fullParseAst(text), incrementalAst());
+
+		YamlDocument yamlDoc = new YamlDocument(doc, structureProvider);
+		String expected = dump(new YamlStructureParser(yamlDoc, KeyAliases.NONE).parse());
+		assertEquals(text, expected, dump(structureProvider.getStructure(yamlDoc)));
+	}
+
+	private String fullParseAst(String text) {
+		try {
+			return dump(new YamlFileAST(new Yaml().composeAll(new StringReader(text))));
+		} catch (Exception e) {
+			return dump(e);
+		}
+	}
+
+	private String incrementalAst() {
+		try {
+			return dump(astProvider.getAST(doc));
+		} catch (Exception e) {
+			return dump(e);
+		}
+	}
+
+	private String dump(Exception e) {
+		String dump = e.getClass().getName();
+		if (e instanceof MarkedYAMLException) {
+			MarkedYAMLException me = (MarkedYAMLException) e;
+			dump += " "+me.getProblem()+" "+dump(me.getProblemMark());
+		}
+		return dump;
+	}
+
+	private String dump(YamlFileAST ast) {
+		StringBuilder buf = new StringBuilder();
+		for (Node node : ast.getNodes()) {
+			dump(node, 0, buf);
+		}
+		return buf.toString();
+	}
+
+	private void dump(Node node, int indent, StringBuilder buf) {
+		for (int i = 0; i < indent; i++) {
+			buf.append("  ");
+		}
+		if (!onPath.add(node)) {
+			//Aliases can make the graph of nodes recursive
+			buf.append("<recursive>\n");
+			return;
+		}
+		buf.append(node.getNodeId()+" "+node.getTag()+" "+dump(node.getStartMark())+"-"+dump(node.getEndMark()));
+		if (node instanceof ScalarNode) {
+			buf.append(" '"+((ScalarNode)node).getValue()+"'");
+		}
+		buf.append('\n');
+		if (node instanceof SequenceNode) {
+			for (Node child : ((SequenceNode)node).getValue()) {
+				dump(child, indent+1, buf);
+			}
+		} else if (node instanceof MappingNode) {
+			for (NodeTuple entry : ((MappingNode)node).getValue()) {
+				dump(entry.getKeyNode(), indent+1, buf);
+				dump(entry.getValueNode(), indent+1, buf);
+			}
+		}
+		onPath.remove(node);
+	}
+
+	private String dump(Mark mark) {
+		if (mark==null) {
+			return "?";
+		}
+		return mark.getIndex()+"("+mark.getLine()+":"+mark.getColumn()+")";
+	}
+
+	private String dump(SNode node) throws Exception {
+		StringBuilder buf = new StringBuilder();
+		dump(node, 0, buf);
+		return buf.toString();
+	}
+
+	private void dump(SNode node, int indent, StringBuilder buf) throws Exception {
+		for (int i = 0; i < indent; i++) {
+			buf.append("  ");
+		}
+		buf.append(node.getNodeType()+"("+node.getIndent()+") "+node.getStart()+"-"+node.getNodeEnd()+"-"+node.getTreeEnd()
+				+" "+node.getPath()+": "+node.getText()+"\n");
+		assertTrue(node.getParent()==null || node.getParent().getChildren().contains(node));
+		if (node instanceof SChildBearingNode) {
+			for (SNode child : ((SChildBearingNode)node).getChildren()) {
+				dump(child, indent+1, buf);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.TestCase;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepository;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.ide.eclipse.boot.properties.editor.StsConfigMetadataRepositoryJsonLoader;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JarMetadataCache;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JarMetadataCache.Fragment;
+
+public class JarMetadataCacheTest extends TestCase {
+
+	private static final String LOCATION = StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS[0];
+
+	private static final String METADATA =
+			"{\n" +
+			"  \"groups\": [{\n" +
+			"    \"name\": \"server\",\n" +
+			"    \"type\": \"demo.ServerProperties\",\n" +
+			"    \"sourceType\": \"demo.ServerProperties\"\n" +
+			"  }],\n" +
+			"  \"properties\": [{\n" +
+			"    \"name\": \"server.port\",\n" +
+			"    \"type\": \"java.lang.Integer\",\n" +
+			"    \"description\": \"Server HTTP port. More details here.\",\n" +
+			"    \"sourceType\": \"demo.ServerProperties\",\n" +
+			"    \"defaultValue\": 8080\n" +
+			"  }, {\n" +
+			"    \"name\": \"server.names\",\n" +
+			"    \"type\": \"java.util.List<java.lang.String>\",\n" +
+			"    \"sourceType\": \"demo.ServerProperties\",\n" +
+			"    \"defaultValue\": [\"a\", \"b\"]\n" +
+			"  }, {\n" +
+			"    \"name\": \"server.old\",\n" +
+			"    \"type\": \"java.lang.Boolean\",\n" +
+			"    \"defaultValue\": true,\n" +
+			"    \"deprecation\": { \"reason\": \"Not used\", \"replacement\": \"server.port\" }\n" +
+			"  }],\n" +
+			"  \"hints\": [{\n" +
+			"    \"name\": \"server.names\",\n" +
+			"    \"values\": [{ \"value\": \"foo\", \"description\": \"The foo.\" }, { \"value\": 3.5 }],\n" +
+			"    \"providers\": [{ \"name\": \"any\", \"parameters\": { \"target\": \"demo.Foo\", \"concrete\": true } }]\n" +
+			"  }]\n" +
+			"}\n";
+
+	private File tmpDir;
+	private File cacheDir;
+
+	@Override
+	protected void setUp() throws Exception {
+		tmpDir = Files.createTempDirectory("jar-metadata-test").toFile();
+		cacheDir = new File(tmpDir, "cache");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Files.walk(tmpDir.toPath())
+			.sorted(Comparator.reverseOrder())
+			.forEach((path) -> path.toFile().delete());
+	}
+
+	public void testBinaryEqualsJson() throws Exception {
+		ConfigurationMetadataRepository expected = ConfigurationMetadataRepositoryJsonBuilder.create()
+				.withJsonResource(null, new ByteArrayInputStream(METADATA.getBytes("UTF-8")))
+				.build();
+		byte[] binary = ConfigurationMetadataRepositoryJsonBuilder.create()
+				.toBinary(null, new ByteArrayInputStream(METADATA.getBytes("UTF-8")));
+		ConfigurationMetadataRepository actual = ConfigurationMetadataRepositoryJsonBuilder.create()
+				.withBinaryResource(null, binary)
+				.build();
+		assertEquals(dump(expected), dump(actual));
+		assertEquals(3, actual.getAllProperties().size());
+	}
+
+	public void testCachedInMemoryAndOnDisk() throws Exception {
+		File jar = createJar("demo.jar", METADATA);
+
+		JarMetadataCache cache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		List<Fragment> fragments = cache.get(jar);
+		assertEquals(1, fragments.size());
+		assertEquals(LOCATION, fragments.get(0).getLocation());
+		assertEquals(1, cache.getParseCount());
+
+		assertSame(fragments, cache.get(jar));
+		assertEquals(1, cache.getParseCount());
+		assertEquals(0, cache.getDiskHitCount());
+
+		//A new cache (i.e. a new session) reads the entry from disk
+		JarMetadataCache newCache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		List<Fragment> fromDisk = newCache.get(jar);
+		assertEquals(0, newCache.getParseCount());
+		assertEquals(1, newCache.getDiskHitCount());
+		assertEquals(1, fromDisk.size());
+		assertTrue(Arrays.equals(fragments.get(0).getData(), fromDisk.get(0).getData()));
+	}
+
+	public void testJarWithoutMetadata() throws Exception {
+		File jar = createJar("empty.jar", null);
+		JarMetadataCache cache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		assertTrue(cache.get(jar).isEmpty());
+		assertTrue(cache.get(jar).isEmpty());
+		assertEquals(1, cache.getParseCount());
+
+		JarMetadataCache newCache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		assertTrue(newCache.get(jar).isEmpty());
+		assertEquals(0, newCache.getParseCount());
+	}
+
+	public void testChangedJarIsParsedAgain() throws Exception {
+		File jar = createJar("demo.jar", METADATA);
+		JarMetadataCache cache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		cache.get(jar);
+
+		createJar("demo.jar", "{ \"properties\": [{ \"name\": \"other.prop\", \"type\": \"java.lang.String\" }] }");
+		jar.setLastModified(jar.lastModified() + 10000);
+		List<Fragment> fragments = cache.get(jar);
+		assertEquals(2, cache.getParseCount());
+
+		ConfigurationMetadataRepositoryJsonBuilder builder = ConfigurationMetadataRepositoryJsonBuilder.create();
+		builder.withBinaryResource(jar, fragments.get(0).getData());
+		assertEquals("[other.prop]", builder.build().getAllProperties().keySet().toString());
+
+		//The stale entry on disk has been replaced as well
+		JarMetadataCache newCache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		newCache.get(jar);
+		assertEquals(0, newCache.getParseCount());
+	}
+
+	public void testCorruptCacheFileIgnored() throws Exception {
+		File jar = createJar("demo.jar", METADATA);
+		JarMetadataCache cache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		cache.get(jar);
+		for (File f : cacheDir.listFiles()) {
+			Files.write(f.toPath(), new byte[] { 1, 2, 3 });
+		}
+
+		JarMetadataCache newCache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		assertEquals(1, newCache.get(jar).size());
+		assertEquals(1, newCache.getParseCount());
+	}
+
+	public void testUnusedFilesDeleted() throws Exception {
+		File used = createJar("used.jar", METADATA);
+		File unused = createJar("unused.jar", METADATA);
+		JarMetadataCache cache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		cache.get(used);
+		cache.get(unused);
+		File[] files = cacheDir.listFiles();
+		assertEquals(2, files.length);
+		long longAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(JarMetadataCache.MAX_UNUSED_DAYS + 1);
+		for (File f : files) {
+			f.setLastModified(longAgo);
+		}
+		File leftOver = new File(cacheDir, "jar123.tmp");
+		Files.write(leftOver.toPath(), new byte[] { 1, 2, 3 });
+		leftOver.setLastModified(longAgo);
+
+		//Reading an entry from disk marks it as used
+		JarMetadataCache newCache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		newCache.get(used);
+		assertEquals(1, newCache.getDiskHitCount());
+		newCache.deleteUnusedFiles(TimeUnit.DAYS.toMillis(JarMetadataCache.MAX_UNUSED_DAYS));
+		assertEquals(1, cacheDir.listFiles().length);
+
+		JarMetadataCache lastCache = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+		lastCache.get(used);
+		lastCache.get(unused);
+		assertEquals(1, lastCache.getDiskHitCount());
+		assertEquals(1, lastCache.getParseCount());
+	}
+
+	///////////////////////////////////////////////////////////////////////
+
+	private File createJar(String name, String metadata) throws Exception {
+		File jar = new File(tmpDir, name);
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			out.putNextEntry(new ZipEntry("demo/Dummy.txt"));
+			out.write("dummy".getBytes("UTF-8"));
+			out.closeEntry();
+			if (metadata!=null) {
+				out.putNextEntry(new ZipEntry(LOCATION));
+				out.write(metadata.getBytes("UTF-8"));
+				out.closeEntry();
+			}
+		} finally {
+			out.close();
+		}
+		return jar;
+	}
+
+	private String dump(ConfigurationMetadataRepository repo) {
+		StringBuilder buf = new StringBuilder();
+		repo.getAllProperties().values().stream()
+		.sorted((a, b) -> a.getId().compareTo(b.getId()))
+		.forEach((ConfigurationMetadataProperty p) -> {
+			buf.append(p.getId()+" name="+p.getName()+" type="+p.getType()+"\n");
+			buf.append("  description="+p.getDescription()+" short="+p.getShortDescription()+"\n");
+			Object dflt = p.getDefaultValue();
+			buf.append("  default="+(dflt instanceof Object[] ? Arrays.toString((Object[])dflt) : dflt)+"\n");
+			if (p.isDeprecated()) {
+				buf.append("  deprecation="+p.getDeprecation()+"\n");
+			}
+			for (ValueHint hint : p.getHints().getValueHints()) {
+				buf.append("  hint="+hint+"\n");
+			}
+			buf.append("  providers="+p.getHints().getValueProviders()+"\n");
+		});
+		return buf.toString();
+	}
+
+}
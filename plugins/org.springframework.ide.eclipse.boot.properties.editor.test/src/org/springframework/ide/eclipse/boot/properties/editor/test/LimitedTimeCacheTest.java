@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.springframework.ide.eclipse.boot.properties.editor.util.LimitedTimeCache;
+
+public class LimitedTimeCacheTest extends TestCase {
+
+	public void testGetPut() throws Exception {
+		LimitedTimeCache<String, String> cache = new LimitedTimeCache<>(Duration.ofMinutes(1));
+		assertNull(cache.get("a"));
+		cache.put("a", "A");
+		assertEquals("A", cache.get("a"));
+		cache.put("a", null);
+		assertNull(cache.get("a"));
+		cache.put("b", "B");
+		cache.clear();
+		assertNull(cache.get("b"));
+
+		assertEquals(1, cache.getStats().hitCount());
+		assertEquals(3, cache.getStats().missCount());
+	}
+
+	public void testBoundedByEntries() throws Exception {
+		LimitedTimeCache<Integer, String> cache = new LimitedTimeCache<>(Duration.ofMinutes(1), 100);
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, "v"+i);
+			//Keep using the first entry, so it is the most recently used one.
+			assertEquals("v0", cache.get(0));
+		}
+		assertTrue(cache.size()<=100);
+		assertEquals("v0", cache.get(0));
+		assertEquals("v999", cache.get(999));
+		assertNull(cache.get(1));
+		assertTrue(cache.getStats().evictionCount()>=900);
+	}
+
+	public void testBoundedByWeight() throws Exception {
+		LimitedTimeCache<Integer, String> cache = new LimitedTimeCache<>(Duration.ofMinutes(1), 1000, (k, v) -> v.length());
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, new String(new char[100]));
+		}
+		assertTrue(cache.size()<=10);
+		assertNotNull(cache.get(99));
+	}
+
+	public void testExpireAfterAccess() throws Exception {
+		LimitedTimeCache<String, String> cache = new LimitedTimeCache<>(Duration.ofMillis(300));
+		cache.put("used", "U");
+		cache.put("unused", "X");
+		for (int i = 0; i < 6; i++) {
+			Thread.sleep(100);
+			assertEquals("U", cache.get("used"));
+		}
+		assertNull(cache.get("unused"));
+		assertEquals("U", cache.get("used"));
+		Thread.sleep(500);
+		assertNull(cache.get("used"));
+	}
+
+	public void testConcurrentAccess() throws Exception {
+		LimitedTimeCache<Integer, Integer> cache = new LimitedTimeCache<>(Duration.ofMinutes(1), 500);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						int k = i % 1000;
+						Integer v = cache.get(k);
+						if (v==null) {
+							cache.put(k, k*2);
+						} else {
+							assertEquals(k*2, v.intValue());
+						}
+					}
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(cache.size()<=500);
+		assertEquals(80000, cache.getStats().requestCount());
+	}
+
+}
@@ -12,7 +12,9 @@ package org.springframework.ide.eclipse.boot.properties.editor.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,8 +22,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.jdt.core.IJavaProject;
@@ -30,7 +34,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.CachingValueProvider;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.LoggerNameProvider;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndex;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndexManager;
 import org.springframework.ide.eclipse.boot.test.BootProjectTestHarness;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
@@ -68,6 +75,7 @@ public class LoggerNameProviderTest {
 	@After
 	public void teardown() throws Exception {
 		CachingValueProvider.restoreDefaults();
+		System.clearProperty(JavaTypeIndexManager.ENABLED_PROPERTY);
 	}
 
 	protected IProject createPredefinedMavenProject(final String projectName) throws Exception {
@@ -124,6 +132,38 @@ public class LoggerNameProviderTest {
 		}
 	}
 
+	@Test
+	public void indexedResults() throws Exception {
+		System.setProperty(JavaTypeIndexManager.ENABLED_PROPERTY, "true");
+		JavaTypeIndex index = SpringPropertiesEditorPlugin.getTypeIndexManager().getFuture(project).get(60, TimeUnit.SECONDS);
+		assertTrue(index.getTypeCount()>0);
+
+		List<String> results = getResults(new LoggerNameProvider(), "jboss");
+		dumpResults("jboss - INDEXED", results);
+		assertElementsAtLeast(results, JBOSS_RESULTS);
+	}
+
+	@Test
+	public void indexUpdatedOnSourceChange() throws Exception {
+		System.setProperty(JavaTypeIndexManager.ENABLED_PROPERTY, "true");
+		JavaTypeIndexManager manager = SpringPropertiesEditorPlugin.getTypeIndexManager();
+		manager.getFuture(project).get(60, TimeUnit.SECONDS);
+
+		IFile file = project.getProject().getFile("src/main/java/demo/JBossLoggingThing.java");
+		file.create(new ByteArrayInputStream(
+				"package demo;\n\npublic class JBossLoggingThing {}\n".getBytes("UTF-8")), true, null);
+
+		long timeout = System.currentTimeMillis() + 30000;
+		List<String> results;
+		do {
+			Thread.sleep(200);
+			manager.getFuture(project).get(60, TimeUnit.SECONDS);
+			results = getResults(new LoggerNameProvider(), "jboss");
+		} while (!results.contains("demo.JBossLoggingThing") && System.currentTimeMillis() < timeout);
+		assertTrue(results.contains("demo.JBossLoggingThing"));
+		assertElementsAtLeast(results, JBOSS_RESULTS);
+	}
+
 	private void assertElementsAtLeast(List<String> results, String[] expecteds) {
 		Set<String> actuals = ImmutableSet.copyOf(results);
 		StringBuilder missing = new StringBuilder();
@@ -374,6 +374,23 @@ public class SpringPropertiesEditorTests extends SpringPropertiesEditorTestHarne
 		);
 	}
 
+	public void testRelaxedNameSpellingsReconciling() throws Exception {
+		data("spring.datasource.hikari.maximum-pool-size", "java.lang.Integer", null, null);
+		MockEditor editor = newEditor(
+				"spring.datasource.hikari.maximum-pool-size=10\n" +
+				"spring.datasource.hikari.maximumPoolSize=10\n" +
+				"spring.datasource.hikari.maximum_pool_size=10\n" +
+				"SPRING.DATASOURCE.HIKARI.MAXIMUM_POOL_SIZE=10\n" +
+				"spring.dataSource.hikari.maximumPoolSize=notInt\n" +
+				"spring.datasource.hikari.maximum.pool-size=10\n"
+		);
+		assertProblems(editor,
+				"notInt|Integer",
+				".pool-size|unknown property"
+				//no other problems
+		);
+	}
+
 	public void testRelaxedNameContentAssist() throws Exception {
 		data("foo-bar-zor.enabled", "java.lang.Boolean", null, null);
 		assertCompletion("fooBar<*>", "foo-bar-zor.enabled=<*>");
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
+import org.springframework.ide.eclipse.boot.properties.editor.StsConfigMetadataRepositoryJsonLoader;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.PropertyInfo;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry;
+import org.springframework.ide.eclipse.boot.properties.editor.util.ProjectIndexListener;
+import org.springframework.ide.eclipse.boot.properties.editor.util.SpringPropertiesIndexManager;
+import org.springframework.ide.eclipse.boot.test.BootProjectTestHarness;
+import org.springframework.ide.eclipse.boot.util.JavaProjectUtil;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+public class SpringPropertiesIndexManagerTest extends TestCase {
+
+	private static class CountingListener implements ProjectIndexListener {
+
+		private final IJavaProject project;
+		private int count = 0;
+
+		CountingListener(IJavaProject project) {
+			this.project = project;
+		}
+
+		@Override
+		public synchronized void changed(SpringPropertiesIndexManager info) {
+			count++;
+		}
+
+		@Override
+		public IJavaProject getJavaProject() {
+			return project;
+		}
+
+		public synchronized int getCount() {
+			return count;
+		}
+	}
+
+	private SpringPropertiesIndexManager manager;
+	private IJavaProject liveProject;
+	private IJavaProject demoProject;
+	private CountingListener liveListener;
+	private CountingListener demoListener;
+
+	@Override
+	protected void setUp() throws Exception {
+		StsTestUtil.deleteAllProjects();
+		liveProject = JavaCore.create(createPredefinedMavenProject("demo-live-metadata"));
+		demoProject = JavaCore.create(createPredefinedMavenProject("demo"));
+		manager = new SpringPropertiesIndexManager(ValueProviderRegistry.getDefault());
+		manager.addListener(liveListener = new CountingListener(liveProject));
+		manager.addListener(demoListener = new CountingListener(demoProject));
+	}
+
+	public void testUnchangedClasspathKeepsIndexes() throws Exception {
+		FuzzyMap<PropertyInfo> liveIndex = manager.get(liveProject);
+		FuzzyMap<PropertyInfo> demoIndex = manager.get(demoProject);
+
+		manager.classpathChanged(demoProject);
+
+		assertSame(liveIndex, manager.get(liveProject));
+		assertSame(demoIndex, manager.get(demoProject));
+		assertEquals(0, liveListener.getCount());
+		assertEquals(0, demoListener.getCount());
+	}
+
+	public void testLiveMetadataChangeOnlyPatchesAffectedIndex() throws Exception {
+		FuzzyMap<PropertyInfo> liveIndex = manager.get(liveProject);
+		FuzzyMap<PropertyInfo> demoIndex = manager.get(demoProject);
+		assertNotNull(liveIndex.get("foo.counter"));
+		assertNotNull(liveIndex.get("server.port"));
+		assertNull(liveIndex.get("foo.extra"));
+
+		IFile additional = JavaProjectUtil.getOutputFile(liveProject,
+				StsConfigMetadataRepositoryJsonLoader.PROJECT_META_DATA_LOCATIONS[1]);
+		String json = "{ \"properties\": [{ \"name\": \"foo.extra\", \"type\": \"java.lang.String\" }] }";
+		if (additional.exists()) {
+			additional.setContents(new ByteArrayInputStream(json.getBytes("UTF-8")), true, false, null);
+		} else {
+			additional.create(new ByteArrayInputStream(json.getBytes("UTF-8")), true, null);
+		}
+		// The manager's resource listener calls this as well, but don't rely on the timing of that.
+		manager.liveMetadataChanged(liveProject, additional);
+
+		//The index is patched in the background
+		FuzzyMap<PropertyInfo> patched = manager.getFuture(liveProject).get(30, TimeUnit.SECONDS);
+		waitForNotification(liveListener);
+		assertEquals(0, demoListener.getCount());
+		assertSame(demoIndex, manager.get(demoProject));
+
+		assertNotSame(liveIndex, patched);
+		assertNotNull(patched.get("foo.extra"));
+		assertNotNull(patched.get("foo.counter"));
+		assertNotNull(patched.get("server.port"));
+	}
+
+	public void testSnapshotsOfDifferentProjectsBuiltConcurrently() throws Exception {
+		CompletableFuture<? extends FuzzyMap<PropertyInfo>> live = manager.getFuture(liveProject);
+		CompletableFuture<? extends FuzzyMap<PropertyInfo>> demo = manager.getFuture(demoProject);
+		assertNotNull(live.get(30, TimeUnit.SECONDS).get("foo.counter"));
+		assertNotNull(demo.get(30, TimeUnit.SECONDS).get("server.port"));
+
+		//Once built, the same snapshot is returned until something changes
+		assertSame(live.get(), manager.get(liveProject));
+		assertSame(demo.get(), manager.get(demoProject));
+		assertSame(live.get(), manager.getFuture(liveProject).get());
+
+		//The first build of an index doesn't notify listeners, only updates do
+		assertEquals(0, liveListener.getCount());
+		assertEquals(0, demoListener.getCount());
+	}
+
+	private void waitForNotification(CountingListener listener) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 30000;
+		while (listener.getCount()==0 && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+		}
+		assertTrue(listener.getCount()>0);
+	}
+
+	protected IProject createPredefinedMavenProject(final String projectName) throws Exception {
+		return BootProjectTestHarness.createPredefinedMavenProject(projectName, "org.springframework.ide.eclipse.boot.properties.editor.test");
+	}
+
+}
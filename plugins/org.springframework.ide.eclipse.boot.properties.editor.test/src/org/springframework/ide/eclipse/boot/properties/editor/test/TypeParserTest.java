@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -77,4 +77,15 @@ public class TypeParserTest extends TestCase {
 		assertNotEquals(type1, type3);
 	}
 
+	public void testParsedTypesAreRemembered() throws Exception {
+		long hits = TypeParser.getStats().hitCount();
+		Type type1 = TypeParser.parse("java.util.Map<java.lang.String,java.util.List<demo.Remembered>>");
+		Type type2 = TypeParser.parse("java.util.Map<java.lang.String,java.util.List<demo.Remembered>>");
+		assertSame(type1, type2);
+		assertEquals(hits+1, TypeParser.getStats().hitCount());
+
+		assertNull(TypeParser.parse(""));
+		assertNull(TypeParser.parse(null));
+	}
+
 }
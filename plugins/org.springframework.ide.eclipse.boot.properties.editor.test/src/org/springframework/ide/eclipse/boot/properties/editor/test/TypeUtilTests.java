@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,23 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.test;
 
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
 import java.util.List;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.StsValueHint;
 import org.springframework.ide.eclipse.boot.properties.editor.util.Type;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeParser;
+import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil;
+import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtilCache.ProjectCache;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypedProperty;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil.BeanPropertyNameMode;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil.EnumCaseMode;
+import org.springframework.ide.eclipse.editor.support.util.ValueParser;
 
 import static org.springsource.ide.eclipse.commons.tests.util.StsTestCase.assertElements;
 
@@ -132,5 +139,44 @@ public class TypeUtilTests extends SpringPropertiesEditorTestHarness {
 		assertType("java.lang.String[]", Type.fromSignature("[QString;", jp.findType("demo.ColorData")));
 	}
 
+	public void testEnumValuesAreRemembered() throws Exception {
+		IProject p = createPredefinedMavenProject("demo-enum");
+		IJavaProject jp = JavaCore.create(p);
+		useProject(jp);
+
+		TypeUtil typeUtil = engine.getTypeUtil();
+		Type color = TypeParser.parse("demo.Color");
+		ValueParser parser = typeUtil.getValueParser(color);
+		assertNotNull(parser);
+		assertEquals("RED", parser.parse("RED"));
+
+		ProjectCache cache = typeUtil.getCache();
+		long parserHits = cache.getValueParserStats().hitCount();
+		long valueHits = cache.getAllowedValuesStats().hitCount();
+		//Another TypeUtil for the same project shares the remembered lookups.
+		TypeUtil otherTypeUtil = new TypeUtil(jp);
+		assertSame(parser, otherTypeUtil.getValueParser(color));
+		assertEquals(parserHits+1, cache.getValueParserStats().hitCount());
+		assertElements(getValues(typeUtil.getAllowedValues(color, EnumCaseMode.ORIGNAL)), "RED", "GREEN", "BLUE");
+		assertElements(getValues(typeUtil.getAllowedValues(color, EnumCaseMode.ORIGNAL)), "RED", "GREEN", "BLUE");
+		assertTrue(cache.getAllowedValuesStats().hitCount()>valueHits);
+
+		//Changing the enum makes us forget about it.
+		IFile file = p.getFile("src/main/java/demo/Color.java");
+		file.setContents(new ByteArrayInputStream(
+				"package demo;\n\npublic enum Color { RED, GREEN, BLUE, YELLOW }\n".getBytes("UTF-8")), true, false, null);
+		buildProject(jp);
+		assertElements(getValues(typeUtil.getAllowedValues(color, EnumCaseMode.ORIGNAL)), "RED", "GREEN", "BLUE", "YELLOW");
+		assertEquals("YELLOW", typeUtil.getValueParser(color).parse("YELLOW"));
+	}
+
+	private String[] getValues(Collection<StsValueHint> hints) {
+		String[] values = new String[hints.size()];
+		int i = 0;
+		for (StsValueHint h : hints) {
+			values[i++] = h.getValue();
+		}
+		return values;
+	}
 
 }
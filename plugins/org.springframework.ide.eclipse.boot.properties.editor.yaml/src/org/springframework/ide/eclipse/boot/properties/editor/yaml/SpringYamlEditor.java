@@ -11,15 +11,18 @@
 package org.springframework.ide.eclipse.boot.properties.editor.yaml;
 
 import org.dadacoalition.yedit.editor.YEditSourceViewerConfiguration;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.ui.texteditor.IDocumentProvider;
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.preferences.ProblemSeverityPreferencesUtil;
-import org.springframework.ide.eclipse.boot.properties.editor.util.Listener;
+import org.springframework.ide.eclipse.boot.properties.editor.util.ProjectIndexListener;
 import org.springframework.ide.eclipse.boot.properties.editor.util.SpringPropertiesIndexManager;
+import org.springframework.ide.eclipse.editor.support.util.DocumentUtil;
 import org.springframework.ide.eclipse.editor.support.yaml.AbstractYamlEditor;
 
-public class SpringYamlEditor extends AbstractYamlEditor implements Listener<SpringPropertiesIndexManager>, IPropertyChangeListener {
+public class SpringYamlEditor extends AbstractYamlEditor implements ProjectIndexListener, IPropertyChangeListener {
 
 	private ApplicationYamlSourceViewerConfiguration sourceViewerConf;
 
@@ -42,6 +45,15 @@ public class SpringYamlEditor extends AbstractYamlEditor implements Listener<Spr
 		}
 	}
 
+	@Override
+	public IJavaProject getJavaProject() {
+		IDocumentProvider docProvider = getDocumentProvider();
+		if (docProvider!=null) {
+			return DocumentUtil.getJavaProject(docProvider.getDocument(getEditorInput()));
+		}
+		return null;
+	}
+
 	@Override
 	public void dispose() {
 		super.dispose();
@@ -73,6 +73,9 @@ public class ApplicationYamlASTReconciler implements YamlASTReconciler {
 			mon.beginTask("Reconcile", nodes.size());
 			try {
 				for (Node node : nodes) {
+					if (mon.isCanceled()) {
+						return;
+					}
 					reconcile(node, nav);
 					mon.worked(1);
 				}
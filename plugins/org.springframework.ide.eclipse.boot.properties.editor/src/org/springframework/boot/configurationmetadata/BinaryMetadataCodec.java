@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.boot.configurationmetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.springframework.ide.eclipse.org.json.JSONArray;
+import org.springframework.ide.eclipse.org.json.JSONException;
+import org.springframework.ide.eclipse.org.json.JSONObject;
+
+/**
+ * Compact binary encoding of a {@link RawConfigurationMetadata}. Decoding it is a lot
+ * cheaper than parsing the original json document, so it is used to cache the metadata
+ * of jars.
+ * <p>
+ * Every string is written only once, repeated occurrences (e.g. types and source types)
+ * are written as references to the first occurrence.
+ */
+class BinaryMetadataCodec {
+
+	private static final int MAGIC = 0x5354534d; // 'STSM'
+	private static final int VERSION = 1;
+
+	private static final int NULL_STRING = -1;
+	private static final int NEW_STRING = -2;
+
+	private static final byte T_NULL = 0;
+	private static final byte T_JSON_NULL = 1;
+	private static final byte T_STRING = 2;
+	private static final byte T_TRUE = 3;
+	private static final byte T_FALSE = 4;
+	private static final byte T_INT = 5;
+	private static final byte T_LONG = 6;
+	private static final byte T_DOUBLE = 7;
+	private static final byte T_ARRAY = 8;
+	private static final byte T_JSON_OBJECT = 9;
+	private static final byte T_JSON_ARRAY = 10;
+
+	public static byte[] encode(RawConfigurationMetadata metadata) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new Writer(new DataOutputStream(bytes)).write(metadata);
+		return bytes.toByteArray();
+	}
+
+	public static RawConfigurationMetadata decode(Object origin, byte[] data) throws IOException {
+		return new Reader(new DataInputStream(new ByteArrayInputStream(data))).read(origin);
+	}
+
+	private static class Writer {
+
+		private final DataOutputStream out;
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		void write(RawConfigurationMetadata metadata) throws IOException {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			out.writeInt(metadata.getSources().size());
+			for (ConfigurationMetadataSource source : metadata.getSources()) {
+				writeString(source.getGroupId());
+				writeString(source.getType());
+				writeString(source.getDescription());
+				writeString(source.getShortDescription());
+				writeString(source.getSourceType());
+				writeString(source.getSourceMethod());
+			}
+
+			out.writeInt(metadata.getItems().size());
+			for (ConfigurationMetadataItem item : metadata.getItems()) {
+				writeString(item.getId());
+				writeString(item.getType());
+				writeString(item.getDescription());
+				writeString(item.getShortDescription());
+				writeValue(item.getDefaultValue());
+				Deprecation deprecation = item.getDeprecation();
+				out.writeBoolean(deprecation!=null);
+				if (deprecation!=null) {
+					writeString(deprecation.getReason());
+					writeString(deprecation.getReplacement());
+				}
+				writeString(item.getSourceType());
+				writeString(item.getSourceMethod());
+			}
+
+			out.writeInt(metadata.getHints().size());
+			for (ConfigurationMetadataHint hint : metadata.getHints()) {
+				writeString(hint.getId());
+				out.writeInt(hint.getValueHints().size());
+				for (ValueHint valueHint : hint.getValueHints()) {
+					writeValue(valueHint.getValue());
+					writeString(valueHint.getDescription());
+					writeString(valueHint.getShortDescription());
+				}
+				out.writeInt(hint.getValueProviders().size());
+				for (ValueProvider provider : hint.getValueProviders()) {
+					writeString(provider.getName());
+					out.writeInt(provider.getParameters().size());
+					for (Entry<String, Object> param : provider.getParameters().entrySet()) {
+						writeString(param.getKey());
+						writeValue(param.getValue());
+					}
+				}
+			}
+			out.flush();
+		}
+
+		private void writeString(String s) throws IOException {
+			if (s==null) {
+				out.writeInt(NULL_STRING);
+				return;
+			}
+			Integer ref = strings.get(s);
+			if (ref!=null) {
+				out.writeInt(ref);
+			} else {
+				strings.put(s, strings.size());
+				out.writeInt(NEW_STRING);
+				//Not using 'writeUTF' because it is limited to 64k.
+				byte[] utf8 = s.getBytes(ConfigurationMetadataRepositoryJsonBuilder.UTF_8);
+				out.writeInt(utf8.length);
+				out.write(utf8);
+			}
+		}
+
+		private void writeValue(Object value) throws IOException {
+			if (value==null) {
+				out.writeByte(T_NULL);
+			} else if (value==JSONObject.NULL) {
+				out.writeByte(T_JSON_NULL);
+			} else if (value instanceof String) {
+				out.writeByte(T_STRING);
+				writeString((String) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte((Boolean)value ? T_TRUE : T_FALSE);
+			} else if (value instanceof Integer) {
+				out.writeByte(T_INT);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Long) {
+				out.writeByte(T_LONG);
+				out.writeLong((Long) value);
+			} else if (value instanceof Double) {
+				out.writeByte(T_DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value instanceof Object[]) {
+				Object[] array = (Object[]) value;
+				out.writeByte(T_ARRAY);
+				out.writeInt(array.length);
+				for (Object element : array) {
+					writeValue(element);
+				}
+			} else if (value instanceof JSONObject) {
+				out.writeByte(T_JSON_OBJECT);
+				writeString(value.toString());
+			} else if (value instanceof JSONArray) {
+				out.writeByte(T_JSON_ARRAY);
+				writeString(value.toString());
+			} else {
+				throw new IOException("Unsupported metadata value: "+value.getClass().getName());
+			}
+		}
+	}
+
+	private static class Reader {
+
+		private final DataInputStream in;
+		private final List<String> strings = new ArrayList<>();
+
+		Reader(DataInputStream in) {
+			this.in = in;
+		}
+
+		RawConfigurationMetadata read(Object origin) throws IOException {
+			if (in.readInt()!=MAGIC || in.readInt()!=VERSION) {
+				throw new IOException("Unsupported binary metadata format");
+			}
+
+			int count = in.readInt();
+			List<ConfigurationMetadataSource> sources = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				ConfigurationMetadataSource source = new ConfigurationMetadataSource();
+				source.setGroupId(readString());
+				source.setType(readString());
+				source.setDescription(readString());
+				source.setShortDescription(readString());
+				source.setSourceType(readString());
+				source.setSourceMethod(readString());
+				sources.add(source);
+			}
+
+			count = in.readInt();
+			List<ConfigurationMetadataItem> items = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				ConfigurationMetadataItem item = new ConfigurationMetadataItem();
+				item.setId(readString());
+				item.setType(readString());
+				item.setDescription(readString());
+				item.setShortDescription(readString());
+				item.setDefaultValue(readValue());
+				if (in.readBoolean()) {
+					Deprecation deprecation = new Deprecation();
+					deprecation.setReason(readString());
+					deprecation.setReplacement(readString());
+					item.setDeprecation(deprecation);
+				}
+				item.setSourceType(readString());
+				item.setSourceMethod(readString());
+				items.add(item);
+			}
+
+			count = in.readInt();
+			List<ConfigurationMetadataHint> hints = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				ConfigurationMetadataHint hint = new ConfigurationMetadataHint();
+				hint.setId(readString());
+				int valueCount = in.readInt();
+				for (int j = 0; j < valueCount; j++) {
+					ValueHint valueHint = new ValueHint();
+					valueHint.setValue(readValue());
+					valueHint.setDescription(readString());
+					valueHint.setShortDescription(readString());
+					hint.getValueHints().add(valueHint);
+				}
+				int providerCount = in.readInt();
+				for (int j = 0; j < providerCount; j++) {
+					ValueProvider provider = new ValueProvider();
+					provider.setName(readString());
+					int paramCount = in.readInt();
+					for (int k = 0; k < paramCount; k++) {
+						String key = readString();
+						provider.getParameters().put(key, readValue());
+					}
+					hint.getValueProviders().add(provider);
+				}
+				hints.add(hint);
+			}
+			return new RawConfigurationMetadata(origin, sources, items, hints);
+		}
+
+		private String readString() throws IOException {
+			int ref = in.readInt();
+			if (ref==NULL_STRING) {
+				return null;
+			} else if (ref==NEW_STRING) {
+				byte[] utf8 = new byte[in.readInt()];
+				in.readFully(utf8);
+				String s = new String(utf8, ConfigurationMetadataRepositoryJsonBuilder.UTF_8);
+				strings.add(s);
+				return s;
+			} else if (ref>=0 && ref<strings.size()) {
+				return strings.get(ref);
+			}
+			throw new IOException("Corrupt binary metadata: bad string reference "+ref);
+		}
+
+		private Object readValue() throws IOException {
+			byte tag = in.readByte();
+			try {
+				switch (tag) {
+				case T_NULL:
+					return null;
+				case T_JSON_NULL:
+					return JSONObject.NULL;
+				case T_STRING:
+					return readString();
+				case T_TRUE:
+					return Boolean.TRUE;
+				case T_FALSE:
+					return Boolean.FALSE;
+				case T_INT:
+					return in.readInt();
+				case T_LONG:
+					return in.readLong();
+				case T_DOUBLE:
+					return in.readDouble();
+				case T_ARRAY:
+					Object[] array = new Object[in.readInt()];
+					for (int i = 0; i < array.length; i++) {
+						array[i] = readValue();
+					}
+					return array;
+				case T_JSON_OBJECT:
+					return new JSONObject(readString());
+				case T_JSON_ARRAY:
+					return new JSONArray(readString());
+				default:
+					throw new IOException("Corrupt binary metadata: bad value tag "+tag);
+				}
+			} catch (JSONException e) {
+				throw new IOException("Corrupt binary metadata", e);
+			}
+		}
+	}
+
+}
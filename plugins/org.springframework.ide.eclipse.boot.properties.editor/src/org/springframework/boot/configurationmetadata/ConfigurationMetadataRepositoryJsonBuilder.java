@@ -89,6 +89,41 @@ public final class ConfigurationMetadataRepositoryJsonBuilder {
 		return this;
 	}
 
+	/**
+	 * Add the content of a {@link ConfigurationMetadataRepository} in the binary form
+	 * produced by {@link #toBinary(Object, InputStream)}. Decoding the binary form is a
+	 * lot cheaper than parsing the original json document.
+	 * @param origin optional information object to help identify where the data came from
+	 * @param data the binary metadata
+	 * @return this builder
+	 * @throws IOException if the data is not in a supported binary format
+	 */
+	public ConfigurationMetadataRepositoryJsonBuilder withBinaryResource(
+			Object origin, byte[] data) throws IOException {
+		if (data == null) {
+			throw new IllegalArgumentException("Data must not be null.");
+		}
+		this.rawDatas.add(BinaryMetadataCodec.decode(origin, data));
+		return this;
+	}
+
+	/**
+	 * Parse the specified {@link InputStream} json document using the default charset
+	 * and return its content in a compact binary form that can be added to a builder
+	 * with {@link #withBinaryResource(Object, byte[])}. The content is not added to this
+	 * builder.
+	 * @param origin optional information object to help identify where the inputstream came from
+	 * @param inputStream the source input stream
+	 * @return the binary metadata
+	 * @throws IOException in case of I/O errors
+	 */
+	public byte[] toBinary(Object origin, InputStream inputStream) throws IOException {
+		if (inputStream == null) {
+			throw new IllegalArgumentException("InputStream must not be null.");
+		}
+		return BinaryMetadataCodec.encode(parseRaw(origin, inputStream, this.defaultCharset));
+	}
+
 	/**
 	 * Build a {@link ConfigurationMetadataRepository} with the current state of this
 	 * builder.
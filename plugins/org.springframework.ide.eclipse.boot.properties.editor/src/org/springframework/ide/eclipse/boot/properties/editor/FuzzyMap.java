@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,13 +11,18 @@
 package org.springframework.ide.eclipse.boot.properties.editor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.TreeMap;
 
-import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 import org.springframework.ide.eclipse.editor.support.util.FuzzyMatcher;
 import org.springframework.ide.eclipse.editor.support.util.StringUtil;
 
@@ -28,6 +33,10 @@ import org.springframework.ide.eclipse.editor.support.util.StringUtil;
  * <p>
  * The collection can then be searched for items who's key matches
  * simple 'fuzzy' patterns.
+ * <p>
+ * Searches use an index that maps each character to the set of keys containing
+ * it. Only keys containing all characters of a pattern are scored. The index
+ * is rebuilt lazily on the first search after the map has been modified.
  */
 public abstract class FuzzyMap<E> implements Iterable<E> {
 
@@ -69,6 +78,18 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 
 	private TreeMap<String,E> entries = new TreeMap<String, E>();
 
+	/**
+	 * Index of the current entries, null when the entries have been modified since the
+	 * index was last built.
+	 */
+	private volatile CharIndex index = null;
+
+	/**
+	 * Index of the relaxed forms of the current keys, null when the entries have been modified
+	 * since the index was last built.
+	 */
+	private volatile RelaxedIndex relaxedIndex = null;
+
 	protected abstract String getKey(E entry);
 
 	public void add(E value) {
@@ -77,6 +98,8 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 		E existing = entries.get(key);
 		if (existing==null) {
 			entries.put(getKey(value), value);
+			index = null;
+			relaxedIndex = null;
 		} else {
 			SpringPropertiesEditorPlugin.warning(FuzzyMap.class.getName()+": Multiple entries for key "+key+" some entries discarded");
 		}
@@ -100,19 +123,289 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 			}
 			return matches;
 		} else {
-			//TODO: optimize somehow with a smarter index? (right now searches all map entries sequentially)
+			CharIndex index = getIndex();
 			ArrayList<Match<E>> matches = new ArrayList<Match<E>>();
-			for (Entry<String, E> e : entries.entrySet()) {
-				String key = e.getKey();
-				double score = FuzzyMatcher.matchScore(pattern, key);
+			BitSet candidates = index.candidates(pattern);
+			for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i+1)) {
+				double score = FuzzyMatcher.matchScore(pattern, index.keys[i]);
 				if (score!=0.0) {
-					matches.add(new Match<E>(pattern, score, e.getValue()));
+					matches.add(new Match<E>(pattern, score, index.<E>value(i)));
 				}
 			}
 			return matches;
 		}
 	}
 
+	/**
+	 * Search for pattern like {@link #find(String)} but only return the best 'limit' matches,
+	 * sorted by descending score and then by key. Only 'limit' matches are kept in memory
+	 * during the search.
+	 */
+	public List<Match<E>> findTop(String pattern, int limit) {
+		if (limit<=0) {
+			return Collections.emptyList();
+		}
+		CharIndex index = getIndex();
+		final String[] keys = index.keys;
+		BitSet candidates = index.candidates(pattern);
+		//Head of the queue is the worst match found so far. Among equal scores the one with
+		//the lexicographically bigger key is worse.
+		int capacity = Math.max(1, Math.min(limit, candidates.cardinality()));
+		PriorityQueue<IndexedMatch<E>> best = new PriorityQueue<IndexedMatch<E>>(capacity, new Comparator<IndexedMatch<E>>() {
+			public int compare(IndexedMatch<E> o1, IndexedMatch<E> o2) {
+				int scoreCompare = Double.compare(o1.match.score, o2.match.score);
+				return scoreCompare!=0 ? scoreCompare : Integer.compare(o2.pos, o1.pos);
+			}
+		});
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i+1)) {
+			double score = "".equals(pattern) ? 1.0 : FuzzyMatcher.matchScore(pattern, keys[i]);
+			if (score!=0.0) {
+				if (best.size()<limit) {
+					best.add(new IndexedMatch<E>(i, new Match<E>(pattern, score, index.<E>value(i))));
+				} else if (score>best.peek().match.score) {
+					//Candidates are visited in key order, so a later candidate with an equal score never wins.
+					best.poll();
+					best.add(new IndexedMatch<E>(i, new Match<E>(pattern, score, index.<E>value(i))));
+				}
+			}
+		}
+		ArrayList<Match<E>> matches = new ArrayList<Match<E>>(best.size());
+		while (!best.isEmpty()) {
+			matches.add(best.poll().match);
+		}
+		Collections.reverse(matches);
+		return matches;
+	}
+
+	private CharIndex getIndex() {
+		CharIndex index = this.index;
+		if (index==null) {
+			synchronized (this) {
+				index = this.index;
+				if (index==null) {
+					this.index = index = new CharIndex(entries);
+				}
+			}
+		}
+		return index;
+	}
+
+	private static class IndexedMatch<E> {
+		final int pos;
+		final Match<E> match;
+		IndexedMatch(int pos, Match<E> match) {
+			this.pos = pos;
+			this.match = match;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the entries in key order, with a 'posting list' per character
+	 * holding the positions of all keys that contain that character.
+	 */
+	private static class CharIndex {
+
+		private static final int ASCII = 128;
+
+		final String[] keys;
+		private final Object[] values;
+		private final BitSet[] asciiPostings = new BitSet[ASCII];
+		private final Map<Character, BitSet> otherPostings = new HashMap<Character, BitSet>();
+
+		CharIndex(TreeMap<String, ?> entries) {
+			int size = entries.size();
+			keys = new String[size];
+			values = new Object[size];
+			int pos = 0;
+			for (Entry<String, ?> e : entries.entrySet()) {
+				String key = e.getKey();
+				keys[pos] = key;
+				values[pos] = e.getValue();
+				for (int i = 0; i < key.length(); i++) {
+					posting(key.charAt(i), true).set(pos);
+				}
+				pos++;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		<E> E value(int pos) {
+			return (E) values[pos];
+		}
+
+		/**
+		 * Positions of all keys that contain every character of the pattern (ignoring order,
+		 * so these still need to be scored).
+		 */
+		BitSet candidates(String pattern) {
+			BitSet candidates = new BitSet(keys.length);
+			candidates.set(0, keys.length);
+			for (int i = 0; i < pattern.length() && !candidates.isEmpty(); i++) {
+				BitSet posting = posting(pattern.charAt(i), false);
+				if (posting==null) {
+					candidates.clear();
+				} else {
+					candidates.and(posting);
+				}
+			}
+			return candidates;
+		}
+
+		private BitSet posting(char c, boolean create) {
+			BitSet posting = c<ASCII ? asciiPostings[c] : otherPostings.get(c);
+			if (posting==null && create) {
+				posting = new BitSet(keys.length);
+				if (c<ASCII) {
+					asciiPostings[c] = posting;
+				} else {
+					otherPostings.put(c, posting);
+				}
+			}
+			return posting;
+		}
+	}
+
+	/**
+	 * Result of {@link FuzzyMap#findLongestRelaxedPrefix(String)}.
+	 */
+	public static class PrefixMatch<E> {
+		public final E data;
+		/**
+		 * Length of the matched prefix of the name that was searched for.
+		 */
+		public final int length;
+
+		PrefixMatch(E data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Searches for the entry whose key is the longest prefix of a property name, ignoring the
+	 * differences between relaxed spellings of the name (see {@link #relaxedSegment(CharSequence, int, int)}).
+	 * Only prefixes that end at a '.' or at the end of the name are considered. Anything after
+	 * the first '[' is ignored.
+	 * <p>
+	 * This takes a single walk over the segments of the name, no matter how many of its prefixes
+	 * are tried.
+	 *
+	 * @return The match or null if no prefix of the name is a key.
+	 */
+	public PrefixMatch<E> findLongestRelaxedPrefix(String name) {
+		RelaxedIndex index = getRelaxedIndex();
+		int end = name.indexOf('[');
+		if (end<0) {
+			end = name.length();
+		}
+		RelaxedIndex.Node node = index.root;
+		RelaxedIndex.Node found = null;
+		int foundLength = 0;
+		int start = 0;
+		while (node!=null && start<=end) {
+			int dot = name.indexOf('.', start);
+			int segmentEnd = dot<0 || dot>end ? end : dot;
+			node = node.children.get(relaxedSegment(name, start, segmentEnd));
+			if (node!=null && node.data!=null) {
+				found = node;
+				foundLength = segmentEnd;
+			}
+			start = segmentEnd+1;
+		}
+		if (found!=null) {
+			E data = found.<E>data();
+			if (found.ambiguous) {
+				//Several keys have the same relaxed form, prefer the one that matches more closely.
+				E exact = entries.get(StringUtil.camelCaseToHyphens(name.substring(0, foundLength)));
+				if (exact!=null) {
+					data = exact;
+				}
+			}
+			return new PrefixMatch<E>(data, foundLength);
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the relaxed form of one segment of a property name (i.e. a part between two '.'s).
+	 * All the different spellings that relaxed binding accepts for a segment have the same relaxed
+	 * form. E.g. 'maximumPoolSize', 'maximum-pool-size', 'maximum_pool_size' and 'MAXIMUM_POOL_SIZE'
+	 * all become 'maximumpoolsize'.
+	 */
+	public static String relaxedSegment(CharSequence name, int start, int end) {
+		StringBuilder buf = new StringBuilder(end-start);
+		for (int i = start; i < end; i++) {
+			char c = name.charAt(i);
+			if (c!='-' && c!='_') {
+				buf.append(Character.toLowerCase(c));
+			}
+		}
+		return buf.toString();
+	}
+
+	private RelaxedIndex getRelaxedIndex() {
+		RelaxedIndex index = this.relaxedIndex;
+		if (index==null) {
+			synchronized (this) {
+				index = this.relaxedIndex;
+				if (index==null) {
+					this.relaxedIndex = index = new RelaxedIndex(entries);
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Immutable trie of the relaxed forms of the keys, with one level per segment of a key.
+	 */
+	private static class RelaxedIndex {
+
+		static class Node {
+			final Map<String, Node> children = new HashMap<String, Node>(4);
+			Object data;
+			/**
+			 * Set when the relaxed forms of several keys end at this node.
+			 */
+			boolean ambiguous;
+
+			@SuppressWarnings("unchecked")
+			<E> E data() {
+				return (E) data;
+			}
+		}
+
+		final Node root = new Node();
+
+		RelaxedIndex(TreeMap<String, ?> entries) {
+			for (Entry<String, ?> e : entries.entrySet()) {
+				String key = e.getKey();
+				int end = key.indexOf('[');
+				if (end<0) {
+					end = key.length();
+				}
+				Node node = root;
+				int start = 0;
+				while (start<=end) {
+					int dot = key.indexOf('.', start);
+					int segmentEnd = dot<0 || dot>end ? end : dot;
+					String segment = relaxedSegment(key, start, segmentEnd);
+					Node child = node.children.get(segment);
+					if (child==null) {
+						node.children.put(segment, child = new Node());
+					}
+					node = child;
+					start = segmentEnd+1;
+				}
+				if (node.data==null) {
+					node.data = e.getValue();
+				} else {
+					node.ambiguous = true;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Searches the index for the longest string which is both
 	 *  - a prefix of propertyName
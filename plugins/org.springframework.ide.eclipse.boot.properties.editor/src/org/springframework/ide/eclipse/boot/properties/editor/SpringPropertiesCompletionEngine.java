@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,7 +15,6 @@ import static org.springframework.ide.eclipse.editor.support.util.StringUtil.cam
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -36,6 +35,7 @@ import org.eclipse.jface.text.TextUtilities;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.springframework.boot.configurationmetadata.ValueHint;
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap.Match;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap.PrefixMatch;
 import org.springframework.ide.eclipse.boot.properties.editor.completions.LazyProposalApplier;
 import org.springframework.ide.eclipse.boot.properties.editor.completions.PropertyCompletionFactory;
 import org.springframework.ide.eclipse.boot.properties.editor.completions.SpringPropertyHoverInfo;
@@ -136,6 +136,12 @@ public class SpringPropertiesCompletionEngine implements HoverInfoProvider, ICom
 
 	private static final IContentProposal[] NO_CONTENT_PROPOSALS = new IContentProposal[0];
 
+	/**
+	 * Maximum number of proposals shown for a field where property names can be entered. Only the
+	 * best matches are kept, so the other matches don't have to be sorted.
+	 */
+	private static final int MAX_FIELD_PROPOSALS = 100;
+
 	private DocumentContextFinder documentContextFinder = null;
 	private Provider<FuzzyMap<PropertyInfo>> indexProvider = null;
 	private TypeUtil typeUtil = null;
@@ -543,20 +549,10 @@ public class SpringPropertiesCompletionEngine implements HoverInfoProvider, ICom
 	public IContentProposal[] getPropertyFieldProposals(String contents, int position) {
 		String prefix = contents.substring(0,position);
 		if (StringUtil.hasText(prefix)) {
-			List<Match<PropertyInfo>> matches = findMatches(prefix);
-			if (matches!=null && !matches.isEmpty()) {
+			//Sorted by descending score and then by id.
+			List<Match<PropertyInfo>> matches = getIndex().findTop(camelCaseToHyphens(prefix), MAX_FIELD_PROPOSALS);
+			if (!matches.isEmpty()) {
 				IContentProposal[] proposals = new IContentProposal[matches.size()];
-				Collections.sort(matches, new Comparator<Match<PropertyInfo>>() {
-					@Override
-					public int compare(Match<PropertyInfo> o1, Match<PropertyInfo> o2) {
-						int scoreCompare = Double.compare(o2.score, o1.score);
-						if (scoreCompare!=0) {
-							return scoreCompare;
-						} else {
-							return o1.data.getId().compareTo(o2.data.getId());
-						}
-					}
-				});
 				int i = 0;
 				for (Match<PropertyInfo> m : matches) {
 					proposals[i++] = new ContentProposal(m.data.getId(), m.data.getDescription());
@@ -699,24 +695,19 @@ public class SpringPropertiesCompletionEngine implements HoverInfoProvider, ICom
 	 * Find the longest known property that is a prefix of the given name. Here prefix does not mean
 	 * 'string prefix' but a prefix in the sense of treating '.' as a kind of separators. So
 	 * 'prefix' is not allowed to end in the middle of a 'segment'.
+	 * <p>
+	 * The prefix may be any relaxed spelling of the property's id (see {@link FuzzyMap#findLongestRelaxedPrefix(String)}).
 	 */
 	public static PropertyInfo findLongestValidProperty(FuzzyMap<PropertyInfo> index, String name) {
-		int bracketPos = name.indexOf('[');
-		int endPos = bracketPos>=0?bracketPos:name.length();
-		PropertyInfo prop = null;
-		String prefix = null;
-		while (endPos>0 && prop==null) {
-			prefix = name.substring(0, endPos);
-			String canonicalPrefix = camelCaseToHyphens(prefix);
-			prop = index.get(canonicalPrefix);
-			if (prop==null) {
-				endPos = name.lastIndexOf('.', endPos-1);
+		PrefixMatch<PropertyInfo> match = index.findLongestRelaxedPrefix(name);
+		if (match!=null) {
+			PropertyInfo prop = match.data;
+			if (match.length==prop.getId().length() && name.startsWith(prop.getId())) {
+				return prop;
 			}
-		}
-		if (prop!=null) {
 			//We should meet caller's expectation that matched properties returned by this method
 			// match the names exactly even if we found them using relaxed name matching.
-			return prop.withId(prefix);
+			return prop.withId(name.substring(0, match.length));
 		}
 		return null;
 	}
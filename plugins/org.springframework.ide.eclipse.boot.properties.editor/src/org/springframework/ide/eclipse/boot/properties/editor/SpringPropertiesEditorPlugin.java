@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,8 +19,10 @@ import org.osgi.framework.BundleContext;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry;
 import org.springframework.ide.eclipse.boot.properties.editor.util.ClasspathListener;
 import org.springframework.ide.eclipse.boot.properties.editor.util.ClasspathListenerManager;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndexManager;
 import org.springframework.ide.eclipse.boot.properties.editor.util.ListenerManager;
 import org.springframework.ide.eclipse.boot.properties.editor.util.SpringPropertiesIndexManager;
+import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtilCache;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -92,6 +94,24 @@ public class SpringPropertiesEditorPlugin extends AbstractUIPlugin {
 		return indexManager;
 	}
 
+	private static JavaTypeIndexManager typeIndexManager;
+
+	public static synchronized JavaTypeIndexManager getTypeIndexManager() {
+		if (typeIndexManager==null) {
+			typeIndexManager = new JavaTypeIndexManager();
+		}
+		return typeIndexManager;
+	}
+
+	private static TypeUtilCache typeUtilCache;
+
+	public static synchronized TypeUtilCache getTypeUtilCache() {
+		if (typeUtilCache==null) {
+			typeUtilCache = new TypeUtilCache();
+		}
+		return typeUtilCache;
+	}
+
 	public IEclipsePreferences getDefaultPreferences() {
 		return DefaultScope.INSTANCE.getNode(PLUGIN_ID);
 	}
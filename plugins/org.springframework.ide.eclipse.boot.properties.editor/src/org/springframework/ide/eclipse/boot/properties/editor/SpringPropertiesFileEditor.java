@@ -13,7 +13,9 @@ package org.springframework.ide.eclipse.boot.properties.editor;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
 import org.eclipse.jdt.internal.ui.propertiesfileeditor.IPropertiesFilePartitions;
 import org.eclipse.jdt.internal.ui.propertiesfileeditor.PropertiesFileEditor;
 import org.eclipse.jdt.ui.text.JavaTextTools;
@@ -22,11 +24,11 @@ import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.ui.IEditorInput;
 import org.springframework.ide.eclipse.boot.properties.editor.preferences.ProblemSeverityPreferencesUtil;
-import org.springframework.ide.eclipse.boot.properties.editor.util.Listener;
+import org.springframework.ide.eclipse.boot.properties.editor.util.ProjectIndexListener;
 import org.springframework.ide.eclipse.boot.properties.editor.util.SpringPropertiesIndexManager;
 
 @SuppressWarnings("restriction")
-public class SpringPropertiesFileEditor extends PropertiesFileEditor implements Listener<SpringPropertiesIndexManager>, IPropertyChangeListener {
+public class SpringPropertiesFileEditor extends PropertiesFileEditor implements ProjectIndexListener, IPropertyChangeListener {
 
 	/**
 	 * Content Type ID this editor is registered to open for.
@@ -62,14 +64,22 @@ public class SpringPropertiesFileEditor extends PropertiesFileEditor implements
 	}
 
 	/**
-	 * Called when property index manager was changed.
-	 * TODO: could we make this more precise? We only care about a particular index (for same project this editor is on).
+	 * Called when the property index of the project this editor is on was changed.
 	 */
 	@Override
 	public void changed(SpringPropertiesIndexManager index) {
 		fSourceViewerConf.forceReconcile();
 	}
 
+	@Override
+	public IJavaProject getJavaProject() {
+		IEditorInput input = getEditorInput();
+		if (input!=null) {
+			return EditorUtility.getJavaProject(input);
+		}
+		return null;
+	}
+
 	@Override
 	public void propertyChange(PropertyChangeEvent event) {
 		if (event.getProperty().startsWith(ProblemSeverityPreferencesUtil.PREFERENCE_PREFIX)) {
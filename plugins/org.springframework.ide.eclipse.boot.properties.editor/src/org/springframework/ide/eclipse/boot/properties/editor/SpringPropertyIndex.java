@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.boot.properties.editor;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.jdt.core.IJavaProject;
@@ -18,6 +19,7 @@ import org.springframework.boot.configurationmetadata.ConfigurationMetadataGroup
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepository;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataSource;
+import org.springframework.ide.eclipse.boot.properties.editor.StsConfigMetadataRepositoryJsonLoader.MetadataSource;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.PropertyInfo;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry;
 
@@ -25,27 +27,20 @@ public class SpringPropertyIndex extends FuzzyMap<PropertyInfo> {
 
 	private ValueProviderRegistry valueProviders;
 
+	private final IJavaProject project;
+	private List<MetadataSource> sources = Collections.emptyList();
+	private List<String> classpathFingerprint = null;
+
 	public SpringPropertyIndex(ValueProviderRegistry valueProviders, IJavaProject jp) {
 		this.valueProviders = valueProviders;
+		this.project = jp;
 		if (jp!=null) {
 			try {
 				StsConfigMetadataRepositoryJsonLoader loader = new StsConfigMetadataRepositoryJsonLoader();
 				ConfigurationMetadataRepository metadata = loader.load(jp);
-				//^^^ Should be done in bg? It seems fast enough for now.
-
-				Collection<ConfigurationMetadataProperty> allEntries = metadata.getAllProperties().values();
-				for (ConfigurationMetadataProperty item : allEntries) {
-					add(new PropertyInfo(valueProviders, item));
-				}
-
-				for (ConfigurationMetadataGroup group : metadata.getAllGroups().values()) {
-					for (ConfigurationMetadataSource source : group.getSources().values()) {
-						for (ConfigurationMetadataProperty prop : source.getProperties().values()) {
-							PropertyInfo info = get(prop.getId());
-							info.addSource(source);
-						}
-					}
-				}
+				this.sources = loader.getSources();
+				this.classpathFingerprint = loader.getClasspathFingerprint();
+				addAll(metadata);
 
 	//			System.out.println(">>> spring properties metadata loaded "+this.size()+" items===");
 	//			dumpAsTestData();
@@ -56,6 +51,79 @@ public class SpringPropertyIndex extends FuzzyMap<PropertyInfo> {
 		}
 	}
 
+	private SpringPropertyIndex(SpringPropertyIndex previous, Collection<String> changedProjects) {
+		this.valueProviders = previous.valueProviders;
+		this.project = previous.project;
+		try {
+			StsConfigMetadataRepositoryJsonLoader loader = new StsConfigMetadataRepositoryJsonLoader();
+			ConfigurationMetadataRepository metadata = loader.reload(previous.sources, previous.classpathFingerprint, changedProjects);
+			this.sources = loader.getSources();
+			this.classpathFingerprint = loader.getClasspathFingerprint();
+			addAll(metadata);
+		} catch (Exception e) {
+			SpringPropertiesEditorPlugin.log(e);
+		}
+	}
+
+	private void addAll(ConfigurationMetadataRepository metadata) {
+		Collection<ConfigurationMetadataProperty> allEntries = metadata.getAllProperties().values();
+		for (ConfigurationMetadataProperty item : allEntries) {
+			add(new PropertyInfo(valueProviders, item));
+		}
+
+		for (ConfigurationMetadataGroup group : metadata.getAllGroups().values()) {
+			for (ConfigurationMetadataSource source : group.getSources().values()) {
+				for (ConfigurationMetadataProperty prop : source.getProperties().values()) {
+					PropertyInfo info = get(prop.getId());
+					info.addSource(source);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create a new index from the metadata this index was built from, only re-reading the
+	 * metadata in the output folders of the given projects.
+	 */
+	public SpringPropertyIndex patch(Collection<String> changedProjects) {
+		if (classpathFingerprint==null) {
+			//Loading this index failed, so there's nothing to patch.
+			return new SpringPropertyIndex(valueProviders, project);
+		}
+		return new SpringPropertyIndex(this, changedProjects);
+	}
+
+	/**
+	 * @return true if this index reads metadata from the output folder of a given project. This
+	 * includes the project the index was built for.
+	 */
+	public boolean dependsOn(String projectName) {
+		if (project!=null && project.getElementName().equals(projectName)) {
+			return true;
+		}
+		for (MetadataSource source : sources) {
+			if (projectName.equals(source.getProjectName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the classpath entries this index was built from have changed since.
+	 */
+	public boolean isClasspathChanged() {
+		if (project==null) {
+			return false;
+		}
+		try {
+			return classpathFingerprint==null || !classpathFingerprint.equals(StsConfigMetadataRepositoryJsonLoader.getClasspathFingerprint(project));
+		} catch (Exception e) {
+			//Can't tell, so assume it did.
+			return true;
+		}
+	}
+
 	public void add(ConfigurationMetadataProperty propertyInfo) {
 		add(new PropertyInfo(valueProviders, propertyInfo));
 	}
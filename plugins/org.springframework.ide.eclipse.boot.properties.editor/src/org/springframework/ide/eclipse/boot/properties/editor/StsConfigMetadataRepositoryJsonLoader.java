@@ -15,6 +15,10 @@ import static org.springframework.ide.eclipse.boot.properties.editor.SpringPrope
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
@@ -30,6 +34,8 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepository;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JarMetadataCache;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JarMetadataCache.Fragment;
 import org.springframework.ide.eclipse.boot.util.FileUtil;
 
 /**
@@ -60,8 +66,45 @@ public class StsConfigMetadataRepositoryJsonLoader {
 		ADDITIONAL_SPRING_CONFIGURATION_METADATA_JSON
 	};
 
+	/**
+	 * Metadata read from a single json file, in binary form.
+	 * <p>
+	 * The metadata files of project output folders are recorded even if they don't exist
+	 * (with null data), so that they can be re-read in place when they are created or changed.
+	 */
+	public static class MetadataSource {
+
+		private final Object origin;
+		private final String projectName;
+		private final IFile file;
+		private final byte[] data;
+
+		private MetadataSource(Object origin, String projectName, IFile file, byte[] data) {
+			this.origin = origin;
+			this.projectName = projectName;
+			this.file = file;
+			this.data = data;
+		}
+
+		/**
+		 * @return Name of the project whose output folder contains the metadata, or null if the metadata comes from a jar.
+		 */
+		public String getProjectName() {
+			return projectName;
+		}
+
+		@Override
+		public String toString() {
+			return "MetadataSource("+origin+")";
+		}
+	}
+
 	private ConfigurationMetadataRepositoryJsonBuilder builder = ConfigurationMetadataRepositoryJsonBuilder.create();
 
+	private final List<MetadataSource> sources = new ArrayList<>();
+
+	private List<String> classpathFingerprint = null;
+
 	/**
 	 * Load the {@link ConfigMetadataRepository} with the metadata of the current
 	 * classpath using the {@link #DEFAULT_LOCATION_PATTERN}. If the same config
@@ -71,6 +114,8 @@ public class StsConfigMetadataRepositoryJsonLoader {
 	public ConfigurationMetadataRepository load(IJavaProject project) throws Exception {
 		debug(">> load ConfigurationMetadataRepository for "+project.getElementName());
 		IClasspathEntry[] classpath = project.getResolvedClasspath(true);
+		sources.clear();
+		classpathFingerprint = getClasspathFingerprint(project, classpath);
 		for (IClasspathEntry e : classpath) {
 			int ekind = e.getEntryKind();
 			int ckind = e.getContentKind();
@@ -88,11 +133,93 @@ public class StsConfigMetadataRepositoryJsonLoader {
 			}
 		}
 		loadFromOutputFolder(project);
-		ConfigurationMetadataRepository repository = builder.build();
+		ConfigurationMetadataRepository repository = build();
 		debug("<< load ConfigurationMetadataRepository for "+project.getElementName()+": "+repository.getAllProperties().size()+" properties");
 		return repository;
 	}
 
+	/**
+	 * Load the {@link ConfigMetadataRepository} from the sources recorded by a previous load,
+	 * only re-reading the metadata in the output folders of some projects. This doesn't touch the
+	 * classpath of the project nor any of its jars.
+	 *
+	 * @param previous Sources recorded by a previous loader for the same project.
+	 * @param classpathFingerprint The fingerprint recorded by the previous loader.
+	 * @param changedProjects Names of the projects whose metadata should be re-read.
+	 */
+	public ConfigurationMetadataRepository reload(List<MetadataSource> previous, List<String> classpathFingerprint, Collection<String> changedProjects) {
+		sources.clear();
+		this.classpathFingerprint = classpathFingerprint;
+		for (MetadataSource source : previous) {
+			if (source.projectName!=null && changedProjects.contains(source.projectName)) {
+				loadFromJsonFile(source.projectName, source.file);
+			} else {
+				sources.add(source);
+			}
+		}
+		return build();
+	}
+
+	/**
+	 * @return The sources of the metadata read by the last load, in classpath order.
+	 */
+	public List<MetadataSource> getSources() {
+		return Collections.unmodifiableList(new ArrayList<>(sources));
+	}
+
+	/**
+	 * @return Fingerprint of the classpath entries that were considered by the last load.
+	 */
+	public List<String> getClasspathFingerprint() {
+		return classpathFingerprint;
+	}
+
+	/**
+	 * Compute a fingerprint of all the classpath entries of a project that the loader reads metadata
+	 * from. If the fingerprint didn't change, loading the metadata again will have the same result
+	 * (unless the metadata in one of the project output folders changed).
+	 */
+	public static List<String> getClasspathFingerprint(IJavaProject project) throws Exception {
+		return getClasspathFingerprint(project, project.getResolvedClasspath(true));
+	}
+
+	private static List<String> getClasspathFingerprint(IJavaProject project, IClasspathEntry[] classpath) throws Exception {
+		List<String> fingerprint = new ArrayList<>();
+		for (IClasspathEntry e : classpath) {
+			int ekind = e.getEntryKind();
+			if (ekind==IClasspathEntry.CPE_LIBRARY && e.getContentKind()==IPackageFragmentRoot.K_BINARY) {
+				File jarFile = e.getPath().toFile();
+				if (FileUtil.isJarFile(jarFile)) {
+					fingerprint.add("jar:"+jarFile+":"+jarFile.length()+":"+jarFile.lastModified());
+				}
+			} else if (ekind==IClasspathEntry.CPE_PROJECT) {
+				String pname = e.getPath().segment(0);
+				IProject p = pname==null ? null : ResourcesPlugin.getWorkspace().getRoot().getProject(pname);
+				if (p!=null && p.isAccessible() && p.hasNature(JavaCore.NATURE_ID)) {
+					fingerprint.add("project:"+pname+":"+JavaCore.create(p).getOutputLocation());
+				} else {
+					fingerprint.add("project:"+pname);
+				}
+			}
+		}
+		fingerprint.add("output:"+project.getOutputLocation());
+		return fingerprint;
+	}
+
+	private ConfigurationMetadataRepository build() {
+		ConfigurationMetadataRepositoryJsonBuilder builder = ConfigurationMetadataRepositoryJsonBuilder.create();
+		for (MetadataSource source : sources) {
+			if (source.data!=null) {
+				try {
+					builder.withBinaryResource(source.origin, source.data);
+				} catch (Exception e) {
+					SpringPropertiesEditorPlugin.log(e);
+				}
+			}
+		}
+		return builder.build();
+	}
+
 	private void loadFromProjectDependency(IClasspathEntry entry) {
 		try {
 			String pname = entry.getPath().segment(0);
@@ -114,7 +241,7 @@ public class StsConfigMetadataRepositoryJsonLoader {
 				IFolder outputFolder = ResourcesPlugin.getWorkspace().getRoot().getFolder(outputLoc);
 				for (String mdLoc : PROJECT_META_DATA_LOCATIONS) {
 					IFile mdf = outputFolder.getFile(new Path(mdLoc));
-					loadFromJsonFile(mdf);
+					loadFromJsonFile(project.getElementName(), mdf);
 				}
 			}
 		} catch (Exception e) {
@@ -122,12 +249,13 @@ public class StsConfigMetadataRepositoryJsonLoader {
 		}
 	}
 
-	private void loadFromJsonFile(IFile mdf) {
+	private void loadFromJsonFile(String projectName, IFile mdf) {
+		byte[] data = null;
 		if (mdf.exists()) {
 			InputStream is = null;
 			try {
 				is = mdf.getContents(true);
-				loadFromInputStream(mdf, is);
+				data = builder.toBinary(mdf, is);
 			} catch (Exception e) {
 				SpringPropertiesEditorPlugin.log(e);
 			} finally {
@@ -140,10 +268,25 @@ public class StsConfigMetadataRepositoryJsonLoader {
 				}
 			}
 		}
+		sources.add(new MetadataSource(mdf, projectName, mdf, data));
 	}
 
 	private void loadFromJar(File f) {
 		debug("load from jar: "+f);
+		if (JarMetadataCache.isEnabled()) {
+			try {
+				//Only added once all fragments were read, so the fallback below never adds any of them twice.
+				List<MetadataSource> jarSources = new ArrayList<>();
+				for (Fragment fragment : JarMetadataCache.getDefault().get(f)) {
+					jarSources.add(new MetadataSource(f.getPath()+"["+fragment.getLocation()+"]", null, null, fragment.getData()));
+				}
+				sources.addAll(jarSources);
+				return;
+			} catch (Throwable e) {
+				//Fall back to reading the jar directly
+				SpringPropertiesEditorPlugin.log(e);
+			}
+		}
 		JarFile jarFile = null;
 		try {
 			jarFile = new JarFile(f);
@@ -171,7 +314,8 @@ public class StsConfigMetadataRepositoryJsonLoader {
 		InputStream is = null;
 		try {
 			is = jarFile.getInputStream(ze);
-			loadFromInputStream(jarFile.getName()+"["+ze.getName()+"]", is);
+			String origin = jarFile.getName()+"["+ze.getName()+"]";
+			sources.add(new MetadataSource(origin, null, null, builder.toBinary(origin, is)));
 		} catch (Throwable e) {
 			SpringPropertiesEditorPlugin.log(e);
 		} finally {
@@ -184,10 +328,6 @@ public class StsConfigMetadataRepositoryJsonLoader {
 		}
 	}
 
-	private void loadFromInputStream(Object origin, InputStream is) throws IOException {
-		builder.withJsonResource(origin, is);
-	}
-
 	/// Debug utils
 	private String ckind(int ckind) {
 		switch (ckind) {
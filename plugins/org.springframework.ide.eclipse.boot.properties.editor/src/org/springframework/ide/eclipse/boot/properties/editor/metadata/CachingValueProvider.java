@@ -69,6 +69,12 @@ public abstract class CachingValueProvider implements ValueProviderStrategy {
 	 */
 	private int MAX_RESULTS = 500;
 
+	/**
+	 * The maximum number of queries for which results are cached. Typing fast in a large project
+	 * produces a lot of distinct queries, so the cache must be bounded.
+	 */
+	private static final long MAX_CACHED_QUERIES = 200;
+
 	private Cache<Tuple2<String,String>, CacheEntry> cache = createCache();
 
 	private class CacheEntry {
@@ -143,7 +149,7 @@ public abstract class CachingValueProvider implements ValueProviderStrategy {
 	}
 
 	protected <K,V> Cache<K,V> createCache() {
-		return new LimitedTimeCache<>(Duration.ofMinutes(1));
+		return new LimitedTimeCache<>(Duration.ofMinutes(1), MAX_CACHED_QUERIES);
 	}
 
 	public static void restoreDefaults() {
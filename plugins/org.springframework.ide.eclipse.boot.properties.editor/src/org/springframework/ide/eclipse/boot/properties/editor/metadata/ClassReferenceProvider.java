@@ -12,7 +12,9 @@ package org.springframework.ide.eclipse.boot.properties.editor.metadata;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IJavaProject;
@@ -24,11 +26,14 @@ import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry.ValueProviderStrategy;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndex;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndex.TypeEntry;
 import org.springframework.ide.eclipse.boot.properties.editor.util.LimitedTimeCache;
 import org.springframework.ide.eclipse.boot.util.Log;
 import org.springframework.ide.eclipse.editor.support.util.StringUtil;
 import org.springsource.ide.eclipse.commons.frameworks.core.async.FluxJdtSearch;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -152,6 +157,21 @@ public class ClassReferenceProvider extends JdtSearchingValueProvider {
 		return toTypePattern(wildcardedQuery);
 	}
 
+	@Override
+	protected Flux<StsValueHint> searchIndex(JavaTypeIndex index, String wildCardedQuery) {
+		return Flux.defer(() -> {
+			Stream<TypeEntry> types = index.findTypes(wildCardedQuery);
+			if (target!=null) {
+				Set<String> subtypes = index.getSubtypes(target);
+				types = types.filter((e) -> subtypes.contains(e.getFullyQualifiedName()));
+			}
+			if (concrete) {
+				types = types.filter(TypeEntry::isConcrete);
+			}
+			return Flux.fromStream(types.map((e) -> hint(e.getType())));
+		});
+	}
+
 	public IJavaSearchScope getScope(IJavaProject project) throws JavaModelException {
 		if (target!=null) {
 			IType type = getTargetType(project);
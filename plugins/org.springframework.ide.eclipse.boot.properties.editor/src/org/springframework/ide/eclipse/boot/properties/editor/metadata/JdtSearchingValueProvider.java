@@ -22,18 +22,26 @@ import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry.ValueProviderStrategy;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndex;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndexManager;
 import org.springframework.ide.eclipse.editor.support.util.FuzzyMatcher;
 import org.springsource.ide.eclipse.commons.frameworks.core.async.FluxJdtSearch;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Abstract implementation of {@link ValueProviderStrategy} based on a JDTSearch.
  * <p>
  * All a subclass must provide is the means to create a {@link SearchPattern} and, optionally a
  * {@link IJavaSearchScope}.
+ * <p>
+ * When the {@link JavaTypeIndexManager} is enabled, subclasses that implement {@link #searchIndex(JavaTypeIndex, String)}
+ * answer queries from an in-memory index of type and package names instead. A JDT search is still used until the
+ * index of a project has been built.
  *
  * @author Kris De Volder
  */
@@ -90,14 +98,41 @@ public abstract class JdtSearchingValueProvider extends CachingValueProvider {
 		return FluxJdtSearch.searchScope(javaProject);
 	}
 
+	/**
+	 * Finds the hints matching a query in a prebuilt index, rather than with a JDT search.
+	 *
+	 * @return The hints or null if this provider doesn't support searching an index.
+	 */
+	protected Flux<StsValueHint> searchIndex(JavaTypeIndex index, String wildCardedQuery) {
+		return null;
+	}
+
+	private Flux<StsValueHint> getValuesFromIndex(IJavaProject javaProject, String query) {
+		if (javaProject!=null && JavaTypeIndexManager.isEnabled()) {
+			JavaTypeIndex index = SpringPropertiesEditorPlugin.getTypeIndexManager().get(javaProject);
+			if (index!=null) {
+				Flux<StsValueHint> hints = searchIndex(index, toWildCardPattern(query));
+				if (hints!=null) {
+					//Computing hints (and subtypes for some providers) still takes a while, so don't block the caller.
+					return hints.subscribeOn(Schedulers.elastic());
+				}
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public Flux<StsValueHint> getValuesAsycn(IJavaProject javaProject, String query) {
 		try {
-			return new FluxJdtSearch()
-			.scope(getScope(javaProject))
-			.pattern(toPattern(query))
-			.search()
-			.flatMap(getPostProcessor())
+			Flux<StsValueHint> hints = getValuesFromIndex(javaProject, query);
+			if (hints==null) {
+				hints = new FluxJdtSearch()
+				.scope(getScope(javaProject))
+				.pattern(toPattern(query))
+				.search()
+				.flatMap(getPostProcessor());
+			}
+			return hints
 			.filter((hint) ->  0!=FuzzyMatcher.matchScore(query, hint.getValue()))
 			.distinct(StsValueHint::getValue);
 		} catch (Exception e) {
@@ -15,6 +15,9 @@ import java.util.function.Function;
 
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry.ValueProviderStrategy;
+import org.springframework.ide.eclipse.boot.properties.editor.util.JavaTypeIndex;
+
+import reactor.core.publisher.Flux;
 
 /**
  * Provides the algorithm for 'logger-name' valueProvider.
@@ -37,4 +40,12 @@ public class LoggerNameProvider extends JdtSearchingValueProvider {
 		);
 	}
 
+	@Override
+	protected Flux<StsValueHint> searchIndex(JavaTypeIndex index, String wildCardedQuery) {
+		return Flux.defer(() -> Flux.concat(
+				Flux.fromStream(index.findTypes(wildCardedQuery).map((e) -> hint(e.getType()))),
+				Flux.fromStream(index.findPackages(wildCardedQuery).map(this::hint))
+		));
+	}
+
 }
@@ -12,6 +12,7 @@ package org.springframework.ide.eclipse.boot.properties.editor.reconciling;
 
 import static org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesCompletionEngine.isAssign;
 import static org.springframework.ide.eclipse.boot.properties.editor.reconciling.SpringPropertiesProblemType.PROP_DEPRECATED;
+import static org.springframework.ide.eclipse.boot.properties.editor.reconciling.SpringPropertiesProblemType.PROP_DUPLICATE_KEY;
 import static org.springframework.ide.eclipse.boot.properties.editor.reconciling.SpringPropertiesProblemType.PROP_UNKNOWN_PROPERTY;
 import static org.springframework.ide.eclipse.boot.properties.editor.reconciling.SpringPropertyProblem.problem;
 import static org.springframework.ide.eclipse.editor.support.util.StringUtil.commonPrefix;
@@ -29,6 +30,7 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextUtilities;
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesCompletionEngine;
@@ -38,8 +40,9 @@ import org.springframework.ide.eclipse.boot.properties.editor.quickfix.ReplaceDe
 import org.springframework.ide.eclipse.boot.properties.editor.util.Type;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeParser;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil;
+import org.springframework.ide.eclipse.editor.support.reconcile.IIncrementalReconcileEngine;
 import org.springframework.ide.eclipse.editor.support.reconcile.IProblemCollector;
-import org.springframework.ide.eclipse.editor.support.reconcile.IReconcileEngine;
+import org.springframework.ide.eclipse.editor.support.reconcile.ProblemType;
 import org.springframework.ide.eclipse.editor.support.util.DocumentRegion;
 import org.springframework.ide.eclipse.editor.support.util.DocumentUtil;
 import org.springframework.ide.eclipse.editor.support.util.ValueParser;
@@ -50,11 +53,14 @@ import org.springframework.ide.eclipse.editor.support.util.ValueParser;
  * The code in here could have been also part of the {@link SpringPropertiesReconcileStrategy}
  * itself, however isolating it here allows it to me more easily unit tested (no dependencies
  * on ISourceViewer which is difficult to 'mock' in testing harness.
+ * <p>
+ * When reconciling a region, only the property entries (i.e. a key and the value assigned to it)
+ * touching the region are validated. Duplicate keys are still checked for the whole document.
  *
  * @author Kris De Volder
  */
 @SuppressWarnings("restriction")
-public class SpringPropertiesReconcileEngine implements IReconcileEngine {
+public class SpringPropertiesReconcileEngine implements IIncrementalReconcileEngine {
 
 	/**
 	 * Regexp that matches a ',' surrounded by whitespace, including escaped whitespace / newlines
@@ -82,6 +88,36 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 	}
 
 	public void reconcile(IDocument doc, IProblemCollector problemCollector, IProgressMonitor mon) {
+		reconcile(doc, null, problemCollector, mon);
+	}
+
+	@Override
+	public boolean isLocal(ProblemType type) {
+		return type!=PROP_DUPLICATE_KEY;
+	}
+
+	@Override
+	public IRegion getReconcileRegion(IDocument doc, IRegion changed) {
+		try {
+			int start = changed.getOffset();
+			int end = start + changed.getLength();
+			ITypedRegion[] regions = computePartitioning(doc);
+			for (int i = 0; i < regions.length; i++) {
+				IRegion entry = getEntry(regions, i);
+				if (entry!=null && touches(entry, changed)) {
+					start = Math.min(start, entry.getOffset());
+					end = Math.max(end, entry.getOffset() + entry.getLength());
+				}
+			}
+			return new Region(start, end - start);
+		} catch (Exception e) {
+			SpringPropertiesEditorPlugin.log(e);
+			return null;
+		}
+	}
+
+	@Override
+	public void reconcile(IDocument doc, IRegion region, IProblemCollector problemCollector, IProgressMonitor mon) {
 		FuzzyMap<PropertyInfo> index = getIndex();
 		if (index==null || index.isEmpty()) {
 			//don't report errors when index is empty, simply don't check (otherwise we will just reprot
@@ -92,10 +128,13 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 		problemCollector.beginCollecting();
 		try {
 			DuplicateNameChecker duplicateNameChecker = new DuplicateNameChecker(problemCollector);
-			ITypedRegion[] regions = TextUtilities.computePartitioning(doc, IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, 0, doc.getLength(), true);
+			ITypedRegion[] regions = computePartitioning(doc);
 			if (regions!=null && regions.length>0) {
 				mon.beginTask("Reconciling Spring Properties", regions.length);
 				for (int i = 0; i < regions.length; i++) {
+					if (mon.isCanceled()) {
+						return;
+					}
 					ITypedRegion r = regions[i];
 					try {
 						String type = r.getType();
@@ -109,6 +148,9 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 								}
 							}
 							duplicateNameChecker.check(fullName);
+							if (region!=null && !touches(getEntry(regions, i), region)) {
+								continue;
+							}
 							PropertyInfo validProperty = SpringPropertiesCompletionEngine.findLongestValidProperty(index, fullName.toString());
 							if (validProperty!=null) {
 								//TODO: Remove last remnants of 'IRegion trimmedRegion' here and replace
@@ -169,6 +211,35 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 		return p;
 	}
 
+	private ITypedRegion[] computePartitioning(IDocument doc) throws BadLocationException {
+		return TextUtilities.computePartitioning(doc, IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, 0, doc.getLength(), true);
+	}
+
+	/**
+	 * Determines the region covered by a property key and its assigned value.
+	 *
+	 * @return The region or null if the partition at the given index isn't a property key.
+	 */
+	private IRegion getEntry(ITypedRegion[] regions, int i) {
+		ITypedRegion key = regions[i];
+		if (!IDocument.DEFAULT_CONTENT_TYPE.equals(key.getType())) {
+			return null;
+		}
+		int end = key.getOffset() + key.getLength();
+		if (i+1<regions.length && IPropertiesFilePartitions.PROPERTY_VALUE.equals(regions[i+1].getType())) {
+			end = regions[i+1].getOffset() + regions[i+1].getLength();
+		}
+		return new Region(key.getOffset(), end - key.getOffset());
+	}
+
+	/**
+	 * Check whether two regions overlap or touch each other.
+	 */
+	private static boolean touches(IRegion a, IRegion b) {
+		return a.getOffset() <= b.getOffset() + b.getLength()
+			&& b.getOffset() <= a.getOffset() + a.getLength();
+	}
+
 	private FuzzyMap<PropertyInfo> getIndex() {
 		return fIndexProvider.get();
 	}
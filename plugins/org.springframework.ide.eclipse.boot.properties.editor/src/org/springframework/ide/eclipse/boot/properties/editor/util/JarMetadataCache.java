@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
+import org.springframework.ide.eclipse.boot.properties.editor.StsConfigMetadataRepositoryJsonLoader;
+
+/**
+ * Global cache of the spring configuration metadata contained in jar files. The metadata
+ * of a jar is parsed only once and kept in the compact binary form understood by
+ * {@link ConfigurationMetadataRepositoryJsonBuilder#withBinaryResource(Object, byte[])},
+ * so building the index of a project only needs to merge pre-parsed fragments.
+ * <p>
+ * Entries are keyed by the path of the jar and are only reused as long as the size and
+ * modification time of the jar are unchanged. Jars that don't contain any metadata are
+ * cached as well, so they don't need to be opened again.
+ * <p>
+ * If a cache directory is given, entries are also written to disk so that they can be
+ * reused across sessions. Files on disk that weren't used for {@link #MAX_UNUSED_DAYS} days are
+ * deleted when the shared cache is created. The cache is enabled by default and can be disabled by
+ * setting the system property {@link #ENABLE_PROPERTY} to <code>false</code>.
+ */
+public class JarMetadataCache {
+
+	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.boot.properties.editor.jarMetadataCache";
+
+	private static final int FILE_MAGIC = 0x53544a43; // 'STJC'
+	private static final int FILE_VERSION = 1;
+
+	/**
+	 * Entries on disk that weren't read or written for this many days are deleted.
+	 */
+	public static final int MAX_UNUSED_DAYS = 30;
+
+	/**
+	 * The pre-parsed metadata read from a single entry of a jar.
+	 */
+	public static class Fragment {
+
+		private final String location;
+		private final byte[] data;
+
+		public Fragment(String location, byte[] data) {
+			this.location = location;
+			this.data = data;
+		}
+
+		/**
+		 * @return The location of the metadata file inside the jar.
+		 */
+		public String getLocation() {
+			return location;
+		}
+
+		/**
+		 * @return The metadata in binary form.
+		 */
+		public byte[] getData() {
+			return data;
+		}
+	}
+
+	private static class Entry {
+		final long size;
+		final long lastModified;
+		final List<Fragment> fragments;
+
+		Entry(long size, long lastModified, List<Fragment> fragments) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.fragments = Collections.unmodifiableList(fragments);
+		}
+
+		boolean isUpToDate(long size, long lastModified) {
+			return this.size==size && this.lastModified==lastModified;
+		}
+	}
+
+	private static JarMetadataCache instance;
+
+	private final File cacheDir;
+	private final String[] locations;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicInteger parseCount = new AtomicInteger();
+	private final AtomicInteger diskHitCount = new AtomicInteger();
+
+	/**
+	 * @param cacheDir Directory to persist entries in, or null to only cache entries in memory.
+	 * @param locations The locations of the metadata files inside a jar.
+	 */
+	public JarMetadataCache(File cacheDir, String[] locations) {
+		this.cacheDir = cacheDir;
+		this.locations = locations;
+	}
+
+	public static boolean isEnabled() {
+		return System.getProperty(ENABLE_PROPERTY, "true").equals("true");
+	}
+
+	/**
+	 * @return The shared cache, which persists its entries in the state location of the plugin.
+	 */
+	public static synchronized JarMetadataCache getDefault() {
+		if (instance==null) {
+			File cacheDir = null;
+			SpringPropertiesEditorPlugin plugin = SpringPropertiesEditorPlugin.getDefault();
+			if (plugin!=null) {
+				cacheDir = plugin.getStateLocation().append("jar-metadata").toFile();
+			}
+			instance = new JarMetadataCache(cacheDir, StsConfigMetadataRepositoryJsonLoader.JAR_META_DATA_LOCATIONS);
+			instance.deleteUnusedFiles(TimeUnit.DAYS.toMillis(MAX_UNUSED_DAYS));
+		}
+		return instance;
+	}
+
+	/**
+	 * Get the metadata contained in a given jar file, parsing it only if no up-to-date
+	 * entry is found in memory or on disk.
+	 *
+	 * @return The fragments of metadata found in the jar; an empty list if the jar doesn't contain metadata.
+	 */
+	public List<Fragment> get(File jar) throws IOException {
+		String key = jar.getAbsolutePath();
+		long size = jar.length();
+		long lastModified = jar.lastModified();
+		Entry entry = entries.get(key);
+		if (entry!=null && entry.isUpToDate(size, lastModified)) {
+			return entry.fragments;
+		}
+		entry = readFromDisk(key, size, lastModified);
+		if (entry==null) {
+			entry = parse(jar, size, lastModified);
+			writeToDisk(key, entry);
+		}
+		entries.put(key, entry);
+		return entry.fragments;
+	}
+
+	/**
+	 * Removes all entries from memory. Entries persisted on disk are kept.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Deletes the files on disk that weren't read or written for a given time. This includes
+	 * the entries of jars that no longer exist, and temp files left behind by interrupted writes.
+	 */
+	public void deleteUnusedFiles(long maxUnusedMillis) {
+		File[] files = cacheDir==null ? null : cacheDir.listFiles();
+		if (files!=null) {
+			long oldest = System.currentTimeMillis() - maxUnusedMillis;
+			for (File file : files) {
+				String name = file.getName();
+				if (file.isFile() && (name.endsWith(".bin") || name.endsWith(".tmp")) && file.lastModified()<oldest) {
+					file.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The number of jars whose metadata had to be parsed.
+	 */
+	public int getParseCount() {
+		return parseCount.get();
+	}
+
+	/**
+	 * @return The number of jars whose metadata was read from disk.
+	 */
+	public int getDiskHitCount() {
+		return diskHitCount.get();
+	}
+
+	private Entry parse(File jar, long size, long lastModified) throws IOException {
+		parseCount.incrementAndGet();
+		List<Fragment> fragments = new ArrayList<>();
+		JarFile jarFile = new JarFile(jar);
+		try {
+			for (String loc : locations) {
+				ZipEntry ze = jarFile.getEntry(loc);
+				if (ze!=null) {
+					InputStream is = jarFile.getInputStream(ze);
+					try {
+						String origin = jarFile.getName()+"["+ze.getName()+"]";
+						fragments.add(new Fragment(loc, ConfigurationMetadataRepositoryJsonBuilder.create().toBinary(origin, is)));
+					} finally {
+						is.close();
+					}
+				}
+			}
+		} finally {
+			jarFile.close();
+		}
+		return new Entry(size, lastModified, fragments);
+	}
+
+	private Entry readFromDisk(String key, long size, long lastModified) {
+		File file = getCacheFile(key);
+		if (file==null || !file.isFile()) {
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (in.readInt()!=FILE_MAGIC || in.readInt()!=FILE_VERSION
+						|| !key.equals(in.readUTF()) || in.readLong()!=size || in.readLong()!=lastModified) {
+					return null;
+				}
+				int count = in.readInt();
+				List<Fragment> fragments = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					String loc = in.readUTF();
+					byte[] data = new byte[in.readInt()];
+					in.readFully(data);
+					fragments.add(new Fragment(loc, data));
+				}
+				diskHitCount.incrementAndGet();
+				//Mark it as used, so that it isn't deleted as unused.
+				file.setLastModified(System.currentTimeMillis());
+				return new Entry(size, lastModified, fragments);
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			//Corrupt or truncated, treat it as a cache miss. It will be overwritten.
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, Entry entry) {
+		File file = getCacheFile(key);
+		if (file==null) {
+			return;
+		}
+		try {
+			cacheDir.mkdirs();
+			//Write to a temp file first so that concurrent readers never see a partially written file.
+			File tmp = File.createTempFile("jar", ".tmp", cacheDir);
+			try {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+				try {
+					out.writeInt(FILE_MAGIC);
+					out.writeInt(FILE_VERSION);
+					out.writeUTF(key);
+					out.writeLong(entry.size);
+					out.writeLong(entry.lastModified);
+					out.writeInt(entry.fragments.size());
+					for (Fragment f : entry.fragments) {
+						out.writeUTF(f.getLocation());
+						out.writeInt(f.getData().length);
+						out.write(f.getData());
+					}
+				} finally {
+					out.close();
+				}
+				try {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				tmp.delete();
+			}
+		} catch (Exception e) {
+			//The entry is still cached in memory, so only log it.
+			if (SpringPropertiesEditorPlugin.getDefault()!=null) {
+				SpringPropertiesEditorPlugin.warning("Couldn't write metadata cache for "+key+": "+e.getMessage());
+			}
+		}
+	}
+
+	private File getCacheFile(String key) {
+		if (cacheDir==null) {
+			return null;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			StringBuilder name = new StringBuilder();
+			for (byte b : digest.digest(key.getBytes(ConfigurationMetadataRepositoryJsonBuilder.UTF_8))) {
+				name.append(String.format("%02x", b));
+			}
+			return new File(cacheDir, name.append(".bin").toString());
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+}
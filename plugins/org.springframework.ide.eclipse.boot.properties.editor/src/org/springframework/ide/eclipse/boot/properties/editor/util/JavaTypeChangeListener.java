@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.util;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+
+/**
+ * Listens for Java model changes that may change the types visible in a project, and reports
+ * them either as a change to a single compilation unit or as a change affecting all types of
+ * a project (e.g. its classpath changed, or a jar was replaced).
+ */
+public abstract class JavaTypeChangeListener implements IElementChangedListener {
+
+	/**
+	 * Called when the types in a project may have changed.
+	 *
+	 * @param cu The compilation unit that changed, or null if any type in the project may have changed.
+	 */
+	protected abstract void typesChanged(IJavaProject project, ICompilationUnit cu);
+
+	/**
+	 * Called when a project is removed, before {@link #typesChanged(IJavaProject, ICompilationUnit)}.
+	 */
+	protected void projectRemoved(IJavaProject project) {
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		visit(event.getDelta());
+	}
+
+	private void visit(IJavaElementDelta delta) {
+		IJavaElement el = delta.getElement();
+		switch (el.getElementType()) {
+		case IJavaElement.JAVA_MODEL:
+			visitChildren(delta);
+			break;
+		case IJavaElement.JAVA_PROJECT:
+			if (delta.getKind()==IJavaElementDelta.REMOVED) {
+				projectRemoved(el.getJavaProject());
+			}
+			if (delta.getKind()!=IJavaElementDelta.CHANGED || isClasspathChanged(delta.getFlags())) {
+				typesChanged(el.getJavaProject(), null);
+			} else {
+				visitChildren(delta);
+			}
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+		case IJavaElement.PACKAGE_FRAGMENT:
+			if (delta.getKind()!=IJavaElementDelta.CHANGED || (delta.getFlags() & IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED)!=0) {
+				typesChanged(el.getJavaProject(), null);
+			} else {
+				visitChildren(delta);
+			}
+			break;
+		case IJavaElement.COMPILATION_UNIT:
+			typesChanged(el.getJavaProject(), (ICompilationUnit) el);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private boolean isClasspathChanged(int flags) {
+		return 0!= (flags & (
+				IJavaElementDelta.F_CLASSPATH_CHANGED |
+				IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+		));
+	}
+
+	private void visitChildren(IJavaElementDelta delta) {
+		for (IJavaElementDelta c : delta.getAffectedChildren()) {
+			visit(c);
+		}
+	}
+
+	/**
+	 * @return Whether the types visible in a project can be affected by changes to another project.
+	 */
+	public static boolean dependsOn(IJavaProject project, IJavaProject changed) {
+		if (project.equals(changed)) {
+			return true;
+		}
+		try {
+			return Arrays.asList(project.getRequiredProjectNames()).contains(changed.getElementName());
+		} catch (Exception e) {
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
+
+/**
+ * In-memory index of the names of all the types and packages in a search scope of
+ * a project. Allows answering wildcard name queries without doing a JDT search.
+ * <p>
+ * An index is never modified once built. Changes to compilation units are applied
+ * by creating a patched copy (see {@link #patch(Collection)}).
+ */
+public class JavaTypeIndex {
+
+	public static class TypeEntry {
+
+		private final IType type;
+		private final String qualification;
+		private final String simpleName;
+		private final int modifiers;
+
+		TypeEntry(IType type, String qualification, int modifiers) {
+			this.type = type;
+			this.qualification = qualification;
+			this.simpleName = type.getElementName();
+			this.modifiers = modifiers;
+		}
+
+		public IType getType() {
+			return type;
+		}
+
+		public String getFullyQualifiedName() {
+			return type.getFullyQualifiedName();
+		}
+
+		/**
+		 * @return true for types that are neither interfaces nor abstract.
+		 */
+		public boolean isConcrete() {
+			return !Flags.isInterface(modifiers) && !Flags.isAbstract(modifiers);
+		}
+
+		/**
+		 * Matches the type against a pattern, like a JDT search for type declarations with
+		 * {@link org.eclipse.jdt.core.search.SearchPattern#R_PATTERN_MATCH} would. The part of
+		 * the pattern after the last '.' is matched against the simple name of the type, the part
+		 * before it against its package and enclosing types.
+		 */
+		boolean matches(char[] qualificationPattern, char[] simpleNamePattern) {
+			return CharOperation.match(simpleNamePattern, simpleName.toCharArray(), false)
+				&& (qualificationPattern==null || CharOperation.match(qualificationPattern, qualification.toCharArray(), false));
+		}
+
+		@Override
+		public String toString() {
+			return getFullyQualifiedName();
+		}
+	}
+
+	private final IJavaProject project;
+	private final IJavaSearchScope scope;
+	private final List<TypeEntry> types;
+	private final List<IPackageFragment> packages;
+
+	/**
+	 * Fully qualified names of the subtypes of a type, including the type itself. Computed
+	 * on demand, as computing a type hierarchy is expensive.
+	 */
+	private final Map<String, Set<String>> subtypes = new ConcurrentHashMap<>();
+
+	private JavaTypeIndex(IJavaProject project, IJavaSearchScope scope, List<TypeEntry> types, List<IPackageFragment> packages) {
+		this.project = project;
+		this.scope = scope;
+		this.types = types;
+		this.packages = packages;
+	}
+
+	public static JavaTypeIndex build(IJavaProject project, IJavaSearchScope scope) throws CoreException {
+		List<TypeEntry> types = new ArrayList<>();
+		new SearchEngine().searchAllTypeNames(null, 0, null, 0, IJavaSearchConstants.TYPE, scope, new TypeNameMatchRequestor() {
+			@Override
+			public void acceptTypeNameMatch(TypeNameMatch match) {
+				IType type = match.getType();
+				if (type!=null) {
+					types.add(new TypeEntry(type, qualification(match.getFullyQualifiedName(), match.getSimpleTypeName()), match.getModifiers()));
+				}
+			}
+		}, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, new NullProgressMonitor());
+		return new JavaTypeIndex(project, scope, types, findPackages(project, scope));
+	}
+
+	private static List<IPackageFragment> findPackages(IJavaProject project, IJavaSearchScope scope) throws JavaModelException {
+		Map<String, IPackageFragment> packages = new LinkedHashMap<>();
+		for (IPackageFragment pkg : project.getPackageFragments()) {
+			String name = pkg.getElementName();
+			if (!name.isEmpty() && !packages.containsKey(name) && scope.encloses(pkg)) {
+				packages.put(name, pkg);
+			}
+		}
+		return new ArrayList<>(packages.values());
+	}
+
+	private static String qualification(String dottedName, String simpleName) {
+		int len = dottedName.length() - simpleName.length() - 1;
+		return len>0 ? dottedName.substring(0, len) : "";
+	}
+
+	/**
+	 * Creates a copy of this index where the types declared in some compilation units are replaced
+	 * with their current types.
+	 */
+	public JavaTypeIndex patch(Collection<ICompilationUnit> changed) throws CoreException {
+		Set<ICompilationUnit> units = new HashSet<>(changed);
+		List<TypeEntry> newTypes = new ArrayList<>(types.size());
+		for (TypeEntry e : types) {
+			if (!units.contains(e.type.getCompilationUnit())) {
+				newTypes.add(e);
+			}
+		}
+		for (ICompilationUnit cu : units) {
+			if (cu.exists() && scope.encloses(cu)) {
+				for (IType type : cu.getAllTypes()) {
+					String dottedName = type.getFullyQualifiedName('.');
+					newTypes.add(new TypeEntry(type, qualification(dottedName, type.getElementName()), type.getFlags()));
+				}
+			}
+		}
+		return new JavaTypeIndex(project, scope, newTypes, packages);
+	}
+
+	/**
+	 * Find the types that match a wildcard pattern (i.e. like {@link org.eclipse.jdt.core.search.SearchPattern#R_PATTERN_MATCH}).
+	 */
+	public Stream<TypeEntry> findTypes(String wildCardedQuery) {
+		int lastDot = wildCardedQuery.lastIndexOf('.');
+		char[] qualificationPattern = lastDot>=0 ? wildCardedQuery.substring(0, lastDot).toCharArray() : null;
+		char[] simpleNamePattern = wildCardedQuery.substring(lastDot+1).toCharArray();
+		return types.stream().filter((e) -> e.matches(qualificationPattern, simpleNamePattern));
+	}
+
+	/**
+	 * Find the packages whose name matches a wildcard pattern.
+	 */
+	public Stream<IPackageFragment> findPackages(String wildCardedQuery) {
+		char[] pattern = wildCardedQuery.toCharArray();
+		return packages.stream().filter((pkg) -> CharOperation.match(pattern, pkg.getElementName().toCharArray(), false));
+	}
+
+	/**
+	 * @return The fully qualified names of the subtypes of a given type, including the type
+	 * itself, or an empty set if the type can't be found.
+	 */
+	public Set<String> getSubtypes(String fqName) {
+		return subtypes.computeIfAbsent(fqName, (name) -> {
+			try {
+				IType type = project.findType(name);
+				if (type!=null) {
+					ITypeHierarchy hierarchy = type.newTypeHierarchy(project, new NullProgressMonitor());
+					Set<String> names = new HashSet<>();
+					names.add(type.getFullyQualifiedName());
+					for (IType subtype : hierarchy.getAllSubtypes(type)) {
+						names.add(subtype.getFullyQualifiedName());
+					}
+					return names;
+				}
+			} catch (Exception e) {
+				SpringPropertiesEditorPlugin.log(e);
+			}
+			return Collections.emptySet();
+		});
+	}
+
+	public int getTypeCount() {
+		return types.size();
+	}
+
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.util;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
+import org.springsource.ide.eclipse.commons.frameworks.core.async.FluxJdtSearch;
+
+/**
+ * Keeps a {@link JavaTypeIndex} per project. Indexes are built in the background the first time
+ * they are requested and kept up-to-date as the Java model changes:
+ * <ul>
+ *   <li>A change to a compilation unit only replaces the types of that compilation unit.</li>
+ *   <li>A change to the classpath, a jar or the packages of a project rebuilds the index.</li>
+ * </ul>
+ * The index is optional (see {@link #ENABLED_PROPERTY}). Clients should fall back on a JDT search
+ * when it is disabled or hasn't been built yet.
+ */
+public class JavaTypeIndexManager {
+
+	public static final String ENABLED_PROPERTY = "org.springframework.ide.eclipse.boot.properties.editor.typeIndex";
+
+	public static boolean isEnabled() {
+		return System.getProperty(ENABLED_PROPERTY, "false").equals("true");
+	}
+
+	private final Map<String, IndexHolder> indexes = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor((r) -> {
+		Thread t = new Thread(r, "Java Type Index Builder");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private class IndexHolder {
+
+		private final IJavaProject project;
+
+		/**
+		 * Last completely built index, or null if the first build didn't complete yet.
+		 */
+		private volatile JavaTypeIndex snapshot = null;
+
+		//All of the below are guarded by 'this'
+
+		private CompletableFuture<JavaTypeIndex> build = null;
+		private long version = 0;
+		private boolean rebuild = true;
+		private final Set<ICompilationUnit> changedUnits = new LinkedHashSet<>();
+
+		IndexHolder(IJavaProject project) {
+			this.project = project;
+		}
+
+		synchronized CompletableFuture<JavaTypeIndex> getFuture() {
+			if (build!=null) {
+				return build;
+			}
+			if (snapshot==null) {
+				startBuild();
+				return build;
+			}
+			return CompletableFuture.completedFuture(snapshot);
+		}
+
+		/**
+		 * @param cu The compilation unit that changed, or null if the index must be rebuilt.
+		 */
+		synchronized void invalidate(ICompilationUnit cu) {
+			version++;
+			if (cu==null) {
+				rebuild = true;
+				changedUnits.clear();
+			} else if (!rebuild) {
+				changedUnits.add(cu);
+			}
+			if (build==null && snapshot!=null) {
+				startBuild();
+			}
+		}
+
+		private void startBuild() {
+			final long buildVersion = version;
+			final JavaTypeIndex base = rebuild ? null : snapshot;
+			final Set<ICompilationUnit> units = new LinkedHashSet<>(changedUnits);
+			rebuild = false;
+			changedUnits.clear();
+			CompletableFuture<JavaTypeIndex> future = CompletableFuture.supplyAsync(() -> {
+				try {
+					if (base==null) {
+						return JavaTypeIndex.build(project, FluxJdtSearch.searchScope(project));
+					}
+					return base.patch(units);
+				} catch (Exception e) {
+					throw new CompletionException(e);
+				}
+			}, executor);
+			build = future;
+			future.whenComplete((index, error) -> buildCompleted(buildVersion, index, error));
+		}
+
+		private synchronized void buildCompleted(long buildVersion, JavaTypeIndex index, Throwable error) {
+			if (error!=null) {
+				SpringPropertiesEditorPlugin.log(error);
+				rebuild = true;
+			} else {
+				snapshot = index;
+			}
+			build = null;
+			if (buildVersion!=version) {
+				//Invalidated while building.
+				startBuild();
+			}
+		}
+	}
+
+	public JavaTypeIndexManager() {
+		JavaCore.addElementChangedListener(new JavaTypeChangeListener() {
+			@Override
+			protected void projectRemoved(IJavaProject project) {
+				indexes.remove(project.getElementName());
+			}
+
+			@Override
+			protected void typesChanged(IJavaProject project, ICompilationUnit cu) {
+				invalidate(project, cu);
+			}
+		}, ElementChangedEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Get the index of a project without waiting for it to be built.
+	 *
+	 * @return The index or null if its first build didn't complete yet.
+	 */
+	public JavaTypeIndex get(IJavaProject project) {
+		IndexHolder holder = getHolder(project);
+		JavaTypeIndex snapshot = holder.snapshot;
+		if (snapshot==null) {
+			holder.getFuture();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Get the index of a project that reflects all the changes reported to this manager so far.
+	 */
+	public CompletableFuture<JavaTypeIndex> getFuture(IJavaProject project) {
+		return getHolder(project).getFuture();
+	}
+
+	private IndexHolder getHolder(IJavaProject project) {
+		return indexes.computeIfAbsent(project.getElementName(), (name) -> new IndexHolder(project));
+	}
+
+	private void invalidate(IJavaProject changed, ICompilationUnit cu) {
+		for (IndexHolder holder : indexes.values()) {
+			if (JavaTypeChangeListener.dependsOn(holder.project, changed)) {
+				holder.invalidate(cu);
+			}
+		}
+	}
+
+}
@@ -11,128 +11,91 @@
 package org.springframework.ide.eclipse.boot.properties.editor.util;
 
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Platform;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 
 /**
- * A cache that automatically removes entries when they reach a certain age.
+ * A cache that automatically removes entries when they haven't been used for a certain time,
+ * and that is bounded in size.
+ * <p>
+ * The cache is safe to use from multiple threads without blocking readers. Expired entries are
+ * cleaned up a little at a time while the cache is being used, rather than by a background job.
+ * When the maximum weight is exceeded the least recently used entries are evicted first.
  *
  * @author Kris De Volder
  */
 public class LimitedTimeCache<K,V> implements Cache<K, V> {
 
-	private static final boolean DEBUG = false; //(""+Platform.getLocation()).contains("kdvolder");
-
-	private static void debug(String string) {
-		if (DEBUG) {
-			System.out.println(string);
-		}
-	}
+	/**
+	 * Maximum number of entries in a cache created without an explicit bound.
+	 */
+	public static final long DEFAULT_MAX_ENTRIES = 10_000;
 
 	public final long MAX_AGE;
-	public final long AGE_MARGIN;
 
-	private Map<K, Entry> cache = new HashMap<>();
+	private final com.google.common.cache.Cache<K, V> cache;
+
+	public LimitedTimeCache(Duration MAX_AGE_DURATION) {
+		this(MAX_AGE_DURATION, DEFAULT_MAX_ENTRIES);
+	}
 
 	/**
-	 * Job that removes expired entries from the cache.
+	 * Creates a cache that holds at most a given number of entries.
 	 */
-	private Job clearExpiredJob = new Job("Clean expired cache entries") {
-
-		{
-			setSystem(true);
-		}
-
-		@Override
-		protected IStatus run(IProgressMonitor monitor) {
-			long oldest = clearExpired();
-			//Reschedule job to again run when the next entry expires.
-			if (oldest>=0) {
-				clearExpiredJob.schedule(MAX_AGE - oldest + AGE_MARGIN);
-			}
-			return Status.OK_STATUS;
-		}
-	};
-
-	private class Entry {
-		long lastUsed;
-		V value;
-		Entry(V v) {
-			this.value = v;
-			this.lastUsed = System.currentTimeMillis();
-		}
-		long age() {
-			return System.currentTimeMillis() - lastUsed;
-		}
+	public LimitedTimeCache(Duration MAX_AGE_DURATION, long maxEntries) {
+		this(MAX_AGE_DURATION, maxEntries, (k, v) -> 1);
 	}
 
-	public LimitedTimeCache(Duration MAX_AGE_DURATION) {
+	/**
+	 * Creates a cache whose entries have a total weight of at most maxWeight. The weight
+	 * of an entry is determined once, when it is put in the cache.
+	 */
+	public LimitedTimeCache(Duration MAX_AGE_DURATION, long maxWeight, Weigher<? super K, ? super V> weigher) {
 		MAX_AGE = MAX_AGE_DURATION.toMillis();
-		AGE_MARGIN = Math.max(1000, MAX_AGE / 20);
+		cache = CacheBuilder.newBuilder()
+				.expireAfterAccess(MAX_AGE, TimeUnit.MILLISECONDS)
+				.maximumWeight(maxWeight)
+				.weigher(weigher)
+				.recordStats()
+				.build();
 	}
 
 	@Override
-	public synchronized V get(K key) {
-		Entry e = cache.get(key);
-		if (e!=null) {
-			e.lastUsed = System.currentTimeMillis();
-			return e.value;
-		}
-		return null;
+	public V get(K key) {
+		return cache.getIfPresent(key);
 	}
 
 	@Override
-	public synchronized void put(K key, V value) {
-		boolean wasEmpty = cache.isEmpty();
+	public void put(K key, V value) {
 		if (value==null) {
-			cache.remove(key);
+			cache.invalidate(key);
 		} else {
-			cache.put(key, new Entry(value));
-		}
-		//if the cache was not empty then it is already guaranteed a 'cleaningJob' will run to
-		// clean the existing oldest entry.
-		if (wasEmpty && !cache.isEmpty()) {
-			//The entry we just added is the only one in the cache.
-			//Therefore, that entry must be the oldest and its age is 0.
-			//So we know when the job should run next:
-			clearExpiredJob.schedule(MAX_AGE+AGE_MARGIN);
+			cache.put(key, value);
 		}
 	}
 
 	@Override
-	public synchronized void clear() {
-		cache.clear();
+	public void clear() {
+		cache.invalidateAll();
 	}
 
 	/**
-	 * Iterates the cache removing all expired entries.
-	 * @return The age of the oldest non-expired entry in the cache or -1 if the cache is empty.
+	 * @return The number of entries currently in the cache. This may include expired
+	 * entries that haven't been cleaned up yet.
 	 */
-	private synchronized long clearExpired() {
-		debug(">>> clearExpired MAX_AGE = "+MAX_AGE);
-		Iterator<java.util.Map.Entry<K, LimitedTimeCache<K, V>.Entry>> iter = cache.entrySet().iterator();
-		long oldest = -1;
-		while (iter.hasNext()) {
-			java.util.Map.Entry<K, LimitedTimeCache<K, V>.Entry> me = iter.next();
-			Entry e = me.getValue();
-			long age = e.age();
-			if (age>=MAX_AGE) {
-				debug("Expired: "+me.getKey() +" age: "+e.age());
-				iter.remove();
-			} else {
-				oldest = Math.max(oldest, age);
-			}
-		}
-		debug("<<< clearExpired ["+cache.size()+"]");
-		return oldest;
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return Snapshot of the hit, miss and eviction counts of this cache.
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
 	}
 
 	/**
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.util;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+/**
+ * A listener of the {@link SpringPropertiesIndexManager} that is only interested in changes
+ * to the index of a single project.
+ */
+public interface ProjectIndexListener extends Listener<SpringPropertiesIndexManager> {
+
+	/**
+	 * @return The project whose index this listener is interested in, or null to be notified of all changes.
+	 */
+	IJavaProject getJavaProject();
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,17 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.util;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -37,62 +46,253 @@ import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProv
  * file all make use of a per-project index of spring properties metadata extracted
  * from project's classpath. This Index manager is responsible for keeping at most
  * one index per-project and to keep the index up-to-date.
+ * <p>
+ * Changes are tracked per project: a classpath change only rebuilds the indexes whose
+ * classpath actually changed and a change to the live metadata in a project's output
+ * folder only patches the indexes that read from that project.
+ * <p>
+ * Indexes are built in the background on a bounded pool of threads (see {@link #THREADS_PROPERTY}).
+ * While an index is rebuilt, clients keep getting the previous index, and listeners are
+ * notified once the new index is available.
  *
  * @author Kris De Volder
  */
 public class SpringPropertiesIndexManager extends ListenerManager<Listener<SpringPropertiesIndexManager>> implements ClasspathListener {
 
-	//TODO: More precise cache flushing?
-	// right now, any detected change that may affect the cached metadata results.
-	// in clearing the entire cache.
-	// Probably this is okay, since reading the data is pretty fast.
+	public static final String THREADS_PROPERTY = "org.springframework.ide.eclipse.boot.properties.editor.indexBuilderThreads";
 
-	private Map<String, SpringPropertyIndex> indexes = null;
+	private final Map<String, IndexHolder> indexes = new ConcurrentHashMap<>();
 	final private ValueProviderRegistry valueProviders;
+	private final ExecutorService executor;
+
+	/**
+	 * Coordinates the builds of the index of a single project. Builds run in the background.
+	 * While a build is running, the last completely built index remains available as a snapshot.
+	 * Indexes are never modified once they are published.
+	 */
+	private class IndexHolder {
+
+		private final IJavaProject project;
+
+		/**
+		 * Last completely built index, or null if the first build didn't complete yet.
+		 */
+		private volatile SpringPropertyIndex snapshot = null;
+
+		//All of the below are guarded by 'this'
+
+		/**
+		 * The build in progress, or null if no build is running.
+		 */
+		private CompletableFuture<SpringPropertyIndex> build = null;
+
+		/**
+		 * Incremented whenever the index is invalidated.
+		 */
+		private long version = 0;
+
+		/**
+		 * Whether the next build has to start from scratch rather than patch the snapshot.
+		 */
+		private boolean classpathChanged = true;
+
+		/**
+		 * The names of the projects whose live metadata changed since the snapshot was built.
+		 */
+		private final Set<String> changedMetadata = new HashSet<>();
+
+		IndexHolder(IJavaProject project) {
+			this.project = project;
+		}
+
+		SpringPropertyIndex getSnapshot() {
+			return snapshot;
+		}
+
+		synchronized CompletableFuture<SpringPropertyIndex> getFuture() {
+			if (build!=null) {
+				return build;
+			}
+			if (snapshot==null) {
+				startBuild();
+				return build;
+			}
+			return CompletableFuture.completedFuture(snapshot);
+		}
+
+		synchronized void invalidate(String changedProject) {
+			version++;
+			if (changedProject==null) {
+				classpathChanged = true;
+			} else {
+				changedMetadata.add(changedProject);
+			}
+			if (build==null) {
+				startBuild();
+			}
+			//else: the running build will be followed by another one when it completes.
+		}
+
+		private void startBuild() {
+			final long buildVersion = version;
+			final SpringPropertyIndex base = classpathChanged ? null : snapshot;
+			final Set<String> changedProjects = new HashSet<>(changedMetadata);
+			classpathChanged = false;
+			changedMetadata.clear();
+			CompletableFuture<SpringPropertyIndex> future = CompletableFuture.supplyAsync(() -> {
+				if (base==null) {
+					return new SpringPropertyIndex(valueProviders, project);
+				}
+				return base.patch(changedProjects);
+			}, executor);
+			build = future;
+			future.whenComplete((index, error) -> buildCompleted(buildVersion, index, error));
+		}
+
+		private void buildCompleted(long buildVersion, SpringPropertyIndex index, Throwable error) {
+			boolean updated = false;
+			synchronized (this) {
+				if (error!=null) {
+					SpringPropertiesEditorPlugin.log(error);
+					//Don't patch a snapshot that may be missing things.
+					classpathChanged = true;
+				} else {
+					updated = snapshot!=null;
+					snapshot = index;
+				}
+				build = null;
+				if (buildVersion!=version) {
+					//Invalidated while building.
+					startBuild();
+				}
+			}
+			if (updated) {
+				notifyListeners(Collections.singleton(project.getElementName()));
+			}
+		}
+
+		/**
+		 * @return true if the index (as far as it is known) reads metadata from a given project.
+		 */
+		boolean dependsOn(String projectName) {
+			SpringPropertyIndex index = snapshot;
+			if (index==null) {
+				return project.getElementName().equals(projectName);
+			}
+			return index.dependsOn(projectName);
+		}
+
+		boolean isClasspathChanged() {
+			SpringPropertyIndex index = snapshot;
+			return index==null || index.isClasspathChanged();
+		}
+	}
 
 	public SpringPropertiesIndexManager(ValueProviderRegistry valueProviders) {
 		this.valueProviders = valueProviders;
+		this.executor = Executors.newFixedThreadPool(getMaxThreads(), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "Spring Properties Index Builder "+count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
 		SpringPropertiesEditorPlugin.getClasspathListeners().addListener(this);
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(new LiveMetadataListener(), IResourceChangeEvent.POST_CHANGE);
 	}
 
-	public synchronized FuzzyMap<PropertyInfo> get(IJavaProject jp) {
-		String key = jp.getElementName();
-		if (indexes==null) {
-			indexes = new HashMap<>();
+	private static int getMaxThreads() {
+		String threads = System.getProperty(THREADS_PROPERTY);
+		if (threads!=null) {
+			try {
+				return Math.max(1, Integer.parseInt(threads));
+			} catch (NumberFormatException e) {
+				//ignore
+			}
+		}
+		return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()/2));
+	}
+
+	/**
+	 * Get the index of a project. If the index is being rebuilt, the last completely built
+	 * index is returned rather than waiting for the new one. Only the very first request for
+	 * the index of a project waits for it to be built.
+	 */
+	public FuzzyMap<PropertyInfo> get(IJavaProject jp) {
+		IndexHolder holder = getHolder(jp);
+		SpringPropertyIndex snapshot = holder.getSnapshot();
+		if (snapshot!=null) {
+			return snapshot;
 		}
-		SpringPropertyIndex index = indexes.get(key);
-		if (index==null) {
-			index = new SpringPropertyIndex(valueProviders, jp);
-			indexes.put(key, index);
+		try {
+			return holder.getFuture().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			SpringPropertiesEditorPlugin.log(e.getCause());
 		}
-		return index;
+		return new SpringPropertyIndex(valueProviders, null);
 	}
 
-	@Override
-	public synchronized void classpathChanged(IJavaProject jp) {
-		clear();
+	/**
+	 * Get the index of a project that reflects all the changes reported to this manager so far.
+	 * The future completes when any build of the index that is running completes.
+	 */
+	public CompletableFuture<? extends FuzzyMap<PropertyInfo>> getFuture(IJavaProject jp) {
+		return getHolder(jp).getFuture();
 	}
 
-	private void clear() {
-		if (indexes!=null) {
-			indexes.clear();
-			for (Listener<SpringPropertiesIndexManager> l : getListeners()) {
-				l.changed(this);
+	private IndexHolder getHolder(IJavaProject jp) {
+		return indexes.computeIfAbsent(jp.getElementName(), (name) -> new IndexHolder(jp));
+	}
+
+	/**
+	 * Called when the classpath of a project changed. Only the indexes that depend on the project and
+	 * whose relevant classpath entries actually changed are rebuilt.
+	 */
+	@Override
+	public void classpathChanged(IJavaProject jp) {
+		for (IndexHolder holder : indexes.values()) {
+			if (holder.dependsOn(jp.getElementName()) && holder.isClasspathChanged()) {
+				holder.invalidate(null);
 			}
 		}
 	}
 
-
 	/**
 	 * Called by LiveMetadataListener when a change to live json metadata file in the
-	 * output folder of a IJavaProject is detected.
+	 * output folder of a IJavaProject is detected. The indexes that read metadata from
+	 * the project are patched rather than rebuilt from scratch.
 	 *
 	 * @param The project on which the metadata change was detected.
 	 * @param jsonFile The IFile in project's output folder that was changed.
 	 */
-	public synchronized void liveMetadataChanged(IJavaProject jp, IFile jsonFile) {
-		clear();
+	public void liveMetadataChanged(IJavaProject jp, IFile jsonFile) {
+		for (IndexHolder holder : indexes.values()) {
+			if (holder.dependsOn(jp.getElementName())) {
+				holder.invalidate(jp.getElementName());
+			}
+		}
+	}
+
+	/**
+	 * Notify listeners about new indexes of the given projects. Listeners that are
+	 * only interested in a single project are not notified about changes to other projects.
+	 */
+	private void notifyListeners(Set<String> affectedProjects) {
+		if (!affectedProjects.isEmpty()) {
+			for (Listener<SpringPropertiesIndexManager> l : getListeners()) {
+				if (l instanceof ProjectIndexListener) {
+					IJavaProject jp = ((ProjectIndexListener) l).getJavaProject();
+					if (jp!=null && !affectedProjects.contains(jp.getElementName())) {
+						continue;
+					}
+				}
+				l.changed(this);
+			}
+		}
 	}
 
 	private class LiveMetadataListener implements IResourceChangeListener, IResourceDeltaVisitor {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,10 @@ import java.util.StringTokenizer;
 
 import org.springframework.ide.eclipse.editor.support.util.StringUtil;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 /**
  * Converts types in notation used by spring properties metadata into a 'Structured' form
  *
@@ -71,13 +75,37 @@ public class TypeParser {
 		this.input = new Tokener(input);
 	}
 
+	/**
+	 * Parsed types are remembered, as the same type strings are parsed over and over again
+	 * (e.g. for each property every time a document is reconciled). This is safe because
+	 * Types are never modified once created.
+	 */
+	private static final Cache<String, Type> parsed = CacheBuilder.newBuilder()
+			.maximumSize(5_000)
+			.recordStats()
+			.build();
+
 	public static Type parse(String str) {
 		if (StringUtil.hasText(str)) {
-			return new TypeParser(str).parseType();
+			Type type = parsed.getIfPresent(str);
+			if (type==null) {
+				type = new TypeParser(str).parseType();
+				if (type!=null) {
+					parsed.put(str, type);
+				}
+			}
+			return type;
 		}
 		return null;
 	}
 
+	/**
+	 * @return Snapshot of the hit and miss counts of the memo of parsed types.
+	 */
+	public static CacheStats getStats() {
+		return parsed.stats();
+	}
+
 	private Type parseType() {
 		String ident = input.nextToken();
 		String token = input.peekToken();
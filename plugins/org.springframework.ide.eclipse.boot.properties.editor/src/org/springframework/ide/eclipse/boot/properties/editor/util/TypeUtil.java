@@ -27,9 +27,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import javax.inject.Provider;
 
@@ -44,10 +44,13 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.Signature;
 import org.springframework.boot.configurationmetadata.Deprecation;
 import org.springframework.ide.eclipse.boot.core.BootActivator;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.DeprecationUtil;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.StsValueHint;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry.ValueProviderStrategy;
 import org.springframework.ide.eclipse.boot.properties.editor.reconciling.AlwaysFailingParser;
+import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtilCache.Memo;
+import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtilCache.ProjectCache;
 import org.springframework.ide.eclipse.boot.util.Log;
 import org.springframework.ide.eclipse.editor.support.util.CollectionUtil;
 import org.springframework.ide.eclipse.editor.support.util.EnumValueParser;
@@ -123,10 +126,17 @@ public class TypeUtil {
 
 	private IJavaProject javaProject;
 
+	/**
+	 * Memoized lookups, shared with all other TypeUtils of the same project. Null when
+	 * there is no javaProject.
+	 */
+	private final ProjectCache cache;
+
 	public TypeUtil(IJavaProject jp) {
 		//Note javaProject is allowed to be null, but only in unit testing context
 		// (This is so some tests can be run without an explicit jp needing to be created)
 		this.javaProject = jp;
+		this.cache = jp==null ? null : SpringPropertiesEditorPlugin.getTypeUtilCache().get(jp);
 	}
 
 
@@ -231,7 +241,25 @@ public class TypeUtil {
 		if (simpleParser!=null) {
 			return simpleParser;
 		}
-		Collection<StsValueHint> enumValues = getAllowedValues(type, EnumCaseMode.ALIASED);
+		try {
+			if (cache!=null) {
+				long generation = cache.getGeneration();
+				Optional<ValueParser> memo = cache.valueParsers.get(type);
+				if (memo!=null) {
+					return memo.orElse(null);
+				}
+				return cache.valueParsers.put(type, computeValueParser(type), generation);
+			}
+			return computeValueParser(type);
+		} catch (Exception e) {
+			//Not remembered, the problem may be temporary (e.g. the Java model isn't ready).
+			BootActivator.log(e);
+			return null;
+		}
+	}
+
+	private ValueParser computeValueParser(Type type) throws Exception {
+		Collection<StsValueHint> enumValues = findAllowedValues(type, EnumCaseMode.ALIASED);
 		if (enumValues!=null) {
 			//Note, technically if 'enumValues is empty array' this means something different
 			// from when it is null. An empty array means a type that has no values, so
@@ -267,47 +295,66 @@ public class TypeUtil {
 	 * or 'aliased' (meaning both forms are returned).
 	 */
 	public Collection<StsValueHint> getAllowedValues(Type enumType, EnumCaseMode caseMode) {
+		try {
+			return findAllowedValues(enumType, caseMode);
+		} catch (Exception e) {
+			//Not remembered, the problem may be temporary (e.g. the Java model isn't ready).
+			BootActivator.log(e);
+			return null;
+		}
+	}
+
+	private Collection<StsValueHint> findAllowedValues(Type enumType, EnumCaseMode caseMode) throws Exception {
+		if (enumType!=null && cache!=null) {
+			long generation = cache.getGeneration();
+			Memo<String, Collection<StsValueHint>> memo = cache.allowedValues.get(caseMode);
+			Optional<Collection<StsValueHint>> values = memo.get(enumType.getErasure());
+			if (values!=null) {
+				return values.orElse(null);
+			}
+			return memo.put(enumType.getErasure(), computeAllowedValues(enumType, caseMode), generation);
+		}
+		return computeAllowedValues(enumType, caseMode);
+	}
+
+	private Collection<StsValueHint> computeAllowedValues(Type enumType, EnumCaseMode caseMode) throws Exception {
 		if (enumType!=null) {
-			try {
-				String[] values = TYPE_VALUES.get(enumType.getErasure());
-				if (values!=null) {
-					if (caseMode==EnumCaseMode.ALIASED) {
-						ImmutableSet.Builder<String> aliased = ImmutableSet.builder();
-						aliased.add(values);
-						for (int i = 0; i < values.length; i++) {
-							aliased.add(values[i].toUpperCase());
-						}
-						return aliased.build().stream().map(StsValueHint::create).collect(Collectors.toList());
-					} else {
-						return Arrays.stream(values).map(StsValueHint::create).collect(Collectors.toList());
+			String[] values = TYPE_VALUES.get(enumType.getErasure());
+			if (values!=null) {
+				if (caseMode==EnumCaseMode.ALIASED) {
+					ImmutableSet.Builder<String> aliased = ImmutableSet.builder();
+					aliased.add(values);
+					for (int i = 0; i < values.length; i++) {
+						aliased.add(values[i].toUpperCase());
 					}
+					return ImmutableList.copyOf(aliased.build().stream().map(StsValueHint::create).iterator());
+				} else {
+					return ImmutableList.copyOf(Arrays.stream(values).map(StsValueHint::create).iterator());
 				}
-				IType type = findType(enumType.getErasure());
-				if (type!=null && type.isEnum()) {
-					IField[] fields = type.getFields();
-
-					if (fields!=null) {
-						ImmutableList.Builder<StsValueHint> enums = ImmutableList.builder();
-						boolean addOriginal = caseMode==EnumCaseMode.ORIGNAL||caseMode==EnumCaseMode.ALIASED;
-						boolean addLowerCased = caseMode==EnumCaseMode.LOWER_CASE||caseMode==EnumCaseMode.ALIASED;
-						for (int i = 0; i < fields.length; i++) {
-							IField f = fields[i];
-							Provider<HtmlSnippet> jdoc = StsValueHint.javaDocSnippet(f);
-							if (f.isEnumConstant()) {
-								String rawName = f.getElementName();
-								if (addOriginal) {
-									enums.add(StsValueHint.create(rawName, f));
-								}
-								if (addLowerCased) {
-									enums.add(StsValueHint.create(StringUtil.upperCaseToHyphens(rawName), f));
-								}
+			}
+			IType type = findTypeOrFail(enumType.getErasure());
+			if (type!=null && type.isEnum()) {
+				IField[] fields = type.getFields();
+
+				if (fields!=null) {
+					ImmutableList.Builder<StsValueHint> enums = ImmutableList.builder();
+					boolean addOriginal = caseMode==EnumCaseMode.ORIGNAL||caseMode==EnumCaseMode.ALIASED;
+					boolean addLowerCased = caseMode==EnumCaseMode.LOWER_CASE||caseMode==EnumCaseMode.ALIASED;
+					for (int i = 0; i < fields.length; i++) {
+						IField f = fields[i];
+						Provider<HtmlSnippet> jdoc = StsValueHint.javaDocSnippet(f);
+						if (f.isEnumConstant()) {
+							String rawName = f.getElementName();
+							if (addOriginal) {
+								enums.add(StsValueHint.create(rawName, f));
+							}
+							if (addLowerCased) {
+								enums.add(StsValueHint.create(StringUtil.upperCaseToHyphens(rawName), f));
 							}
 						}
-						return enums.build();
 					}
+					return enums.build();
 				}
-			} catch (Exception e) {
-				BootActivator.log(e);
 			}
 		}
 		return null;
@@ -541,15 +588,25 @@ public class TypeUtil {
 
 	private IType findType(String typeName) {
 		try {
-			if (javaProject!=null) {
-				return javaProject.findType(typeName);
-			}
+			return findTypeOrFail(typeName);
 		} catch (Exception e) {
 			Log.log(e);
 		}
 		return null;
 	}
 
+	private IType findTypeOrFail(String typeName) throws JavaModelException {
+		if (javaProject!=null) {
+			long generation = cache.getGeneration();
+			Optional<IType> memo = cache.types.get(typeName);
+			if (memo!=null) {
+				return memo.orElse(null);
+			}
+			return cache.types.put(typeName, javaProject.findType(typeName), generation);
+		}
+		return null;
+	}
+
 	private IType findType(Type beanType) {
 		return findType(beanType.getErasure());
 	}
@@ -804,6 +861,13 @@ public class TypeUtil {
 		return javaProject;
 	}
 
+	/**
+	 * @return The memoized lookups of this TypeUtil's project, or null if it has no project.
+	 */
+	public ProjectCache getCache() {
+		return cache;
+	}
+
 	public IField getField(Type beanType, String propName) {
 		IType type = findType(beanType);
 		return getExactField(type, propName);
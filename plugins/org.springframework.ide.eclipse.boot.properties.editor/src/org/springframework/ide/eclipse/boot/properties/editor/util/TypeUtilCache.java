@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.util;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.StsValueHint;
+import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil.EnumCaseMode;
+import org.springframework.ide.eclipse.editor.support.util.ValueParser;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Remembers the results of the expensive lookups done by {@link TypeUtil} (resolving
+ * types with JDT, enum values and value parsers) for each project, so they don't have to
+ * be repeated every time a document is reconciled.
+ * <p>
+ * The results for a project are forgotten when its classpath changes or when a compilation
+ * unit in it, or in a project it depends on, changes.
+ */
+public class TypeUtilCache {
+
+	/**
+	 * Upper bound on the number of entries of a single memo. When it is exceeded the memo is
+	 * simply cleared. This should only happen for projects with unusually large metadata.
+	 */
+	private static final int MAX_MEMO_SIZE = 10_000;
+
+	/**
+	 * Thread-safe map that counts hits and misses. Null values are remembered
+	 * too, as 'not found' is as expensive to find out as anything else.
+	 */
+	static class Memo<K, V> {
+
+		private final ProjectCache owner;
+		private final Map<K, Optional<V>> values = new ConcurrentHashMap<>();
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+
+		/**
+		 * @return The remembered value (possibly an empty Optional) or null if there is none.
+		 */
+		public Optional<V> get(K key) {
+			Optional<V> value = values.get(key);
+			if (value!=null) {
+				hits.increment();
+			} else {
+				misses.increment();
+			}
+			return value;
+		}
+
+		Memo(ProjectCache owner) {
+			this.owner = owner;
+		}
+
+		/**
+		 * Remembers a value, unless the cache was cleared since the value was computed.
+		 *
+		 * @param generation The generation of the cache (see {@link ProjectCache#getGeneration()})
+		 *           from before the value was computed.
+		 * @return The value.
+		 */
+		public V put(K key, V value, long generation) {
+			synchronized (owner) {
+				if (generation==owner.generation) {
+					if (values.size()>=MAX_MEMO_SIZE) {
+						values.clear();
+					}
+					values.put(key, Optional.ofNullable(value));
+				}
+			}
+			return value;
+		}
+
+		void clear() {
+			values.clear();
+		}
+
+		public CacheStats getStats() {
+			return new CacheStats(hits.sum(), misses.sum(), 0, 0, 0, 0);
+		}
+	}
+
+	public static class ProjectCache {
+		private final IJavaProject project;
+		final Memo<String, IType> types = new Memo<>(this);
+		final Memo<Type, ValueParser> valueParsers = new Memo<>(this);
+		final Map<EnumCaseMode, Memo<String, Collection<StsValueHint>>> allowedValues = new EnumMap<>(EnumCaseMode.class);
+
+		/**
+		 * Incremented whenever the cache is cleared, so that values computed from the state of
+		 * the project from before that aren't remembered.
+		 */
+		private long generation = 0;
+
+		ProjectCache(IJavaProject project) {
+			this.project = project;
+			for (EnumCaseMode mode : EnumCaseMode.values()) {
+				allowedValues.put(mode, new Memo<>(this));
+			}
+		}
+
+		/**
+		 * To be fetched before computing a value, and passed to {@link Memo#put(Object, Object, long)}.
+		 */
+		synchronized long getGeneration() {
+			return generation;
+		}
+
+		synchronized void clear() {
+			generation++;
+			types.clear();
+			valueParsers.clear();
+			for (Memo<String, Collection<StsValueHint>> memo : allowedValues.values()) {
+				memo.clear();
+			}
+		}
+
+		public CacheStats getTypeStats() {
+			return types.getStats();
+		}
+
+		public CacheStats getValueParserStats() {
+			return valueParsers.getStats();
+		}
+
+		public CacheStats getAllowedValuesStats() {
+			CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+			for (Memo<String, Collection<StsValueHint>> memo : allowedValues.values()) {
+				stats = stats.plus(memo.getStats());
+			}
+			return stats;
+		}
+	}
+
+	private final Map<String, ProjectCache> caches = new ConcurrentHashMap<>();
+
+	public TypeUtilCache() {
+		JavaCore.addElementChangedListener(new JavaTypeChangeListener() {
+			@Override
+			protected void projectRemoved(IJavaProject project) {
+				caches.remove(project.getElementName());
+			}
+
+			@Override
+			protected void typesChanged(IJavaProject changed, ICompilationUnit cu) {
+				invalidate(changed);
+			}
+		}, ElementChangedEvent.POST_CHANGE);
+	}
+
+	public ProjectCache get(IJavaProject project) {
+		return caches.computeIfAbsent(project.getElementName(), (name) -> new ProjectCache(project));
+	}
+
+	private void invalidate(IJavaProject changed) {
+		for (ProjectCache cache : caches.values()) {
+			if (JavaTypeChangeListener.dependsOn(cache.project, changed)) {
+				cache.clear();
+			}
+		}
+	}
+
+}
@@ -23,11 +23,17 @@ import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 import org.osgi.framework.BundleContext;
 import org.springframework.ide.eclipse.core.internal.model.SpringModel;
+import org.springframework.ide.eclipse.core.internal.model.validation.ParallelValidationSupport;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationResultCache;
 import org.springframework.ide.eclipse.core.java.ITypeStructureCache;
 import org.springframework.ide.eclipse.core.java.TypeStructureCache;
 import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReaderFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.IndexedTypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedJarTypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedJarTypeHierarchyStore;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndexStore;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyResourceChangeListener;
 import org.springframework.ide.eclipse.core.model.ISpringModel;
 
@@ -74,6 +80,9 @@ public class SpringCore extends Plugin {
 	/** Temporally setting to enable or disable the use of XBean's non-locking classloader infrastructure */
 	public static final String USE_NON_LOCKING_CLASSLOADER = PLUGIN_ID + ".useNonLockingClassLoader";
 
+	/** Number of threads used to run validators and validate resources, 1 means serial validation */
+	public static final String VALIDATION_PARALLELISM = PLUGIN_ID + ".validationParallelism";
+
 	/** The shared instance */
 	private static SpringCore plugin;
 
@@ -100,9 +109,12 @@ public class SpringCore extends Plugin {
 		typeHierarchyEngine = new TypeHierarchyEngine(true);
 		typeHierarchyEngine.setClassReaderFactory(new BytecodeTypeHierarchyClassReaderFactory());
 		typeHierarchyEngine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
+		typeHierarchyEngine.setClosureMode(System.getProperty(TypeHierarchyEngine.CLOSURE_PROPERTY, "false").equals("true"));
 
 		TypeHierarchyResourceChangeListener resetListener = new TypeHierarchyResourceChangeListener();
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(resetListener, IResourceChangeEvent.PRE_BUILD);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(new ValidationResultCache.ResultsResetListener(),
+				IResourceChangeEvent.POST_CHANGE);
 		
 		try {
 			resourceBundle = ResourceBundle.getBundle(RESOURCE_NAME);
@@ -117,16 +129,31 @@ public class SpringCore extends Plugin {
 		super.start(context);
 		model.startup();
 		typeStructureCache.startup();
+		// persistent jar indexes for the type hierarchy engine are not enabled by default
+		TypeHierarchyIndexStore indexStore = null;
+		if (System.getProperty(TypeHierarchyIndexStore.ENABLE_PROPERTY, "false").equals("true")) {
+			indexStore = new TypeHierarchyIndexStore(getStateLocation().append("typehierarchy").toFile());
+		}
+		// sharing jar type hierarchies across projects is not enabled by default
+		if (System.getProperty(SharedJarTypeHierarchyClassReaderFactory.ENABLE_PROPERTY, "false").equals("true")) {
+			typeHierarchyEngine.setClassReaderFactory(new SharedJarTypeHierarchyClassReaderFactory(new SharedJarTypeHierarchyStore(indexStore)));
+		}
+		else if (indexStore != null) {
+			typeHierarchyEngine.setClassReaderFactory(new IndexedTypeHierarchyClassReaderFactory(indexStore));
+		}
 		// install default for incremtal compilation
 		plugin.getPluginPreferences().setDefault(USE_CHANGE_DETECTION_IN_JAVA_FILES, true);
 		// non.locking classloader is not enabled by default
 		plugin.getPluginPreferences().setDefault(USE_NON_LOCKING_CLASSLOADER, false);
+		// validation runs serially by default
+		plugin.getPluginPreferences().setDefault(VALIDATION_PARALLELISM, 1);
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		model.shutdown();
 		typeStructureCache.shutdown();
+		ParallelValidationSupport.shutdown();
 		super.stop(context);
 	}
 
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.model.validation;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Shared fork-join pool for the parallel validation mode, configured via the
+ * {@link SpringCore#VALIDATION_PARALLELISM} preference. A parallelism of 1 (the default) means
+ * that validators and the resources of each validator are validated one after the other.
+ *
+ * @since 3.8.4
+ * @see ValidationMarkerBatch
+ */
+public class ParallelValidationSupport {
+
+	private static ForkJoinPool pool;
+
+	/**
+	 * Returns the configured degree of parallelism for validation.
+	 */
+	public static int getParallelism() {
+		SpringCore plugin = SpringCore.getDefault();
+		if (plugin == null) {
+			return 1;
+		}
+		return Math.max(1, plugin.getPluginPreferences().getInt(SpringCore.VALIDATION_PARALLELISM));
+	}
+
+	public static boolean isEnabled() {
+		return getParallelism() > 1;
+	}
+
+	/**
+	 * Executes the given tasks on the validation pool and waits for all of them to complete.
+	 * Tasks that are forked from within the pool are executed using work stealing.
+	 */
+	public static void invokeAll(Collection<? extends ForkJoinTask<?>> tasks) {
+		ForkJoinPool validationPool = getPool();
+		if (ForkJoinTask.getPool() == validationPool) {
+			ForkJoinTask.invokeAll(tasks);
+		}
+		else {
+			validationPool.invoke(new InvokeAllAction(tasks));
+		}
+	}
+
+	/**
+	 * Starts the given tasks on the validation pool without waiting for them. The returned task
+	 * completes once all given tasks are done.
+	 */
+	public static ForkJoinTask<?> submitAll(Collection<? extends ForkJoinTask<?>> tasks) {
+		return getPool().submit(new InvokeAllAction(tasks));
+	}
+
+	/**
+	 * Returns a monitor for use on worker threads. It ignores progress reporting (as progress
+	 * monitors are not thread-safe) and forwards cancellation of the given monitor.
+	 */
+	public static IProgressMonitor createWorkerMonitor(final IProgressMonitor monitor) {
+		return new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || (monitor != null && monitor.isCanceled());
+			}
+		};
+	}
+
+	public static synchronized void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	private static synchronized ForkJoinPool getPool() {
+		int parallelism = getParallelism();
+		if (pool == null || pool.getParallelism() != parallelism) {
+			if (pool != null) {
+				pool.shutdown();
+			}
+			pool = new ForkJoinPool(parallelism);
+		}
+		return pool;
+	}
+
+	private static class InvokeAllAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Collection<? extends ForkJoinTask<?>> tasks;
+
+		public InvokeAllAction(Collection<? extends ForkJoinTask<?>> tasks) {
+			this.tasks = tasks;
+		}
+
+		@Override
+		protected void compute() {
+			invokeAll(tasks);
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.model.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.springframework.ide.eclipse.core.model.validation.IValidator;
+
+/**
+ * Collects the marker updates of validators that run in parallel. Validators running on worker
+ * threads must not touch markers while the builder holds the workspace lock, so they hand over
+ * their updates (in resource order) and the builder applies them per validator, in the order of
+ * the validator definitions, within a single {@link IWorkspaceRunnable}. The builder removes the
+ * existing markers of the validators before they start, so the updates only create new markers.
+ * <p>
+ * The batch is bound to the threads that run the validators of a build, validators that run
+ * outside of a build are not affected.
+ *
+ * @since 3.8.4
+ */
+public class ValidationMarkerBatch {
+
+	private static final ThreadLocal<ValidationMarkerBatch> CURRENT = new ThreadLocal<ValidationMarkerBatch>();
+
+	private final Map<IValidator, List<IWorkspaceRunnable>> updates = new HashMap<IValidator, List<IWorkspaceRunnable>>();
+
+	public synchronized void add(IValidator validator, IWorkspaceRunnable update) {
+		List<IWorkspaceRunnable> validatorUpdates = updates.get(validator);
+		if (validatorUpdates == null) {
+			validatorUpdates = new ArrayList<IWorkspaceRunnable>();
+			updates.put(validator, validatorUpdates);
+		}
+		validatorUpdates.add(update);
+	}
+
+	/**
+	 * Returns the batch the current thread hands its marker updates over to, or <code>null</code>.
+	 */
+	public static ValidationMarkerBatch getCurrent() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Binds the given batch to the current thread.
+	 * @return the previously bound batch, to be restored afterwards
+	 */
+	public static ValidationMarkerBatch setCurrent(ValidationMarkerBatch batch) {
+		ValidationMarkerBatch previous = CURRENT.get();
+		if (batch != null) {
+			CURRENT.set(batch);
+		}
+		else {
+			CURRENT.remove();
+		}
+		return previous;
+	}
+
+	/**
+	 * Removes and returns the marker updates of the given validator.
+	 */
+	public synchronized List<IWorkspaceRunnable> remove(IValidator validator) {
+		List<IWorkspaceRunnable> validatorUpdates = updates.remove(validator);
+		if (validatorUpdates == null) {
+			return Collections.emptyList();
+		}
+		return validatorUpdates;
+	}
+
+}
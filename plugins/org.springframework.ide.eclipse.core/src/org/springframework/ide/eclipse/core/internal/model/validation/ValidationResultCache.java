@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.model.validation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IResourceModelElement;
+import org.springframework.ide.eclipse.core.model.ISourceModelElement;
+import org.springframework.ide.eclipse.core.model.validation.ICacheableValidationRule;
+import org.springframework.ide.eclipse.core.model.validation.IValidationContext;
+import org.springframework.ide.eclipse.core.model.validation.ValidationProblem;
+
+/**
+ * Cache of the {@link ValidationProblem}s reported by {@link ICacheableValidationRule}s, per rule
+ * and model element. A cached outcome is replayed as long as the fingerprint of the element, the
+ * location of the element, the structure of the types the rule depends on (as calculated by the
+ * type structure cache), the configuration of the rule and the classpath of the project are the
+ * same as when the outcome was recorded.
+ * <p>
+ * The results of a resource are replaced as a whole after each validation of the resource, so
+ * results of elements that don't exist anymore are dropped. The results of removed resources and of
+ * closed or deleted projects are dropped by the {@link ResultsResetListener}. Full builds re-run all
+ * rules.
+ * <p>
+ * The cache is disabled by default and can be enabled by setting the system property
+ * {@link #ENABLE_PROPERTY} to <code>true</code>.
+ *
+ * @since 3.8.4
+ */
+public class ValidationResultCache {
+
+	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.core.validation.enableResultCache";
+
+	private static final char KEY_SEPARATOR_CHAR = '|';
+
+	/** results keyed by resource path and validator id */
+	private static final ConcurrentMap<IPath, Map<String, ResourceResults>> RESULTS = new ConcurrentHashMap<IPath, Map<String, ResourceResults>>();
+
+	private static final AtomicLong HITS = new AtomicLong();
+
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	public static boolean isEnabled() {
+		return System.getProperty(ENABLE_PROPERTY, "false").equals("true");
+	}
+
+	/**
+	 * Opens a cache session for the validation of the given resource by the given validator.
+	 */
+	public static Session openSession(String validatorId, IResource resource, int kind) {
+		IPath path = resource.getFullPath();
+		long classpathFingerprint = getClasspathFingerprint(resource.getProject());
+
+		ResourceResults previousResults = null;
+		if (kind != IncrementalProjectBuilder.FULL_BUILD && kind != IncrementalProjectBuilder.CLEAN_BUILD) {
+			Map<String, ResourceResults> resourceResults = RESULTS.get(path);
+			previousResults = resourceResults != null ? resourceResults.get(validatorId) : null;
+			if (previousResults != null && previousResults.classpathFingerprint != classpathFingerprint) {
+				previousResults = null;
+			}
+		}
+		return new Session(validatorId, path, resource.getProject(), classpathFingerprint, previousResults);
+	}
+
+	/**
+	 * Returns <code>true</code> if there are cached results for the given resource.
+	 */
+	public static boolean hasResults(IResource resource) {
+		return RESULTS.containsKey(resource.getFullPath());
+	}
+
+	/**
+	 * Removes all cached results.
+	 */
+	public static void clear() {
+		RESULTS.clear();
+		HITS.set(0);
+		MISSES.set(0);
+	}
+
+	/**
+	 * Returns the number of rule executions that have been answered from the cache.
+	 */
+	public static long getHitCount() {
+		return HITS.get();
+	}
+
+	/**
+	 * Returns the number of rule executions of cacheable rules that couldn't be answered from the
+	 * cache.
+	 */
+	public static long getMissCount() {
+		return MISSES.get();
+	}
+
+	private static void removeResults(IResource resource) {
+		if (resource instanceof IProject) {
+			IPath projectPath = resource.getFullPath();
+			for (IPath path : RESULTS.keySet()) {
+				if (projectPath.isPrefixOf(path)) {
+					RESULTS.remove(path);
+				}
+			}
+		}
+		else {
+			RESULTS.remove(resource.getFullPath());
+		}
+	}
+
+	private static long getClasspathFingerprint(IProject project) {
+		long result = 0;
+		IJavaProject javaProject = JdtUtils.getJavaProject(project);
+		if (javaProject != null) {
+			try {
+				for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+					result = 31 * result + entry.getPath().toString().hashCode();
+					if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+						IResource member = project.getWorkspace().getRoot().findMember(entry.getPath());
+						File file = (member != null && member.getLocation() != null ? member.getLocation().toFile()
+								: entry.getPath().toFile());
+						result = 31 * result + file.lastModified();
+					}
+				}
+			}
+			catch (JavaModelException e) {
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Cache access for the validation of a single resource. A session is used by one thread only.
+	 */
+	public static class Session {
+
+		private final String validatorId;
+
+		private final IPath path;
+
+		private final IProject project;
+
+		private final long classpathFingerprint;
+
+		private final Map<String, CachedResult> previousResults;
+
+		private final Map<String, CachedResult> results;
+
+		private Session(String validatorId, IPath path, IProject project, long classpathFingerprint,
+				ResourceResults previousResults) {
+			this.validatorId = validatorId;
+			this.path = path;
+			this.project = project;
+			this.classpathFingerprint = classpathFingerprint;
+			this.previousResults = previousResults != null ? previousResults.results : null;
+			this.results = new HashMap<String, CachedResult>();
+		}
+
+		/**
+		 * Creates the input of the given rule for the given element, or returns <code>null</code>
+		 * if the outcome of the rule for the element can't be cached.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public RuleInput createInput(ValidationRuleDefinition ruleDefinition, IModelElement element,
+				IValidationContext context) {
+			ICacheableValidationRule rule = (ICacheableValidationRule) ruleDefinition.getRule();
+			Object fingerprint = rule.getFingerprint(element, context);
+			if (fingerprint == null) {
+				return null;
+			}
+
+			// keyed by type name, so that the fingerprints are compared type by type
+			Map<String, Long> typesFingerprint = new TreeMap<String, Long>();
+			Set<String> typeDependencies = rule.getTypeDependencies(element, context);
+			if (typeDependencies != null) {
+				for (String typeName : typeDependencies) {
+					typesFingerprint.put(typeName,
+							SpringCore.getTypeStructureCache().getTypeStructureFingerprint(project, typeName));
+				}
+			}
+
+			StringBuilder key = new StringBuilder(ruleDefinition.getId()).append(KEY_SEPARATOR_CHAR);
+			IResourceModelElement contextElement = context.getContextElement();
+			if (contextElement != null) {
+				key.append(contextElement.getElementID());
+			}
+			key.append(KEY_SEPARATOR_CHAR).append(element.getElementID());
+
+			List<Object> state = Arrays.<Object> asList(fingerprint, typesFingerprint, getStartLine(element),
+					getEndLine(element), new HashMap<String, String>(ruleDefinition.getPropertyValues()),
+					new HashMap<String, Integer>(ruleDefinition.getMessageSeverities()));
+			return new RuleInput(key.toString(), state);
+		}
+
+		/**
+		 * Returns the problems recorded for the given input, or <code>null</code> if the input
+		 * changed since the previous validation of the resource.
+		 */
+		public List<ValidationProblem> get(RuleInput input) {
+			CachedResult result = previousResults != null ? previousResults.get(input.key) : null;
+			if (result != null && result.state.equals(input.state)) {
+				results.put(input.key, result);
+				HITS.incrementAndGet();
+				return result.problems;
+			}
+			MISSES.incrementAndGet();
+			return null;
+		}
+
+		public void put(RuleInput input, List<ValidationProblem> problems) {
+			results.put(input.key, new CachedResult(input.state, new ArrayList<ValidationProblem>(problems)));
+		}
+
+		/**
+		 * Replaces the results of the resource with the results of this session. Sessions of
+		 * canceled validations must not be closed.
+		 */
+		public void close() {
+			Map<String, ResourceResults> resourceResults = RESULTS.get(path);
+			if (resourceResults == null) {
+				Map<String, ResourceResults> newResourceResults = new ConcurrentHashMap<String, ResourceResults>();
+				resourceResults = RESULTS.putIfAbsent(path, newResourceResults);
+				if (resourceResults == null) {
+					resourceResults = newResourceResults;
+				}
+			}
+			resourceResults.put(validatorId, new ResourceResults(classpathFingerprint, results));
+		}
+
+		private static int getStartLine(IModelElement element) {
+			return element instanceof ISourceModelElement ? ((ISourceModelElement) element).getElementStartLine() : -1;
+		}
+
+		private static int getEndLine(IModelElement element) {
+			return element instanceof ISourceModelElement ? ((ISourceModelElement) element).getElementEndLine() : -1;
+		}
+
+	}
+
+	/**
+	 * Everything the outcome of a rule for a certain element depends on.
+	 */
+	public static class RuleInput {
+
+		private final String key;
+
+		private final List<Object> state;
+
+		private RuleInput(String key, List<Object> state) {
+			this.key = key;
+			this.state = state;
+		}
+
+	}
+
+	private static class CachedResult {
+
+		private final List<Object> state;
+
+		private final List<ValidationProblem> problems;
+
+		public CachedResult(List<Object> state, List<ValidationProblem> problems) {
+			this.state = state;
+			this.problems = problems;
+		}
+
+	}
+
+	/**
+	 * Drops the results of removed resources and of closed or deleted projects.
+	 */
+	public static class ResultsResetListener implements IResourceChangeListener {
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getType() == IResourceChangeEvent.POST_CHANGE && !RESULTS.isEmpty()) {
+				try {
+					event.getDelta().accept(new IResourceDeltaVisitor() {
+						public boolean visit(IResourceDelta delta) {
+							IResource resource = delta.getResource();
+							if (delta.getKind() == IResourceDelta.REMOVED) {
+								removeResults(resource);
+								return false;
+							}
+							if (resource instanceof IProject && !((IProject) resource).isOpen()) {
+								removeResults(resource);
+								return false;
+							}
+							return true;
+						}
+					});
+				}
+				catch (CoreException e) {
+					SpringCore.log(e);
+				}
+			}
+		}
+
+	}
+
+	private static class ResourceResults {
+
+		private final long classpathFingerprint;
+
+		private final Map<String, CachedResult> results;
+
+		public ResourceResults(long classpathFingerprint, Map<String, CachedResult> results) {
+			this.classpathFingerprint = classpathFingerprint;
+			this.results = results;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,11 +10,15 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.internal.project;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -23,15 +27,21 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.springframework.ide.eclipse.core.SpringCoreUtils;
+import org.springframework.ide.eclipse.core.internal.model.validation.ParallelValidationSupport;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationMarkerBatch;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinition;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinitionFactory;
+import org.springframework.ide.eclipse.core.model.validation.AbstractValidator;
 import org.springframework.ide.eclipse.core.model.validation.IValidator;
 import org.springframework.ide.eclipse.core.project.DefaultProjectContributorState;
 import org.springframework.ide.eclipse.core.project.IProjectBuilder;
@@ -125,10 +135,15 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		}
 
 		// Finally run all validators
-		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
-			if (validatorDefinition.isEnabled(project)) {
-				Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project, buildKind, delta);
-				runValidator(validatorDefinition, affectedResources, buildKind, monitor, listeners);
+		if (ParallelValidationSupport.isEnabled()) {
+			runValidatorsInParallel(validatorDefinitions, project, buildKind, delta, monitor, listeners);
+		}
+		else {
+			for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
+				if (validatorDefinition.isEnabled(project)) {
+					Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project, buildKind, delta);
+					runValidator(validatorDefinition, affectedResources, buildKind, monitor, listeners);
+				}
 			}
 		}
 
@@ -241,6 +256,116 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 	private void runValidator(final ValidatorDefinition validatorDefinition, final Set<IResource> affectedResources,
 			final int kind, IProgressMonitor monitor, List<IProjectContributionEventListener> listeners) {
 
+		fireValidatorStarted(validatorDefinition, affectedResources, monitor, listeners);
+
+		execute(new SafeExecutableWithMonitor() {
+
+			public void execute(IProgressMonitor subMonitor) throws Exception {
+				validatorDefinition.getValidator().validate(affectedResources, kind, subMonitor);
+			}
+		}, monitor);
+
+		fireValidatorFinished(validatorDefinition, affectedResources, monitor, listeners);
+	}
+
+	/**
+	 * Runs all enabled {@link AbstractValidator}s concurrently on the validation pool. Their existing markers are
+	 * removed before, their marker updates are collected in a {@link ValidationMarkerBatch} and applied in the
+	 * order of the validator definitions once all validators are done. Other {@link IValidator}s run on the build thread meanwhile, as
+	 * they might update markers directly.
+	 */
+	private void runValidatorsInParallel(List<ValidatorDefinition> validatorDefinitions, IProject project, final int kind,
+			IResourceDelta delta, final IProgressMonitor monitor, List<IProjectContributionEventListener> listeners)
+			throws CoreException {
+
+		final Map<ValidatorDefinition, Set<IResource>> affectedResources = new LinkedHashMap<ValidatorDefinition, Set<IResource>>();
+		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
+			if (validatorDefinition.isEnabled(project)) {
+				Set<IResource> resources = getAffectedResources(validatorDefinition.getValidator(), project, kind, delta);
+				affectedResources.put(validatorDefinition, resources);
+				fireValidatorStarted(validatorDefinition, resources, monitor, listeners);
+			}
+		}
+
+		final ValidationMarkerBatch markerBatch = new ValidationMarkerBatch();
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+		List<ValidatorDefinition> serialValidators = new ArrayList<ValidatorDefinition>();
+		for (final Map.Entry<ValidatorDefinition, Set<IResource>> entry : affectedResources.entrySet()) {
+			final IValidator validator = entry.getKey().getValidator();
+			if (validator instanceof AbstractValidator) {
+				for (final IResource resource : entry.getValue()) {
+					execute(new SafeExecutableWithMonitor() {
+
+						public void execute(IProgressMonitor subMonitor) throws Exception {
+							validator.cleanup(resource, subMonitor);
+						}
+					}, monitor);
+				}
+				tasks.add(new RecursiveAction() {
+
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected void compute() {
+						ValidationMarkerBatch previousBatch = ValidationMarkerBatch.setCurrent(markerBatch);
+						try {
+							SafeRunner.run(new ISafeRunnable() {
+								public void handleException(Throwable e) {
+									// nothing to do - exception is already logged
+								}
+
+								public void run() throws Exception {
+									validator.validate(entry.getValue(), kind, ParallelValidationSupport.createWorkerMonitor(monitor));
+								}
+							});
+						}
+						finally {
+							ValidationMarkerBatch.setCurrent(previousBatch);
+						}
+					}
+				});
+			}
+			else {
+				serialValidators.add(entry.getKey());
+			}
+		}
+
+		ForkJoinTask<?> parallelValidation = ParallelValidationSupport.submitAll(tasks);
+		for (final ValidatorDefinition validatorDefinition : serialValidators) {
+			execute(new SafeExecutableWithMonitor() {
+
+				public void execute(IProgressMonitor subMonitor) throws Exception {
+					validatorDefinition.getValidator().validate(affectedResources.get(validatorDefinition), kind, subMonitor);
+				}
+			}, monitor);
+		}
+		parallelValidation.join();
+
+		// apply all collected markers at once
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+
+			public void run(IProgressMonitor workspaceMonitor) throws CoreException {
+				for (ValidatorDefinition validatorDefinition : affectedResources.keySet()) {
+					for (final IWorkspaceRunnable markerUpdate : markerBatch.remove(validatorDefinition.getValidator())) {
+						execute(new SafeExecutableWithMonitor() {
+
+							public void execute(IProgressMonitor subMonitor) throws Exception {
+								markerUpdate.run(subMonitor);
+							}
+						}, workspaceMonitor);
+					}
+				}
+			}
+		}, null, IWorkspace.AVOID_UPDATE, monitor);
+
+		for (Map.Entry<ValidatorDefinition, Set<IResource>> entry : affectedResources.entrySet()) {
+			fireValidatorFinished(entry.getKey(), entry.getValue(), monitor, listeners);
+		}
+	}
+
+	private void fireValidatorStarted(final ValidatorDefinition validatorDefinition, final Set<IResource> affectedResources,
+			IProgressMonitor monitor, List<IProjectContributionEventListener> listeners) {
+
 		for (final IProjectContributionEventListener listener : listeners) {
 
 			execute(new SafeExecutableWithMonitor() {
@@ -253,13 +378,10 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 			}, monitor);
 
 		}
+	}
 
-		execute(new SafeExecutableWithMonitor() {
-
-			public void execute(IProgressMonitor subMonitor) throws Exception {
-				validatorDefinition.getValidator().validate(affectedResources, kind, subMonitor);
-			}
-		}, monitor);
+	private void fireValidatorFinished(final ValidatorDefinition validatorDefinition, final Set<IResource> affectedResources,
+			IProgressMonitor monitor, List<IProjectContributionEventListener> listeners) {
 
 		for (final IProjectContributionEventListener listener : listeners) {
 			
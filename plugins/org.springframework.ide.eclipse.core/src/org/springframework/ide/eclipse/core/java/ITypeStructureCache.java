@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2009 Spring IDE Developers
+ * Copyright (c) 2008, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -58,4 +58,14 @@ public interface ITypeStructureCache {
 	 */
 	void clearStateForProject(IProject project);
 
+	/**
+	 * Returns a fingerprint of the structure of the given type and its supertypes as currently
+	 * compiled into the output locations of the given <code>project</code>. The fingerprint
+	 * changes with every structural change of these types.
+	 * @param project the project to look up the type in
+	 * @param className the full-qualified name of the type
+	 * @since 3.8.4
+	 */
+	long getTypeStructureFingerprint(IProject project, String className);
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 Spring IDE Developers
+ * Copyright (c) 2009, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,6 +21,10 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.xbean.classloader.NonLockingJarFileClassLoader;
 import org.eclipse.core.resources.IFolder;
@@ -49,6 +53,11 @@ import org.springframework.ide.eclipse.core.SpringCore;
 
 /**
  * Internal cache of classpath urls and corresponding classloaders.
+ * <p>
+ * The size of the cache is limited by the total weight of the cached entries instead of the number
+ * of entries. The weight of an entry is either the number of its classpath urls (default) or the
+ * number of bytes of its jar files, see {@link #WEIGHER_PROPERTY} and {@link #MAX_WEIGHT_PROPERTY}.
+ * Least recently used entries are evicted as soon as the total weight exceeds the maximum.
  * @author Christian Dupuis
  * @author Martin Lippert
  * @since 2.2.5
@@ -56,48 +65,62 @@ import org.springframework.ide.eclipse.core.SpringCore;
 @SuppressWarnings("deprecation")
 public class ProjectClassLoaderCache {
 
+	/** maximum total weight of all cached classloaders */
+	public static final String MAX_WEIGHT_PROPERTY = "org.springframework.ide.eclipse.core.classloader.cacheMaxWeight";
+
+	/** <code>urls</code> to weigh classloaders by their number of classpath urls, <code>bytes</code> by the size of their jars */
+	public static final String WEIGHER_PROPERTY = "org.springframework.ide.eclipse.core.classloader.cacheWeigher";
+
 	private static final String FILE_SCHEME = "file";
-	private static final int CACHE_SIZE = 12;
-	private static final List<ClassLoaderCacheEntry> CLASSLOADER_CACHE = new ArrayList<ClassLoaderCacheEntry>(CACHE_SIZE);
+	private static final long DEFAULT_MAX_URL_WEIGHT = 4000;
+	private static final long DEFAULT_MAX_BYTE_WEIGHT = 1024L * 1024L * 1024L;
+	private static final ConcurrentMap<CacheKey, ClassLoaderCacheEntry> CLASSLOADER_CACHE = new ConcurrentHashMap<CacheKey, ClassLoaderCacheEntry>();
 
 	private static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/java/classloader/debug";
 	private static final boolean DEBUG_CLASSLOADER = SpringCore.isDebug(DEBUG_OPTION);
 
-	private static ClassLoader cachedParentClassLoader = null;
+	private static final Object EVICTION_LOCK = new Object();
+	private static final AtomicLong TOTAL_WEIGHT = new AtomicLong();
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+	private static final AtomicLong EVICTIONS = new AtomicLong();
+	private static final AtomicLong BUILD_TIME = new AtomicLong();
+
+	private static volatile ClassLoader cachedParentClassLoader = null;
+	private static volatile boolean listenersRegistered = false;
 	private static IPropertyChangeListener propertyChangeListener = null;
 	private static IResourceChangeListener resourceChangeListener = null;
 
-	private static ClassLoader addClassLoaderToCache(IProject project, List<URL> urls, ClassLoader parentClassLoader) {
-		synchronized (CLASSLOADER_CACHE) {
-			int nEntries = CLASSLOADER_CACHE.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
+	/**
+	 * Evicts obsolete entries and least recently used entries until the total weight of the cache
+	 * doesn't exceed the maximum anymore. The given entry is never evicted.
+	 */
+	private static void evictIfNecessary(ClassLoaderCacheEntry newEntry) {
+		long maxWeight = getMaxWeight();
+		if (TOTAL_WEIGHT.get() <= maxWeight) {
+			return;
+		}
+		synchronized (EVICTION_LOCK) {
+			for (ClassLoaderCacheEntry entry : CLASSLOADER_CACHE.values()) {
+				if (entry != newEntry && !isAccessible(entry.getProject())) {
+					removeClassLoaderEntryFromCache(entry);
+				}
+			}
+			while (TOTAL_WEIGHT.get() > maxWeight) {
 				ClassLoaderCacheEntry oldest = null;
-				List<ClassLoaderCacheEntry> obsoleteClassLoaders = new ArrayList<ClassLoaderCacheEntry>(CACHE_SIZE);
-				for (int i = 0; i < nEntries; i++) {
-					ClassLoaderCacheEntry entry = (ClassLoaderCacheEntry) CLASSLOADER_CACHE.get(i);
-					IProject curr = entry.getProject();
-					if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-						obsoleteClassLoaders.add(entry);
-					}
-					else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest = entry;
-						}
+				for (ClassLoaderCacheEntry entry : CLASSLOADER_CACHE.values()) {
+					if (entry != newEntry && entry.getWeight() > 0
+							&& (oldest == null || entry.getLastAccess() < oldest.getLastAccess())) {
+						oldest = entry;
 					}
 				}
-				if (!obsoleteClassLoaders.isEmpty()) {
-					for (int i = 0; i < obsoleteClassLoaders.size(); i++) {
-						removeClassLoaderEntryFromCache((ClassLoaderCacheEntry) obsoleteClassLoaders.get(i));
-					}
+				if (oldest == null) {
+					break;
 				}
-				else if (oldest != null) {
-					removeClassLoaderEntryFromCache(oldest);
+				if (removeClassLoaderEntryFromCache(oldest)) {
+					EVICTIONS.incrementAndGet();
 				}
 			}
-			ClassLoaderCacheEntry newEntry = new ClassLoaderCacheEntry(project, urls, parentClassLoader);
-			CLASSLOADER_CACHE.add(newEntry);
-			return newEntry.getClassLoader();
 		}
 	}
 
@@ -209,27 +232,65 @@ public class ProjectClassLoaderCache {
 		}
 	}
 
-	private static ClassLoader findClassLoaderInCache(IProject project, ClassLoader parentClassLoader) {
-		synchronized (CLASSLOADER_CACHE) {
-			for (int i = CLASSLOADER_CACHE.size() - 1; i >= 0; i--) {
-				ClassLoaderCacheEntry entry = (ClassLoaderCacheEntry) CLASSLOADER_CACHE.get(i);
-				IProject curr = entry.getProject();
-				if (curr == null || !curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-					removeClassLoaderEntryFromCache(entry);
-					if (DEBUG_CLASSLOADER) {
-						System.out.println(String.format("> removing classloader for '%s' : total %s",
-								entry.getProject(), CLASSLOADER_CACHE.size()));
-					}
-				}
-				else {
-					if (entry.matches(project, parentClassLoader)) {
-						entry.markAsAccessed();
-						return entry.getClassLoader();
-					}
-				}
+	/**
+	 * Returns the number of classloader requests that have been answered by a cached classloader.
+	 * @since 3.8.4
+	 */
+	public static long getHitCount() {
+		return HITS.get();
+	}
+
+	/**
+	 * Returns the number of classloader requests that required to build a new classloader.
+	 * @since 3.8.4
+	 */
+	public static long getMissCount() {
+		return MISSES.get();
+	}
+
+	/**
+	 * Returns the number of classloaders that have been evicted to stay below the maximum weight.
+	 * @since 3.8.4
+	 */
+	public static long getEvictionCount() {
+		return EVICTIONS.get();
+	}
+
+	/**
+	 * Returns the total time in milliseconds spent building classloaders.
+	 * @since 3.8.4
+	 */
+	public static long getTotalBuildTime() {
+		return TimeUnit.NANOSECONDS.toMillis(BUILD_TIME.get());
+	}
+
+	/**
+	 * Returns the current total weight of all cached classloaders.
+	 * @since 3.8.4
+	 */
+	public static long getTotalWeight() {
+		return TOTAL_WEIGHT.get();
+	}
+
+	private static long getMaxWeight() {
+		String maxWeight = System.getProperty(MAX_WEIGHT_PROPERTY);
+		if (maxWeight != null) {
+			try {
+				return Long.parseLong(maxWeight);
+			}
+			catch (NumberFormatException e) {
+				SpringCore.log("Invalid classloader cache weight '" + maxWeight + "'", e);
 			}
 		}
-		return null;
+		return isWeighingBytes() ? DEFAULT_MAX_BYTE_WEIGHT : DEFAULT_MAX_URL_WEIGHT;
+	}
+
+	private static boolean isWeighingBytes() {
+		return System.getProperty(WEIGHER_PROPERTY, "urls").equals("bytes");
+	}
+
+	private static boolean isAccessible(IProject project) {
+		return project != null && project.exists() && project.isAccessible() && project.isOpen();
 	}
 
 	/**
@@ -254,7 +315,7 @@ public class ProjectClassLoaderCache {
 	/**
 	 * Registers internal listeners that listen to changes relevant to clear out stale cache entries.
 	 */
-	private static void registerListenersIfRequired() {
+	private static synchronized void registerListenersIfRequired() {
 		if (propertyChangeListener == null) {
 			propertyChangeListener = new EnablementPropertyChangeListener();
 			SpringCore.getDefault().getPluginPreferences().addPropertyChangeListener(propertyChangeListener);
@@ -263,21 +324,24 @@ public class ProjectClassLoaderCache {
 			resourceChangeListener = new SourceAndOutputLocationResourceChangeListener();
 			ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceChangeListener);
 		}
+		listenersRegistered = true;
 	}
 
 	/**
 	 * Removes the given {@link ClassLoaderCacheEntry} from the internal cache.
 	 * @param entry the entry to remove
+	 * @return <code>true</code> if the entry has been removed by this call
 	 */
-	private static void removeClassLoaderEntryFromCache(ClassLoaderCacheEntry entry) {
-		synchronized (CLASSLOADER_CACHE) {
+	private static boolean removeClassLoaderEntryFromCache(ClassLoaderCacheEntry entry) {
+		if (CLASSLOADER_CACHE.remove(entry.getKey(), entry)) {
 			if (DEBUG_CLASSLOADER) {
 				System.out.println(String.format("> removing classloader for '%s' : total %s", entry.getProject()
 						.getName(), CLASSLOADER_CACHE.size()));
 			}
 			entry.dispose();
-			CLASSLOADER_CACHE.remove(entry);
+			return true;
 		}
+		return false;
 	}
 
 	public static boolean shouldFilter(String name) {
@@ -302,42 +366,66 @@ public class ProjectClassLoaderCache {
 	 * Returns a {@link ClassLoader} for the given project.
 	 */
 	protected static ClassLoader getClassLoader(IProject project, ClassLoader parentClassLoader) {
-		synchronized (ProjectClassLoaderCache.class) {
-			// Setup the root class loader to be used when no explicit parent class loader is given
-			if (parentClassLoader == null && cachedParentClassLoader == null) {
-				List<URL> paths = new ArrayList<URL>();
-				Enumeration<String> libs = SpringCore.getDefault().getBundle().getEntryPaths("/lib/");
-				while (libs.hasMoreElements()) {
-					String lib = libs.nextElement();
-					// Don't add the non locking classloader jar
-					if (!lib.contains("xbean-nonlocking-classloader")) {
-						paths.add(SpringCore.getDefault().getBundle().getEntry(lib));
-					}
-				}
-				paths.addAll(JdtUtils.getBundleClassPath("org.aspectj.runtime"));
-				paths.addAll(JdtUtils.getBundleClassPath("org.aspectj.weaver"));
-				paths.addAll(JdtUtils.getBundleClassPath("org.objectweb.asm"));
-				paths.addAll(JdtUtils.getBundleClassPath("org.aopalliance"));
-				cachedParentClassLoader = new URLClassLoader(paths.toArray(new URL[paths.size()]));
-			}
+		if (parentClassLoader == null && cachedParentClassLoader == null) {
+			initParentClassLoader();
+		}
+		if (project == null) {
+			return cachedParentClassLoader;
+		}
+		if (!listenersRegistered) {
+			registerListenersIfRequired();
+		}
 
-			if (project == null) {
-				return cachedParentClassLoader;
+		CacheKey key = new CacheKey(project, parentClassLoader);
+		ClassLoaderCacheEntry entry = CLASSLOADER_CACHE.get(key);
+		if (entry != null && !isAccessible(entry.getProject())) {
+			removeClassLoaderEntryFromCache(entry);
+			entry = null;
+		}
+		if (entry == null) {
+			ClassLoaderCacheEntry newEntry = new ClassLoaderCacheEntry(key);
+			entry = CLASSLOADER_CACHE.putIfAbsent(key, newEntry);
+			if (entry == null) {
+				entry = newEntry;
 			}
-
-			registerListenersIfRequired();
 		}
 
-		ClassLoader classLoader = findClassLoaderInCache(project, parentClassLoader);
-		if (classLoader == null) {
-			List<URL> urls = getClassPathUrls(project, parentClassLoader);
-			classLoader = addClassLoaderToCache(project, urls, parentClassLoader);
+		// the first caller builds the classloader of the entry, concurrent callers for the same project wait for it
+		if (entry.initialize()) {
+			MISSES.incrementAndGet();
+			evictIfNecessary(entry);
 			if (DEBUG_CLASSLOADER) {
 				System.out.println(String.format("> creating new classloader for '%s' with parent '%s' : total %s",
 						project.getName(), parentClassLoader, CLASSLOADER_CACHE.size()));
 			}
 		}
-		return classLoader;
+		else {
+			HITS.incrementAndGet();
+		}
+		entry.markAsAccessed();
+		return entry.getClassLoader();
+	}
+
+	/**
+	 * Sets up the root class loader to be used when no explicit parent class loader is given.
+	 */
+	private static synchronized void initParentClassLoader() {
+		if (cachedParentClassLoader == null) {
+			List<URL> paths = new ArrayList<URL>();
+			Enumeration<String> libs = SpringCore.getDefault().getBundle().getEntryPaths("/lib/");
+			while (libs.hasMoreElements()) {
+				String lib = libs.nextElement();
+				// Don't add the non locking classloader jar
+				if (!lib.contains("xbean-nonlocking-classloader")) {
+					paths.add(SpringCore.getDefault().getBundle().getEntry(lib));
+				}
+			}
+			paths.addAll(JdtUtils.getBundleClassPath("org.aspectj.runtime"));
+			paths.addAll(JdtUtils.getBundleClassPath("org.aspectj.weaver"));
+			paths.addAll(JdtUtils.getBundleClassPath("org.objectweb.asm"));
+			paths.addAll(JdtUtils.getBundleClassPath("org.aopalliance"));
+			cachedParentClassLoader = new URLClassLoader(paths.toArray(new URL[paths.size()]));
+		}
 	}
 	
 	/**
@@ -345,17 +433,41 @@ public class ProjectClassLoaderCache {
 	 * @param project the project to remove {@link ClassLoaderCacheEntry} for
 	 */
 	protected static void removeClassLoaderEntryFromCache(IProject project) {
-		synchronized (CLASSLOADER_CACHE) {
-			if (DEBUG_CLASSLOADER) {
-				System.out.println(String.format("> removing classloader for '%s' : total %s", project.getName(),
-						CLASSLOADER_CACHE.size()));
+		for (ClassLoaderCacheEntry entry : CLASSLOADER_CACHE.values()) {
+			if (project.equals(entry.getProject())) {
+				removeClassLoaderEntryFromCache(entry);
 			}
-			for (ClassLoaderCacheEntry entry : new ArrayList<ClassLoaderCacheEntry>(CLASSLOADER_CACHE)) {
-				if (project.equals(entry.getProject())) {
-					entry.dispose();
-					CLASSLOADER_CACHE.remove(entry);
-				}
+		}
+	}
+
+	/**
+	 * Key of the cache: a project and the parent classloader its classloader has been created for.
+	 */
+	static class CacheKey {
+
+		private final IProject project;
+
+		private final ClassLoader parentClassLoader;
+
+		public CacheKey(IProject project, ClassLoader parentClassLoader) {
+			this.project = project;
+			this.parentClassLoader = parentClassLoader;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CacheKey)) {
+				return false;
 			}
+			CacheKey other = (CacheKey) obj;
+			return project.equals(other.project)
+					&& (parentClassLoader == null ? other.parentClassLoader == null : parentClassLoader
+							.equals(other.parentClassLoader));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * project.hashCode() + (parentClassLoader != null ? parentClassLoader.hashCode() : 0);
 		}
 	}
 	
@@ -364,30 +476,63 @@ public class ProjectClassLoaderCache {
 	 */
 	static class ClassLoaderCacheEntry implements IElementChangedListener {
 
+		private final CacheKey key;
+
 		private URL[] directories;
 
 		private ClassLoader jarClassLoader;
 
-		private long lastAccess;
+		private volatile long lastAccess;
 
-		private ClassLoader parentClassLoader;
+		private final ClassLoader parentClassLoader;
 
-		private IProject project;
+		private final IProject project;
 
 		private URL[] urls;
 
-		public ClassLoaderCacheEntry(IProject project, List<URL> urls, ClassLoader parentClassLoader) {
-			this.project = project;
-			this.urls = urls.toArray(new URL[urls.size()]);
-			this.parentClassLoader = parentClassLoader;
+		private volatile long weight;
+
+		private boolean initialized;
+
+		private boolean disposed;
+
+		public ClassLoaderCacheEntry(CacheKey key) {
+			this.key = key;
+			this.project = key.project;
+			this.parentClassLoader = key.parentClassLoader;
 			markAsAccessed();
-			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
 		}
 
-		public void dispose() {
-			JavaCore.removeElementChangedListener(this);
-			this.urls = null;
-			this.jarClassLoader = null;
+		/**
+		 * Builds the classloader of this entry if not done yet.
+		 * @return <code>true</code> if the classloader has been built by this call
+		 */
+		public synchronized boolean initialize() {
+			if (initialized) {
+				return false;
+			}
+			long start = System.nanoTime();
+			List<URL> urls = getClassPathUrls(project, parentClassLoader);
+			this.urls = urls.toArray(new URL[urls.size()]);
+			getJarClassLoader();
+			BUILD_TIME.addAndGet(System.nanoTime() - start);
+			initialized = true;
+
+			if (!disposed) {
+				JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+				weight = calculateWeight(this.urls);
+				TOTAL_WEIGHT.addAndGet(weight);
+			}
+			return true;
+		}
+
+		public synchronized void dispose() {
+			if (!disposed) {
+				disposed = true;
+				JavaCore.removeElementChangedListener(this);
+				TOTAL_WEIGHT.addAndGet(-weight);
+				weight = 0;
+			}
 		}
 
 		public void elementChanged(ElementChangedEvent event) {
@@ -415,6 +560,10 @@ public class ProjectClassLoaderCache {
 			}
 		}
 
+		public CacheKey getKey() {
+			return key;
+		}
+
 		public long getLastAccess() {
 			return lastAccess;
 		}
@@ -423,14 +572,16 @@ public class ProjectClassLoaderCache {
 			return this.project;
 		}
 
-		public void markAsAccessed() {
-			lastAccess = System.currentTimeMillis();
+		/**
+		 * Returns the weight of this entry, or <code>0</code> if the classloader hasn't been built
+		 * yet or the entry has been disposed.
+		 */
+		public long getWeight() {
+			return weight;
 		}
 
-		public boolean matches(IProject project, ClassLoader parentClassLoader) {
-			return this.project.equals(project)
-					&& ((parentClassLoader == null && this.parentClassLoader == null) || (parentClassLoader != null && parentClassLoader
-							.equals(this.parentClassLoader)));
+		public void markAsAccessed() {
+			lastAccess = System.nanoTime();
 		}
 
 		private synchronized ClassLoader getJarClassLoader() {
@@ -471,6 +622,19 @@ public class ProjectClassLoaderCache {
 			return jarClassLoader;
 		}
 
+		private static long calculateWeight(URL[] urls) {
+			if (!isWeighingBytes()) {
+				return Math.max(1, urls.length);
+			}
+			long bytes = 0;
+			for (URL url : urls) {
+				if (FILE_SCHEME.equalsIgnoreCase(url.getProtocol())) {
+					bytes += new File(url.getPath()).length();
+				}
+			}
+			return Math.max(1, bytes);
+		}
+
 		private boolean shouldLoadFromParent(URL url) {
 			String path = url.getPath();
 			if (path.endsWith(".jar") || path.endsWith(".zip")) {
@@ -494,15 +658,16 @@ public class ProjectClassLoaderCache {
 		 */
 		public void propertyChange(PropertyChangeEvent event) {
 			if (SpringCore.USE_NON_LOCKING_CLASSLOADER.equals(event.getProperty())) {
-				synchronized (CLASSLOADER_CACHE) {
-					CLASSLOADER_CACHE.clear();
+				for (ClassLoaderCacheEntry entry : CLASSLOADER_CACHE.values()) {
+					removeClassLoaderEntryFromCache(entry);
 				}
 			}
 		}
 	}
 	
 	/**
-	 * {@link IResourceChangeListener} to clear the cache whenever new source or output folders are being added.
+	 * {@link IResourceChangeListener} to clear the cache whenever new source or output folders are being added,
+	 * and to remove the classloaders of projects that are closed or deleted.
 	 * @since 2.5.2
 	 */
 	static class SourceAndOutputLocationResourceChangeListener implements IResourceChangeListener {
@@ -527,6 +692,12 @@ public class ProjectClassLoaderCache {
 						}
 					}
 					break;
+				case IResourceChangeEvent.PRE_CLOSE:
+				case IResourceChangeEvent.PRE_DELETE:
+					if (event.getResource() instanceof IProject) {
+						removeClassLoaderEntryFromCache((IProject) event.getResource());
+					}
+					break;
 				}
 			}
 			else if (event.getSource() instanceof IProject) {
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * Global pool of canonical type and package name instances, shared by the type hierarchy engine,
+ * the type structure cache and the classpath lookups of all projects.
+ * <p>
+ * Projects that depend on the same libraries would otherwise each hold their own copies of
+ * names like <code>java/lang/Object</code>. Pooled names are only weakly referenced by the pool,
+ * so names that are no longer used by any cache are garbage collected as usual.
+ * <p>
+ * Pooled <code>char[]</code> instances are shared and must never be modified.
+ *
+ * @since 3.8.4
+ */
+public final class TypeNamePool {
+
+	private static final int SEGMENTS = 16;
+
+	private static final WeakInterner<char[]>[] CHAR_ARRAYS = createInterners(new CharArrayInterning());
+	private static final WeakInterner<String>[] STRINGS = createInterners(new StringInterning());
+
+	private TypeNamePool() {
+	}
+
+	/**
+	 * Returns the canonical instance of the given name.
+	 */
+	public static char[] intern(char[] name) {
+		if (name == null) {
+			return null;
+		}
+		int hash = hash(name);
+		return CHAR_ARRAYS[hash >>> 28].intern(name, hash);
+	}
+
+	/**
+	 * Replaces all names of the given array with their canonical instances.
+	 * @return the given array
+	 */
+	public static char[][] intern(char[][] names) {
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				names[i] = intern(names[i]);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the canonical instance of the given name.
+	 */
+	public static String intern(String name) {
+		if (name == null) {
+			return null;
+		}
+		int hash = spread(name.hashCode());
+		return STRINGS[hash >>> 28].intern(name, hash);
+	}
+
+	/**
+	 * Returns the number of pooled names that are still alive.
+	 */
+	public static int size() {
+		int result = 0;
+		for (int i = 0; i < SEGMENTS; i++) {
+			result += CHAR_ARRAYS[i].size() + STRINGS[i].size();
+		}
+		return result;
+	}
+
+	private static int hash(char[] characters) {
+		int h = 0;
+		for (int i = 0; i < characters.length; i++) {
+			h = 31*h + characters[i];
+		}
+		return spread(h);
+	}
+
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> WeakInterner<T>[] createInterners(Interning<T> interning) {
+		WeakInterner<T>[] result = new WeakInterner[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) {
+			result[i] = new WeakInterner<T>(interning);
+		}
+		return result;
+	}
+
+	private interface Interning<T> {
+		boolean equal(T a, T b);
+	}
+
+	private static class CharArrayInterning implements Interning<char[]> {
+		public boolean equal(char[] a, char[] b) {
+			return Arrays.equals(a, b);
+		}
+	}
+
+	private static class StringInterning implements Interning<String> {
+		public boolean equal(String a, String b) {
+			return a.equals(b);
+		}
+	}
+
+	/**
+	 * Hash table of weakly referenced canonical instances, stale entries are expunged on access.
+	 */
+	private static class WeakInterner<T> {
+
+		private final Interning<T> interning;
+		private final ReferenceQueue<T> queue;
+		private Entry<T>[] table;
+		private int count;
+
+		@SuppressWarnings("unchecked")
+		public WeakInterner(Interning<T> interning) {
+			this.interning = interning;
+			this.queue = new ReferenceQueue<T>();
+			this.table = new Entry[256];
+		}
+
+		public synchronized T intern(T value, int hash) {
+			expungeStaleEntries();
+
+			int index = hash & (table.length - 1);
+			for (Entry<T> entry = table[index]; entry != null; entry = entry.next) {
+				if (entry.hash == hash) {
+					T existing = entry.get();
+					if (existing != null && interning.equal(existing, value)) {
+						return existing;
+					}
+				}
+			}
+
+			table[index] = new Entry<T>(value, hash, table[index], queue);
+			if (++count > table.length - (table.length >>> 2)) {
+				resize();
+			}
+			return value;
+		}
+
+		public synchronized int size() {
+			expungeStaleEntries();
+			return count;
+		}
+
+		private void expungeStaleEntries() {
+			Object stale;
+			while ((stale = queue.poll()) != null) {
+				@SuppressWarnings("unchecked")
+				Entry<T> staleEntry = (Entry<T>) stale;
+				int index = staleEntry.hash & (table.length - 1);
+
+				Entry<T> previous = null;
+				for (Entry<T> entry = table[index]; entry != null; entry = entry.next) {
+					if (entry == staleEntry) {
+						if (previous == null) {
+							table[index] = entry.next;
+						}
+						else {
+							previous.next = entry.next;
+						}
+						count--;
+						break;
+					}
+					previous = entry;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void resize() {
+			Entry<T>[] newTable = new Entry[table.length * 2];
+			for (Entry<T> entry : table) {
+				while (entry != null) {
+					Entry<T> next = entry.next;
+					int index = entry.hash & (newTable.length - 1);
+					entry.next = newTable[index];
+					newTable[index] = entry;
+					entry = next;
+				}
+			}
+			table = newTable;
+		}
+
+	}
+
+	private static class Entry<T> extends WeakReference<T> {
+
+		final int hash;
+		Entry<T> next;
+
+		public Entry(T referent, int hash, Entry<T> next, ReferenceQueue<T> queue) {
+			super(referent, queue);
+			this.hash = hash;
+			this.next = next;
+		}
+
+	}
+
+}
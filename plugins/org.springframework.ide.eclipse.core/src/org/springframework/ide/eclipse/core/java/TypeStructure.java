@@ -114,14 +114,14 @@ class TypeStructure extends org.eclipse.jdt.internal.core.hierarchy.HierarchyBin
 		this.memberTypes = cfr.getMemberTypes();
 		this.annotations = cfr.getAnnotations();
 		this.sourceName = cfr.getSourceName();
-		this.className = cfr.getName(); // slashes...
+		this.className = TypeNamePool.intern(cfr.getName()); // slashes...
 		this.modifiers = cfr.getModifiers();
 		this.genericSignature = cfr.getGenericSignature();
 		// if (this.genericSignature.length == 0) {
 		// this.genericSignature = null;
 		// }
-		this.superclassName = cfr.getSuperclassName(); // slashes...
-		interfaces = cfr.getInterfaceNames();
+		this.superclassName = TypeNamePool.intern(cfr.getSuperclassName()); // slashes...
+		interfaces = TypeNamePool.intern(cfr.getInterfaceNames());
 
 	}
 	
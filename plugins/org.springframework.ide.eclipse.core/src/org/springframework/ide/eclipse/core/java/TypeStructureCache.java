@@ -17,8 +17,10 @@ import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -77,6 +79,9 @@ public class TypeStructureCache implements ITypeStructureCache {
 	/** {@link TypeStructure} instances keyed by full-qualified class names */
 	private Map<IProject, Map<String, TypeStructure>> typeStructuresByProject = new ConcurrentHashMap<IProject, Map<String, TypeStructure>>();
 
+	/** {@link TypeFingerprint} instances of the current class files keyed by full-qualified class names */
+	private Map<IProject, Map<String, TypeFingerprint>> typeFingerprintsByProject = new ConcurrentHashMap<IProject, Map<String, TypeFingerprint>>();
+
 	protected final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
 
 	protected final Lock r = rwl.readLock();
@@ -92,6 +97,7 @@ public class TypeStructureCache implements ITypeStructureCache {
 		JavaCore.removeElementChangedListener(changedListener);
 		changedListener = null;
 		typeStructuresByProject = null;
+		typeFingerprintsByProject = null;
 	}
 
 	/**
@@ -101,6 +107,7 @@ public class TypeStructureCache implements ITypeStructureCache {
 		try {
 			w.lock();
 			typeStructuresByProject.remove(project);
+			typeFingerprintsByProject.remove(project);
 		}
 		finally {
 			w.unlock();
@@ -142,7 +149,7 @@ public class TypeStructureCache implements ITypeStructureCache {
 						input = ((IFile) resource).getContents();
 						ClassFileReader reader = ClassFileReader.read(input, resource.getName());
 						TypeStructure typeStructure = new TypeStructure(reader);
-						typeStructures.put(new String(reader.getName()).replace('/', '.'), typeStructure);
+						typeStructures.put(TypeNamePool.intern(new String(reader.getName()).replace('/', '.')), typeStructure);
 					}
 					catch (CoreException e) {
 					}
@@ -213,6 +220,84 @@ public class TypeStructureCache implements ITypeStructureCache {
 		}
 	}
 
+	/**
+	 * Returns a fingerprint of the structure of the given type as currently compiled, including
+	 * the structure of its supertypes from the output locations of the project and its required
+	 * projects. Types from libraries contribute their names only.
+	 * <p>
+	 * Fingerprints are remembered per class file and only recalculated if the class file changed.
+	 */
+	public long getTypeStructureFingerprint(IProject project, String className) {
+		return getTypeStructureFingerprint(project, className, new HashSet<String>());
+	}
+
+	private long getTypeStructureFingerprint(IProject project, String className, Set<String> visitedTypes) {
+		if (className == null || className.startsWith("java.") || !visitedTypes.add(className)) {
+			return 0;
+		}
+
+		TypeFingerprint fingerprint = getTypeFingerprint(project, className);
+		if (fingerprint == null) {
+			return 0;
+		}
+
+		long result = fingerprint.structureHash;
+		result = 31 * result + getTypeStructureFingerprint(project, fingerprint.superclassName, visitedTypes);
+		for (String interfaceName : fingerprint.interfaceNames) {
+			result = 31 * result + getTypeStructureFingerprint(project, interfaceName, visitedTypes);
+		}
+		return result;
+	}
+
+	private TypeFingerprint getTypeFingerprint(IProject project, String className) {
+		Map<String, TypeFingerprint> fingerprints = typeFingerprintsByProject.get(project);
+		if (fingerprints == null) {
+			fingerprints = new ConcurrentHashMap<String, TypeFingerprint>();
+			typeFingerprintsByProject.put(project, fingerprints);
+		}
+
+		File classFile = null;
+		try {
+			classFile = getClassFile(className, project);
+			if (classFile == null) {
+				IJavaProject jp = JavaCore.create(project);
+				for (String requiredProjectName : jp.getRequiredProjectNames()) {
+					IProject requiredProject = ResourcesPlugin.getWorkspace().getRoot().getProject(requiredProjectName);
+					if (requiredProject.isAccessible()) {
+						classFile = getClassFile(className, requiredProject);
+						if (classFile != null) {
+							break;
+						}
+					}
+				}
+			}
+		}
+		catch (JavaModelException e) {
+		}
+		catch (MalformedURLException e) {
+		}
+
+		if (classFile == null) {
+			fingerprints.remove(className);
+			return null;
+		}
+
+		TypeFingerprint fingerprint = fingerprints.get(className);
+		if (fingerprint == null || !fingerprint.isCurrent(classFile)) {
+			try {
+				fingerprint = new TypeFingerprint(classFile, ClassFileReader.read(classFile));
+				fingerprints.put(TypeNamePool.intern(className), fingerprint);
+			}
+			catch (ClassFormatException e) {
+				return null;
+			}
+			catch (IOException e) {
+				return null;
+			}
+		}
+		return fingerprint;
+	}
+
 	/**
 	 * Removes cached type structures by the given className.
 	 */
@@ -243,11 +328,8 @@ public class TypeStructureCache implements ITypeStructureCache {
 
 	private static ClassFileReader getClassFileReaderForClassName(String className, IProject project)
 			throws JavaModelException, MalformedURLException {
-		IJavaProject jp = JavaCore.create(project);
-
-		File outputDirectory = convertPathToFile(project, jp.getOutputLocation());
-		File classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
-		if (classFile.exists() && classFile.canRead()) {
+		File classFile = getClassFile(className, project);
+		if (classFile != null) {
 			try {
 				return ClassFileReader.read(classFile);
 			}
@@ -256,6 +338,18 @@ public class TypeStructureCache implements ITypeStructureCache {
 			catch (IOException e) {
 			}
 		}
+		return null;
+	}
+
+	private static File getClassFile(String className, IProject project) throws JavaModelException,
+			MalformedURLException {
+		IJavaProject jp = JavaCore.create(project);
+
+		File outputDirectory = convertPathToFile(project, jp.getOutputLocation());
+		File classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
+		if (classFile.exists() && classFile.canRead()) {
+			return classFile;
+		}
 
 		IClasspathEntry[] classpath = jp.getRawClasspath();
 		for (int i = 0; i < classpath.length; i++) {
@@ -264,13 +358,7 @@ public class TypeStructureCache implements ITypeStructureCache {
 				outputDirectory = convertPathToFile(project, path.getOutputLocation());
 				classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
 				if (classFile.exists() && classFile.canRead()) {
-					try {
-						return ClassFileReader.read(classFile);
-					}
-					catch (ClassFormatException e) {
-					}
-					catch (IOException e) {
-					}
+					return classFile;
 				}
 			}
 		}
@@ -620,6 +708,137 @@ public class TypeStructureCache implements ITypeStructureCache {
 		return (eclipseModifiers == resolvedTypeModifiers);
 	}
 
+	/**
+	 * Structural fingerprint of a class file. Like the detection of structural changes it ignores
+	 * method bodies and the order of members.
+	 */
+	private static class TypeFingerprint {
+
+		private final long lastModified;
+
+		private final long length;
+
+		private final long structureHash;
+
+		private final String superclassName;
+
+		private final String[] interfaceNames;
+
+		public TypeFingerprint(File classFile, ClassFileReader reader) {
+			this.lastModified = classFile.lastModified();
+			this.length = classFile.length();
+
+			char[] superclass = reader.getSuperclassName();
+			this.superclassName = superclass != null ? TypeNamePool.intern(new String(superclass).replace('/', '.')) : null;
+
+			char[][] interfaces = reader.getInterfaceNames();
+			if (interfaces == null) {
+				interfaces = EMPTY_CHAR_ARRAY;
+			}
+			this.interfaceNames = new String[interfaces.length];
+			for (int i = 0; i < interfaces.length; i++) {
+				this.interfaceNames[i] = TypeNamePool.intern(new String(interfaces[i]).replace('/', '.'));
+			}
+
+			long hash = reader.getModifiers() & ExtraCompilerModifiers.AccJustFlag;
+			hash = 31 * hash + hashName(reader.getGenericSignature());
+			hash = 31 * hash + hashName(superclass);
+			for (char[] interfaceName : interfaces) {
+				hash = 31 * hash + hashName(interfaceName);
+			}
+			hash = 31 * hash + reader.getTagBits();
+			hash = 31 * hash + hashAnnotations(reader.getAnnotations());
+
+			IBinaryField[] fields = reader.getFields();
+			if (fields != null) {
+				long fieldsHash = 0;
+				for (IBinaryField field : fields) {
+					long fieldHash = hashName(field.getName());
+					fieldHash = 31 * fieldHash + (field.getModifiers() & ExtraCompilerModifiers.AccJustFlag);
+					fieldHash = 31 * fieldHash + hashName(field.getTypeName());
+					fieldHash = 31 * fieldHash + hashAnnotations(field.getAnnotations());
+					fieldsHash += fieldHash;
+				}
+				hash = 31 * hash + fieldsHash;
+			}
+
+			IBinaryMethod[] methods = reader.getMethods();
+			if (methods != null) {
+				long methodsHash = 0;
+				for (IBinaryMethod method : methods) {
+					long methodHash = hashName(method.getSelector());
+					methodHash = 31 * methodHash + hashName(method.getMethodDescriptor());
+					methodHash = 31 * methodHash + (method.getModifiers() & ExtraCompilerModifiers.AccJustFlag);
+					methodHash = 31 * methodHash + hashAnnotations(method.getAnnotations());
+					char[][] argumentNames = method.getArgumentNames();
+					int argumentCount = argumentNames != null ? argumentNames.length : 0;
+					for (int i = 0; i < argumentCount; i++) {
+						methodHash = 31 * methodHash + hashAnnotations(getParameterAnnotation(method, i, reader.getFileName()));
+					}
+					methodsHash += methodHash;
+				}
+				hash = 31 * hash + methodsHash;
+			}
+
+			this.structureHash = hash;
+		}
+
+		public boolean isCurrent(File classFile) {
+			return lastModified == classFile.lastModified() && length == classFile.length();
+		}
+
+		private static long hashName(char[] value) {
+			return value != null ? CharOperation.hashCode(value) : 0;
+		}
+
+		private static long hashAnnotations(IBinaryAnnotation[] annotations) {
+			long result = 0;
+			if (annotations != null) {
+				for (IBinaryAnnotation annotation : annotations) {
+					result += hashAnnotation(annotation);
+				}
+			}
+			return result;
+		}
+
+		private static long hashAnnotation(IBinaryAnnotation annotation) {
+			long result = hashName(annotation.getTypeName());
+			IBinaryElementValuePair[] pairs = annotation.getElementValuePairs();
+			if (pairs != null) {
+				for (IBinaryElementValuePair pair : pairs) {
+					result = 31 * result + hashName(pair.getName());
+					result = 31 * result + hashValue(pair.getValue());
+				}
+			}
+			return result;
+		}
+
+		private static long hashValue(Object value) {
+			if (value instanceof Object[]) {
+				long result = 1;
+				for (Object element : (Object[]) value) {
+					result = 31 * result + hashValue(element);
+				}
+				return result;
+			}
+			else if (value instanceof ClassSignature) {
+				return hashName(((ClassSignature) value).getTypeName());
+			}
+			else if (value instanceof Constant) {
+				return ((Constant) value).stringValue().hashCode();
+			}
+			else if (value instanceof EnumConstantSignature) {
+				return 31 * hashName(((EnumConstantSignature) value).getTypeName())
+						+ hashName(((EnumConstantSignature) value).getEnumConstantName());
+			}
+			else if (value instanceof IBinaryAnnotation) {
+				return hashAnnotation((IBinaryAnnotation) value);
+			}
+			return 0;
+		}
+
+	}
+
 	private class TypeRemovingJavaElementChangeListener implements IElementChangedListener {
 
 		public void elementChanged(ElementChangedEvent event) {
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+/**
+ * A {@link ClasspathElement} that represents a jar or zip file.
+ *
+ * @since 3.8.4
+ */
+public interface ClasspathElementArchive extends ClasspathElement {
+
+	public String getJarFileName();
+
+	/**
+	 * Checks if the archive contains the given package (using '/' as separator).
+	 */
+	public boolean containsPackage(String qualifiedPackageName);
+
+}
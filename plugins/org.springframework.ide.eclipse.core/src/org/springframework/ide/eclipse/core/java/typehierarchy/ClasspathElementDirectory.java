@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,8 @@ import java.io.InputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.ide.eclipse.core.SpringCore;
+
 /**
  * @author Martin Lippert
  * @since 3.3.0
@@ -45,6 +47,33 @@ public class ClasspathElementDirectory implements ClasspathElement {
 		}
 	}
 
+	/**
+	 * Reads the type hierarchy information of the given class, if this directory contains it.
+	 * @return the type hierarchy information or <code>null</code> if the class is not found in this directory
+	 */
+	public TypeHierarchyElement readTypeHierarchy(String fullyQualifiedClassFileName, String packageName, String classFileName) {
+		InputStream stream = null;
+		try {
+			stream = getStream(fullyQualifiedClassFileName, packageName, classFileName);
+			if (stream != null) {
+				return new BytecodeTypeHierarchyClassReader(null).readTypeHierarchy(stream);
+			}
+		}
+		catch (Exception e) {
+			SpringCore.log(e);
+		}
+		finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+					SpringCore.log(e);
+				}
+			}
+		}
+		return null;
+	}
+
 	public void cleanup() {
 		this.directoryCache.clear();
 	}
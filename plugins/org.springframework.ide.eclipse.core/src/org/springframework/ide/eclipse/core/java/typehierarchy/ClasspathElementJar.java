@@ -21,11 +21,13 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
+import org.springframework.ide.eclipse.core.java.TypeNamePool;
+
 /**
  * @author Martin Lippert
  * @since 3.3.0
  */
-public class ClasspathElementJar implements ClasspathElement {
+public class ClasspathElementJar implements ClasspathElementArchive {
 	
 	private JarFile jarFile;
 	private String jarFileName;
@@ -39,6 +41,7 @@ public class ClasspathElementJar implements ClasspathElement {
 	public InputStream getStream(String fullyQualifiedClassFileName, String packageName, String classFileName) throws Exception {
 		if (!isPackage(packageName)) return null;
 		
+		JarFile jarFile = getJarFile();
 		ZipEntry entry = jarFile.getEntry(fullyQualifiedClassFileName);
 		if (entry != null) {
 			return jarFile.getInputStream(entry);
@@ -61,19 +64,35 @@ public class ClasspathElementJar implements ClasspathElement {
 
 	public long lastModified() {
 		if (this.lastModified == 0)
-			this.lastModified = new File(this.jarFile.getName()).lastModified();
+			this.lastModified = new File(this.jarFileName).lastModified();
 		return this.lastModified;
 	}
 
+	public String getJarFileName() {
+		return jarFileName;
+	}
+
+	private synchronized JarFile getJarFile() throws IOException {
+		if (this.jarFile == null) {
+			this.jarFile = new JarFile(this.jarFileName);
+		}
+		return this.jarFile;
+	}
+
+	/**
+	 * Checks if the jar contains the given package (using '/' as separator) without opening
+	 * the jar file if the package names of the jar are already known.
+	 */
+	public boolean containsPackage(String qualifiedPackageName) {
+		return isPackage(qualifiedPackageName);
+	}
+
 	private boolean isPackage(String qualifiedPackageName) {
 		if (this.knownPackageNames != null)
 			return this.knownPackageNames.contains(qualifiedPackageName);
 
 		try {
 			synchronized(this) {
-				if (this.jarFile == null) {
-					this.jarFile = new JarFile(this.jarFileName);
-				}
 				this.knownPackageNames = findPackageSet();
 			}
 		} catch(Exception e) {
@@ -82,13 +101,15 @@ public class ClasspathElementJar implements ClasspathElement {
 		return this.knownPackageNames.contains(qualifiedPackageName);
 	}
 
-	private Set<String> findPackageSet() {
+	private Set<String> findPackageSet() throws IOException {
 		long lastModified = lastModified();
 		long fileSize = new File(jarFileName).length();
 		PackageCacheEntry cacheEntry = (PackageCacheEntry) PackageCache.get(jarFileName);
 		if (cacheEntry != null && cacheEntry.lastModified == lastModified && cacheEntry.fileSize == fileSize)
 			return cacheEntry.packageSet;
 		
+		// only open the jar file if the cached package set is outdated
+		JarFile jarFile = getJarFile();
 		Set<String> packageSet = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 		packageSet.add(""); //$NON-NLS-1$
 		nextEntry : for (Enumeration e = jarFile.entries(); e.hasMoreElements(); ) {
@@ -99,7 +120,7 @@ public class ClasspathElementJar implements ClasspathElement {
 			while (last > 0) {
 				// extract the package name
 				String packageName = fileName.substring(0, last);
-				if (!packageSet.add(packageName))
+				if (!packageSet.add(TypeNamePool.intern(packageName)))
 					continue nextEntry; // already existed
 				last = packageName.lastIndexOf('/');
 			}
@@ -0,0 +1,467 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.ide.eclipse.core.java.TypeNamePool;
+
+/**
+ * Jar file classpath element that memory-maps the jar instead of opening it via {@link java.util.jar.JarFile}.
+ * <p>
+ * The central directory is parsed once into an open-addressing hash table of entry names (which point
+ * into the mapped buffer, so names are never copied) and kept as long as the jar doesn't change.
+ * Streams read stored entries straight from the mapped buffer and inflate deflated entries lazily
+ * using a reusable {@link Inflater}, so only the bytes of the class header that are actually read
+ * get decompressed.
+ * <p>
+ * The mapping is dropped on {@link #cleanup()}, but is only unmapped by the garbage collector. Since
+ * mapped files are locked on some platforms, this reader is not enabled by default.
+ *
+ * @since 3.8.4
+ */
+public class ClasspathElementMappedJar implements ClasspathElementArchive {
+
+	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.core.java.enableMappedJarReader";
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final String jarFileName;
+
+	// parsed central directory, kept across cleanups as long as the jar doesn't change
+	private Directory directory;
+	private boolean invalid;
+
+	private ByteBuffer buffer;
+	private Inflater inflater;
+
+	public ClasspathElementMappedJar(String jarFileName) {
+		this.jarFileName = jarFileName;
+	}
+
+	/**
+	 * Creates a memory-mapped classpath element for the given jar file if enabled via
+	 * {@link #ENABLE_PROPERTY}, a {@link ClasspathElementJar} otherwise.
+	 */
+	public static ClasspathElementArchive createArchive(String jarFileName) {
+		if (System.getProperty(ENABLE_PROPERTY, "false").equals("true")) {
+			return new ClasspathElementMappedJar(jarFileName);
+		}
+		return new ClasspathElementJar(jarFileName);
+	}
+
+	public String getJarFileName() {
+		return jarFileName;
+	}
+
+	public synchronized boolean containsPackage(String qualifiedPackageName) {
+		Directory directory = getDirectory();
+		return directory != null && directory.packages.contains(qualifiedPackageName);
+	}
+
+	public synchronized InputStream getStream(String fullyQualifiedClassFileName, String packageName, String classFileName) throws Exception {
+		Directory directory = getDirectory();
+		if (directory == null || !directory.packages.contains(packageName)) return null;
+
+		int entry = directory.find(buffer, fullyQualifiedClassFileName);
+		if (entry < 0) return null;
+
+		int localHeaderOffset = directory.localHeaderOffsets[entry];
+		if (buffer.getInt(localHeaderOffset) != LOCAL_HEADER_SIGNATURE) return null;
+
+		int dataOffset = localHeaderOffset + 30 + (buffer.getShort(localHeaderOffset + 26) & 0xffff)
+				+ (buffer.getShort(localHeaderOffset + 28) & 0xffff);
+		ByteBuffer data = buffer.duplicate();
+		data.limit(dataOffset + directory.compressedSizes[entry]);
+		data.position(dataOffset);
+
+		switch (directory.methods[entry]) {
+			case STORED :
+				return new ByteBufferInputStream(data.slice(), false);
+			case DEFLATED :
+				return new EntryInflaterInputStream(new ByteBufferInputStream(data.slice(), true), acquireInflater());
+			default :
+				return null;
+		}
+	}
+
+	public synchronized void cleanup() {
+		this.buffer = null;
+		this.invalid = false;
+		if (this.inflater != null) {
+			this.inflater.end();
+			this.inflater = null;
+		}
+	}
+
+	/**
+	 * Returns the parsed central directory and makes sure the jar is mapped, or <code>null</code>
+	 * if the jar can't be read.
+	 */
+	private Directory getDirectory() {
+		if (buffer != null) {
+			return directory;
+		}
+		if (invalid) {
+			return null;
+		}
+
+		File file = new File(jarFileName);
+		long lastModified = file.lastModified();
+		long fileSize = file.length();
+
+		try {
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = randomAccessFile.getChannel();
+				if (channel.size() > Integer.MAX_VALUE) {
+					throw new IOException("jar file too large to be mapped: " + jarFileName);
+				}
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				buffer.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			finally {
+				randomAccessFile.close();
+			}
+
+			if (directory == null || directory.lastModified != lastModified || directory.fileSize != fileSize) {
+				directory = Directory.parse(buffer, lastModified, fileSize);
+			}
+			return directory;
+		}
+		catch (IOException e) {
+			// missing or broken jar file, treated as empty until the next cleanup
+			invalid = true;
+			buffer = null;
+			directory = null;
+			return null;
+		}
+	}
+
+	private synchronized Inflater acquireInflater() {
+		Inflater result = this.inflater;
+		if (result != null) {
+			this.inflater = null;
+			return result;
+		}
+		return new Inflater(true);
+	}
+
+	private synchronized void releaseInflater(Inflater inflater) {
+		if (this.inflater == null) {
+			inflater.reset();
+			this.inflater = inflater;
+		}
+		else {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Central directory of a jar file. Entry names are not copied, the hash table refers to their
+	 * offsets within the mapped buffer.
+	 */
+	private static class Directory {
+
+		private final long lastModified;
+		private final long fileSize;
+
+		private final int[] slots;
+		private final int[] hashes;
+		private final int[] nameOffsets;
+		private final int[] nameLengths;
+		private final int[] localHeaderOffsets;
+		private final int[] compressedSizes;
+		private final int[] methods;
+		private final Set<String> packages;
+
+		private Directory(long lastModified, long fileSize, int entryCount) {
+			this.lastModified = lastModified;
+			this.fileSize = fileSize;
+
+			int slotCount = 16;
+			while (slotCount < entryCount * 2) {
+				slotCount <<= 1;
+			}
+			this.slots = new int[slotCount];
+			this.hashes = new int[entryCount];
+			this.nameOffsets = new int[entryCount];
+			this.nameLengths = new int[entryCount];
+			this.localHeaderOffsets = new int[entryCount];
+			this.compressedSizes = new int[entryCount];
+			this.methods = new int[entryCount];
+			this.packages = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+			this.packages.add(""); //$NON-NLS-1$
+		}
+
+		public static Directory parse(ByteBuffer buffer, long lastModified, long fileSize) throws IOException {
+			int end = findEndOfCentralDirectory(buffer);
+			int entryCount = buffer.getShort(end + 10) & 0xffff;
+			int position = buffer.getInt(end + 16);
+			if (entryCount == 0xffff || position < 0) {
+				throw new IOException("zip64 archives are not supported");
+			}
+
+			Directory directory = new Directory(lastModified, fileSize, entryCount);
+			int previousPackageOffset = -1;
+			int previousPackageLength = -1;
+
+			for (int i = 0; i < entryCount; i++) {
+				if (buffer.getInt(position) != CENTRAL_DIRECTORY_SIGNATURE) {
+					throw new IOException("invalid central directory entry");
+				}
+				int nameLength = buffer.getShort(position + 28) & 0xffff;
+				int extraLength = buffer.getShort(position + 30) & 0xffff;
+				int commentLength = buffer.getShort(position + 32) & 0xffff;
+				int nameOffset = position + 46;
+
+				directory.methods[i] = buffer.getShort(position + 10) & 0xffff;
+				directory.compressedSizes[i] = buffer.getInt(position + 20);
+				directory.localHeaderOffsets[i] = buffer.getInt(position + 42);
+				directory.nameOffsets[i] = nameOffset;
+				directory.nameLengths[i] = nameLength;
+				directory.hashes[i] = hash(buffer, nameOffset, nameLength);
+				directory.insert(i);
+
+				// entries of a package are usually next to each other, only decode new package names
+				int packageLength = lastIndexOfSlash(buffer, nameOffset, nameLength);
+				if (packageLength > 0 && !(packageLength == previousPackageLength
+						&& equalBytes(buffer, nameOffset, previousPackageOffset, packageLength))) {
+					String packageName = decode(buffer, nameOffset, packageLength);
+					while (packageName.length() > 0 && directory.packages.add(TypeNamePool.intern(packageName))) {
+						packageName = packageName.substring(0, Math.max(packageName.lastIndexOf('/'), 0));
+					}
+					previousPackageOffset = nameOffset;
+					previousPackageLength = packageLength;
+				}
+
+				position = nameOffset + nameLength + extraLength + commentLength;
+			}
+			return directory;
+		}
+
+		/**
+		 * Returns the index of the entry with the given name or -1.
+		 */
+		public int find(ByteBuffer buffer, String name) {
+			byte[] encodedName = null;
+			for (int i = 0; i < name.length(); i++) {
+				if (name.charAt(i) >= 0x80) {
+					encodedName = name.getBytes(UTF8);
+					break;
+				}
+			}
+			int hash = encodedName != null ? hash(ByteBuffer.wrap(encodedName), 0, encodedName.length) : hash(name);
+
+			int mask = slots.length - 1;
+			for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+				int entry = slots[slot] - 1;
+				if (hashes[entry] == hash && (encodedName != null ? equalBytes(buffer, entry, encodedName) : equalChars(buffer, entry, name))) {
+					return entry;
+				}
+			}
+			return -1;
+		}
+
+		private void insert(int entry) {
+			int mask = slots.length - 1;
+			int slot = hashes[entry] & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = entry + 1;
+		}
+
+		private boolean equalChars(ByteBuffer buffer, int entry, String name) {
+			int length = nameLengths[entry];
+			if (length != name.length()) {
+				return false;
+			}
+			int offset = nameOffsets[entry];
+			for (int i = 0; i < length; i++) {
+				if (buffer.get(offset + i) != name.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean equalBytes(ByteBuffer buffer, int entry, byte[] name) {
+			int length = nameLengths[entry];
+			if (length != name.length) {
+				return false;
+			}
+			int offset = nameOffsets[entry];
+			for (int i = 0; i < length; i++) {
+				if (buffer.get(offset + i) != name[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int hash(String name) {
+			int h = 0;
+			for (int i = 0; i < name.length(); i++) {
+				h = 31 * h + name.charAt(i);
+			}
+			return h ^ (h >>> 16);
+		}
+
+		private static int hash(ByteBuffer buffer, int offset, int length) {
+			int h = 0;
+			for (int i = 0; i < length; i++) {
+				h = 31 * h + (buffer.get(offset + i) & 0xff);
+			}
+			return h ^ (h >>> 16);
+		}
+
+		private static int findEndOfCentralDirectory(ByteBuffer buffer) throws IOException {
+			int lowest = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - 0xffff);
+			for (int i = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; i >= lowest; i--) {
+				if (buffer.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+					return i;
+				}
+			}
+			throw new IOException("end of central directory not found");
+		}
+
+		private static int lastIndexOfSlash(ByteBuffer buffer, int offset, int length) {
+			for (int i = length - 1; i >= 0; i--) {
+				if (buffer.get(offset + i) == '/') {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private static boolean equalBytes(ByteBuffer buffer, int offset, int otherOffset, int length) {
+			for (int i = 0; i < length; i++) {
+				if (buffer.get(offset + i) != buffer.get(otherOffset + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static String decode(ByteBuffer buffer, int offset, int length) {
+			byte[] bytes = new byte[length];
+			for (int i = 0; i < length; i++) {
+				bytes[i] = buffer.get(offset + i);
+			}
+			return new String(bytes, UTF8);
+		}
+
+	}
+
+	/**
+	 * Inflates an entry lazily and hands the inflater back for reuse when closed.
+	 */
+	private class EntryInflaterInputStream extends InflaterInputStream {
+
+		private boolean released;
+
+		public EntryInflaterInputStream(InputStream in, Inflater inflater) {
+			super(in, inflater, 1024);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!released) {
+				released = true;
+				super.close();
+				releaseInflater(inf);
+			}
+		}
+
+	}
+
+	/**
+	 * Stream on a slice of the mapped jar file.
+	 * <p>
+	 * An {@link Inflater} in 'nowrap' mode needs an extra dummy byte after the compressed data
+	 * (see {@link Inflater#Inflater(boolean)}), so streams of deflated entries end with an extra zero byte.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+		private boolean dummyByte;
+
+		public ByteBufferInputStream(ByteBuffer buffer, boolean dummyByte) {
+			this.buffer = buffer;
+			this.dummyByte = dummyByte;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (buffer.hasRemaining()) {
+				return buffer.get() & 0xff;
+			}
+			if (dummyByte) {
+				dummyByte = false;
+				return 0;
+			}
+			return -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				if (dummyByte) {
+					dummyByte = false;
+					bytes[offset] = 0;
+					return 1;
+				}
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + count);
+			return count;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return buffer.remaining() + (dummyByte ? 1 : 0);
+		}
+
+	}
+
+}
@@ -43,7 +43,7 @@ public class ClasspathLookupDirect implements ClasspathLookup {
 				if (url.toString().endsWith(".jar")) {
 					try {
 						String path = url.toURI().getPath();
-						locations.add(new ClasspathElementJar(path));
+						locations.add(ClasspathElementMappedJar.createArchive(path));
 						usedURLs.add(url);
 					} catch (Exception e) {
 						SpringCore.log(e);
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable bit set that stores only the non-empty 64 bit words of a sparse {@link BitSet}.
+ * Used to keep the transitive supertypes of a type, which are usually very few bits spread
+ * over a large range of type ids.
+ *
+ * @since 3.8.4
+ */
+public class CompressedBitSet {
+
+	public static final CompressedBitSet EMPTY = new CompressedBitSet(new int[0], new long[0]);
+
+	private final int[] wordIndices;
+	private final long[] words;
+
+	private CompressedBitSet(int[] wordIndices, long[] words) {
+		this.wordIndices = wordIndices;
+		this.words = words;
+	}
+
+	public static CompressedBitSet valueOf(BitSet bits) {
+		long[] allWords = bits.toLongArray();
+
+		int count = 0;
+		for (long word : allWords) {
+			if (word != 0) count++;
+		}
+		if (count == 0) {
+			return EMPTY;
+		}
+
+		int[] wordIndices = new int[count];
+		long[] words = new long[count];
+		int j = 0;
+		for (int i = 0; i < allWords.length; i++) {
+			if (allWords[i] != 0) {
+				wordIndices[j] = i;
+				words[j] = allWords[i];
+				j++;
+			}
+		}
+		return new CompressedBitSet(wordIndices, words);
+	}
+
+	public boolean get(int bitIndex) {
+		if (bitIndex < 0) {
+			return false;
+		}
+		int word = Arrays.binarySearch(wordIndices, bitIndex >>> 6);
+		return word >= 0 && (words[word] & (1L << bitIndex)) != 0;
+	}
+
+	/**
+	 * Sets all bits of this set in the given target.
+	 */
+	public void addTo(BitSet target) {
+		for (int i = 0; i < words.length; i++) {
+			long word = words[i];
+			int base = wordIndices[i] << 6;
+			while (word != 0) {
+				int bit = Long.numberOfTrailingZeros(word);
+				target.set(base + bit);
+				word &= word - 1;
+			}
+		}
+	}
+
+	public int cardinality() {
+		int result = 0;
+		for (long word : words) {
+			result += Long.bitCount(word);
+		}
+		return result;
+	}
+
+}
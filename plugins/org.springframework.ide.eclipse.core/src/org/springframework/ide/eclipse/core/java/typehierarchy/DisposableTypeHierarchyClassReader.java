@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+/**
+ * Class reader that holds on to resources beyond single lookups. The engine disposes these
+ * readers when the cache of the project is cleared.
+ *
+ * @since 3.8.4
+ */
+public interface DisposableTypeHierarchyClassReader extends TypeHierarchyClassReader {
+
+	public void dispose();
+
+	/**
+	 * Returns <code>false</code> if the information this reader holds on to is outdated,
+	 * for example because a jar on the classpath changed.
+	 */
+	public boolean isUpToDate();
+
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import org.eclipse.core.resources.IProject;
+
+/**
+ * Class reader that walks the classpath of a project in order. Classes inside of jar files are
+ * answered from the persistent {@link TypeHierarchyIndex} of each jar, classes inside of
+ * directories (e.g. output folders) are read directly, and all other requests (e.g. for JRE
+ * classes) are delegated to a fallback reader.
+ *
+ * @since 3.8.4
+ */
+public class IndexedTypeHierarchyClassReader implements TypeHierarchyClassReader {
+
+	private final TypeHierarchyIndexStore store;
+	private final Object[] classpath;
+	private final TypeHierarchyClassReader fallbackReader;
+
+	// resolved lazily, kept until the reader is thrown away by the engine
+	private final TypeHierarchyIndex[] indexes;
+	private final boolean[] resolved;
+
+	/**
+	 * @param classpath jar file names and {@link ClasspathElementDirectory}s, in classpath order
+	 * @param fallbackReader reader for the classes that are not found on the given classpath, and
+	 * for all classes of jars that could not be indexed
+	 */
+	public IndexedTypeHierarchyClassReader(TypeHierarchyIndexStore store, Object[] classpath, TypeHierarchyClassReader fallbackReader) {
+		this.store = store;
+		this.classpath = classpath;
+		this.fallbackReader = fallbackReader;
+		this.indexes = new TypeHierarchyIndex[classpath.length];
+		this.resolved = new boolean[classpath.length];
+	}
+
+	public TypeHierarchyElement readTypeHierarchyInformation(char[] fullyQualifiedClassName, IProject project) {
+		TypeHierarchyIndex.Key key = null;
+		String fullyQualifiedClassFileName = null;
+		String packageName = null;
+		String classFileName = null;
+
+		for (int i = 0; i < classpath.length; i++) {
+			if (classpath[i] instanceof String) {
+				TypeHierarchyIndex index = getIndex(i);
+				if (index == null) {
+					// the fallback reader walks the whole classpath in order, so it finds the same class
+					// we would have found from here on
+					break;
+				}
+				if (key == null) {
+					key = new TypeHierarchyIndex.Key(fullyQualifiedClassName);
+				}
+				TypeHierarchyElement element = index.get(key);
+				if (element != null) {
+					return element;
+				}
+			}
+			else {
+				if (fullyQualifiedClassFileName == null) {
+					fullyQualifiedClassFileName = new String(fullyQualifiedClassName) + ".class";
+					packageName = "";
+					classFileName = fullyQualifiedClassFileName;
+
+					int lastIndexOf = fullyQualifiedClassFileName.lastIndexOf('/');
+					if (lastIndexOf > -1) {
+						packageName = fullyQualifiedClassFileName.substring(0, lastIndexOf);
+						classFileName = fullyQualifiedClassFileName.substring(lastIndexOf + 1);
+					}
+				}
+				TypeHierarchyElement element = ((ClasspathElementDirectory) classpath[i]).readTypeHierarchy(fullyQualifiedClassFileName, packageName, classFileName);
+				if (element != null) {
+					return element;
+				}
+			}
+		}
+		return fallbackReader.readTypeHierarchyInformation(fullyQualifiedClassName, project);
+	}
+
+	public void cleanup() {
+		for (Object entry : classpath) {
+			if (entry instanceof ClasspathElementDirectory) {
+				((ClasspathElementDirectory) entry).cleanup();
+			}
+		}
+		fallbackReader.cleanup();
+	}
+
+	private TypeHierarchyIndex getIndex(int i) {
+		synchronized (resolved) {
+			if (!resolved[i]) {
+				indexes[i] = store.getIndex((String) classpath[i]);
+				resolved[i] = true;
+			}
+			return indexes[i];
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
+
+/**
+ * Creates {@link IndexedTypeHierarchyClassReader}s that use the persistent jar indexes of the
+ * given {@link TypeHierarchyIndexStore} for all jar files on the classpath of a project, and
+ * read the classes of its directories (e.g. output folders) at their position on the classpath.
+ *
+ * @since 3.8.4
+ */
+public class IndexedTypeHierarchyClassReaderFactory implements TypeHierarchyClassReaderFactory {
+
+	private final TypeHierarchyIndexStore store;
+	private final TypeHierarchyClassReaderFactory fallbackReaderFactory;
+
+	public IndexedTypeHierarchyClassReaderFactory(TypeHierarchyIndexStore store) {
+		this.store = store;
+		this.fallbackReaderFactory = new BytecodeTypeHierarchyClassReaderFactory();
+	}
+
+	public TypeHierarchyClassReader createClassReader(IProject project) {
+		List<URL> urls = ProjectClassLoaderCache.getClassPathUrls(project, null);
+
+		List<Object> classpath = new ArrayList<Object>();
+		Set<String> paths = new HashSet<String>();
+		for (URL url : urls) {
+			try {
+				File file = new File(url.toURI());
+				if (!paths.add(file.getAbsolutePath())) {
+					continue;
+				}
+
+				if (file.isDirectory()) {
+					classpath.add(new ClasspathElementDirectory(file));
+				}
+				else if (file.isFile() && (file.getName().endsWith(".jar") || file.getName().endsWith(".zip"))) {
+					classpath.add(file.getAbsolutePath());
+				}
+			} catch (Exception e) {
+				SpringCore.log(e);
+			}
+		}
+
+		TypeHierarchyClassReader fallbackReader = fallbackReaderFactory.createClassReader(project);
+		return new IndexedTypeHierarchyClassReader(store, classpath.toArray(), fallbackReader);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.net.URL;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
+import org.springframework.ide.eclipse.core.java.typehierarchy.SharedJarTypeHierarchyStore.JarLayer;
+
+/**
+ * Class reader that walks the classpath of a project in order. Classes inside of jar files are
+ * answered by the {@link JarLayer}s of a {@link SharedJarTypeHierarchyStore}, so that their type
+ * hierarchy elements are shared with all other projects using the same jars. Classes inside of
+ * directories (e.g. output folders) are read per project, everything else (e.g. JRE classes) is
+ * delegated to a fallback reader.
+ *
+ * @since 3.8.4
+ */
+public class SharedJarTypeHierarchyClassReader implements DisposableTypeHierarchyClassReader {
+
+	private final SharedJarTypeHierarchyStore store;
+	private final IProject project;
+	private final List<URL> classpathUrls;
+	private final Object[] classpath;
+	private final TypeHierarchyClassReader fallbackReader;
+	private boolean disposed;
+
+	/**
+	 * @param classpathUrls the classpath of the project the reader was created for
+	 * @param classpath {@link JarLayer}s acquired from the given store and {@link ClasspathElementDirectory}s,
+	 * in classpath order. The layers are released when the reader is disposed.
+	 */
+	public SharedJarTypeHierarchyClassReader(SharedJarTypeHierarchyStore store, IProject project, List<URL> classpathUrls,
+			Object[] classpath, TypeHierarchyClassReader fallbackReader) {
+		this.store = store;
+		this.project = project;
+		this.classpathUrls = classpathUrls;
+		this.classpath = classpath;
+		this.fallbackReader = fallbackReader;
+	}
+
+	public TypeHierarchyElement readTypeHierarchyInformation(char[] fullyQualifiedClassName, IProject project) {
+		String fullyQualifiedName = new String(fullyQualifiedClassName);
+		String fullyQualifiedClassFileName = fullyQualifiedName + ".class";
+
+		String packageName = "";
+		String classFileName = fullyQualifiedClassFileName;
+
+		int lastIndexOf = fullyQualifiedClassFileName.lastIndexOf('/');
+		if (lastIndexOf > -1) {
+			packageName = fullyQualifiedClassFileName.substring(0, lastIndexOf);
+			classFileName = fullyQualifiedClassFileName.substring(lastIndexOf + 1);
+		}
+
+		for (Object entry : classpath) {
+			if (entry instanceof JarLayer) {
+				TypeHierarchyElement element = ((JarLayer) entry).get(fullyQualifiedName, packageName, classFileName);
+				if (element != null) {
+					return element;
+				}
+			}
+			else {
+				TypeHierarchyElement element = ((ClasspathElementDirectory) entry).readTypeHierarchy(fullyQualifiedClassFileName, packageName, classFileName);
+				if (element != null) {
+					return element;
+				}
+			}
+		}
+
+		return fallbackReader.readTypeHierarchyInformation(fullyQualifiedClassName, project);
+	}
+
+	public void cleanup() {
+		for (Object entry : classpath) {
+			if (entry instanceof JarLayer) {
+				((JarLayer) entry).cleanup();
+			}
+			else {
+				((ClasspathElementDirectory) entry).cleanup();
+			}
+		}
+		fallbackReader.cleanup();
+	}
+
+	public boolean isUpToDate() {
+		if (!project.isAccessible() || !classpathUrls.equals(ProjectClassLoaderCache.getClassPathUrls(project, null))) {
+			return false;
+		}
+		for (Object entry : classpath) {
+			if (entry instanceof JarLayer && !((JarLayer) entry).isUpToDate()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public synchronized void dispose() {
+		if (!disposed) {
+			disposed = true;
+			for (Object entry : classpath) {
+				if (entry instanceof JarLayer) {
+					store.release((JarLayer) entry);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.TypeNamePool;
+
+/**
+ * Reference counted store of type hierarchy information of jar files that is shared between
+ * projects. Each jar is represented by a {@link JarLayer}, keyed by the canonical path and the
+ * last modification time of the jar, so that projects that have the same jar on their classpath
+ * read and hold the hierarchy information of the jar only once.
+ *
+ * @since 3.8.4
+ */
+public class SharedJarTypeHierarchyStore {
+
+	private final Map<String, JarLayer> layers;
+	private final TypeHierarchyIndexStore indexStore;
+
+	/**
+	 * @param indexStore optional store of persistent jar indexes, used to read the information of
+	 * a jar if available, may be <code>null</code>
+	 */
+	public SharedJarTypeHierarchyStore(TypeHierarchyIndexStore indexStore) {
+		this.layers = new HashMap<String, JarLayer>();
+		this.indexStore = indexStore;
+	}
+
+	/**
+	 * Returns the layer for the given jar file and increments its reference count. Each call
+	 * needs to be balanced by a call to {@link #release(JarLayer)}.
+	 */
+	public JarLayer acquire(String jarFileName) {
+		File jarFile = new File(jarFileName);
+		String canonicalPath;
+		try {
+			canonicalPath = jarFile.getCanonicalPath();
+		} catch (IOException e) {
+			canonicalPath = jarFile.getAbsolutePath();
+		}
+		long lastModified = jarFile.lastModified();
+		String key = canonicalPath + "@" + lastModified;
+
+		synchronized (layers) {
+			JarLayer layer = layers.get(key);
+			if (layer == null) {
+				layer = new JarLayer(key, canonicalPath, lastModified);
+				layers.put(key, layer);
+			}
+			layer.referenceCount++;
+			return layer;
+		}
+	}
+
+	public void release(JarLayer layer) {
+		synchronized (layers) {
+			if (--layer.referenceCount == 0) {
+				layers.remove(layer.key);
+				layer.jar.cleanup();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of jars that are currently shared.
+	 */
+	public int size() {
+		synchronized (layers) {
+			return layers.size();
+		}
+	}
+
+	/**
+	 * Type hierarchy information of a single jar file.
+	 */
+	public class JarLayer {
+
+		private final String key;
+		private final long lastModified;
+		private final ClasspathElementArchive jar;
+		private final Map<String, TypeHierarchyElement> elements;
+		private final Set<String> missingElements;
+		private int referenceCount;
+
+		private TypeHierarchyIndex index;
+		private boolean indexResolved;
+
+		private JarLayer(String key, String jarFileName, long lastModified) {
+			this.key = key;
+			this.lastModified = lastModified;
+			this.jar = ClasspathElementMappedJar.createArchive(jarFileName);
+			this.elements = new ConcurrentHashMap<String, TypeHierarchyElement>();
+			this.missingElements = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		}
+
+		public String getJarFileName() {
+			return jar.getJarFileName();
+		}
+
+		/**
+		 * Returns <code>false</code> if the jar file changed since this layer was created.
+		 */
+		public boolean isUpToDate() {
+			return new File(getJarFileName()).lastModified() == lastModified;
+		}
+
+		/**
+		 * Returns the type hierarchy element of the given class (using '/' as package separator)
+		 * or <code>null</code> if this jar doesn't contain the class.
+		 */
+		public TypeHierarchyElement get(String fullyQualifiedClassName, String packageName, String classFileName) {
+			TypeHierarchyElement result = elements.get(fullyQualifiedClassName);
+			if (result != null || missingElements.contains(fullyQualifiedClassName)) {
+				return result;
+			}
+
+			TypeHierarchyIndex index = getIndex();
+			if (index != null) {
+				// the index answers misses without touching the jar, no need to remember them
+				TypeHierarchyElement element = index.get(fullyQualifiedClassName.toCharArray());
+				if (element != null) {
+					result = share(element);
+					elements.put(TypeNamePool.intern(fullyQualifiedClassName), result);
+				}
+				return result;
+			}
+
+			synchronized (jar) {
+				if (!jar.containsPackage(packageName)) {
+					return null;
+				}
+
+				InputStream stream = null;
+				try {
+					stream = jar.getStream(fullyQualifiedClassName + ".class", packageName, classFileName);
+					if (stream != null) {
+						TypeHierarchyElement element = new BytecodeTypeHierarchyClassReader(null).readTypeHierarchy(stream);
+						if (element != null) {
+							result = share(element);
+						}
+					}
+				}
+				catch (Exception e) {
+					SpringCore.log(e);
+				}
+				finally {
+					if (stream != null) {
+						try {
+							stream.close();
+						} catch (IOException e) {
+						}
+					}
+				}
+			}
+
+			if (result != null) {
+				elements.put(TypeNamePool.intern(fullyQualifiedClassName), result);
+			}
+			else {
+				missingElements.add(TypeNamePool.intern(fullyQualifiedClassName));
+			}
+			return result;
+		}
+
+		/**
+		 * Closes the jar file, cached elements are kept.
+		 */
+		public void cleanup() {
+			synchronized (jar) {
+				jar.cleanup();
+			}
+		}
+
+		private TypeHierarchyElement share(TypeHierarchyElement element) {
+			return new SharedTypeHierarchyElement(this, element.className, element.superclassName, element.interfaces);
+		}
+
+		private synchronized TypeHierarchyIndex getIndex() {
+			if (!indexResolved && indexStore != null) {
+				index = indexStore.getIndex(getJarFileName());
+			}
+			indexResolved = true;
+			return index;
+		}
+
+	}
+
+}
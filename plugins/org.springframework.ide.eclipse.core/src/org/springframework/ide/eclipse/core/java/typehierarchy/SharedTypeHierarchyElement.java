@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+/**
+ * Type hierarchy element of a class inside a jar file that is shared between all projects
+ * that have the same jar on their classpath.
+ * <p>
+ * The lazily set superclass and interface links of shared elements are only set to elements
+ * of the same jar, types from other classpath entries are always resolved through the
+ * classpath of the project that asks.
+ *
+ * @since 3.8.4
+ */
+public class SharedTypeHierarchyElement extends TypeHierarchyElement {
+
+	private final Object layer;
+
+	public SharedTypeHierarchyElement(Object layer, char[] className, char[] superclassName, char[][] interfaces) {
+		super(className, superclassName, interfaces);
+		this.layer = layer;
+	}
+
+	/**
+	 * Returns the identity of the shared jar this element belongs to.
+	 */
+	public Object getLayer() {
+		return layer;
+	}
+
+}
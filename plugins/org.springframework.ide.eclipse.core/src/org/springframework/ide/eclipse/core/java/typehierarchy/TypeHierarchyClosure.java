@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.ide.eclipse.core.java.TypeNamePool;
+
+/**
+ * Precomputed transitive supertype information of the types of a single project.
+ * Every type name is interned to an integer id, and each type keeps a {@link CompressedBitSet}
+ * of all its superclasses (including itself) and one of all its (transitively) implemented
+ * interfaces, so that subtype checks become simple bit tests.
+ *
+ * @since 3.8.4
+ */
+public class TypeHierarchyClosure {
+
+	private final ConcurrentHashMap<String, Integer> ids;
+	private final AtomicInteger nextId;
+	private final ConcurrentHashMap<String, TypeClosure> closures;
+
+	public TypeHierarchyClosure() {
+		this.ids = new ConcurrentHashMap<String, Integer>();
+		this.nextId = new AtomicInteger();
+		this.closures = new ConcurrentHashMap<String, TypeClosure>();
+	}
+
+	/**
+	 * Returns the id for the given type name, assigning a new one if necessary.
+	 */
+	public int intern(String typeName) {
+		Integer id = ids.get(typeName);
+		if (id == null) {
+			Integer newId = nextId.getAndIncrement();
+			id = ids.putIfAbsent(TypeNamePool.intern(typeName), newId);
+			if (id == null) {
+				id = newId;
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of the given type name or -1 if this type name hasn't been seen so far.
+	 */
+	public int getId(String typeName) {
+		Integer id = ids.get(typeName);
+		return id != null ? id : -1;
+	}
+
+	public TypeClosure get(String typeName) {
+		return closures.get(typeName);
+	}
+
+	public void put(String typeName, TypeClosure closure) {
+		closures.put(typeName, closure);
+	}
+
+	public int size() {
+		return closures.size();
+	}
+
+	public static class TypeClosure {
+
+		public final CompressedBitSet superclasses;
+		public final CompressedBitSet interfaces;
+
+		public TypeClosure(CompressedBitSet superclasses, CompressedBitSet interfaces) {
+			this.superclasses = superclasses;
+			this.interfaces = interfaces;
+		}
+
+	}
+
+}
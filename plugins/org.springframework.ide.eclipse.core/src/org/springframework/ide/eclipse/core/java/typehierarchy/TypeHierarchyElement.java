@@ -12,9 +12,14 @@ package org.springframework.ide.eclipse.core.java.typehierarchy;
 
 import java.util.Arrays;
 
+import org.springframework.ide.eclipse.core.java.TypeNamePool;
+
 /**
  * Implementation that can hold type hierarchy information about Java class files.
  * Used to check if classes are related to each other in terms of their types.
+ * <p>
+ * All names are canonicalized through the {@link TypeNamePool}, so that elements of different
+ * projects share the same name instances.
  * 
  * @author Martin Lippert
  * @since 3.3.0
@@ -30,10 +35,10 @@ public class TypeHierarchyElement {
 	
 	public TypeHierarchyElement(char[] className, char[] superclassName, char[][] interfaces) {
 		super();
-		this.className = className;
-		this.superclassName = superclassName;
+		this.className = TypeNamePool.intern(className);
+		this.superclassName = TypeNamePool.intern(superclassName);
 		
-		this.interfaces = interfaces;
+		this.interfaces = TypeNamePool.intern(interfaces);
 		if (this.interfaces != null) {
 			this.interfacesElements = new TypeHierarchyElement[this.interfaces.length];
 		}
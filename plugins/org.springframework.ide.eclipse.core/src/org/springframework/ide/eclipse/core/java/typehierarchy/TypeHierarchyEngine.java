@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,14 +11,21 @@
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
 import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.compiler.CharOperation;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClosure.TypeClosure;
 
 /**
  * @author Martin Lippert
@@ -27,19 +34,25 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 public class TypeHierarchyEngine {
 	
 	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.core.java.enableTypeHierarchyEngine";
+	public static final String CLOSURE_PROPERTY = "org.springframework.ide.eclipse.core.java.enableTypeHierarchyClosure";
 	
 	private TypeHierarchyClassReaderFactory classReaderFactory;
 	private TypeHierarchyElementCacheFactory elementCacheFactory;
 
 	private final Map<IProject, TypeHierarchyElementCache> cache;
-	private final Map<IProject, TypeHierarchyClassReader> readers;
+	private final ConcurrentMap<IProject, TypeHierarchyClassReader> readers;
+	private final ConcurrentMap<IProject, TypeHierarchyClosure> closures;
 
 	private final boolean autoCleanup;
+	private final AtomicInteger autoCleanupSuspensions;
+	private boolean closureMode;
 	
 	public TypeHierarchyEngine(boolean autoCleanup) {
 		this.autoCleanup = autoCleanup;
+		this.autoCleanupSuspensions = new AtomicInteger();
 		this.cache = new ConcurrentHashMap<IProject, TypeHierarchyElementCache>();
 		this.readers = new ConcurrentHashMap<IProject, TypeHierarchyClassReader>();
+		this.closures = new ConcurrentHashMap<IProject, TypeHierarchyClosure>();
 	}
 
 	public void setClassReaderFactory(TypeHierarchyClassReaderFactory classReaderFactory) {
@@ -50,6 +63,20 @@ public class TypeHierarchyEngine {
 		this.elementCacheFactory = elementCacheFactory;
 	}
 	
+	/**
+	 * In closure mode the engine computes the transitive supertypes of each type once and
+	 * answers {@link #doesExtend(String, String, IProject)} and {@link #doesImplement(String, String, IProject)}
+	 * with simple bit tests afterwards.
+	 */
+	public void setClosureMode(boolean closureMode) {
+		this.closureMode = closureMode;
+		this.closures.clear();
+	}
+	
+	public boolean isClosureMode() {
+		return closureMode;
+	}
+	
 	public void cleanup(IProject project) {
 		TypeHierarchyClassReader reader = this.readers.get(project);
 		if (reader != null) {
@@ -63,10 +90,41 @@ public class TypeHierarchyEngine {
 		}
 	}
 
+	/**
+	 * Suspends the cleanup after each query while several threads use the engine at the same time,
+	 * as the cleanup closes the class reader of a project that other threads might still read from.
+	 * Each call has to be paired with {@link #resumeAutoCleanup()}.
+	 * @since 3.8.4
+	 */
+	public void suspendAutoCleanup() {
+		this.autoCleanupSuspensions.incrementAndGet();
+	}
+
+	/**
+	 * Ends a suspension started by {@link #suspendAutoCleanup()} and cleans up all projects once the
+	 * last suspension ended.
+	 * @since 3.8.4
+	 */
+	public void resumeAutoCleanup() {
+		if (this.autoCleanupSuspensions.decrementAndGet() == 0 && autoCleanup) {
+			cleanup();
+		}
+	}
+
+	private void cleanupAfterQuery(IProject project) {
+		if (autoCleanup && this.autoCleanupSuspensions.get() == 0) {
+			cleanup(project);
+		}
+	}
+
 	public void clearCache(IProject project) {
 		cleanup(project);
-		this.readers.remove(project);
+		TypeHierarchyClassReader reader = this.readers.remove(project);
+		if (reader instanceof DisposableTypeHierarchyClassReader) {
+			((DisposableTypeHierarchyClassReader) reader).dispose();
+		}
 		this.cache.remove(project);
+		this.closures.remove(project);
 	}
 	
 	public void clearCache() {
@@ -75,6 +133,23 @@ public class TypeHierarchyEngine {
 		}
 	}
 
+	/**
+	 * Clears the cached elements of the given project, for example because its classes are about to be rebuilt.
+	 * Unlike {@link #clearCache(IProject)} this keeps the class reader of the project (and the shared jar
+	 * information it holds on to) as long as the reader is still up to date.
+	 */
+	public void clearElementCache(IProject project) {
+		TypeHierarchyClassReader reader = this.readers.get(project);
+		if (reader instanceof DisposableTypeHierarchyClassReader && ((DisposableTypeHierarchyClassReader) reader).isUpToDate()) {
+			cleanup(project);
+			this.cache.remove(project);
+			this.closures.remove(project);
+		}
+		else {
+			clearCache(project);
+		}
+	}
+
 	public String getSupertype(IType type) {
 		IJavaElement ancestor = type.getAncestor(IJavaElement.JAVA_PROJECT);
 		if (ancestor != null && ancestor instanceof IJavaProject) {
@@ -94,7 +169,7 @@ public class TypeHierarchyEngine {
 			}
 		}
 		finally {
-			if (autoCleanup) cleanup(project);
+			cleanupAfterQuery(project);
 		}
 		return null;
 	}
@@ -113,7 +188,7 @@ public class TypeHierarchyEngine {
 			}
 		}
 		finally {
-			if (autoCleanup) cleanup(project);
+			cleanupAfterQuery(project);
 		}
 		return null;
 	}
@@ -128,6 +203,10 @@ public class TypeHierarchyEngine {
 	}
 	
 	public boolean doesExtend(String type, String className, IProject project) {
+		if (closureMode) {
+			return doesExtendUsingClosure(type, className, project);
+		}
+
 		char[] typeName = type.replace('.', '/').toCharArray();
 		char[] superTypeName = className.replace('.',  '/').toCharArray();
 	
@@ -144,7 +223,7 @@ public class TypeHierarchyEngine {
 				else {
 					if (typeElement == null) {
 						typeElement = getTypeElement(typeName, project, elementCache);
-						if (previousTypeElement != null) {
+						if (previousTypeElement != null && canLink(previousTypeElement, typeElement)) {
 							previousTypeElement.superclassElement = typeElement;
 						}
 					}
@@ -161,7 +240,7 @@ public class TypeHierarchyEngine {
 			} while (typeName != null);
 		}
 		finally {
-			if (autoCleanup) cleanup(project);
+			cleanupAfterQuery(project);
 		}
 		return false;
 	}
@@ -176,6 +255,10 @@ public class TypeHierarchyEngine {
 	}
 	
 	public boolean doesImplement(final String type, final String interfaceName, IProject project) {
+		if (closureMode) {
+			return doesImplementUsingClosure(type, interfaceName, project);
+		}
+
 		char[] classTypeName = type.replace('.', '/').toCharArray();
 		char[] interfaceTypeName = interfaceName.replace('.',  '/').toCharArray();
 
@@ -188,7 +271,7 @@ public class TypeHierarchyEngine {
 			return result;
 		}
 		finally {
-			if (autoCleanup) cleanup(project);
+			cleanupAfterQuery(project);
 		}
 	}
 
@@ -217,7 +300,9 @@ public class TypeHierarchyEngine {
 							if (!cachedItemsOnly || interfaceToAnalyzeElement != null || elementCache.get(interfaceToAnalyze) != null) {
 								if (interfaceToAnalyzeElement == null) {
 									interfaceToAnalyzeElement = getTypeElement(interfaceToAnalyze, project, elementCache);
-									element.interfacesElements[i] = interfaceToAnalyzeElement;
+									if (canLink(element, interfaceToAnalyzeElement)) {
+										element.interfacesElements[i] = interfaceToAnalyzeElement;
+									}
 								}
 								if (interfaceToAnalyzeElement != null && interfaceToAnalyzeElement.interfaces != null) {
 									elementStack.add(interfaceToAnalyzeElement);
@@ -232,7 +317,9 @@ public class TypeHierarchyEngine {
 				TypeHierarchyElement superClassTypeElement = classTypeElement.superclassElement;
 				if (superClassTypeElement == null && classTypeName != null && (!cachedItemsOnly || elementCache.get(classTypeName) != null)) {
 					superClassTypeElement = getTypeElement(classTypeName, project, elementCache);
-					classTypeElement.superclassElement = superClassTypeElement;
+					if (canLink(classTypeElement, superClassTypeElement)) {
+						classTypeElement.superclassElement = superClassTypeElement;
+					}
 				}
 				
 				classTypeElement = superClassTypeElement;
@@ -248,6 +335,146 @@ public class TypeHierarchyEngine {
 		return false;
 	}
 	
+	/**
+	 * Returns those of the given candidate types that extend the given super type (if <code>isInterface</code> is false)
+	 * or that implement it (if <code>isInterface</code> is true). In closure mode this is done in a single pass
+	 * using the precomputed supertypes of each candidate.
+	 */
+	public Set<String> findSubtypesAmong(Set<String> candidates, String superType, boolean isInterface, IProject project) {
+		Set<String> result = new LinkedHashSet<String>();
+		if (!closureMode) {
+			for (String candidate : candidates) {
+				if (isInterface ? doesImplement(candidate, superType, project) : doesExtend(candidate, superType, project)) {
+					result.add(candidate);
+				}
+			}
+			return result;
+		}
+
+		try {
+			TypeHierarchyElementCache elementCache = getTypeHierarchyElementCache(project);
+			TypeHierarchyClosure closure = getTypeHierarchyClosure(project);
+			String superTypeName = superType.replace('.', '/');
+
+			int superTypeId = -1;
+			for (String candidate : candidates) {
+				TypeClosure typeClosure = getClosure(candidate.replace('.', '/'), project, elementCache, closure);
+
+				// all supertypes of the candidate are interned now
+				if (superTypeId < 0) {
+					superTypeId = closure.getId(superTypeName);
+				}
+				if (superTypeId >= 0 && (isInterface ? typeClosure.interfaces : typeClosure.superclasses).get(superTypeId)) {
+					result.add(candidate);
+				}
+			}
+		}
+		finally {
+			cleanupAfterQuery(project);
+		}
+		return result;
+	}
+
+	protected boolean doesExtendUsingClosure(String type, String className, IProject project) {
+		try {
+			TypeHierarchyClosure closure = getTypeHierarchyClosure(project);
+			TypeClosure typeClosure = getClosure(type.replace('.', '/'), project, getTypeHierarchyElementCache(project), closure);
+			return typeClosure.superclasses.get(closure.getId(className.replace('.', '/')));
+		}
+		finally {
+			cleanupAfterQuery(project);
+		}
+	}
+
+	protected boolean doesImplementUsingClosure(String type, String interfaceName, IProject project) {
+		try {
+			TypeHierarchyClosure closure = getTypeHierarchyClosure(project);
+			TypeClosure typeClosure = getClosure(type.replace('.', '/'), project, getTypeHierarchyElementCache(project), closure);
+			return typeClosure.interfaces.get(closure.getId(interfaceName.replace('.', '/')));
+		}
+		finally {
+			cleanupAfterQuery(project);
+		}
+	}
+
+	private TypeClosure getClosure(String typeName, IProject project, TypeHierarchyElementCache elementCache, TypeHierarchyClosure closure) {
+		TypeClosure result = closure.get(typeName);
+		if (result == null) {
+			synchronized (closure) {
+				result = computeClosure(typeName, project, elementCache, closure, new ClosureComputation());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * State of a single (recursive) closure computation.
+	 */
+	private static class ClosureComputation {
+
+		private final Set<String> inProgress = new HashSet<String>();
+
+		/**
+		 * Number of cyclic references found so far. The closures of all types that were in progress
+		 * while a cycle was found are incomplete.
+		 */
+		private int cycles = 0;
+
+	}
+
+	private TypeClosure computeClosure(String typeName, IProject project, TypeHierarchyElementCache elementCache,
+			TypeHierarchyClosure closure, ClosureComputation computation) {
+		TypeClosure result = closure.get(typeName);
+		if (result != null) {
+			return result;
+		}
+		if (!computation.inProgress.add(typeName)) {
+			// cyclic hierarchy in broken bytecode, don't follow it
+			computation.cycles++;
+			return new TypeClosure(CompressedBitSet.EMPTY, CompressedBitSet.EMPTY);
+		}
+		int cyclesBefore = computation.cycles;
+
+		BitSet superclasses = new BitSet();
+		BitSet interfaces = new BitSet();
+		superclasses.set(closure.intern(typeName));
+
+		TypeHierarchyElement typeElement = getTypeElement(typeName.toCharArray(), project, elementCache);
+		if (typeElement != null) {
+			if (typeElement.superclassName != null) {
+				TypeClosure superclassClosure = computeClosure(new String(typeElement.superclassName), project, elementCache, closure, computation);
+				superclassClosure.superclasses.addTo(superclasses);
+				superclassClosure.interfaces.addTo(interfaces);
+			}
+			if (typeElement.interfaces != null) {
+				for (char[] interfaceName : typeElement.interfaces) {
+					String name = new String(interfaceName);
+					interfaces.set(closure.intern(name));
+					computeClosure(name, project, elementCache, closure, computation).interfaces.addTo(interfaces);
+				}
+			}
+		}
+
+		computation.inProgress.remove(typeName);
+		result = new TypeClosure(CompressedBitSet.valueOf(superclasses), CompressedBitSet.valueOf(interfaces));
+		if (computation.cycles == cyclesBefore) {
+			closure.put(typeName, result);
+		}
+		return result;
+	}
+
+	protected TypeHierarchyClosure getTypeHierarchyClosure(IProject project) {
+		TypeHierarchyClosure closure = this.closures.get(project);
+		if (closure == null) {
+			TypeHierarchyClosure newClosure = new TypeHierarchyClosure();
+			closure = this.closures.putIfAbsent(project, newClosure);
+			if (closure == null) {
+				closure = newClosure;
+			}
+		}
+		return closure;
+	}
+
 	private TypeHierarchyElement getTypeElement(char[] fullyQualifiedClassName, IProject project, TypeHierarchyElementCache elementCache) {
 		TypeHierarchyElement result = elementCache.get(fullyQualifiedClassName);
 		if (result == null) {
@@ -259,6 +486,18 @@ public class TypeHierarchyEngine {
 		return result;
 	}
 
+	/**
+	 * Elements that are shared between projects must only be linked to elements of the same jar,
+	 * the supertypes of a shared element could be resolved differently on the classpath of another project.
+	 */
+	private boolean canLink(TypeHierarchyElement from, TypeHierarchyElement to) {
+		if (from instanceof SharedTypeHierarchyElement) {
+			return to instanceof SharedTypeHierarchyElement
+					&& ((SharedTypeHierarchyElement) from).getLayer() == ((SharedTypeHierarchyElement) to).getLayer();
+		}
+		return true;
+	}
+
 	protected TypeHierarchyElementCache getTypeHierarchyElementCache(IProject project) {
 		TypeHierarchyElementCache elementCache = this.cache.get(project);
 		if (elementCache == null) {
@@ -271,8 +510,15 @@ public class TypeHierarchyEngine {
 	private TypeHierarchyClassReader getClassReader(IProject project) {
 		TypeHierarchyClassReader result = this.readers.get(project);
 		if (result == null) {
-			result = classReaderFactory.createClassReader(project);
-			this.readers.put(project, result);
+			TypeHierarchyClassReader newReader = classReaderFactory.createClassReader(project);
+			result = this.readers.putIfAbsent(project, newReader);
+			if (result == null) {
+				result = newReader;
+			}
+			else if (newReader instanceof DisposableTypeHierarchyClassReader) {
+				// another thread created a reader for the project at the same time
+				((DisposableTypeHierarchyClassReader) newReader).dispose();
+			}
 		}
 		return result;
 	}
@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Compact, memory-mapped index of the type hierarchy information (class name, superclass
+ * and interfaces) of all classes inside a single jar file.
+ * <p>
+ * The index file consists of a fixed header, the path of the indexed jar, an open-addressing
+ * hash table of record offsets and the records themselves. Lookups read directly from the
+ * mapped buffer, so answering a query never opens the jar file.
+ *
+ * @since 3.8.4
+ */
+public class TypeHierarchyIndex {
+
+	private static final int MAGIC = 0x53544849;
+	private static final int VERSION = 1;
+
+	// magic, version, jar size, jar last modified, slot count, entry count, slots offset
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+
+	private static final int NO_NAME = 0xFFFF;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * A class name prepared for lookups, so that it is encoded and hashed only once when it is
+	 * looked up in several indexes.
+	 */
+	public static class Key {
+
+		private final int hash;
+		private final byte[] name;
+
+		public Key(char[] fullyQualifiedClassName) {
+			this.hash = hash(fullyQualifiedClassName);
+			this.name = new String(fullyQualifiedClassName).getBytes(UTF8);
+		}
+
+	}
+
+	private final ByteBuffer buffer;
+	private final long jarSize;
+	private final long jarLastModified;
+	private final int slotCount;
+	private final int entryCount;
+	private final int slotsOffset;
+
+	private TypeHierarchyIndex(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("not a type hierarchy index or wrong version");
+		}
+		this.jarSize = buffer.getLong(8);
+		this.jarLastModified = buffer.getLong(16);
+		this.slotCount = buffer.getInt(24);
+		this.entryCount = buffer.getInt(28);
+		this.slotsOffset = buffer.getInt(32);
+	}
+
+	/**
+	 * Maps the given index file into memory.
+	 */
+	public static TypeHierarchyIndex load(File indexFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new TypeHierarchyIndex(buffer);
+		}
+		finally {
+			file.close();
+		}
+	}
+
+	public long getJarSize() {
+		return jarSize;
+	}
+
+	public long getJarLastModified() {
+		return jarLastModified;
+	}
+
+	public int size() {
+		return entryCount;
+	}
+
+	/**
+	 * Returns the path of the jar file this index has been created for.
+	 */
+	public String getJarFileName() {
+		int length = buffer.getShort(HEADER_SIZE) & 0xFFFF;
+		return decode(HEADER_SIZE + 2, length);
+	}
+
+	public boolean matches(long jarSize, long jarLastModified) {
+		return this.jarSize == jarSize && this.jarLastModified == jarLastModified;
+	}
+
+	/**
+	 * Returns the type hierarchy information for the given class (using '/' as package separator)
+	 * or <code>null</code> if the indexed jar file doesn't contain this class.
+	 */
+	public TypeHierarchyElement get(char[] fullyQualifiedClassName) {
+		return get(new Key(fullyQualifiedClassName));
+	}
+
+	public TypeHierarchyElement get(Key key) {
+		int offset = find(key);
+		if (offset < 0) {
+			return null;
+		}
+
+		int nameLength = buffer.getShort(offset) & 0xFFFF;
+		char[] className = decode(offset + 2, nameLength).toCharArray();
+		offset += 2 + nameLength;
+
+		char[] superclassName = null;
+		int superclassLength = buffer.getShort(offset) & 0xFFFF;
+		offset += 2;
+		if (superclassLength != NO_NAME) {
+			superclassName = decode(offset, superclassLength).toCharArray();
+			offset += superclassLength;
+		}
+
+		char[][] interfaceNames = null;
+		int interfacesCount = buffer.getShort(offset) & 0xFFFF;
+		offset += 2;
+		if (interfacesCount != 0) {
+			interfaceNames = new char[interfacesCount][];
+			for (int i = 0; i < interfacesCount; i++) {
+				int interfaceLength = buffer.getShort(offset) & 0xFFFF;
+				interfaceNames[i] = decode(offset + 2, interfaceLength).toCharArray();
+				offset += 2 + interfaceLength;
+			}
+		}
+
+		return new TypeHierarchyElement(className, superclassName, interfaceNames);
+	}
+
+	public boolean contains(char[] fullyQualifiedClassName) {
+		return find(new Key(fullyQualifiedClassName)) >= 0;
+	}
+
+	/**
+	 * @return the offset of the name of the record for the given class, or -1 if there is no such record
+	 */
+	private int find(Key key) {
+		if (slotCount == 0) {
+			return -1;
+		}
+
+		int hash = key.hash;
+		byte[] name = key.name;
+
+		int mask = slotCount - 1;
+		int slot = hash & mask;
+		while (true) {
+			int recordOffset = buffer.getInt(slotsOffset + slot * 4);
+			if (recordOffset == 0) {
+				return -1;
+			}
+			if (buffer.getInt(recordOffset) == hash && nameEquals(recordOffset + 4, name)) {
+				return recordOffset + 4;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private boolean nameEquals(int offset, byte[] name) {
+		int length = buffer.getShort(offset) & 0xFFFF;
+		if (length != name.length) {
+			return false;
+		}
+		offset += 2;
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(offset + i) != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String decode(int offset, int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(offset + i);
+		}
+		return new String(bytes, UTF8);
+	}
+
+	private static int hash(char[] characters) {
+		int h = 0;
+		for (int i = 0; i < characters.length; i++) {
+			h = 31*h + characters[i];
+		}
+		// spread the bits, since the table size is always a power of two
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Reads the type hierarchy information of all classes inside the given jar file and writes
+	 * the index to the given index file.
+	 */
+	public static void write(File jarFile, File indexFile) throws IOException {
+		long jarSize = jarFile.length();
+		long jarLastModified = jarFile.lastModified();
+
+		List<TypeHierarchyElement> elements = new ArrayList<TypeHierarchyElement>();
+		BytecodeTypeHierarchyClassReader reader = new BytecodeTypeHierarchyClassReader(null);
+
+		JarFile jar = new JarFile(jarFile);
+		try {
+			for (Enumeration<? extends ZipEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+				ZipEntry entry = entries.nextElement();
+				String entryName = entry.getName();
+				if (entry.isDirectory() || !entryName.endsWith(".class") || entryName.startsWith("META-INF/")
+						|| entryName.endsWith("module-info.class")) {
+					continue;
+				}
+
+				InputStream stream = jar.getInputStream(entry);
+				try {
+					TypeHierarchyElement element = reader.readTypeHierarchy(stream);
+					if (element != null) {
+						// use the entry name as key, this is what the class readers look up
+						char[] className = entryName.substring(0, entryName.length() - ".class".length()).toCharArray();
+						elements.add(new TypeHierarchyElement(className, element.superclassName, element.interfaces));
+					}
+				}
+				finally {
+					stream.close();
+				}
+			}
+		}
+		finally {
+			jar.close();
+		}
+
+		write(elements, jarFile.getAbsolutePath(), jarSize, jarLastModified, indexFile);
+	}
+
+	protected static void write(List<TypeHierarchyElement> elements, String jarFileName, long jarSize, long jarLastModified, File indexFile) throws IOException {
+		byte[] jarFileNameBytes = jarFileName.getBytes(UTF8);
+		if (jarFileNameBytes.length >= NO_NAME) {
+			throw new IOException("jar file name too long: " + jarFileName);
+		}
+
+		int slotCount = 0;
+		if (!elements.isEmpty()) {
+			// keep the load factor below 0.5 to keep probe sequences short
+			slotCount = Integer.highestOneBit(elements.size() * 2 - 1) << 1;
+		}
+		int slotsOffset = HEADER_SIZE + 2 + jarFileNameBytes.length;
+		int recordsOffset = slotsOffset + slotCount * 4;
+		int[] slots = new int[slotCount];
+
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream recordsOut = new DataOutputStream(records);
+
+		for (TypeHierarchyElement element : elements) {
+			int hash = hash(element.className);
+			int slot = hash & (slotCount - 1);
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & (slotCount - 1);
+			}
+			slots[slot] = recordsOffset + recordsOut.size();
+
+			recordsOut.writeInt(hash);
+			writeName(recordsOut, element.className);
+			if (element.superclassName != null) {
+				writeName(recordsOut, element.superclassName);
+			}
+			else {
+				recordsOut.writeShort(NO_NAME);
+			}
+			if (element.interfaces != null) {
+				recordsOut.writeShort(element.interfaces.length);
+				for (char[] interfaceName : element.interfaces) {
+					writeName(recordsOut, interfaceName);
+				}
+			}
+			else {
+				recordsOut.writeShort(0);
+			}
+		}
+		recordsOut.flush();
+
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(indexFile));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(jarSize);
+			out.writeLong(jarLastModified);
+			out.writeInt(slotCount);
+			out.writeInt(elements.size());
+			out.writeInt(slotsOffset);
+			out.writeShort(jarFileNameBytes.length);
+			out.write(jarFileNameBytes);
+			for (int slot : slots) {
+				out.writeInt(slot);
+			}
+			records.writeTo(out);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	private static void writeName(DataOutputStream out, char[] name) throws IOException {
+		byte[] bytes = new String(name).getBytes(UTF8);
+		if (bytes.length >= NO_NAME) {
+			throw new IOException("type name too long: " + new String(name));
+		}
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+}
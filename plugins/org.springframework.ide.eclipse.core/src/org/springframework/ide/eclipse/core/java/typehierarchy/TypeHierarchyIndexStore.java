@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Persistent store of {@link TypeHierarchyIndex} files, one for each jar file, kept inside a
+ * directory (usually the state location of the core plugin) across workspace sessions.
+ * <p>
+ * Index files are keyed by jar path, size and last modification time, the same key the
+ * package cache of {@link ClasspathElementJar} uses. Stale index files are replaced on access.
+ *
+ * @since 3.8.4
+ */
+public class TypeHierarchyIndexStore {
+
+	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.core.java.enableTypeHierarchyIndex";
+
+	private static final String INDEX_FILE_EXTENSION = ".idx";
+
+	private final File location;
+	private final Map<String, TypeHierarchyIndex> indexes;
+	private final ConcurrentHashMap<String, Object> locks;
+
+	public TypeHierarchyIndexStore(File location) {
+		this.location = location;
+		this.indexes = new ConcurrentHashMap<String, TypeHierarchyIndex>();
+		this.locks = new ConcurrentHashMap<String, Object>();
+	}
+
+	/**
+	 * Returns the up-to-date index for the given jar file, creating it if necessary.
+	 * @return the index or <code>null</code> if the jar file doesn't exist or can't be indexed
+	 */
+	public TypeHierarchyIndex getIndex(String jarFileName) {
+		File jarFile = new File(jarFileName);
+		long lastModified = jarFile.lastModified();
+		long fileSize = jarFile.length();
+		if (lastModified == 0) {
+			return null;
+		}
+
+		TypeHierarchyIndex index = indexes.get(jarFileName);
+		if (index != null && index.matches(fileSize, lastModified)) {
+			return index;
+		}
+
+		synchronized (getLock(jarFileName)) {
+			index = indexes.get(jarFileName);
+			if (index != null && index.matches(fileSize, lastModified)) {
+				return index;
+			}
+
+			index = loadOrCreateIndex(jarFile, jarFileName, fileSize, lastModified);
+			if (index != null) {
+				indexes.put(jarFileName, index);
+			}
+			else {
+				indexes.remove(jarFileName);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Forgets about all loaded indexes. The index files on disk are kept.
+	 */
+	public void clear() {
+		indexes.clear();
+	}
+
+	private TypeHierarchyIndex loadOrCreateIndex(File jarFile, String jarFileName, long fileSize, long lastModified) {
+		File indexFile = getIndexFile(jarFileName, fileSize, lastModified);
+
+		if (indexFile.exists()) {
+			try {
+				TypeHierarchyIndex index = TypeHierarchyIndex.load(indexFile);
+				if (index.matches(fileSize, lastModified) && jarFile.getAbsolutePath().equals(index.getJarFileName())) {
+					return index;
+				}
+			}
+			catch (IOException e) {
+				// corrupt or outdated index file, re-create it below
+			}
+		}
+
+		if (!location.exists() && !location.mkdirs()) {
+			return null;
+		}
+
+		File tempFile = new File(location, indexFile.getName() + ".tmp");
+		try {
+			TypeHierarchyIndex.write(jarFile, tempFile);
+			indexFile.delete();
+			if (!tempFile.renameTo(indexFile)) {
+				return null;
+			}
+			deleteStaleIndexFiles(jarFileName, indexFile);
+			return TypeHierarchyIndex.load(indexFile);
+		}
+		catch (IOException e) {
+			SpringCore.log("Error creating type hierarchy index for " + jarFileName, e);
+			return null;
+		}
+		finally {
+			tempFile.delete();
+		}
+	}
+
+	private File getIndexFile(String jarFileName, long fileSize, long lastModified) {
+		return new File(location, getIndexFilePrefix(jarFileName) + Long.toHexString(fileSize) + "-"
+				+ Long.toHexString(lastModified) + INDEX_FILE_EXTENSION);
+	}
+
+	private String getIndexFilePrefix(String jarFileName) {
+		String simpleName = new File(jarFileName).getName();
+		return simpleName + "-" + Integer.toHexString(jarFileName.hashCode()) + "-";
+	}
+
+	private void deleteStaleIndexFiles(String jarFileName, final File currentIndexFile) {
+		final String prefix = getIndexFilePrefix(jarFileName);
+		File[] staleFiles = location.listFiles(new FilenameFilter() {
+			public boolean accept(File dir, String name) {
+				return name.startsWith(prefix) && name.endsWith(INDEX_FILE_EXTENSION)
+						&& !name.equals(currentIndexFile.getName());
+			}
+		});
+		if (staleFiles != null) {
+			for (File staleFile : staleFiles) {
+				// might fail while still mapped, will be cleaned up next time
+				staleFile.delete();
+			}
+		}
+	}
+
+	private Object getLock(String jarFileName) {
+		Object lock = locks.get(jarFileName);
+		if (lock == null) {
+			lock = new Object();
+			Object existing = locks.putIfAbsent(jarFileName, lock);
+			if (existing != null) {
+				lock = existing;
+			}
+		}
+		return lock;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
 import org.springframework.ide.eclipse.core.SpringCore;
 
 /**
@@ -36,14 +37,30 @@ public class TypeHierarchyResourceChangeListener implements IResourceChangeListe
 	}
 	
 	protected static class CacheResetVisitor implements IResourceDeltaVisitor {
+
+		private static final String CLASSPATH_FILE_NAME = ".classpath";
+
 		public boolean visit(IResourceDelta delta) {
 			IResource res = delta.getResource();
 			if (res instanceof IProject) {
-				SpringCore.getTypeHierarchyEngine().clearCache((IProject) res);
+				IProject project = (IProject) res;
+				if (isClasspathChange(delta)) {
+					SpringCore.getTypeHierarchyEngine().clearCache(project);
+				}
+				else {
+					// keeps the information of (shared) jars unless they changed
+					SpringCore.getTypeHierarchyEngine().clearElementCache(project);
+				}
 				return false;
 			}
 			return true;
 		}
+
+		private boolean isClasspathChange(IResourceDelta delta) {
+			return delta.getKind() != IResourceDelta.CHANGED
+					|| (delta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0
+					|| delta.findMember(new Path(CLASSPATH_FILE_NAME)) != null;
+		}
 	}
 
 }
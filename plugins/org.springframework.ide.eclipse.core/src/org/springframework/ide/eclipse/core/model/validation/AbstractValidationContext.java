@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -46,6 +46,8 @@ public abstract class AbstractValidationContext implements IValidationContext, I
 
 	private IResourceModelElement rootElement;
 
+	private List<ValidationProblem> recordedProblems;
+
 	public AbstractValidationContext(IResourceModelElement rootElement, IResourceModelElement contextElement) {
 		this.rootElement = rootElement;
 		this.contextElement = contextElement;
@@ -179,11 +181,37 @@ public abstract class AbstractValidationContext implements IValidationContext, I
 					this.problems.add(problem);
 					getProgressReportingState().incrementInfoCount();
 				}
-				// IValidationProblemMarker.SEVERITY_UNKOWN falls through
+				else {
+					// IValidationProblemMarker.SEVERITY_UNKOWN falls through
+					continue;
+				}
+				if (recordedProblems != null) {
+					recordedProblems.add(problem);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Starts recording the problems that are added to this context, used to cache the outcome of a
+	 * single rule.
+	 * @since 3.8.4
+	 */
+	void startRecording() {
+		recordedProblems = new ArrayList<ValidationProblem>();
+	}
+
+	/**
+	 * Stops recording and returns the problems that have been added since
+	 * {@link #startRecording()}.
+	 * @since 3.8.4
+	 */
+	List<ValidationProblem> stopRecording() {
+		List<ValidationProblem> result = recordedProblems;
+		recordedProblems = null;
+		return result;
+	}
+
 	private ValidationProgressState getProgressReportingState() {
 		if (contributorState != null && contributorState.get(ValidationProgressState.class) != null) {
 			return contributorState.get(ValidationProgressState.class);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,18 +10,29 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.internal.model.validation.ParallelValidationSupport;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationMarkerBatch;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationResultCache;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinitionFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
 import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 import org.springframework.ide.eclipse.core.model.IResourceModelElement;
@@ -78,6 +89,12 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	 */
 	public final void validate(Set<IResource> affectedResources, int kind, IProgressMonitor monitor)
 			throws CoreException {
+		ValidationMarkerBatch markerBatch = ValidationMarkerBatch.getCurrent();
+		if (markerBatch != null || ParallelValidationSupport.isEnabled()) {
+			validateInParallel(affectedResources, kind, monitor, markerBatch);
+			return;
+		}
+
 		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size());
 		try {
 			for (IResource resource : affectedResources) {
@@ -101,7 +118,7 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 
 				Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
 				if (rootElement != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
-					Set<ValidationProblem> problems = validate(callback, ruleDefinitions, subMonitor);
+					Set<ValidationProblem> problems = validate(resource, kind, callback, ruleDefinitions, subMonitor);
 					ValidationUtils.createProblemMarkers(resource, problems, getMarkerId());
 				}
 
@@ -119,6 +136,85 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 		}
 	}
 
+	/**
+	 * Validates the given resources on the validation pool and applies the resulting markers in the
+	 * order of the resources afterwards, with the same outcome as the serial validation. The marker
+	 * updates are handed over to the given batch if the builder runs validators in parallel.
+	 * <p>
+	 * The existing markers are removed before the validation starts, as in the serial validation. If
+	 * the builder runs validators in parallel it removes them before it starts the validators, as
+	 * this method runs on a worker thread then and must not touch markers.
+	 * <p>
+	 * The resources of a validator are validated concurrently by the same validator and rule
+	 * instances, so these must not keep any state of a single validation. The state of a validation
+	 * belongs to its {@link IValidationElementLifecycleManager} and {@link IValidationContext}, which
+	 * are created for each resource. The automatic cleanup of the shared {@link TypeHierarchyEngine}
+	 * is suspended until all resources are validated, as it would close the class readers that other
+	 * workers still read from.
+	 */
+	private void validateInParallel(Set<IResource> affectedResources, int kind, IProgressMonitor monitor,
+			ValidationMarkerBatch markerBatch) throws CoreException {
+		if (markerBatch == null) {
+			for (IResource resource : affectedResources) {
+				cleanup(resource, monitor);
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			}
+		}
+
+		final List<ResourceValidation> validations = new ArrayList<ResourceValidation>(affectedResources.size());
+		for (IResource resource : affectedResources) {
+			validations.add(new ResourceValidation(resource, kind, ParallelValidationSupport.createWorkerMonitor(monitor)));
+		}
+		TypeHierarchyEngine typeHierarchyEngine = SpringCore.getTypeHierarchyEngine();
+		typeHierarchyEngine.suspendAutoCleanup();
+		try {
+			ParallelValidationSupport.invokeAll(validations);
+		}
+		finally {
+			typeHierarchyEngine.resumeAutoCleanup();
+		}
+
+		IWorkspaceRunnable markerUpdate = new IWorkspaceRunnable() {
+			public void run(IProgressMonitor monitor) throws CoreException {
+				updateMarkers(validations, monitor);
+			}
+		};
+
+		if (markerBatch != null) {
+			markerBatch.add(this, markerUpdate);
+		}
+		else {
+			ResourcesPlugin.getWorkspace().run(markerUpdate, null, IWorkspace.AVOID_UPDATE, monitor);
+		}
+	}
+
+	private void updateMarkers(List<ResourceValidation> validations, IProgressMonitor monitor) throws CoreException {
+		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, validations.size());
+		try {
+			for (ResourceValidation validation : validations) {
+				if (validation.failure != null) {
+					throw validation.failure;
+				}
+
+				// the serial validation stops at the first external resource as well
+				if (validation.external) {
+					monitor.worked(1);
+					break;
+				}
+
+				if (validation.problems != null) {
+					ValidationUtils.createProblemMarkers(validation.resource, validation.problems, getMarkerId());
+				}
+				subMonitor.worked(1);
+			}
+		}
+		finally {
+			subMonitor.done();
+		}
+	}
+
 	private IValidationElementLifecycleManager initValidationElementCallback(IResource resource, int kind) {
 		IValidationElementLifecycleManager callback = createValidationElementLifecycleManager();
 		if (callback instanceof IValidationElementLifecycleManagerExtension) {
@@ -128,8 +224,13 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 		return callback;
 	}
 
-	private Set<ValidationProblem> validate(IValidationElementLifecycleManager callback,
-			Set<ValidationRuleDefinition> ruleDefinitions, SubProgressMonitor subMonitor) {
+	private Set<ValidationProblem> validate(IResource resource, int kind, IValidationElementLifecycleManager callback,
+			Set<ValidationRuleDefinition> ruleDefinitions, IProgressMonitor subMonitor) {
+		ValidationResultCache.Session resultCache = null;
+		if (ValidationResultCache.isEnabled()) {
+			resultCache = ValidationResultCache.openSession(getValidatorId(), resource, kind);
+		}
+
 		Set<ValidationProblem> problems = new LinkedHashSet<ValidationProblem>();
 		for (IResourceModelElement contextElement : callback.getContextElements()) {
 			IValidationContext context = createContext(callback.getRootElement(), contextElement);
@@ -138,7 +239,7 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 			}
 
 			if (context != null) {
-				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions);
+				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions, resultCache);
 				callback.getRootElement().accept(visitor, subMonitor);
 				problems.addAll(context.getProblems());
 			}
@@ -146,6 +247,10 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 				throw new OperationCanceledException();
 			}
 		}
+
+		if (resultCache != null) {
+			resultCache.close();
+		}
 		return problems;
 	}
 
@@ -248,6 +353,56 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 		return true;
 	}
 
+	/**
+	 * Validation of a single resource on the validation pool. Markers are not touched here, the
+	 * outcome is kept until the markers are updated on the thread that started the validation.
+	 */
+	private final class ResourceValidation extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IResource resource;
+		private final int kind;
+		private final IProgressMonitor monitor;
+
+		private boolean external;
+		private Set<ValidationProblem> problems;
+		private RuntimeException failure;
+
+		public ResourceValidation(IResource resource, int kind, IProgressMonitor monitor) {
+			this.resource = resource;
+			this.kind = kind;
+			this.monitor = monitor;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+
+				IValidationElementLifecycleManager callback = initValidationElementCallback(resource, kind);
+				IResourceModelElement rootElement = callback.getRootElement();
+
+				if (rootElement != null && rootElement.isExternal()) {
+					external = true;
+					return;
+				}
+
+				Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
+				if (rootElement != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
+					problems = validate(resource, kind, callback, ruleDefinitions, monitor);
+				}
+
+				callback.destroy();
+			}
+			catch (RuntimeException e) {
+				failure = e;
+			}
+		}
+	}
+
 	/**
 	 * {@link IModelElementVisitor} implementation that validates a specified model tree.
 	 */
@@ -257,11 +412,19 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 
 		private Set<ValidationRuleDefinition> ruleDefinitions;
 
+		private ValidationResultCache.Session resultCache;
+
 		public ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions) {
 			this.ruleDefinitions = ruleDefinitions;
 			this.context = context;
 		}
 
+		private ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions,
+				ValidationResultCache.Session resultCache) {
+			this(context, ruleDefinitions);
+			this.resultCache = resultCache;
+		}
+
 		@SuppressWarnings("unchecked")
 		public boolean visit(IModelElement element, IProgressMonitor monitor) {
 			if (supports(element) && shouldValidate(element, context)) {
@@ -277,7 +440,13 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 						IValidationRule rule = ruleDefinition.getRule();
 						if (rule.supports(element, context)) {
 							context.setCurrentRuleDefinition(ruleDefinition);
-							rule.validate(element, context, monitor);
+							if (resultCache != null && rule instanceof ICacheableValidationRule
+									&& context instanceof AbstractValidationContext) {
+								validateCached(ruleDefinition, element, monitor);
+							}
+							else {
+								rule.validate(element, context, monitor);
+							}
 						}
 						subMonitor.worked(1);
 					}
@@ -289,5 +458,36 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 			}
 			return false;
 		}
+
+		/**
+		 * Replays the problems of the previous validation if the input of the rule didn't change,
+		 * otherwise validates the element and records the problems for the next validation.
+		 */
+		@SuppressWarnings("unchecked")
+		private void validateCached(ValidationRuleDefinition ruleDefinition, IModelElement element,
+				IProgressMonitor monitor) {
+			IValidationRule rule = ruleDefinition.getRule();
+			ValidationResultCache.RuleInput input = resultCache.createInput(ruleDefinition, element, context);
+			if (input == null) {
+				rule.validate(element, context, monitor);
+				return;
+			}
+
+			List<ValidationProblem> problems = resultCache.get(input);
+			if (problems != null) {
+				context.addProblems(problems.toArray(new ValidationProblem[problems.size()]));
+				return;
+			}
+
+			AbstractValidationContext recordingContext = (AbstractValidationContext) context;
+			recordingContext.startRecording();
+			try {
+				rule.validate(element, context, monitor);
+			}
+			finally {
+				problems = recordingContext.stopRecording();
+			}
+			resultCache.put(input, problems);
+		}
 	}
 }
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import java.util.Set;
+
+import org.springframework.ide.eclipse.core.model.IModelElement;
+
+/**
+ * Extension of {@link IValidationRule} for rules whose outcome only depends on the validated
+ * element itself and on a known set of Java types. The {@link ValidationProblem}s of such a rule
+ * are cached per element and replayed by incremental builds as long as neither the element nor
+ * one of the types has changed.
+ * <p>
+ * Rules that look at other elements of the model (like referenced or parent beans) must not
+ * implement this interface.
+ * @since 3.8.4
+ */
+public interface ICacheableValidationRule<E extends IModelElement, C extends IValidationContext> extends
+		IValidationRule<E, C> {
+
+	/**
+	 * Returns a value object that captures all state of the given element this rule looks at,
+	 * compared with {@link Object#equals(Object)} to the fingerprint of the previous build, or
+	 * <code>null</code> if the outcome for the given element can't be cached.
+	 */
+	Object getFingerprint(E element, C context);
+
+	/**
+	 * Returns the fully-qualified names of the types the outcome for the given element depends
+	 * on. Changes to the structure of these types (or their supertypes) invalidate the cached
+	 * outcome.
+	 * <p>
+	 * The structure is taken from the compiled class files. Rules that look up types in the Java
+	 * model have to add whatever the class files don't reflect, like source types that haven't been
+	 * compiled (yet), to the {@link #getFingerprint(IModelElement, IValidationContext) fingerprint}.
+	 */
+	Set<String> getTypeDependencies(E element, C context);
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,15 +10,18 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.editor.support;
 
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.MonoReconciler;
+import org.springframework.ide.eclipse.editor.support.reconcile.ReconcileStrategy;
 
 /**
  * We unforytunately must subclass this just to make it possible to call non
  * public method 'forceReconcile'.
  * <p>
  * We need this to be able to force a reconcile at certain times (e.g. when
- * some underlying data defining the schema has changed).
+ * some underlying data defining the schema has changed). A forced reconcile always
+ * checks the whole document, since what changed isn't the document.
  */
 public class ForceableReconciler extends MonoReconciler {
 
@@ -27,6 +30,10 @@ public class ForceableReconciler extends MonoReconciler {
 	}
 
 	public void forceReconcile() {
+		IReconcilingStrategy strategy = getReconcilingStrategy(IDocument.DEFAULT_CONTENT_TYPE);
+		if (strategy instanceof ReconcileStrategy) {
+			((ReconcileStrategy) strategy).requestFullReconcile();
+		}
 		super.forceReconciling();
 	}
 
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.editor.support.reconcile;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * A {@link IReconcileEngine} that is able to only check the part of a document affected by
+ * an edit, rather than the whole document.
+ * <p>
+ * Problems are either 'local' or not. Local problems only depend on the text of the
+ * region they are reported for. When reconciling a region, only the local problems found in that
+ * region are reported. Problems that aren't local must always be reported for the whole document.
+ */
+public interface IIncrementalReconcileEngine extends IReconcileEngine {
+
+	/**
+	 * Expands a changed region to the region that has to be checked again. The expanded region
+	 * must cover all local problems that might have been affected by the change.
+	 *
+	 * @return the region to reconcile, or null if the whole document has to be reconciled.
+	 */
+	IRegion getReconcileRegion(IDocument doc, IRegion changed);
+
+	/**
+	 * Like {@link IReconcileEngine#reconcile(IDocument, IProblemCollector, IProgressMonitor)} but only reports the
+	 * local problems found in a given region. Everything that touches the region (including its end points) is
+	 * checked.
+	 */
+	void reconcile(IDocument doc, IRegion region, IProblemCollector problemCollector, IProgressMonitor mon);
+
+	boolean isLocal(ProblemType type);
+
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.editor.support.reconcile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and work statistics of the reconciles done by a {@link ReconcileStrategy}.
+ */
+public class ReconcileStats {
+
+	private int count = 0;
+	private int incrementalCount = 0;
+	private int canceledCount = 0;
+	private long totalNanos = 0;
+	private long maxNanos = 0;
+	private long lastNanos = 0;
+	private int addedAnnotations = 0;
+	private int removedAnnotations = 0;
+
+	synchronized void record(long nanos, boolean incremental, boolean canceled, int added, int removed) {
+		count++;
+		if (incremental) {
+			incrementalCount++;
+		}
+		if (canceled) {
+			canceledCount++;
+		}
+		totalNanos += nanos;
+		maxNanos = Math.max(maxNanos, nanos);
+		lastNanos = nanos;
+		addedAnnotations += added;
+		removedAnnotations += removed;
+	}
+
+	/**
+	 * @return The number of reconciles, including the incremental and canceled ones.
+	 */
+	public synchronized int getCount() {
+		return count;
+	}
+
+	public synchronized int getIncrementalCount() {
+		return incrementalCount;
+	}
+
+	public synchronized int getCanceledCount() {
+		return canceledCount;
+	}
+
+	public synchronized long getLastMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(lastNanos);
+	}
+
+	public synchronized long getMaxMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+	}
+
+	public synchronized long getAverageMillis() {
+		return count==0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos/count);
+	}
+
+	public synchronized int getAddedAnnotations() {
+		return addedAnnotations;
+	}
+
+	public synchronized int getRemovedAnnotations() {
+		return removedAnnotations;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ReconcileStats(count="+count+", incremental="+incrementalCount+", canceled="+canceledCount
+				+", avg="+getAverageMillis()+"ms, max="+getMaxMillis()+"ms, last="+getLastMillis()+"ms"
+				+", added="+addedAnnotations+", removed="+removedAnnotations+")";
+	}
+
+}
@@ -11,10 +11,14 @@
 package org.springframework.ide.eclipse.editor.support.reconcile;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -31,9 +35,18 @@ import org.eclipse.jface.text.source.Annotation;
 import org.eclipse.jface.text.source.IAnnotationModel;
 import org.eclipse.jface.text.source.IAnnotationModelExtension;
 import org.eclipse.jface.text.source.ISourceViewer;
+import org.springframework.ide.eclipse.editor.support.util.DocumentChangeTracker;
 
 /**
  * Adapts our {@link IReconcileEngine} interface to an Eclipse {@link ReconcileStrategy}.
+ * <p>
+ * Debouncing and coalescing of edits is left to the Eclipse reconciler that calls this strategy. That
+ * reconciler also cancels the progress monitor when the document changes during a reconcile. The results
+ * of a canceled reconcile are discarded.
+ * <p>
+ * If the engine is an {@link IIncrementalReconcileEngine} only the region affected by the edits
+ * since the last reconcile is checked. Annotations are only added and removed for problems
+ * that actually changed, rather than replacing all annotations on every reconcile.
  *
  * @author Kris De Volder
  */
@@ -45,7 +58,18 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 
 	private IDocument fDocument;
 	private IProgressMonitor fProgressMonitor;
-	private IProblemCollector fProblemCollector;
+	private SeverityAwareProblemCollector fProblemCollector;
+
+	private DocumentChangeTracker fChangeTracker;
+
+	/**
+	 * Set when the last reconcile didn't complete, in which case the changes it was supposed to
+	 * handle are lost, or when a reconcile is forced, so the next reconcile has to check the whole
+	 * document.
+	 */
+	private final AtomicBoolean fFullReconcileNeeded = new AtomicBoolean(true);
+
+	private final ReconcileStats fStats = new ReconcileStats();
 
 	public ReconcileStrategy(ISourceViewer viewer, IReconcileEngine engine) {
 		this.fViewer = viewer;
@@ -77,15 +101,53 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 		reconcile(subRegion);
 	}
 
+	/**
+	 * Makes the next reconcile check the whole document, rather than only the part that changed
+	 * since the last reconcile. Used when a reconcile is forced because something other than the
+	 * document changed (e.g. the property metadata or the problem severities).
+	 */
+	public void requestFullReconcile() {
+		fFullReconcileNeeded.set(true);
+	}
+
 	/*
 	 * @see org.eclipse.jface.text.reconciler.IReconcilingStrategy#reconcile(org.eclipse.jface.text.IRegion)
 	 */
 	public void reconcile(IRegion region) {
 		if (getAnnotationModel() == null || fProblemCollector == null)
 			return;
-		//Note: This isn't an 'incremental' reconciler. It always checks the whole document. The dirty
-		// region is ignored.
-		fEngine.reconcile(fDocument, fProblemCollector, fProgressMonitor);
+		//Note: The region passed in is ignored. The change tracker knows more precisely what changed since
+		// the last reconcile. Initial reconciles have no changes and check the whole document.
+		IRegion changed = fChangeTracker.takeChangedRegion();
+		boolean fullReconcile = fFullReconcileNeeded.getAndSet(false);
+		IRegion scope = null;
+		if (changed!=null && !fullReconcile && fEngine instanceof IIncrementalReconcileEngine) {
+			//The text following an edit moves, which makes the offsets recorded in the problems of existing
+			// annotations outdated (quickfixes rely on them). So everything from the edit onwards is checked again.
+			IRegion suffix = new Region(changed.getOffset(), Math.max(0, fDocument.getLength() - changed.getOffset()));
+			scope = ((IIncrementalReconcileEngine)fEngine).getReconcileRegion(fDocument, suffix);
+		}
+		long start = System.nanoTime();
+		fProblemCollector.setScope(scope);
+		if (scope==null) {
+			fEngine.reconcile(fDocument, fProblemCollector, fProgressMonitor);
+		} else {
+			((IIncrementalReconcileEngine)fEngine).reconcile(fDocument, scope, fProblemCollector, fProgressMonitor);
+		}
+		boolean canceled = isCanceled();
+		if (canceled) {
+			fFullReconcileNeeded.set(true);
+		}
+		fStats.record(System.nanoTime() - start, scope!=null, canceled,
+				fProblemCollector.fAddedCount, fProblemCollector.fRemovedCount);
+	}
+
+	private boolean isCanceled() {
+		return fProgressMonitor!=null && fProgressMonitor.isCanceled();
+	}
+
+	public ReconcileStats getStats() {
+		return fStats;
 	}
 
 	/**
@@ -107,7 +169,12 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 
 	@Override
 	public void setDocument(IDocument document) {
+		if (fChangeTracker!=null) {
+			fChangeTracker.dispose();
+		}
 		fDocument= document;
+		fChangeTracker= new DocumentChangeTracker(document);
+		fFullReconcileNeeded.set(true);
 		fProblemCollector= createProblemCollector();
 	}
 
@@ -134,6 +201,13 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 		/** Annotations to add. */
 		private Map<Annotation, Position> fAddAnnotations;
 
+		/** Region being reconciled, or null if the whole document is reconciled. */
+		private IRegion fScope;
+
+		/** Number of annotations added and removed by the last reconcile */
+		private int fAddedCount;
+		private int fRemovedCount;
+
 		/** Lock object for modifying the annotations. */
 		private Object fLockObject;
 
@@ -159,22 +233,54 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 			}
 		}
 
+		public void setScope(IRegion scope) {
+			fScope= scope;
+			fAddedCount= fRemovedCount= 0;
+		}
+
 		public void beginCollecting() {
 			getSeverities().startReconciling();
 			fAddAnnotations= new HashMap<Annotation, Position>();
 		}
 
 		public void endCollecting() {
+			if (isCanceled()) {
+				//Results are incomplete and probably stale as well. Keep the old annotations for now.
+				fAddAnnotations= null;
+				return;
+			}
 			List<Annotation> toRemove= new ArrayList<Annotation>();
 			synchronized (fLockObject) {
+				//Existing annotations that are still valid are kept rather than replaced with an equal new one.
+				Map<List<Object>, Annotation> replaceable= new HashMap<List<Object>, Annotation>();
+				Set<List<Object>> kept= new HashSet<List<Object>>();
 				@SuppressWarnings("unchecked")
 				Iterator<Annotation> iter= fAnnotationModel.getAnnotationIterator();
 				while (iter.hasNext()) {
 					Annotation annotation= iter.next();
-					if (ReconcileProblemAnnotation.TYPES.contains(annotation.getType()))
-						toRemove.add(annotation);
+					if (ReconcileProblemAnnotation.TYPES.contains(annotation.getType())) {
+						Position position= fAnnotationModel.getPosition(annotation);
+						List<Object> key= key(annotation, position);
+						if (!isInScope(annotation, position)) {
+							kept.add(key);
+						} else if (!isUpToDate(annotation, position) || replaceable.containsKey(key)) {
+							toRemove.add(annotation);
+						} else {
+							replaceable.put(key, annotation);
+						}
+					}
+				}
+				for (iter= fAddAnnotations.keySet().iterator(); iter.hasNext();) {
+					Annotation annotation= iter.next();
+					List<Object> key= key(annotation, fAddAnnotations.get(annotation));
+					if (replaceable.remove(key)!=null || kept.contains(key)) {
+						iter.remove();
+					}
 				}
+				toRemove.addAll(replaceable.values());
 				Annotation[] annotationsToRemove= toRemove.toArray(new Annotation[toRemove.size()]);
+				fAddedCount= fAddAnnotations.size();
+				fRemovedCount= annotationsToRemove.length;
 
 				if (fAnnotationModel instanceof IAnnotationModelExtension)
 					((IAnnotationModelExtension)fAnnotationModel).replaceAnnotations(annotationsToRemove, fAddAnnotations);
@@ -190,6 +296,46 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 
 			fAddAnnotations= null;
 		}
+
+		/**
+		 * Determines whether an existing annotation is subject to being replaced by the
+		 * current reconcile.
+		 */
+		private boolean isInScope(Annotation annotation, Position position) {
+			if (fScope==null || position==null) {
+				return true;
+			}
+			if (annotation instanceof ReconcileProblemAnnotation) {
+				ProblemType type= ((ReconcileProblemAnnotation)annotation).getSpringPropertyProblem().getType();
+				if (!((IIncrementalReconcileEngine)fEngine).isLocal(type)) {
+					return true;
+				}
+				return position.getOffset() <= fScope.getOffset() + fScope.getLength()
+						&& fScope.getOffset() <= position.getOffset() + position.getLength();
+			}
+			//Not ours (e.g. a marker annotation of the same type). Leave it alone unless checking the whole document.
+			return false;
+		}
+
+		/**
+		 * An existing annotation can only be reused if the problem it was created for still
+		 * describes its current position.
+		 */
+		private boolean isUpToDate(Annotation annotation, Position position) {
+			if (position==null || position.isDeleted() || !(annotation instanceof ReconcileProblemAnnotation)) {
+				return false;
+			}
+			ReconcileProblem problem= ((ReconcileProblemAnnotation)annotation).getSpringPropertyProblem();
+			return problem.getOffset()==position.getOffset() && problem.getLength()==position.getLength();
+		}
+
+		private List<Object> key(Annotation annotation, Position position) {
+			ProblemType problemType= annotation instanceof ReconcileProblemAnnotation
+					? ((ReconcileProblemAnnotation)annotation).getSpringPropertyProblem().getType()
+					: null;
+			return Arrays.<Object>asList(annotation.getType(), annotation.getText(), problemType,
+					position==null ? null : position.getOffset(), position==null ? null : position.getLength());
+		}
 	}
 
 	protected SeverityProvider getSeverities() {
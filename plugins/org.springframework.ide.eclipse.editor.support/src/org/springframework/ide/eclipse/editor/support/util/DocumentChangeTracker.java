@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.editor.support.util;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+/**
+ * Keeps track of the region of a document that was changed since the last time
+ * it was fetched. All the text outside that region is guaranteed to be unchanged, so
+ * anything computed from it earlier can be reused.
+ * <p>
+ * Document events are only recorded, never processed, so the listener is cheap
+ * enough to run on the UI thread for every keystroke.
+ */
+public class DocumentChangeTracker implements IDocumentListener {
+
+	public static final int UNCHANGED = Integer.MAX_VALUE;
+
+	private final IDocument doc;
+
+	/**
+	 * Changed region, in the coordinates of the current document. The start is
+	 * {@link #UNCHANGED} when nothing changed.
+	 */
+	private int start = UNCHANGED;
+	private int end = UNCHANGED;
+
+	public DocumentChangeTracker(IDocument doc) {
+		this.doc = doc;
+		doc.addDocumentListener(this);
+	}
+
+	public IDocument getDocument() {
+		return doc;
+	}
+
+	/**
+	 * Stop tracking changes.
+	 */
+	public void dispose() {
+		doc.removeDocumentListener(this);
+	}
+
+	/**
+	 * Fetches the smallest changed offset and resets the changed region, so that changes
+	 * are only reported once.
+	 * <p>
+	 * Callers should take the offset *before* reading the text of the document. Changes that
+	 * happen while the text is being read are then reported again by the next call, which is
+	 * harmless.
+	 *
+	 * @return The smallest offset changed since the last call, or {@link #UNCHANGED}.
+	 */
+	public synchronized int takeChangedOffset() {
+		int changed = start;
+		start = end = UNCHANGED;
+		return changed;
+	}
+
+	/**
+	 * Like {@link #takeChangedOffset()} but fetches the whole region covering all the text
+	 * inserted or replaced since the last call. Deleted text is represented by an empty region
+	 * at the offset where it used to be.
+	 *
+	 * @return The changed region or null if nothing changed.
+	 */
+	public synchronized IRegion takeChangedRegion() {
+		if (start==UNCHANGED) {
+			return null;
+		}
+		IRegion changed = new Region(start, end-start);
+		start = end = UNCHANGED;
+		return changed;
+	}
+
+	@Override
+	public synchronized void documentChanged(DocumentEvent event) {
+		int offset = event.getOffset();
+		int replacedEnd = offset + event.getLength();
+		int insertedEnd = offset + (event.getText()==null ? 0 : event.getText().length());
+		if (start==UNCHANGED) {
+			start = offset;
+			end = insertedEnd;
+		} else {
+			//Move the previously changed region along with the text.
+			end = end<=offset ? end : end>=replacedEnd ? end + insertedEnd - replacedEnd : insertedEnd;
+			start = Math.min(start, offset);
+			end = Math.max(end, insertedEnd);
+		}
+	}
+
+	@Override
+	public void documentAboutToBeChanged(DocumentEvent event) {
+		//Don't care.
+	}
+
+}
@@ -10,78 +10,237 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.editor.support.yaml.ast;
 
-import java.io.StringReader;
+import java.io.CharArrayReader;
+import java.util.ArrayList;
+import java.util.List;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
-import org.eclipse.jface.text.IDocumentListener;
+import org.springframework.ide.eclipse.editor.support.util.DocumentChangeTracker;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.Node;
 
 /**
  * Responsible for providing a AST for a document containing yml formatted text.
+ * <p>
+ * When incremental parsing is enabled (see {@link #INCREMENTAL_PROPERTY}) the AST
+ * of a document is cached per yaml document (i.e. per section started by a '---' line).
+ * After an edit only the yaml document containing the edit and the ones following it
+ * are parsed again. The nodes of the yaml documents before the edit are reused as is.
  *
  * @author Kris De Volder
  */
 public class YamlASTProvider {
 
-	private YamlFileAST cached = null;
+	public static final String INCREMENTAL_PROPERTY = "org.springframework.ide.eclipse.editor.support.yaml.incrementalParsing";
 
-	/**
-	 * Tracks the source from which cached AST got parsed.
-	 */
-	private IDocument cachedFor = null;
+	public static boolean isIncremental() {
+		return System.getProperty(INCREMENTAL_PROPERTY, "true").equals("true");
+	}
 
 	/**
-	 * For cache invalidation
+	 * A section of the source text that starts either at the beginning of the file
+	 * or with a '---' document start line.
 	 */
-	private IDocumentListener listener = new IDocumentListener() {
+	private static class Segment {
+		final int start;
+		/**
+		 * End of the '---' line that starts this segment (excluding the line delimiter).
+		 * Text edited after this position doesn't affect where the segment starts.
+		 */
+		final int headerEnd;
+		List<Node> nodes = new ArrayList<>(1);
 
-		public void documentChanged(final DocumentEvent event) {
-			Job job = new Job("Clear YamlASTProvider Cache") {
-				protected IStatus run(IProgressMonitor monitor) {
-					changed(event.getDocument());
-					return Status.OK_STATUS;
-				}
-			};
-			job.setPriority(Job.INTERACTIVE);
-			job.setSystem(true);
-			job.schedule();
+		Segment(int start, int headerEnd) {
+			this.start = start;
+			this.headerEnd = headerEnd;
 		}
-		public void documentAboutToBeChanged(DocumentEvent event) {
-			//Don't care.
+
+		boolean isExplicit() {
+			return headerEnd>start;
 		}
-	};
+	}
+
+	private YamlFileAST cached = null;
+	private List<Segment> segments = null;
+
+	/**
+	 * Tracks the source from which cached AST got parsed, and the changes made
+	 * to it since.
+	 */
+	private DocumentChangeTracker cachedFor = null;
+
+	/**
+	 * Changed offset that couldn't be handled because parsing failed. As the cached
+	 * segments before that offset are still valid, they can still be reused later on.
+	 */
+	private int pendingChange = DocumentChangeTracker.UNCHANGED;
 
 	private Yaml yaml;
 
+	private int parsedChars = 0;
+
 	public YamlASTProvider(Yaml yaml) {
 		this.yaml = yaml;
 	}
 
-	private synchronized void changed(IDocument doc) {
-		if (doc==cachedFor) {
-			doc.removeDocumentListener(listener);
-			cachedFor = null;
-			cached = null;
-		}
-	}
-
 	public synchronized YamlFileAST getAST(IDocument doc) {
-		if (doc==cachedFor) {
-			return cached;
+		if (cachedFor!=null && doc==cachedFor.getDocument()) {
+			int changed = Math.min(pendingChange, cachedFor.takeChangedOffset());
+			if (changed==DocumentChangeTracker.UNCHANGED && cached!=null) {
+				return cached;
+			}
+			if (segments!=null) {
+				return reparse(doc.get(), changed);
+			}
 		} else {
 			if (cachedFor!=null) {
-				cachedFor.removeDocumentListener(listener);
+				cachedFor.dispose();
+			}
+			cachedFor = new DocumentChangeTracker(doc);
+		}
+		return parse(doc.get());
+	}
+
+	/**
+	 * @return The total number of characters (re)parsed so far, for testing purposes.
+	 */
+	public synchronized int getParsedChars() {
+		return parsedChars;
+	}
+
+	private YamlFileAST parse(String text) {
+		cached = null;
+		segments = null;
+		pendingChange = DocumentChangeTracker.UNCHANGED;
+		List<Segment> newSegments = isIncremental() ? findSegments(text, 0) : null;
+		List<Node> nodes = composeAll(text.toCharArray(), 0);
+		if (newSegments!=null && assign(newSegments, nodes)) {
+			segments = newSegments;
+		}
+		return cached = new YamlFileAST(nodes);
+	}
+
+	private YamlFileAST reparse(String text, int changed) {
+		int keep = segments.size()-1;
+		while (keep>0 && segments.get(keep).headerEnd>=changed) {
+			keep--;
+		}
+		if (keep==0) {
+			return parse(text);
+		}
+		List<Segment> newSegments = findSegments(text, segments.get(keep).start);
+		if (newSegments==null) {
+			return parse(text);
+		}
+		cached = null;
+
+		//Only the text after the last reused segment is parsed. The text before it is replaced with blanks,
+		//preserving line breaks, so the marks of the parsed nodes are still relative to the start of the file.
+		int from = newSegments.get(0).start;
+		char[] chars = text.toCharArray();
+		for (int i = 0; i < from; i++) {
+			if (!isLineBreak(chars[i])) {
+				chars[i] = ' ';
+			}
+		}
+		List<Node> newNodes;
+		try {
+			newNodes = composeAll(chars, from);
+		} catch (RuntimeException e) {
+			pendingChange = changed;
+			throw e;
+		}
+		pendingChange = DocumentChangeTracker.UNCHANGED;
+		List<Segment> reused = new ArrayList<>(segments.subList(0, keep));
+		segments = null;
+
+		List<Node> nodes = new ArrayList<>();
+		for (Segment s : reused) {
+			nodes.addAll(s.nodes);
+		}
+		nodes.addAll(newNodes);
+		if (assign(newSegments, newNodes)) {
+			reused.addAll(newSegments);
+			segments = reused;
+		}
+		return cached = new YamlFileAST(nodes);
+	}
+
+	private List<Node> composeAll(char[] chars, int from) {
+		parsedChars += chars.length - from;
+		List<Node> nodes = new ArrayList<>();
+		for (Node node : yaml.composeAll(new CharArrayReader(chars))) {
+			nodes.add(node);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Distributes the parsed nodes over the segments they were parsed from. Every
+	 * explicit document has exactly one node, an implicit document at the start of
+	 * the file has one or none.
+	 *
+	 * @return false if the nodes don't match up with the segments, in which case the
+	 * segments can't be used for incremental parsing.
+	 */
+	private static boolean assign(List<Segment> segments, List<Node> nodes) {
+		int extra = nodes.size() - segments.size();
+		if (extra==-1 && !segments.get(0).isExplicit()) {
+			segments.get(0).nodes = new ArrayList<>(0);
+			return assign(segments.subList(1, segments.size()), nodes);
+		}
+		if (extra!=0) {
+			return false;
+		}
+		for (int i = 0; i < nodes.size(); i++) {
+			segments.get(i).nodes.add(nodes.get(i));
+		}
+		return true;
+	}
+
+	/**
+	 * Splits the text, starting from a given segment start, into segments.
+	 *
+	 * @return The segments, or null if the text contains directives. A directive affects
+	 * the document that follows it, so documents can't be parsed independently.
+	 */
+	private static List<Segment> findSegments(String text, int from) {
+		List<Segment> found = new ArrayList<>();
+		int len = text.length();
+		int lineStart = from;
+		while (lineStart<len) {
+			int lineEnd = lineStart;
+			while (lineEnd<len && !isLineBreak(text.charAt(lineEnd))) {
+				lineEnd++;
+			}
+			if (text.charAt(lineStart)=='%') {
+				return null;
+			} else if (isDocumentStart(text, lineStart, lineEnd)) {
+				found.add(new Segment(lineStart, lineEnd));
+			} else if (found.isEmpty()) {
+				found.add(new Segment(lineStart, lineStart));
 			}
-			doc.addDocumentListener(listener);
-			cached = new YamlFileAST(yaml.composeAll(new StringReader(doc.get())));
-			cachedFor = doc;
+			lineStart = lineEnd;
+			while (lineStart<len && isLineBreak(text.charAt(lineStart))) {
+				lineStart++;
+			}
+		}
+		if (found.isEmpty()) {
+			found.add(new Segment(from, from));
 		}
-		return cached;
+		return found;
+	}
+
+	private static boolean isDocumentStart(String text, int lineStart, int lineEnd) {
+		return text.startsWith("---", lineStart)
+				&& (lineStart+3==lineEnd || text.charAt(lineStart+3)==' ' || text.charAt(lineStart+3)=='\t');
+	}
+
+	/**
+	 * Line breaks as recognized by SnakeYaml.
+	 */
+	private static boolean isLineBreak(char c) {
+		return c=='\n' || c=='\r' || c=='\u0085' || c=='\u2028' || c=='\u2029';
 	}
 
 }
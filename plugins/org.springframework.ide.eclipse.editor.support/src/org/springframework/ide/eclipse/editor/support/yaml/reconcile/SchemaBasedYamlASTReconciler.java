@@ -50,6 +50,9 @@ public class SchemaBasedYamlASTReconciler implements YamlASTReconciler {
 			mon.beginTask("Reconcile", nodes.size());
 			try {
 				for (Node node : nodes) {
+					if (mon.isCanceled()) {
+						return;
+					}
 					reconcile(node, schema.getTopLevelType());
 					mon.worked(1);
 				}
@@ -38,6 +38,9 @@ public abstract class YamlReconcileEngine implements IReconcileEngine {
 		problemCollector.beginCollecting();
 		try {
 			YamlFileAST ast = parser.getAST(doc);
+			if (mon.isCanceled()) {
+				return;
+			}
 			YamlASTReconciler reconciler = getASTReconciler(doc, problemCollector);
 			if (reconciler!=null) {
 				reconciler.reconcile(ast, mon);
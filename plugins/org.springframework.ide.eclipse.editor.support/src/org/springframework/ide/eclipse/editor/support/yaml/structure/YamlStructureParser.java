@@ -177,6 +177,13 @@ public class YamlStructureParser {
 			this.doc = doc;
 		}
 
+		/**
+		 * Continue reading at a given line.
+		 */
+		public void skipTo(int line) {
+			nextLine = line;
+		}
+
 		public YamlLine read() throws Exception {
 			if (nextLine < doc.getDocument().getNumberOfLines()) {
 				return YamlLine.atLineNumber(doc, nextLine++);
@@ -553,7 +560,75 @@ public class YamlStructureParser {
 	public SRootNode parse() throws Exception {
 		SRootNode root = new SRootNode(input.getDocument());
 		SDocNode doc = new SDocNode(root,0,0);
-		SChildBearingNode parent = doc;
+		return parse(root, doc);
+	}
+
+	/**
+	 * Parse the document again after it has been changed, reusing the document
+	 * nodes of a previous parse tree that lie entirely before the changed offset.
+	 * Only the lines from the first affected document node onwards are parsed.
+	 * <p>
+	 * Reused nodes are copied into the new tree, rather than parsed again. The
+	 * previous tree is left unchanged, so it is safe to parse incrementally from a
+	 * tree that is still in use elsewhere.
+	 *
+	 * @param previous Tree obtained by parsing an earlier version of the document.
+	 * @param changedOffset Smallest offset of the document that changed since then.
+	 */
+	public SRootNode parse(SRootNode previous, int changedOffset) throws Exception {
+		List<SNode> docs = previous.getChildren();
+		//The first document node is implicit and has no separator line, so it is
+		// always parsed again when anything at all changed.
+		int keep = docs.size()-1;
+		while (keep>0 && (docs.get(keep).getNodeEnd()>=changedOffset || !isSeparatorLine(docs.get(keep)))) {
+			keep--;
+		}
+		if (keep==0) {
+			return parse();
+		}
+		SRootNode root = new SRootNode(input.getDocument());
+		for (int i = 0; i < keep; i++) {
+			copy(docs.get(i), root);
+		}
+		input.skipTo(input.getDocument().getLineOfOffset(docs.get(keep).getStart()));
+		return parse(root, (SDocNode) root.getLastChild());
+	}
+
+	/**
+	 * Creates a copy of a node and all of its children, under a new parent.
+	 */
+	private void copy(SNode node, SChildBearingNode parent) throws Exception {
+		SNode copy;
+		switch (node.getNodeType()) {
+		case DOC:
+			copy = new SDocNode((SRootNode) parent, node.getStart(), node.getNodeEnd());
+			break;
+		case KEY:
+			copy = new SKeyNode(parent, parent.doc, node.getIndent(), node.getStart(), node.getNodeEnd());
+			break;
+		case SEQ:
+			copy = new SSeqNode(parent, parent.doc, node.getIndent(), node.getStart(), node.getNodeEnd());
+			break;
+		case RAW:
+			new SRawNode(parent, parent.doc, node.getIndent(), node.getStart(), node.getNodeEnd());
+			return;
+		default:
+			throw new IllegalArgumentException("Can not copy "+node.getNodeType());
+		}
+		for (SNode child : ((SChildBearingNode) node).getChildren()) {
+			copy(child, (SChildBearingNode) copy);
+		}
+	}
+
+	/**
+	 * A document node can also be created by a separator following a '- ' on the same
+	 * line. Parsing can only restart at document nodes that occupy a whole line.
+	 */
+	private boolean isSeparatorLine(SNode docNode) throws Exception {
+		return DOCUMENT_SEPERATOR.matcher(docNode.getText().trim()).matches();
+	}
+
+	private SRootNode parse(SRootNode root, SChildBearingNode parent) throws Exception {
 		YamlLine line;
 		while (null!=(line=input.read())) {
 			int indent = line.getIndent();
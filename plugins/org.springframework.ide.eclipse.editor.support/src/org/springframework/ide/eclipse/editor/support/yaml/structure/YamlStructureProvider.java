@@ -10,7 +10,14 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.editor.support.yaml.structure;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.IDocument;
+import org.springframework.ide.eclipse.editor.support.util.DocumentChangeTracker;
 import org.springframework.ide.eclipse.editor.support.yaml.YamlDocument;
+import org.springframework.ide.eclipse.editor.support.yaml.ast.YamlASTProvider;
 import org.springframework.ide.eclipse.editor.support.yaml.path.KeyAliases;
 import org.springframework.ide.eclipse.editor.support.yaml.structure.YamlStructureParser.SRootNode;
 
@@ -31,17 +38,74 @@ public abstract class YamlStructureProvider {
 		//
 		// For now, however it was the easiest way to make the parser reusable without
 		// breaking Application.yml support.
-		return new YamlStructureProvider() {
-			public SRootNode getStructure(YamlDocument doc) throws Exception {
-				return new YamlStructureParser(doc, keyAliases).parse();
-			}
-		};
+		return new IncrementalStructureProvider(keyAliases);
 	}
 
-	public static final YamlStructureProvider DEFAULT = new YamlStructureProvider() {
+	public static final YamlStructureProvider DEFAULT = new IncrementalStructureProvider(KeyAliases.NONE);
+
+	/**
+	 * Keeps the structure of each document it has parsed, and after a document is changed,
+	 * only parses the yaml documents affected by the change (see
+	 * {@link YamlStructureParser#parse(SRootNode, int)}).
+	 * <p>
+	 * The state kept for a document is only reachable from the document itself (i.e. as its
+	 * listener), so it is garbage collected together with the document. Documents are parsed
+	 * independently of one another, so different editors don't wait for each other.
+	 * <p>
+	 * Incremental parsing can be disabled by setting the system property
+	 * {@link YamlASTProvider#INCREMENTAL_PROPERTY} to <code>false</code>.
+	 */
+	private static class IncrementalStructureProvider extends YamlStructureProvider {
+
+		private static class DocumentState extends DocumentChangeTracker {
+			/**
+			 * Not the tracker itself, as that would block the document listener while parsing.
+			 */
+			final Object lock = new Object();
+			SRootNode cached = null;
+
+			DocumentState(IDocument doc) {
+				super(doc);
+			}
+		}
+
+		private final KeyAliases keyAliases;
+
+		private final Map<IDocument, WeakReference<DocumentState>> states = new WeakHashMap<>();
+
+		IncrementalStructureProvider(KeyAliases keyAliases) {
+			this.keyAliases = keyAliases;
+		}
+
+		@Override
 		public SRootNode getStructure(YamlDocument doc) throws Exception {
-			return new YamlStructureParser(doc, KeyAliases.NONE).parse();
+			YamlStructureParser parser = new YamlStructureParser(doc, keyAliases);
+			if (!YamlASTProvider.isIncremental()) {
+				return parser.parse();
+			}
+			DocumentState state = getState(doc.getDocument());
+			synchronized (state.lock) {
+				int changed = state.takeChangedOffset();
+				if (changed!=DocumentChangeTracker.UNCHANGED || state.cached==null) {
+					SRootNode previous = state.cached;
+					state.cached = null;
+					state.cached = previous==null ? parser.parse() : parser.parse(previous, changed);
+				}
+				return state.cached;
+			}
 		}
-	};
+
+		private DocumentState getState(IDocument doc) {
+			synchronized (states) {
+				WeakReference<DocumentState> ref = states.get(doc);
+				DocumentState state = ref==null ? null : ref.get();
+				if (state==null) {
+					state = new DocumentState(doc);
+					states.put(doc, new WeakReference<>(state));
+				}
+				return state;
+			}
+		}
+	}
 
 }